@@ -0,0 +1,92 @@
+package hex.deeplearning;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Linear part of the forward propagation of one 784x1024 layer for the same {@link #SAMPLES} samples, computed
+ * one sample at a time by the gemv kernel of mini-batch size 1 and as mini-batches by the gemm kernels
+ * ({@link Neurons#gemm_sparse} below 25% non-zeros, {@link Neurons#gemm_blocked} otherwise). Both do exactly the
+ * same multiply-adds, unlike {@link NeuronsLayerBench} where the mini-batch size also changes the number of
+ * weight updates.
+ */
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NeuronsGemmBench {
+
+  static final int SAMPLES = 64;
+  static final int INPUTS = 784;
+
+  @Param({"16", "64"})
+  private int miniBatchSize;
+  @Param({"0.2", "1.0"})
+  private double density;
+  @Param({"1024"})
+  private int units;
+
+  private float[] _w;
+  private double[] _b;
+  private double[][] _x;
+  private double[][] _res;
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(NeuronsGemmBench.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Random rnd = new Random(42);
+    _w = new float[units * INPUTS];
+    for (int i = 0; i < _w.length; i++) _w[i] = (float) (0.01 * rnd.nextGaussian());
+    _b = new double[units];
+    for (int i = 0; i < _b.length; i++) _b[i] = 0.01 * rnd.nextGaussian();
+    _x = new double[SAMPLES][INPUTS];
+    for (double[] x : _x)
+      for (int i = 0; i < INPUTS; i++)
+        if (rnd.nextDouble() < density) x[i] = rnd.nextDouble();
+    _res = new double[SAMPLES][units];
+  }
+
+  @Benchmark
+  public double gemv() {
+    for (int s = 0; s < SAMPLES; s++)
+      Neurons.gemv_row_optimized(_res[s], _w, _x[s], _b, null);
+    return _res[SAMPLES - 1][0];
+  }
+
+  @Benchmark
+  public double gemm() {
+    for (int s = 0; s < SAMPLES; s += miniBatchSize) {
+      int n = Math.min(miniBatchSize, SAMPLES - s);
+      double[][] res = new double[n][];
+      double[][] x = new double[n][];
+      int nnz = 0;
+      for (int mb = 0; mb < n; mb++) {
+        res[mb] = _res[s + mb];
+        x[mb] = _x[s + mb];
+        for (double v : x[mb]) if (v != 0) nnz++;
+      }
+      // the same choice as Neurons.gemm() for the input layer
+      if (nnz < (long) n * INPUTS / 4)
+        Neurons.gemm_sparse(res, _w, x, _b, null, nnz);
+      else
+        Neurons.gemm_blocked(res, _w, x, _b, null);
+    }
+    return _res[SAMPLES - 1][0];
+  }
+}
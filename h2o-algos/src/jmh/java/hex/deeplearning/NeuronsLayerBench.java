@@ -0,0 +1,132 @@
+package hex.deeplearning;
+
+import hex.DataInfo;
+import hex.deeplearning.DeepLearningModel.DeepLearningParameters;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import water.DKV;
+import water.Key;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static water.TestUtil.stall_till_cloudsize;
+
+/**
+ * Forward and back propagation of a single (first) hidden layer with MNIST-like input: 784 inputs with ~20% non-zeros.
+ * Every invocation processes {@link #SAMPLES} samples, either one at a time (mini-batch size 1, gemv) or as
+ * mini-batches (gemm). Note that {@link #fpropBprop()} updates the weights once per mini-batch, so its work shrinks
+ * with the mini-batch size; {@link NeuronsGemmBench} compares the kernels on the same work.
+ */
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NeuronsLayerBench {
+
+  static final int SAMPLES = 64;
+  static final int INPUTS = 784;
+
+  @Param({"1", "16", "64"})
+  private int miniBatchSize;
+  @Param({"0.2", "1.0"})
+  private double density;
+  @Param({"1024"})
+  private int units;
+
+  private Frame _frame;
+  private DataInfo _dinfo;
+  private Neurons[] _neurons;
+  private double[][] _inputs;
+  private double[][] _errors;
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(NeuronsLayerBench.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    water.util.Log.setLogLevel("ERRR");
+    stall_till_cloudsize(1);
+    Vec[] vecs = Vec.makeZero(10).makeZeros(INPUTS + 1);
+    String[] names = new String[vecs.length];
+    for (int c = 0; c < names.length; c++) names[c] = c == INPUTS ? "response" : "pixel" + c;
+    _frame = new Frame(Key.<Frame>make("neurons_layer_bench"), names, vecs);
+    DKV.put(_frame);
+
+    DeepLearningParameters parms = new DeepLearningParameters();
+    parms._train = _frame._key;
+    parms._response_column = "response";
+    parms._hidden = new int[]{units};
+    parms._activation = DeepLearningParameters.Activation.Rectifier;
+    parms._standardize = false;
+    parms._mini_batch_size = miniBatchSize;
+    parms._seed = 1234;
+    _dinfo = DeepLearning.makeDataInfo(_frame, null, parms, 1);
+    DeepLearningModelInfo minfo = new DeepLearningModelInfo(parms, Key.make(), _dinfo, 1, _frame, null);
+    minfo.initializeMembers(null, null);
+    _neurons = DeepLearningTask.makeNeuronsForTraining(minfo);
+
+    Random rnd = new Random(42);
+    _inputs = new double[SAMPLES][INPUTS];
+    _errors = new double[SAMPLES][units];
+    for (int s = 0; s < SAMPLES; s++) {
+      for (int i = 0; i < INPUTS; i++)
+        if (rnd.nextDouble() < density) _inputs[s][i] = rnd.nextDouble();
+      for (int u = 0; u < units; u++)
+        _errors[s][u] = 1e-3 * rnd.nextGaussian();
+    }
+  }
+
+  @Benchmark
+  public double fprop() {
+    final Neurons layer = _neurons[1];
+    double sum = 0;
+    for (int s = 0; s < SAMPLES; s += miniBatchSize) {
+      int n = setInputs(s);
+      layer.fprop(s, true, n);
+      sum += layer._a[0].get(0);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public double fpropBprop() {
+    final Neurons layer = _neurons[1];
+    double sum = 0;
+    for (int s = 0; s < SAMPLES; s += miniBatchSize) {
+      int n = setInputs(s);
+      layer.fprop(s, true, n);
+      for (int mb = 0; mb < n; mb++)
+        System.arraycopy(_errors[s + mb], 0, layer._e[mb].raw(), 0, units);
+      layer.bprop(n);
+      sum += layer._a[0].get(0);
+    }
+    return sum;
+  }
+
+  private int setInputs(int s) {
+    int n = Math.min(miniBatchSize, SAMPLES - s);
+    for (int mb = 0; mb < n; mb++)
+      System.arraycopy(_inputs[s + mb], 0, _neurons[0]._a[mb].raw(), 0, INPUTS);
+    return n;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    _dinfo.remove();
+    _frame.delete();
+  }
+}
@@ -0,0 +1,74 @@
+package hex.glm;
+
+import hex.DataInfo;
+import hex.glm.GLMModel.GLMParameters;
+import hex.glm.GLMModel.GLMParameters.Family;
+import hex.glm.GLMModel.GLMWeightsFun;
+import hex.glm.GLMTask.GLMIterationTask;
+import hex.gram.Gram;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import water.fvec.Frame;
+
+import java.util.concurrent.TimeUnit;
+
+import static water.TestUtil.stall_till_cloudsize;
+
+/**
+ * Accumulation of the IRLSM gram ({@link GLMIterationTask}) over wide dense frames, row by row vs in blocks of
+ * rows ({@link Gram.RowBlock}).
+ */
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Timeout(time = 15, timeUnit = TimeUnit.MINUTES)
+public class GLMGramAccumulationBench {
+
+  @Param({"500", "2000"})
+  private int numCols;
+  @Param({"0", "64", "256"})
+  private int blockSize;
+
+  private Frame _frame;
+  private DataInfo _dinfo;
+  private GLMWeightsFun _glmf;
+  private double[] _beta;
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(GLMGramAccumulationBench.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    water.util.Log.setLogLevel("ERRR");
+    stall_till_cloudsize(1);
+    _frame = WideSyntheticFrame.make(20000, 2, 20, numCols, 1.0, 42);
+    _dinfo = new DataInfo(_frame, null, 1, true, DataInfo.TransformType.STANDARDIZE, DataInfo.TransformType.NONE,
+        true, false, false, false, false, false);
+    _glmf = new GLMWeightsFun(new GLMParameters(Family.binomial));
+    _beta = new double[_dinfo.fullN() + 1];
+  }
+
+  @Benchmark
+  public Gram accumulateGram() {
+    return new GLMIterationTask(null, _dinfo, _glmf, _beta).setGramBlockSize(blockSize).setSparse(false)
+        .doAll(_dinfo._adaptedFrame)._gram;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    _dinfo.remove();
+    _frame.delete();
+  }
+}
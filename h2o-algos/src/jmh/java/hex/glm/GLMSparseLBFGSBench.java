@@ -0,0 +1,108 @@
+package hex.glm;
+
+import hex.glm.GLMModel.GLMParameters;
+import hex.glm.GLMModel.GLMParameters.Family;
+import hex.glm.GLMModel.GLMParameters.Solver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import water.Key;
+import water.fvec.Frame;
+import water.fvec.NFSFileVec;
+import water.parser.ParseDataset;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static water.TestUtil.stall_till_cloudsize;
+
+/**
+ * L_BFGS training of a binomial GLM on sparse (bag-of-words like) data parsed from SVMLight. The gradient tasks
+ * only walk the non-zeros of the sparse chunks ({@link SparseChunkIndex}).
+ */
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Timeout(time = 15, timeUnit = TimeUnit.MINUTES)
+public class GLMSparseLBFGSBench {
+
+  @Param({"5000", "20000"})
+  private int numCols;
+  @Param({"0.001", "0.01"})
+  private double density;
+
+  private File _file;
+  private Frame _frame;
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(GLMSparseLBFGSBench.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    water.util.Log.setLogLevel("ERRR");
+    stall_till_cloudsize(1);
+    _file = writeSVMLight(50000, numCols, density, 42);
+    NFSFileVec nfs = NFSFileVec.make(_file);
+    _frame = ParseDataset.parse(Key.<Frame>make("sparse_lbfgs_bench"), nfs._key);
+  }
+
+  /** Random sparse rows with a response depending on the first 10 features. */
+  private static File writeSVMLight(int rows, int cols, double density, long seed) throws IOException {
+    File f = File.createTempFile("glm_sparse_bench", ".svm");
+    f.deleteOnExit();
+    Random rnd = new Random(seed);
+    try (BufferedWriter w = new BufferedWriter(new FileWriter(f))) {
+      StringBuilder sb = new StringBuilder();
+      for (int r = 0; r < rows; ++r) {
+        sb.setLength(0);
+        double eta = 0;
+        for (int c = 1; c <= cols; ++c) {
+          if (rnd.nextDouble() >= density) continue;
+          int v = 1 + rnd.nextInt(3);
+          if (c <= 10) eta += (c % 2 == 0 ? 1 : -1) * v;
+          sb.append(' ').append(c).append(':').append(v);
+        }
+        w.write(rnd.nextDouble() < 1 / (1 + Math.exp(-eta)) ? "1" : "0");
+        w.write(sb.toString());
+        w.write('\n');
+      }
+    }
+    return f;
+  }
+
+  @Benchmark
+  public GLMModel trainLBFGS() {
+    GLMParameters parms = new GLMParameters(Family.binomial);
+    parms._train = _frame._key;
+    parms._response_column = _frame.name(0);
+    parms._solver = Solver.L_BFGS;
+    parms._lambda = new double[]{1e-5};
+    parms._alpha = new double[]{0};
+    parms._standardize = false;
+    parms._max_iterations = 50;
+    GLMModel model = new GLM(parms).trainModel().get();
+    model.delete();
+    return model;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    _frame.delete();
+    _file.delete();
+  }
+}
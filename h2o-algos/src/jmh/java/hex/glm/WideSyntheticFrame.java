@@ -0,0 +1,57 @@
+package hex.glm;
+
+import water.DKV;
+import water.Key;
+import water.MRTask;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+import java.util.Random;
+
+/**
+ * Synthetic wide frames for the GLM benchmarks: categorical columns first, then numeric columns and a numeric
+ * response (a count, so that it fits gaussian, poisson and binomial-like families alike).
+ */
+final class WideSyntheticFrame {
+
+  private WideSyntheticFrame() {}
+
+  /**
+   * @param rows number of rows
+   * @param cats number of categorical columns, each with {@code levels} levels
+   * @param nums number of numeric columns
+   * @param density fraction of non-zero numeric values
+   */
+  static Frame make(long rows, int cats, final int levels, int nums, final double density, final long seed) {
+    String[][] domains = new String[cats + nums + 1][];
+    byte[] types = new byte[domains.length];
+    String[] names = new String[domains.length];
+    String[] dom = new String[levels];
+    for (int l = 0; l < levels; l++) dom[l] = "L" + l;
+    for (int c = 0; c < domains.length; c++) {
+      boolean cat = c < cats;
+      domains[c] = cat ? dom : null;
+      types[c] = cat ? Vec.T_CAT : Vec.T_NUM;
+      names[c] = c == domains.length - 1 ? "response" : (cat ? "C" : "X") + c;
+    }
+    Vec[] vecs = Vec.makeZero(rows).makeZeros(domains.length, domains, types);
+    final int ncats = cats;
+    new MRTask() {
+      @Override public void map(Chunk[] cs) {
+        Random rnd = new Random(seed + cs[0].start());
+        int last = cs.length - 1;
+        for (int r = 0; r < cs[0]._len; r++) {
+          for (int c = 0; c < ncats; c++)
+            cs[c].set(r, rnd.nextInt(levels));
+          for (int c = ncats; c < last; c++)
+            if (rnd.nextDouble() < density) cs[c].set(r, rnd.nextGaussian());
+          cs[last].set(r, rnd.nextInt(2));
+        }
+      }
+    }.doAll(vecs);
+    Frame fr = new Frame(Key.<Frame>make("wide_synthetic_" + nums + "x" + rows), names, vecs);
+    DKV.put(fr);
+    return fr;
+  }
+}
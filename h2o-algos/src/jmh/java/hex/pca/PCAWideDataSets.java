@@ -3,12 +3,15 @@ package hex.pca;
 import hex.DataInfo;
 import water.DKV;
 import water.Key;
+import water.MRTask;
+import water.fvec.Chunk;
 import water.fvec.Frame;
+import water.fvec.Vec;
+import water.util.ArrayUtils;
 
 import java.util.Random;
 
 import static hex.pca.JMHConfiguration.logLevel;
-import static hex.pca.PCAModel.PCAParameters.Method.GramSVD;
 import static water.TestUtil.parse_test_file;
 
 /**
@@ -16,20 +19,27 @@ import static water.TestUtil.parse_test_file;
  * <p>
  * This benchmark will measure the PCA method GramSVD with wide datasets.  It will first build a model
  * using GramSVD under normal setting (_wideDataset is set to false).  Next, it builds a GramSVD model with
- * _wideDataSet set to true.
+ * _wideDataSet set to true.  The PCA method can be chosen (GramSVD by default) to compare GramSVD with RandomizedTSQR,
+ * case 7 is a synthetic wide low rank frame that does not need smalldata.
  */
 public class PCAWideDataSets {
-	private static final int numberOfModels = 6;
+	private static final int numberOfModels = 7;
 	private Frame trainingFrame = null;
 	private PCA pca = null;
 	private int dataSetCase;
 	private PCAModel pcaModel;
 	private Frame pcaScore;
 	private PCAImplementation PCAImplementation;
+	private PCAModel.PCAParameters.Method pcaMethod;
 
 	PCAWideDataSets(int dataSetCase, PCAImplementation pcaImplementation) {
+		this(dataSetCase, pcaImplementation, PCAModel.PCAParameters.Method.GramSVD);
+	}
+
+	PCAWideDataSets(int dataSetCase, PCAImplementation pcaImplementation, PCAModel.PCAParameters.Method pcaMethod) {
 		setDataSetCase(dataSetCase);
 		setPCAImplementation(pcaImplementation);
+		this.pcaMethod = pcaMethod;
 		setup();
 	}
 	
@@ -50,13 +60,14 @@ public class PCAWideDataSets {
 		Random _rand = new Random();
 
 		/*
-		 *  Six cases are measured:
+		 *  Seven cases are measured:
 		 * case 1. we test with a small dataset with all numerical data columns and make sure it works.
 		 * case 2. we add NA rows to the	small dataset with all numerical data columns.
 		 * case 3. test with the same small dataset while preserving the categorical columns;
 		 * case 4. test with the same small dataset with categorical columns and add NA rows;
 		 * case 5. test with prostate dataset;
-		 * case 6. test with prostate dataset with NA rows added.
+		 * case 6. test with prostate dataset with NA rows added;
+		 * case 7. test with a synthetic wide (1000 x 2000) frame of rank 10 plus noise.
 		 */
 		switch (dataSetCase) {
 			case 1:
@@ -83,6 +94,10 @@ public class PCAWideDataSets {
 				pca = preparePCAModel(_prostateDataSet, true, false,
 					_transformTypes[_rand.nextInt(_transformTypes.length)]);  // case 6
 				break;
+			case 7:
+				trainingFrame = lowRankFrame(1000, 2000, 10);
+				pca = preparePCAModel(DataInfo.TransformType.DEMEAN);  // case 7
+				break;
 		}
 	}
 	
@@ -100,13 +115,16 @@ public class PCAWideDataSets {
 			trainingFrame.vec(5).setNA(20);
 		}
 		DKV.put(trainingFrame);
-		
+		return preparePCAModel(transformType);
+	}
+
+	private PCA preparePCAModel(DataInfo.TransformType transformType) {
 		PCAModel.PCAParameters parameters = new PCAModel.PCAParameters();
 		parameters._train = trainingFrame._key;
 		parameters._k = 3;
 		parameters._transform = transformType;
 		parameters._use_all_factor_levels = true;
-		parameters._pca_method = GramSVD;
+		parameters._pca_method = pcaMethod;
 		parameters._pca_implementation = getPCAImplementation();
 		parameters._impute_missing = false;
 		parameters._seed = 12345;
@@ -116,6 +134,30 @@ public class PCAWideDataSets {
 		return pcaParametersWide;
 	}
 	
+	// rows x cols frame A = UV' + noise with rank columns of U and V
+	private static Frame lowRankFrame(final int rows, final int cols, final int rank) {
+		final double[][] vt = ArrayUtils.gaussianArray(rank, cols, 12345);
+		Vec template = Vec.makeZero(rows);
+		Frame frame = new Frame(Key.<Frame>make("wide_low_rank.hex"), null, template.makeZeros(cols));
+		template.remove();
+		new MRTask() {
+			@Override public void map(Chunk[] cs) {
+				double[] u = new double[rank];
+				for (int r = 0; r < cs[0]._len; r++) {
+					Random rnd = new Random(cs[0].start() + r);
+					for (int k = 0; k < rank; k++) u[k] = (rank - k) * rnd.nextGaussian();
+					for (int j = 0; j < cs.length; j++) {
+						double x = 0.01 * rnd.nextGaussian();
+						for (int k = 0; k < rank; k++) x += u[k] * vt[k][j];
+						cs[j].set(r, x);
+					}
+				}
+			}
+		}.doAll(frame);
+		DKV.put(frame);
+		return frame;
+	}
+
 	public void tearDown() throws Exception {
 		if (trainingFrame != null) {
 			trainingFrame.delete();
@@ -25,10 +25,12 @@ import static water.TestUtil.stall_till_cloudsize;
 public class PCAWideDataSetsScoringBench {
 	
 	private PCAWideDataSets pcaWideDataSetsBench;
-	@Param({"1", "2", "3", "4", "5", "6"})
+	@Param({"1", "2", "3", "4", "5", "6", "7"})
 	private int dataSetCase;
 	@Param({"JAMA", "MTJ_EVD_DENSEMATRIX", "MTJ_EVD_SYMMMATRIX", "MTJ_SVD_DENSEMATRIX"})
 	private PCAImplementation PCAImplementation;
+	@Param({"GramSVD", "RandomizedTSQR"})
+	private PCAModel.PCAParameters.Method pcaMethod;
 
 	public static void main(String[] args) throws RunnerException {
 		Options opt = new OptionsBuilder()
@@ -43,7 +45,7 @@ public class PCAWideDataSetsScoringBench {
 		water.util.Log.setLogLevel(logLevel);
 		stall_till_cloudsize(1);
 		
-		pcaWideDataSetsBench = new PCAWideDataSets(dataSetCase, PCAImplementation);
+		pcaWideDataSetsBench = new PCAWideDataSets(dataSetCase, PCAImplementation, pcaMethod);
 		// train model to prepare for score()
 		pcaWideDataSetsBench.train();
 	}
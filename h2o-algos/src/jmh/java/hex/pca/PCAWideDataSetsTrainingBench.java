@@ -25,10 +25,12 @@ import static water.TestUtil.stall_till_cloudsize;
 public class PCAWideDataSetsTrainingBench {
   
   private PCAWideDataSets pcaWideDataSetsBench;
-  @Param({"1", "2", "3", "4", "5", "6"})
+  @Param({"1", "2", "3", "4", "5", "6", "7"})
   private int dataSetCase;
   @Param({"JAMA", "MTJ_SVD_DENSEMATRIX", "MTJ_EVD_DENSEMATRIX", "MTJ_EVD_SYMMMATRIX"})
   private PCAImplementation PCAImplementation;
+  @Param({"GramSVD", "RandomizedTSQR"})
+  private PCAModel.PCAParameters.Method pcaMethod;
 
   public static void main(String[] args) throws RunnerException {
     Options opt = new OptionsBuilder()
@@ -43,7 +45,7 @@ public class PCAWideDataSetsTrainingBench {
     water.util.Log.setLogLevel(logLevel);
     stall_till_cloudsize(1);
     
-    pcaWideDataSetsBench = new PCAWideDataSets(dataSetCase, PCAImplementation);
+    pcaWideDataSetsBench = new PCAWideDataSets(dataSetCase, PCAImplementation, pcaMethod);
   }
 
   @Benchmark
@@ -326,6 +326,31 @@ public class DataInfo extends Keyed<DataInfo> {
     _intercept = intercept;
   }
 
+  /**
+   * DataInfo of the given frames, shared through the preprocessing cache of a search (made by the maker on a miss).
+   * A reused DataInfo was made on the frames of another model: the frames are reordered in-place like the constructor
+   * does and its adapted frame is made of their vecs. Not for interactions, their vecs are made for every DataInfo.
+   * @param cache the cache of the model parameters, null makes the DataInfo
+   * @param signature everything the DataInfo depends on, e.g. {@link PreprocessingCache#frameSignature} of the frames
+   * @param train the training frame the maker passes to the constructor
+   * @param valid the validation frame the maker passes to the constructor, or null
+   * @param maker makes the DataInfo of these frames
+   * @return a DataInfo private to the caller
+   */
+  public static DataInfo cached(PreprocessingCache cache, String signature, Frame train, Frame valid,
+                                PreprocessingCache.Maker<DataInfo> maker) {
+    if (cache == null) return maker.make();
+    DataInfo dinfo = cache.get(signature, maker);
+    assert dinfo._interactionSpec == null;
+    // no-op when made by the maker
+    String[] names = dinfo._adaptedFrame.names();
+    train.restructure(names.clone(), train.vecs(names));
+    if (valid != null)
+      valid.restructure(names.clone(), valid.vecs(names));
+    dinfo._adaptedFrame = new Frame(names.clone(), train.vecs().clone());
+    return dinfo;
+  }
+
   public DataInfo validDinfo(Frame valid) {
     DataInfo res = new DataInfo(_adaptedFrame,null,1,_useAllFactorLevels,TransformType.NONE,TransformType.NONE,_skipMissing,_imputeMissing,!(_skipMissing || _imputeMissing),_weights,_offset,_fold);
     res._interactions = _interactions;
@@ -1165,6 +1190,8 @@ public class DataInfo extends Keyed<DataInfo> {
     }
     // generic numbers + interactions
     int interactionOffset=0;
+    double[] vals = null;
+    int[] ids = null;
     for (int cid = 0; cid < _nums; ++cid) {
       Chunk c = chunks[_cats + cid];
       int oldRow = -1;
@@ -1188,6 +1215,27 @@ public class DataInfo extends Keyed<DataInfo> {
           }
         }
         interactionOffset+=nextNumericIdx(cid);
+      } else if (c.isSparseZero()) {
+        // decode the non-zeros in one pass instead of looking up each of them
+        if (vals == null) {
+          vals = MemoryManager.malloc8d(c._len);
+          ids = MemoryManager.malloc4(c._len);
+        }
+        int n = c.getSparseDoubles(vals, ids, Double.NaN);
+        for (int i = 0; i < n; ++i) {
+          double d = vals[i];
+          if (d == 0) continue;
+          Row row = rows[ids[i]];
+          if (Double.isNaN(d) && _skipMissing)
+            row.predictors_bad = true;
+          if (row.predictors_bad) continue;
+          if (Double.isNaN(d))
+            d = _numMeans[cid];
+          if (_normMul != null)
+            d *= _normMul[interactionOffset];
+          row.addNum(numStart()+interactionOffset,d);
+        }
+        interactionOffset++;
       } else {
         for (int r = c.nextNZ(-1, _imputeMissing); r < c._len; r = c.nextNZ(r, _imputeMissing)) {
           if (c.atd(r) == 0) continue;
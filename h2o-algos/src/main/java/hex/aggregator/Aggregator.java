@@ -11,8 +11,13 @@ import water.util.ArrayUtils;
 import water.util.IcedInt;
 import water.util.Log;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 
 public class Aggregator extends ModelBuilder<AggregatorModel,AggregatorModel.AggregatorParameters,AggregatorModel.AggregatorOutput> {
 
@@ -66,7 +71,7 @@ public class Aggregator extends ModelBuilder<AggregatorModel,AggregatorModel.Agg
       return Arrays.copyOf(es,idx+1);
     }
 
-    private double squaredEuclideanDistance(double[] e2, double thresh) {
+    double squaredEuclideanDistance(double[] e2, double thresh) {
       double sum = 0;
       int n = 0;
       boolean missing = false;
@@ -84,6 +89,7 @@ public class Aggregator extends ModelBuilder<AggregatorModel,AggregatorModel.Agg
         }
         if (!missing && sum > thresh) break; //early cutout
       }
+      if (n == 0) return 0; // no numericals present in both (eg. rows with all numericals missing) - can't tell them apart
       sum *= ncols / n;
       return sum;
     }
@@ -112,13 +118,61 @@ public class Aggregator extends ModelBuilder<AggregatorModel,AggregatorModel.Agg
     if (_parms._rel_tol_num_exemplars <= 0 || _parms._rel_tol_num_exemplars>=1) {
       error("_rel_tol_num_exemplars", "rel_tol_num_exemplars must be inside 0...1.");
     }
+    if (_parms._exemplar_budget < 0 || (_parms._exemplar_budget > 0 && _parms._exemplar_budget < _parms._target_num_exemplars)) {
+      error("_exemplar_budget", "exemplar_budget must be 0 (automatic) or at least target_num_exemplars.");
+    }
     super.init(expensive);
+    if (expensive && _parms._streaming && train() != null) {
+      // exemplars with different categoricals are never merged, so there are at least as many as levels of a column
+      final int budget = _parms._exemplar_budget > 0 ? _parms._exemplar_budget : 4 * (int)((1. + _parms._rel_tol_num_exemplars) * _parms._target_num_exemplars);
+      for (Vec v : train().vecs()) {
+        if (v.isCategorical() && v.cardinality() > budget) {
+          warn("_exemplar_budget", "Categorical columns have up to " + v.cardinality() + " levels, more than the exemplar budget of " + budget
+              + ". The streaming aggregation merges the smallest exemplars into exemplars with different levels to stay within the budget.");
+          break;
+        }
+      }
+    }
     if (error_count() > 0)
       throw H2OModelBuilderIllegalArgumentException.makeFromBuilder(Aggregator.this);
   }
 
   class AggregatorDriver extends Driver {
 
+    /**
+     * Single pass leader clustering with a bounded number of exemplars (see {@link StreamingAggregateTask}), followed
+     * by a local reduction to the target number of exemplars and a single pass assigning every row to its nearest
+     * exemplar.
+     * @param vecs training vecs and the (last) assignment vec
+     * @return exemplars with their counts
+     */
+    private Exemplar[] aggregateStreaming(DataInfo di, Vec[] vecs, double radiusBase, int upperLimit) {
+      final int budget = _parms._exemplar_budget > 0 ? _parms._exemplar_budget : 4 * upperLimit;
+      _job.update(0, "Aggregating.");
+      Log.info("Streaming aggregation with an exemplar budget of " + budget + ":");
+      StreamingAggregateTask st = new StreamingAggregateTask(di._key, radiusBase, _job._key, budget)
+          .doAll(Arrays.copyOf(vecs, vecs.length - 1));
+      ExemplarGrid grid = ExemplarGrid.rebuild(new ArrayList<>(Arrays.asList(st._exemplars)), st._radius);
+      Log.info(" " + grid.size() + " exemplars with radius " + String.format("%5f", grid._radius) + ".");
+      // no passes over the data here - merge the exemplars themselves, in smaller steps than the per-node budget
+      grid = StreamingAggregateTask.shrink(grid, upperLimit, 1.1);
+      if (grid.size() > upperLimit) {
+        Log.warn("Streaming aggregation: " + grid.size() + " exemplars left, more than " + upperLimit
+            + " (too many categorical combinations), merging the smallest exemplars into the nearest ones.");
+        grid = ExemplarGrid.evictLightest(grid.exemplars(), grid._radius, upperLimit);
+      }
+      Exemplar[] exemplars = grid.exemplars().toArray(new Exemplar[0]);
+      _job.update(1, "Aggregation finished. Got " + exemplars.length + " examplars");
+
+      String msg = "Creating exemplar assignments.";
+      Log.info(msg);
+      _job.update(1, msg);
+      long[] counts = new AssignTask(di._key, exemplars, grid._radius).doAll(vecs)._counts;
+      for (int i = 0; i < exemplars.length; ++i)
+        exemplars[i]._cnt = counts[i];
+      return exemplars;
+    }
+
     // Main worker thread
     @Override
     public void computeImpl() {
@@ -139,89 +193,97 @@ public class Aggregator extends ModelBuilder<AggregatorModel,AggregatorModel.Agg
         di = new DataInfo(orig, null, true, _parms._transform, false, false, false);
         DKV.put(di);
         Vec assignment;
-        AggregateTask aggTask;
+        Exemplar[] exemplars;
         final double radiusBase = .1 / Math.pow(Math.log(orig.numRows()), 1.0 / orig.numCols()); // Lee's magic formula
         final int targetNumExemplars = (int)Math.min((long)_parms._target_num_exemplars, orig.numRows());
 
-        // Increase radius until we have low enough number of exemplars
-        _job.update(0, "Aggregating.");
-        int numExemplars;
-        double lo = 0;
-        double hi = 256;
-        double mid = 8; //starting point of radius_scale
-        int noNewExamplarsIterCount = 0;
-        int previousNumExemplars = 0;
-
         double tol = _parms._rel_tol_num_exemplars;
         int upperLimit = (int)((1.+tol)*targetNumExemplars);
         int lowerLimit = (int)((1.-tol)*targetNumExemplars);
 
-        Key terminateKey = Key.make();
-        while(true) {
-          Log.info("radius_scale lo/mid/hi: " + lo + "/" + mid + "/" + hi);
-          double radius = mid * radiusBase;
-          if (targetNumExemplars==orig.numRows()) radius = 0;
-
-          // Add workspace vector for exemplar assignment
+        if (_parms._streaming && targetNumExemplars < orig.numRows()) {
           Vec[] vecs = Arrays.copyOf(orig.vecs(), orig.vecs().length + 1);
           assignment = vecs[vecs.length - 1] = orig.anyVec().makeZero();
-          Log.info("Aggregating with radius " + String.format("%5f", radius) + ":");
-          aggTask = new AggregateTask(di._key, radius, _job._key, upperLimit, radius == 0 ? null : terminateKey).doAll(vecs);
-
-          if (radius == 0) {
-            Log.info(" Returning original dataset.");
-            numExemplars = aggTask._exemplars.length;
-            assert(numExemplars == orig.numRows());
-            break;
-          }
-
-          // stuck in range [0,256] with too many exemplars? - just do it
-          if (aggTask.isTerminated() && Math.abs(hi-lo) < 1e-3 * Math.abs(lo+hi)) {
-            aggTask = new AggregateTask(di._key, radius, _job._key, (int)orig.numRows(), terminateKey).doAll(vecs);
-            Log.info(" Running again without early cutout.");
-            numExemplars = aggTask._exemplars.length;
-            break;
-          }
+          exemplars = aggregateStreaming(di, vecs, radiusBase, upperLimit);
+        } else {
+          AggregateTask aggTask;
+          // Increase radius until we have low enough number of exemplars
+          _job.update(0, "Aggregating.");
+          int numExemplars;
+          double lo = 0;
+          double hi = 256;
+          double mid = 8; //starting point of radius_scale
+          int noNewExamplarsIterCount = 0;
+          int previousNumExemplars = 0;
+
+          Key terminateKey = Key.make();
+          while(true) {
+            Log.info("radius_scale lo/mid/hi: " + lo + "/" + mid + "/" + hi);
+            double radius = mid * radiusBase;
+            if (targetNumExemplars==orig.numRows()) radius = 0;
+
+            // Add workspace vector for exemplar assignment
+            Vec[] vecs = Arrays.copyOf(orig.vecs(), orig.vecs().length + 1);
+            assignment = vecs[vecs.length - 1] = orig.anyVec().makeZero();
+            Log.info("Aggregating with radius " + String.format("%5f", radius) + ":");
+            aggTask = new AggregateTask(di._key, radius, _job._key, upperLimit, radius == 0 ? null : terminateKey).doAll(vecs);
+
+            if (radius == 0) {
+              Log.info(" Returning original dataset.");
+              numExemplars = aggTask._exemplars.length;
+              assert(numExemplars == orig.numRows());
+              break;
+            }
 
-          if (aggTask.isTerminated() || aggTask._exemplars.length > upperLimit) {
-            Log.info(" Too many exemplars.");
-            lo = mid;
-          } else {
-            numExemplars = aggTask._exemplars.length;
-            Log.info(" " + numExemplars + " exemplars.");
-            if (numExemplars >= lowerLimit && numExemplars <= upperLimit) { // close enough
-              Log.info(" Within " + (100*tol) +"% of target number of exemplars. Done.");
+            // stuck in range [0,256] with too many exemplars? - just do it
+            if (aggTask.isTerminated() && Math.abs(hi-lo) < 1e-3 * Math.abs(lo+hi)) {
+              aggTask = new AggregateTask(di._key, radius, _job._key, (int)orig.numRows(), terminateKey).doAll(vecs);
+              Log.info(" Running again without early cutout.");
+              numExemplars = aggTask._exemplars.length;
               break;
+            }
+
+            if (aggTask.isTerminated() || aggTask._exemplars.length > upperLimit) {
+              Log.info(" Too many exemplars.");
+              lo = mid;
             } else {
-              Log.info(" Too few exemplars.");
-              hi = mid;
-              if(previousNumExemplars == numExemplars)  noNewExamplarsIterCount++;
-              if (noNewExamplarsIterCount > _parms._num_iteration_without_new_exemplar) {
-                Log.info("Exiting with " + numExemplars + " exemplars as last " + _parms._num_iteration_without_new_exemplar + " iterations did not accure any more exemplars");
+              numExemplars = aggTask._exemplars.length;
+              Log.info(" " + numExemplars + " exemplars.");
+              if (numExemplars >= lowerLimit && numExemplars <= upperLimit) { // close enough
+                Log.info(" Within " + (100*tol) +"% of target number of exemplars. Done.");
                 break;
+              } else {
+                Log.info(" Too few exemplars.");
+                hi = mid;
+                if(previousNumExemplars == numExemplars)  noNewExamplarsIterCount++;
+                if (noNewExamplarsIterCount > _parms._num_iteration_without_new_exemplar) {
+                  Log.info("Exiting with " + numExemplars + " exemplars as last " + _parms._num_iteration_without_new_exemplar + " iterations did not accure any more exemplars");
+                  break;
+                }
+                previousNumExemplars = numExemplars;
               }
-              previousNumExemplars = numExemplars;
             }
+            mid = lo + (hi-lo)/2.;
           }
-          mid = lo + (hi-lo)/2.;
+          _job.update(1, "Aggregation finished. Got " + numExemplars + " examplars");
+          assert (!aggTask.isTerminated());
+          DKV.remove(terminateKey);
+
+          String msg = "Creating exemplar assignments.";
+          Log.info(msg);
+          _job.update(1, msg);
+          new RenumberTask(aggTask._mapping).doAll(assignment);
+          exemplars = aggTask._exemplars;
         }
-        _job.update(1, "Aggregation finished. Got " + numExemplars + " examplars");
-        assert (!aggTask.isTerminated());
-        DKV.remove(terminateKey);
-
-        String msg = "Creating exemplar assignments.";
-        Log.info(msg);
-        _job.update(1, msg);
-        new RenumberTask(aggTask._mapping).doAll(assignment);
 
         // Populate model output state
-        model._exemplars = aggTask._exemplars;
-        model._counts = new long[aggTask._exemplars.length];
-        for(int i=0;i<aggTask._exemplars.length;++i)
-          model._counts[i] = aggTask._exemplars[i]._cnt;
+        model._exemplars = exemplars;
+        model._counts = new long[exemplars.length];
+        for(int i=0;i<exemplars.length;++i)
+          model._counts[i] = exemplars[i]._cnt;
         model._exemplar_assignment_vec_key = assignment._key;
         model._output._output_frame = Key.make("aggregated_" + _parms._train.toString() + "_by_" + model._key);
-        msg = "Creating output frame.";
+        String msg = "Creating output frame.";
         Log.info(msg);
         _job.update(1, msg);
         model.createFrameOfExemplars(_parms._train.get(), model._output._output_frame);
@@ -248,6 +310,178 @@ public class Aggregator extends ModelBuilder<AggregatorModel,AggregatorModel.Agg
     }
   }
 
+  /**
+   * Streaming aggregation: leader clustering of every chunk and a merge of the exemplar sets in reduce, all with the
+   * same fixed budget of exemplars. Whenever the budget is exceeded, the radius grows and the exemplars collected so
+   * far are merged at the new radius, so the memory stays bounded regardless of the number of rows. The radius check
+   * only looks at the exemplars in the neighbouring cells of an {@link ExemplarGrid}. If there are more categorical
+   * combinations than the budget, the lightest exemplars are evicted (see {@link ExemplarGrid#evictLightest}): a chunk
+   * never holds more than twice the budget, the result of a reduce never more than the budget.
+   */
+  private static class StreamingAggregateTask extends MRTask<StreamingAggregateTask> {
+    static final double RADIUS_GROWTH = 1.2;
+
+    //INPUT
+    final Key _dataInfoKey;
+    final Key _jobKey;
+    final double _radius0;
+    final int _budget;
+
+    // OUTPUT
+    Exemplar[] _exemplars;
+    double _radius;
+
+    StreamingAggregateTask(Key<DataInfo> dataInfoKey, double radius, Key<Job> jobKey, int budget) {
+      _dataInfoKey = dataInfoKey;
+      _radius0 = radius;
+      _jobKey = jobKey;
+      _budget = budget;
+    }
+
+    static final int MAX_GROWTH_STEPS = 100;
+
+    /**
+     * Merge the exemplars at a growing radius until there are at most budget of them. The radius can't merge exemplars
+     * with different categoricals, so it only grows until there are as many exemplars as distinct categorical
+     * combinations (or for at most {@link #MAX_GROWTH_STEPS} steps) - the result can exceed the budget then, see
+     * {@link ExemplarGrid#evictLightest} to enforce it.
+     */
+    static ExemplarGrid shrink(ExemplarGrid grid, int budget, double growth) {
+      if (grid.size() <= budget) return grid;
+      final int target = Math.max(budget, numCategoricalCombinations(grid.exemplars()));
+      for (int steps = 0; grid.size() > target && steps < MAX_GROWTH_STEPS; steps++)
+        grid = ExemplarGrid.rebuild(grid.exemplars(), grid._radius * growth);
+      return grid;
+    }
+
+    private static int numCategoricalCombinations(List<Exemplar> es) {
+      HashSet<String> combinations = new HashSet<>();
+      for (Exemplar e : es)
+        combinations.add(Arrays.toString(e.cats));
+      return combinations.size();
+    }
+
+    @Override
+    public void map(Chunk[] chks) {
+      DataInfo di = ((DataInfo)_dataInfoKey.get());
+      assert(di!=null);
+      DataInfo.Row row = di.newDenseRow();
+      final int nCols = row.nNums;
+      ExemplarGrid grid = new ExemplarGrid(_radius0, ExemplarGrid.firstDims(nCols));
+      int limit = _budget;
+      for (int r=0; r<chks[0]._len; ++r) {
+        row = di.extractDenseRow(chks, r, row);
+        Exemplar leader = grid.withinRadius(row.numVals, row.binIds);
+        if (leader != null) {
+          leader._cnt++;
+        } else {
+          grid.add(new Exemplar(Arrays.copyOf(row.numVals, nCols), Arrays.copyOf(row.binIds, row.binIds.length), chks[0].start()+r));
+          if (grid.size() > limit) {
+            grid = shrink(grid, _budget, RADIUS_GROWTH);
+            if (grid.size() > _budget) {
+              // could not get down to the budget (too many categorical combinations) - evict down to the budget and
+              // let it grow to twice the budget before evicting again, not for every row
+              grid = ExemplarGrid.evictLightest(grid.exemplars(), grid._radius, _budget);
+              limit = 2 * _budget;
+            } else {
+              limit = _budget;
+            }
+          }
+        }
+      }
+      _exemplars = grid.exemplars().toArray(new Exemplar[0]);
+      _radius = grid._radius;
+      ((Job)_jobKey.get()).update(1, "Aggregating.");
+    }
+
+    @Override
+    public void reduce(StreamingAggregateTask mrt) {
+      ArrayList<Exemplar> es = new ArrayList<>(_exemplars.length + mrt._exemplars.length);
+      es.addAll(Arrays.asList(_exemplars));
+      es.addAll(Arrays.asList(mrt._exemplars));
+      ExemplarGrid grid = shrink(ExemplarGrid.rebuild(es, Math.max(_radius, mrt._radius)), _budget, RADIUS_GROWTH);
+      if (grid.size() > _budget)
+        grid = ExemplarGrid.evictLightest(grid.exemplars(), grid._radius, _budget);
+      _exemplars = grid.exemplars().toArray(new Exemplar[0]);
+      _radius = grid._radius;
+      mrt._exemplars = null;
+      ((Job)_jobKey.get()).update(1, "Aggregating.");
+    }
+  }
+
+  /**
+   * Final pass of the streaming aggregation: assigns every row to its nearest exemplar (an exemplar's own row always
+   * to itself, preferably one with the same categoricals) and counts the members of the exemplars.
+   */
+  private static class AssignTask extends MRTask<AssignTask> {
+    //INPUT
+    final Key _dataInfoKey;
+    final Exemplar[] _exemplars;
+    final double _radius;
+
+    // OUTPUT
+    long[] _counts;
+
+    // WORKSPACE
+    private transient ExemplarGrid _grid;
+    private transient IdentityHashMap<Exemplar, Integer> _index;
+    private transient long[] _gids;
+    private transient int[] _gidOrder;
+
+    AssignTask(Key<DataInfo> dataInfoKey, Exemplar[] exemplars, double radius) {
+      _dataInfoKey = dataInfoKey;
+      _exemplars = exemplars;
+      _radius = radius;
+    }
+
+    @Override
+    protected void setupLocal() {
+      _grid = ExemplarGrid.index(Arrays.asList(_exemplars), _radius);
+      _index = new IdentityHashMap<>();
+      for (int i = 0; i < _exemplars.length; i++) _index.put(_exemplars[i], i);
+      _gids = new long[_exemplars.length];
+      _gidOrder = new int[_exemplars.length];
+      Integer[] order = new Integer[_exemplars.length];
+      for (int i = 0; i < order.length; i++) order[i] = i;
+      Arrays.sort(order, new Comparator<Integer>() {
+        @Override public int compare(Integer a, Integer b) { return Long.compare(_exemplars[a].gid, _exemplars[b].gid); }
+      });
+      for (int i = 0; i < order.length; i++) {
+        _gidOrder[i] = order[i];
+        _gids[i] = _exemplars[order[i]].gid;
+      }
+    }
+
+    @Override
+    public void map(Chunk[] chks) {
+      _counts = new long[_exemplars.length];
+      Chunk[] dataChks = Arrays.copyOf(chks, chks.length-1);
+      Chunk assignmentChk = chks[chks.length-1];
+      DataInfo di = ((DataInfo)_dataInfoKey.get());
+      DataInfo.Row row = di.newDenseRow();
+      for (int r=0; r<chks[0]._len; ++r) {
+        long rowIndex = chks[0].start()+r;
+        int pos = Arrays.binarySearch(_gids, rowIndex);
+        int e;
+        if (pos >= 0) {
+          e = _gidOrder[pos];
+        } else {
+          row = di.extractDenseRow(dataChks, r, row);
+          Exemplar nearest = _grid.nearest(row.numVals, row.binIds);
+          assert nearest != null : "no exemplars";
+          e = _index.get(nearest);
+        }
+        _counts[e]++;
+        assignmentChk.set(r, _exemplars[e].gid);
+      }
+    }
+
+    @Override
+    public void reduce(AssignTask mrt) {
+      ArrayUtils.add(_counts, mrt._counts);
+    }
+  }
+
   private static class AggregateTask extends MRTask<AggregateTask> {
     //INPUT
     final double _delta;
@@ -38,6 +38,8 @@ public class AggregatorModel extends Model<AggregatorModel,AggregatorModel.Aggre
     public boolean _use_all_factor_levels = false;   // When expanding categoricals, should first level be kept or dropped?
     public boolean _save_mapping_frame = false;
     public int _num_iteration_without_new_exemplar = 500;
+    public boolean _streaming = false;   // Single pass with a bounded number of exemplars instead of the radius search
+    public int _exemplar_budget = 0;     // Max. number of exemplars kept at once in the streaming mode (0: 4 * upper limit of target_num_exemplars), a hard cap
   }
 
   public static class AggregatorOutput extends Model.Output {
@@ -0,0 +1,230 @@
+package hex.aggregator;
+
+import hex.aggregator.Aggregator.Exemplar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Spatial index of the exemplars of the streaming aggregation: a uniform grid over (at most) three coordinates of the
+ * projected space, with cells of the size of the aggregation radius. Only non-empty cells are stored (hashed by their
+ * coordinates), so any exemplar within the radius of a point lies in one of the (at most) 27 cells around the point's
+ * own cell. Exemplars with a missing value in one of the grid coordinates are kept aside and always scanned.
+ */
+class ExemplarGrid {
+  static final int MAX_DIMS = 3;
+  // rings of cells searched for the nearest exemplar before falling back to a full scan
+  private static final int MAX_RINGS = 3;
+
+  final double _radius;
+  private final double _delta;
+  private final int[] _dims;
+  private final ArrayList<Exemplar> _exemplars = new ArrayList<>();
+  private final HashMap<Long, ArrayList<Exemplar>> _cells = new HashMap<>();
+  private final ArrayList<Exemplar> _unindexed = new ArrayList<>();
+
+  ExemplarGrid(double radius, int[] dims) {
+    assert radius > 0;
+    _radius = radius;
+    _delta = radius * radius;
+    _dims = dims;
+  }
+
+  /** Grid over the first (at most) three coordinates - used until there are any exemplars to pick better ones */
+  static int[] firstDims(int ncols) {
+    int[] dims = new int[Math.min(MAX_DIMS, ncols)];
+    for (int i = 0; i < dims.length; i++) dims[i] = i;
+    return dims;
+  }
+
+  /**
+   * Leader clustering of the given (weighted) exemplars with the given radius. Exemplars with the highest counts are
+   * inserted first, the others are merged into them if they are close enough.
+   * @param es exemplars, their counts are modified
+   * @param radius aggregation radius
+   * @return new grid of the merged exemplars
+   */
+  static ExemplarGrid rebuild(List<Exemplar> es, double radius) {
+    ExemplarGrid g = new ExemplarGrid(radius, widestDims(es));
+    Collections.sort(es, new Comparator<Exemplar>() {
+      @Override public int compare(Exemplar e1, Exemplar e2) { return Long.compare(e2._cnt, e1._cnt); }
+    });
+    for (Exemplar e : es) {
+      Exemplar leader = g.withinRadius(e.data, e.cats);
+      if (leader != null) leader._cnt += e._cnt;
+      else g.add(e);
+    }
+    return g;
+  }
+
+  /**
+   * Hard cap on the number of exemplars: keeps the budget heaviest exemplars and merges each of the others into the
+   * nearest kept one - with the same categoricals if there is any, otherwise regardless of the categoricals.
+   * @param es exemplars, their counts are modified
+   * @param radius aggregation radius
+   * @param budget number of exemplars to keep
+   * @return new grid of at most budget exemplars
+   */
+  static ExemplarGrid evictLightest(List<Exemplar> es, double radius, int budget) {
+    es = new ArrayList<>(es);
+    Collections.sort(es, new Comparator<Exemplar>() {
+      @Override public int compare(Exemplar e1, Exemplar e2) {
+        return e1._cnt != e2._cnt ? Long.compare(e2._cnt, e1._cnt) : Long.compare(e1.gid, e2.gid);
+      }
+    });
+    if (es.size() <= budget) return index(es, radius);
+    ExemplarGrid g = index(es.subList(0, budget), radius);
+    for (Exemplar e : es.subList(budget, es.size()))
+      g.nearest(e.data, e.cats)._cnt += e._cnt;
+    return g;
+  }
+
+  /** Grid of the given exemplars as they are (no merging), over their widest coordinates */
+  static ExemplarGrid index(List<Exemplar> es, double radius) {
+    ExemplarGrid g = new ExemplarGrid(radius, widestDims(es));
+    for (Exemplar e : es) g.add(e);
+    return g;
+  }
+
+  /** The (at most) three coordinates with the largest range of values of the given exemplars */
+  private static int[] widestDims(List<Exemplar> es) {
+    if (es.isEmpty()) return new int[0];
+    final int ncols = es.get(0).data.length;
+    double[] min = new double[ncols];
+    double[] max = new double[ncols];
+    Arrays.fill(min, Double.POSITIVE_INFINITY);
+    Arrays.fill(max, Double.NEGATIVE_INFINITY);
+    for (Exemplar e : es) {
+      for (int j = 0; j < ncols; j++) {
+        double x = e.data[j];
+        if (Double.isNaN(x)) continue;
+        if (x < min[j]) min[j] = x;
+        if (x > max[j]) max[j] = x;
+      }
+    }
+    int[] dims = new int[Math.min(MAX_DIMS, ncols)];
+    boolean[] taken = new boolean[ncols];
+    for (int i = 0; i < dims.length; i++) {
+      int best = -1;
+      for (int j = 0; j < ncols; j++)
+        if (!taken[j] && (best == -1 || max[j] - min[j] > max[best] - min[best])) best = j;
+      taken[dims[i] = best] = true;
+    }
+    return dims;
+  }
+
+  int size() { return _exemplars.size(); }
+
+  ArrayList<Exemplar> exemplars() { return _exemplars; }
+
+  void add(Exemplar e) {
+    _exemplars.add(e);
+    if (!isIndexed(e.data)) {
+      _unindexed.add(e);
+      return;
+    }
+    long key = key(e.data);
+    ArrayList<Exemplar> cell = _cells.get(key);
+    if (cell == null) _cells.put(key, cell = new ArrayList<>(2));
+    cell.add(e);
+  }
+
+  /**
+   * @return the nearest exemplar (with the same categoricals) within the radius from the given point, null if none
+   */
+  Exemplar withinRadius(double[] data, int[] cats) {
+    if (!isIndexed(data)) return scan(_exemplars, data, cats, _delta);
+    List<Exemplar> candidates = ring(data, 1);
+    candidates.addAll(_unindexed);
+    return scan(candidates, data, cats, _delta);
+  }
+
+  /**
+   * @return the nearest exemplar with the same categoricals as the given point, or the nearest of all the exemplars
+   * if there is no such exemplar (evicted), null only if there are no exemplars
+   */
+  Exemplar nearest(double[] data, int[] cats) {
+    Exemplar e = nearestSameCats(data, cats);
+    return e != null ? e : scan(_exemplars, data, null, Double.MAX_VALUE);
+  }
+
+  private Exemplar nearestSameCats(double[] data, int[] cats) {
+    if (!isIndexed(data)) return scan(_exemplars, data, cats, Double.MAX_VALUE);
+    Exemplar best = scan(_unindexed, data, cats, Double.MAX_VALUE);
+    double dist = best == null ? Double.MAX_VALUE : best.squaredEuclideanDistance(data, Double.MAX_VALUE);
+    for (int k = 0; k <= MAX_RINGS; k++) {
+      // everything in the rings further out is at least k cells away (in one of the grid coordinates)
+      if (k > 0 && dist <= (k - 1) * (k - 1) * _delta) return best;
+      Exemplar c = scan(ringCells(data, k), data, cats, dist);
+      if (c != null) { best = c; dist = c.squaredEuclideanDistance(data, Double.MAX_VALUE); }
+    }
+    if (best != null && dist <= MAX_RINGS * MAX_RINGS * _delta) return best;
+    return scan(_exemplars, data, cats, Double.MAX_VALUE);
+  }
+
+  /** Nearest exemplar with the same categoricals (any if cats is null) strictly closer than {@code thresh}, null if none */
+  private static Exemplar scan(List<Exemplar> es, double[] data, int[] cats, double thresh) {
+    Exemplar best = null;
+    for (Exemplar e : es) {
+      if (cats != null && !Arrays.equals(cats, e.cats)) continue;
+      double d = e.squaredEuclideanDistance(data, thresh);
+      if (d < thresh) { thresh = d; best = e; }
+    }
+    return best;
+  }
+
+  private boolean isIndexed(double[] data) {
+    for (int d : _dims) if (Double.isNaN(data[d])) return false;
+    return true;
+  }
+
+  /** All exemplars in the cells within {@code k} cells from the cell of the given point */
+  private List<Exemplar> ring(double[] data, int k) {
+    ArrayList<Exemplar> res = new ArrayList<>();
+    for (int i = 0; i <= k; i++) res.addAll(ringCells(data, i));
+    return res;
+  }
+
+  /** All exemplars in the cells exactly {@code k} cells (in the max norm) from the cell of the given point */
+  private List<Exemplar> ringCells(double[] data, int k) {
+    ArrayList<Exemplar> res = new ArrayList<>();
+    long[] cell = cell(data);
+    long[] off = new long[_dims.length];
+    Arrays.fill(off, -k);
+    while (true) {
+      boolean onRing = _dims.length == 0;
+      for (long o : off) onRing |= Math.abs(o) == k;
+      if (onRing) {
+        ArrayList<Exemplar> c = _cells.get(key(cell, off));
+        if (c != null) res.addAll(c);
+      }
+      int i = 0;
+      while (i < off.length && off[i] == k) off[i++] = -k;
+      if (i == off.length) break;
+      off[i]++;
+    }
+    return res;
+  }
+
+  private long key(double[] data) {
+    return key(cell(data), new long[_dims.length]);
+  }
+
+  private long[] cell(double[] data) {
+    long[] cell = new long[_dims.length];
+    for (int i = 0; i < _dims.length; i++) cell[i] = (long) Math.floor(data[_dims[i]] / _radius);
+    return cell;
+  }
+
+  // 21 bits per coordinate, cells further apart may collide - that only adds candidates, distances are always checked
+  private static long key(long[] cell, long[] off) {
+    long key = 0;
+    for (int i = 0; i < cell.length; i++)
+      key = (key << 21) | ((cell[i] + off[i]) & 0x1FFFFF);
+    return key;
+  }
+}
@@ -82,7 +82,27 @@ public class DeepLearning extends ModelBuilder<DeepLearningModel,DeepLearningMod
    * @param nClasses Number of response levels (1: regression, >=2: classification)
    * @return DataInfo
    */
-  static DataInfo makeDataInfo(Frame train, Frame valid, DeepLearningParameters parms, int nClasses) {
+  static DataInfo makeDataInfo(final Frame train, final Frame valid, final DeepLearningParameters parms, final int nClasses) {
+    return DataInfo.cached(parms._preprocessing_cache, dataInfoSignature(train, valid, parms, nClasses), train, valid,
+        new PreprocessingCache.Maker<DataInfo>() {
+          @Override public DataInfo make() { return computeDataInfo(train, valid, parms, nClasses); }
+        });
+  }
+
+  /**
+   * Everything the DataInfo of a model depends on: the frames and the transform settings.
+   */
+  private static String dataInfoSignature(Frame train, Frame valid, DeepLearningParameters parms, int nClasses) {
+    double x = 0.782347234;
+    boolean identityLink = new Distribution(parms).link(x) == x;
+    return "DeepLearning.DataInfo:" + Arrays.toString(train.names()) + PreprocessingCache.frameSignature(parms._train, train)
+        + (valid == null ? "" : Arrays.toString(valid.names()) + PreprocessingCache.frameSignature(parms._valid, valid))
+        + ":" + nClasses + ":" + parms._autoencoder + ":" + parms._use_all_factor_levels + ":" + parms._standardize
+        + ":" + parms._sparse + ":" + identityLink + ":" + parms._missing_values_handling
+        + ":" + parms._weights_column + ":" + parms._offset_column + ":" + parms._fold_column;
+  }
+
+  private static DataInfo computeDataInfo(Frame train, Frame valid, DeepLearningParameters parms, int nClasses) {
     double x = 0.782347234;
     boolean identityLink = new Distribution(parms).link(x) == x;
     DataInfo dinfo = new DataInfo(
@@ -433,7 +453,9 @@ public class DeepLearning extends ModelBuilder<DeepLearningModel,DeepLearningMod
         //main loop
         for(;;) {
           model.iterations++;
-          model.set_model_info(mp._epochs == 0 ? model.model_info() : H2O.CLOUD.size() > 1 && mp._replicate_training_data ? (mp._single_node_mode ?
+          model.set_model_info(mp._epochs == 0 ? model.model_info() : mp._parameter_server ?
+                  new DeepLearningParameterServerTask(_job._key, train, model.model_info(), rowFraction(train, mp, model), model.iterations).train().model_info() : //asynchronous updates via the parameter server
+                  H2O.CLOUD.size() > 1 && mp._replicate_training_data ? (mp._single_node_mode ?
                   new DeepLearningTask2(_job._key, train, model.model_info(), rowFraction(train, mp, model), model.iterations).doAll(Key.make(H2O.SELF)).model_info() : //replicated data + single node mode
                   new DeepLearningTask2(_job._key, train, model.model_info(), rowFraction(train, mp, model), model.iterations).doAllNodes(             ).model_info()): //replicated data + multi-node mode
                   new DeepLearningTask (_job._key,        model.model_info(), rowFraction(train, mp, model), model.iterations).doAll     (    train    ).model_info()); //distributed data (always in multi-node mode)
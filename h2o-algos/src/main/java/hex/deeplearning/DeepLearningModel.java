@@ -17,7 +17,9 @@ import water.fvec.Vec;
 import water.udf.CFuncRef;
 import water.util.*;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.net.URI;
 import java.util.Arrays;
 
 import static hex.ModelMetrics.calcVarImp;
@@ -951,6 +953,8 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
         DKV.remove(model_info().localModelInfoKey(node));
       }
     }
+    if (model_info().get_params()._parameter_server)
+      DeepLearningParameterServerTask.remove(model_info());
   }
 
   private String getHeader() {
@@ -1324,6 +1328,8 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
     public double missingColumnsType() {
       return _sparse ? 0 : Double.NaN;
     }
+    @Override
+    public boolean supportsCheckpoint() { return true; }
 
     /**
      * If enabled, store the best model under the destination key of this model at the end of training.
@@ -1691,10 +1697,30 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
     public double _elastic_averaging_moving_rate = 0.9;
     public double _elastic_averaging_regularization = 1e-3;
 
+    /**
+     * Asynchronous training: nodes push their weight changes to sharded parameter holders in DKV and pull fresh
+     * weights on their own schedule, instead of averaging the per-node models after every iteration (Experimental)
+     */
+    public boolean _parameter_server = false;
+    /**
+     * Max. number of rounds a node can get ahead of the slowest node (parameter server only)
+     */
+    public int _parameter_server_staleness = 2;
+
+    /**
+     * Precision of the weight updates sent between nodes, and of the weights in saved models and MOJOs. The weights are
+     * always trained and kept in float, BFloat16 halves the size but keeps only ~3 significant digits.
+     */
+    public WeightsPrecision _weights_precision = WeightsPrecision.Float32;
+
     // stochastic gradient descent: mini-batch size = 1
     // batch gradient descent: mini-batch size = # training rows
     public int _mini_batch_size = 1;
 
+    public enum WeightsPrecision {
+      Float32, BFloat16
+    }
+
     public enum MissingValuesHandling {
       MeanImputation, Skip
     }
@@ -1911,6 +1937,8 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
       }
       if (!_autoencoder && _sparsity_beta != 0)
         dl.error("_sparsity_beta", "Sparsity beta can only be used for autoencoder.");
+      if (_sparsity_beta > 0 && _mini_batch_size > 1)
+        dl.error("_mini_batch_size", "Sparsity beta is not yet implemented for mini-batch size > 1.");
       if (classification && dl.hasOffsetCol())
         dl.error("_offset_column", "Offset is only supported for regression.");
 
@@ -1950,6 +1978,20 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
         if (_elastic_averaging_regularization < 0)
           dl.error("_elastic_averaging_regularization", "Elastic averaging regularization strength must be >= 0.");
       }
+      if (!_parameter_server) {
+        dl.hide("_parameter_server_staleness", "Parameter server is required for this parameter.");
+      } else {
+        if (_parameter_server_staleness < 0)
+          dl.error("_parameter_server_staleness", "Parameter server staleness must be >= 0.");
+        if (_elastic_averaging)
+          dl.error("_parameter_server", "Cannot use the parameter server together with elastic averaging.");
+        if (_single_node_mode)
+          dl.error("_parameter_server", "Cannot use the parameter server in single node mode.");
+        if (_reproducible)
+          dl.error("_parameter_server", "Cannot use the parameter server for reproducible training (updates are asynchronous).");
+        if (!_replicate_training_data && H2O.CLOUD.size() > 1)
+          dl.error("_parameter_server", "The parameter server requires replicate_training_data.");
+      }
       if (_autoencoder && _stopping_metric != ScoreKeeper.StoppingMetric.AUTO && _stopping_metric != ScoreKeeper.StoppingMetric.MSE) {
         dl.error("_stopping_metric", "Stopping metric must either be AUTO or MSE for autoencoder.");
       }
@@ -2002,6 +2044,9 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
               "_elastic_averaging",
               "_elastic_averaging_moving_rate",
               "_elastic_averaging_regularization",
+              "_parameter_server",
+              "_parameter_server_staleness",
+              "_weights_precision",
               "_mini_batch_size",
               "_pretrained_autoencoder"
       };
@@ -2170,10 +2215,6 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
             Log.info("_categorical_encoding: Automatically enabling OneHotInternal categorical encoding.");
           toParms._categorical_encoding = CategoricalEncodingScheme.OneHotInternal;
          }
-        if (fromParms._mini_batch_size > 1) {
-          Log.warn("_mini_batch_size", "Only mini-batch size = 1 is supported right now.");
-          toParms._mini_batch_size = 1;
-        }
         if (fromParms._adaptive_rate) {
           if (!fromParms._quiet_mode)
             Log.info("_adaptive_rate: Using automatic learning rate. Ignoring the following input parameters: "
@@ -2295,5 +2336,19 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
   public DeepLearningMojoWriter getMojo() {
     return new DeepLearningMojoWriter(this);
   }
+
+  /**
+   * With bfloat16 weights, the weights and the optimizer state are rounded in the saved model only (the model in DKV
+   * keeps its float weights)
+   */
+  @Override
+  public URI exportBinaryModel(String location, boolean force) throws IOException {
+    if (get_params()._weights_precision != DeepLearningParameters.WeightsPrecision.BFloat16 || model_info.get_weights(0).isBFloat16())
+      return super.exportBinaryModel(location, force);
+    DeepLearningModel export = clone();
+    export.model_info = IcedUtils.deepCopy(model_info);
+    export.model_info.setBFloat16State(true);
+    return export.exportBinaryModel(location, force);
+  }
 }
 
@@ -111,6 +111,79 @@ final public class DeepLearningModelInfo extends Iced<DeepLearningModelInfo> {
   public final void set_params(DeepLearningParameters p, Key<Model> model_id ) {
     parameters = (DeepLearningParameters) p.clone();
     _model_id = model_id;
+    if (dense_row_weights != null) setBFloat16State(false); //the weights of a (restarted) model are kept in float
+  }
+
+  /**
+   * The matrices that are serialized as bfloat16 with weights_precision=BFloat16: the weights and the per-weight
+   * optimizer state (ADADELTA accumulators or momenta), which is as big as the weights (ADADELTA: twice as big).
+   * The biases are small and always stay in float.
+   * @return the matrices of all layers (null for a layer without them)
+   */
+  private Storage.DenseRowMatrix[] roundedMatrices() {
+    Storage.DenseRowMatrix[] state = dense_row_ada_dx_g != null ? dense_row_ada_dx_g : dense_row_weights_momenta;
+    if (state == null) return dense_row_weights;
+    Storage.DenseRowMatrix[] res = Arrays.copyOf(dense_row_weights, dense_row_weights.length + state.length);
+    System.arraycopy(state, 0, res, dense_row_weights.length, state.length);
+    return res;
+  }
+
+  /**
+   * Serialize the weights and the optimizer state as bfloat16 (or float)
+   * Only what is shipped between the nodes during training and the exported models are rounded, the model kept in
+   * DKV is float.
+   * @param bf16 whether to round the weights and the optimizer state to bfloat16 when serialized
+   */
+  void setBFloat16State(boolean bf16) {
+    for (Storage.DenseRowMatrix m : roundedMatrices())
+      if (m != null) m.setBFloat16(bf16);
+  }
+
+  /**
+   * Whether the model is shipped to the nodes as bfloat16, and the nodes ship their updates back as bfloat16 deltas
+   * Not done for elastic averaging and the parameter server, where every node keeps its own model, or if there's
+   * nothing to ship.
+   * @return true if the weights and the optimizer state are rounded to bfloat16 between nodes
+   */
+  boolean shipsBFloat16Deltas() {
+    return get_params()._weights_precision == DeepLearningParameters.WeightsPrecision.BFloat16
+        && !get_params()._elastic_averaging && !get_params()._parameter_server && H2O.CLOUD.size() > 1;
+  }
+
+  /**
+   * Copy of the weights and the optimizer state, the base that the deltas are computed against
+   * On the driver this is the float master copy, the other nodes received (and copy) the bfloat16 rounded values.
+   * @return copy of the rounded matrices of every layer, see {@link #roundedMatrices()}
+   */
+  float[][] copyState() {
+    Storage.DenseRowMatrix[] ms = roundedMatrices();
+    float[][] base = new float[ms.length][];
+    for (int i = 0; i < ms.length; ++i)
+      if (ms[i] != null) base[i] = ms[i].raw().clone();
+    return base;
+  }
+
+  /**
+   * Replace the weights and the optimizer state by their deltas against the given base, these are serialized as
+   * bfloat16. The deltas are much smaller than the values, so the rounding doesn't lose the small updates.
+   * @param base Weights and optimizer state at the start of the iteration
+   */
+  void subtractState(float[][] base) {
+    Storage.DenseRowMatrix[] ms = roundedMatrices();
+    for (int i = 0; i < ms.length; ++i)
+      if (ms[i] != null) ArrayUtils.add(1, ms[i].raw(), -1, base[i]);
+    setBFloat16State(true);
+  }
+
+  /**
+   * Apply the (averaged) deltas to the base, to get the float weights and optimizer state back
+   * @param base Weights and optimizer state at the start of the iteration
+   */
+  void addState(float[][] base) {
+    Storage.DenseRowMatrix[] ms = roundedMatrices();
+    for (int i = 0; i < ms.length; ++i)
+      if (ms[i] != null) ArrayUtils.add(ms[i].raw(), base[i]);
+    setBFloat16State(false);
   }
 
   private double[] mean_rate;
@@ -775,6 +848,14 @@ final public class DeepLearningModelInfo extends Iced<DeepLearningModelInfo> {
     return Key.make(_model_id + ".elasticaverage", (byte) 1 /*replica factor*/, (byte) 31 /*hidden user-key*/, true, H2O.CLOUD._memary[0]);
   }
 
+  public Key parameterShardKey(int layer) {
+    return Key.make(_model_id + ".ps" + layer, (byte) 1 /*replica factor*/, (byte) 31 /*hidden user-key*/, true, H2O.CLOUD._memary[layer % H2O.CLOUD.size()]);
+  }
+
+  public Key parameterServerClockKey() {
+    return Key.make(_model_id + ".psclock", (byte) 1 /*replica factor*/, (byte) 31 /*hidden user-key*/, true, H2O.CLOUD._memary[0]);
+  }
+
   static public class GradientCheck {
     GradientCheck(int l, int r, int c) { layer=l; row=r; col=c; gradient=0;}
     int layer;
@@ -1,6 +1,8 @@
 package hex.deeplearning;
 
 import hex.ModelMojoWriter;
+import hex.deeplearning.DeepLearningModel.DeepLearningParameters.WeightsPrecision;
+import hex.genmodel.utils.BFloat16;
 
 import java.io.IOException;
 
@@ -27,7 +29,11 @@ public class DeepLearningMojoWriter extends ModelMojoWriter<DeepLearningModel,
 
   @Override
   public String mojoVersion() {
-    return "1.00";
+    return bfloat16() ? "1.10" : "1.00";
+  }
+
+  private boolean bfloat16() {
+    return _parms._weights_precision == WeightsPrecision.BFloat16;
   }
 
   @Override
@@ -43,6 +49,7 @@ public class DeepLearningMojoWriter extends ModelMojoWriter<DeepLearningModel,
     writekv("use_all_factor_levels", _parms._use_all_factor_levels);
     writekv("activation", _parms._activation);
     writekv("distribution", _parms._distribution);
+    writekv("weights_precision", _parms._weights_precision);
     boolean imputeMeans=_parms._missing_values_handling.equals(DeepLearningModel.DeepLearningParameters.MissingValuesHandling.MeanImputation);
     writekv("mean_imputation", imputeMeans);
     if (imputeMeans && _model_info.data_info._cats>0) { // only add this if there are categorical columns
@@ -65,7 +72,13 @@ public class DeepLearningMojoWriter extends ModelMojoWriter<DeepLearningModel,
       }
 
       //generate hash key to store weights/bias of all layers
-      writekv("weight_layer"+index, _model_info.get_weights(index).raw());
+      if (bfloat16()) { // binary, 2 bytes per weight
+        writeblob("weight_layer"+index+".bf16", BFloat16.toBytes(_model_info.get_weights(index).raw()));
+        // readers older than 1.10 don't check the version, they would find no weights and silently score with
+        // empty layers - make their parse of the weights fail instead
+        writekv("weight_layer"+index, WeightsPrecision.BFloat16);
+      } else
+        writekv("weight_layer"+index, _model_info.get_weights(index).raw());
       writekv("bias_layer"+index, _model_info.get_biases(index).raw());
     }
     writekv("hidden_dropout_ratios", all_drop_out_ratios);
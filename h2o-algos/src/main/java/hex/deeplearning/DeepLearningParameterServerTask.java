@@ -0,0 +1,254 @@
+package hex.deeplearning;
+
+import water.*;
+import water.fvec.Frame;
+import water.util.ArrayUtils;
+import water.util.Log;
+
+import java.util.Arrays;
+
+/**
+ * Asynchronous (parameter server) Deep Learning.
+ *
+ * The weights and biases of every layer are held by a {@link Shard} in DKV, the shards are homed round-robin on the
+ * nodes of the cloud. Instead of averaging the per-node models at the end of every iteration, each node splits its
+ * share of the iteration into {@link #ROUNDS} rounds. In every round it pulls the latest weights from the shards,
+ * trains on its (replicated) training data via Hogwild! and pushes the changes of the weights back to the shards as
+ * atomic updates (executed at the home node of the shard). Nodes don't wait for each other, except that no node
+ * can start a round more than <code>_parameter_server_staleness</code> rounds ahead of the slowest node
+ * (bounded staleness, stale synchronous parallel).
+ *
+ * At the end of the iteration, the driver pulls the shards into the model (for scoring).
+ * The adaptive learning rate (and momentum) state is kept per node, in the node-local model stored under
+ * {@link DeepLearningModelInfo#localModelInfoKey(H2ONode)}.
+ */
+public class DeepLearningParameterServerTask extends MRTask<DeepLearningParameterServerTask> {
+  /** Number of pull-train-push rounds every node performs per iteration. */
+  static final int ROUNDS = 8;
+
+  /**
+   * Construct a DeepLearningParameterServerTask where every node trains on the entire (replicated) training dataset
+   * @param jobKey Job ID
+   * @param train Frame containing training data
+   * @param model_info Initial DeepLearningModelInfo (weights + biases)
+   * @param sync_fraction Fraction of the training data every node uses for one iteration (split into rounds)
+   * @param iteration Iteration number
+   */
+  public DeepLearningParameterServerTask(Key jobKey, Frame train, DeepLearningModelInfo model_info, float sync_fraction, int iteration) {
+    assert(sync_fraction > 0);
+    _jobKey = jobKey;
+    _fr = train;
+    _sharedmodel = model_info;
+    _sync_fraction = sync_fraction;
+    _iteration = iteration;
+    _nodes = H2O.CLOUD.size();
+  }
+
+  final private Key _jobKey;
+  final private Frame _fr;
+  private DeepLearningModelInfo _sharedmodel;
+  final private float _sync_fraction;
+  final private int _iteration;
+  final private int _nodes;
+  private transient DeepLearningModelInfo _model; // driver's copy of the input model
+  // OUTPUT
+  private long _processed;        // training samples processed by all the nodes
+  private double _samplesPerSec;  // summed over the nodes
+  private int _nodesDone;
+  private boolean _unstable;
+
+  /**
+   * Returns the model with the latest state of the shards, trained by all nodes
+   * @return model_info object
+   */
+  public DeepLearningModelInfo model_info() { return _sharedmodel; }
+
+  /**
+   * Publish the current model to the shards, run one iteration on all the nodes and pull the result back.
+   * @return this
+   */
+  public DeepLearningParameterServerTask train() {
+    _model = _sharedmodel;
+    Futures fs = new Futures();
+    for (int i = 0; i < _sharedmodel.units.length - 1; ++i)
+      DKV.put(_sharedmodel.parameterShardKey(i),
+          new Shard(_sharedmodel.get_weights(i).raw().clone(), _sharedmodel.get_biases(i).raw().clone()), fs);
+    DKV.put(_sharedmodel.parameterServerClockKey(), new Clock(new int[_nodes]), fs);
+    fs.blockForPending();
+    return doAllNodes();
+  }
+
+  @Override
+  public void setupLocal() {
+    final int node = H2O.SELF.index();
+    final int staleness = _sharedmodel.get_params()._parameter_server_staleness;
+    final Key clockKey = _sharedmodel.parameterServerClockKey();
+    // continue with the local model of the previous iteration (keeps the learning rate state of this node)
+    DeepLearningModelInfo local = DKV.getGet(_sharedmodel.localModelInfoKey(H2O.SELF));
+    if (local == null || !Arrays.equals(local.units, _sharedmodel.units))
+      local = IcedUtils.deepCopy(_sharedmodel);
+    else
+      local.set_params(_sharedmodel.get_params(), _sharedmodel._model_id);
+    final long processedGlobal = _sharedmodel.get_processed_global();
+    final long start = System.currentTimeMillis();
+    long processed = 0;
+    try {
+      for (int r = 0; r < ROUNDS && !local.isUnstable(); ++r) {
+        awaitSlowestNode(clockKey, r - staleness);
+        Shard[] base = pull(local);
+        local.set_processed_local(0);
+        // the global sample count (used for the seed and the learning rate annealing) is estimated from this node
+        local.set_processed_global(processedGlobal + processed * _nodes);
+        long before = local.get_processed_total();
+        // on a single node, DeepLearningTask does the work of DeepLearningTask2 itself
+        local = new DeepLearningTask(_jobKey, local, _sync_fraction / ROUNDS, _iteration * ROUNDS + r)
+            .doAll(_fr, _nodes > 1).model_info();
+        processed += local.get_processed_total() - before;
+        push(local, base);
+        new Tick(node, r + 1).invoke(clockKey);
+      }
+    } finally {
+      new Tick(node, Integer.MAX_VALUE).invoke(clockKey); // don't hold back the other nodes (also on failure)
+    }
+    local.set_processed_local(0);
+    DKV.put(local.localModelInfoKey(H2O.SELF), local);
+    long time = Math.max(1, System.currentTimeMillis() - start);
+    _processed = processed;
+    _samplesPerSec = 1000.0 * processed / time;
+    _nodesDone = 1;
+    _unstable = local.isUnstable();
+  }
+
+  @Override
+  protected void closeLocal() {
+    _sharedmodel = null; //avoid serialization overhead
+  }
+
+  @Override
+  public void reduce(DeepLearningParameterServerTask other) {
+    _processed += other._processed;
+    _samplesPerSec += other._samplesPerSec;
+    _nodesDone += other._nodesDone;
+    _unstable |= other._unstable;
+  }
+
+  /**
+   * Pull the final state of the shards into the model and add the processed samples to the global counter.
+   */
+  @Override
+  protected void postGlobal() {
+    super.postGlobal();
+    DeepLearningModelInfo res = IcedUtils.deepCopy(_model);
+    pull(res);
+    res.add_processed_global(_processed);
+    res.set_processed_local(0);
+    if (_unstable) res.setUnstable();
+    _sharedmodel = res;
+    if (!res.get_params()._quiet_mode)
+      Log.info("Parameter server: " + _processed + " samples on " + _nodesDone + " node(s), "
+          + String.format("%.1f", _samplesPerSec / _nodesDone) + " samples/sec per node.");
+  }
+
+  /** Remove the shards, the round clocks and the node-local models of the given model from DKV. */
+  static void remove(DeepLearningModelInfo minfo) {
+    Futures fs = new Futures();
+    for (int i = 0; i < minfo.units.length - 1; ++i)
+      DKV.remove(minfo.parameterShardKey(i), fs);
+    DKV.remove(minfo.parameterServerClockKey(), fs);
+    for (H2ONode node : H2O.CLOUD._memary)
+      DKV.remove(minfo.localModelInfoKey(node), fs);
+    fs.blockForPending();
+  }
+
+  /** Longest pause between two reads of the round clock while waiting for the slowest node. */
+  private static final int MAX_WAIT_MS = 64;
+
+  /**
+   * Blocks until all the nodes finished the given round. The clock is polled with an exponential back-off, a
+   * node waiting for a slower one typically waits for a whole round. An interrupted node fails (keeping the
+   * interrupt flag) rather than running ahead of the staleness bound.
+   */
+  private void awaitSlowestNode(Key clockKey, int round) {
+    int waitMs = 1;
+    while (true) {
+      Clock clock = DKV.getGet(clockKey);
+      if (clock == null || ArrayUtils.minValue(clock._rounds) >= round) return;
+      if (_jobKey != null && _jobKey.get() != null && ((Job) _jobKey.get()).stop_requested())
+        throw new Job.JobCancelledException();
+      try {
+        Thread.sleep(waitMs);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while waiting for round " + round + " of the other nodes", e);
+      }
+      waitMs = Math.min(2 * waitMs, MAX_WAIT_MS);
+    }
+  }
+
+  /**
+   * Copy the weights and biases of the shards into the given model.
+   * @return the pulled shards (the base for the deltas pushed after training)
+   */
+  private static Shard[] pull(DeepLearningModelInfo minfo) {
+    Shard[] shards = new Shard[minfo.units.length - 1];
+    for (int i = 0; i < shards.length; ++i) {
+      shards[i] = DKV.getGet(minfo.parameterShardKey(i));
+      System.arraycopy(shards[i]._w, 0, minfo.get_weights(i).raw(), 0, shards[i]._w.length);
+      System.arraycopy(shards[i]._b, 0, minfo.get_biases(i).raw(), 0, shards[i]._b.length);
+    }
+    return shards;
+  }
+
+  /** Push the changes of the weights and biases since the given (pulled) state to the shards. */
+  private static void push(DeepLearningModelInfo minfo, Shard[] base) {
+    RPC[] rpcs = new RPC[base.length];
+    for (int i = 0; i < base.length; ++i) {
+      float[] dw = minfo.get_weights(i).raw().clone();
+      double[] db = minfo.get_biases(i).raw().clone();
+      for (int j = 0; j < dw.length; ++j) dw[j] -= base[i]._w[j];
+      ArrayUtils.subtract(db, base[i]._b, db);
+      rpcs[i] = new PushDelta(dw, db).fork(minfo.parameterShardKey(i));
+    }
+    for (RPC rpc : rpcs)
+      if (rpc != null) rpc.get(); // null if the shard is homed here (already applied)
+  }
+
+  /** Weights and biases of one layer. Never modified in place, every update creates a new instance. */
+  public static class Shard extends Iced<Shard> {
+    final float[] _w;
+    final double[] _b;
+    public Shard(float[] w, double[] b) { _w = w; _b = b; }
+  }
+
+  /** Number of rounds finished by each node in the current iteration. */
+  public static class Clock extends Iced<Clock> {
+    final int[] _rounds;
+    public Clock(int[] rounds) { _rounds = rounds; }
+  }
+
+  private static class PushDelta extends TAtomic<Shard> {
+    final float[] _dw;
+    final double[] _db;
+    PushDelta(float[] dw, double[] db) { _dw = dw; _db = db; }
+
+    @Override
+    protected Shard atomic(Shard old) {
+      if (old == null) return null; // removed in the meantime
+      return new Shard(ArrayUtils.add(old._w.clone(), _dw), ArrayUtils.add(old._b.clone(), _db));
+    }
+  }
+
+  private static class Tick extends TAtomic<Clock> {
+    final int _node;
+    final int _round;
+    Tick(int node, int round) { _node = node; _round = round; }
+
+    @Override
+    protected Clock atomic(Clock old) {
+      if (old == null) return null;
+      int[] rounds = old._rounds.clone();
+      rounds[_node] = Math.max(rounds[_node], _round);
+      return new Clock(rounds);
+    }
+  }
+}
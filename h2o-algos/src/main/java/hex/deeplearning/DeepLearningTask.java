@@ -20,6 +20,7 @@ public class DeepLearningTask extends FrameTask<DeepLearningTask> {
   private DeepLearningModelInfo _sharedmodel; //input/output
   transient Neurons[] _neurons;
   transient Random _dropout_rng;
+  transient float[][] _stateBase; //weights and optimizer state at the start of the iteration, the nodes ship their deltas against them
   int _chunk_node_count = 1;
 
   /**
@@ -47,6 +48,9 @@ public class DeepLearningTask extends FrameTask<DeepLearningTask> {
     assert(inputModel.get_processed_local() == 0);
     _training=true;
     _sharedmodel = inputModel;
+    // with bfloat16 weights, the model is sent to the other nodes rounded (the driver keeps training its float copy)
+    if (inputModel.shipsBFloat16Deltas())
+      inputModel.setBFloat16State(true);
 //    if (model_info().get_params()._elastic_averaging)
 //      DKV.put(_sharedmodel.elasticAverageModelInfoKey(), _sharedmodel);
     _useFraction=fraction;
@@ -79,6 +83,8 @@ public class DeepLearningTask extends FrameTask<DeepLearningTask> {
     } else {
       _localmodel = _sharedmodel;
       _sharedmodel = null;
+      if (_localmodel.shipsBFloat16Deltas())
+        _stateBase = _localmodel.copyState();
     }
     _localmodel.set_processed_local(0);
   }
@@ -162,13 +168,16 @@ public class DeepLearningTask extends FrameTask<DeepLearningTask> {
 
   /**
    * After all maps are done on a node, this is called to store the per-node model into DKV (for elastic averaging)
-   * Otherwise, do nothing.
+   * With bfloat16 weights, the per-node weights and optimizer state are turned into deltas, which are rounded when
+   * sent to the driver.
    */
   @Override protected void closeLocal() {
     if (_localmodel.get_params()._elastic_averaging) {
       // store local model, as it will be reduced in the following, and hence averaged with other models
       DKV.put(_localmodel.localModelInfoKey(H2O.SELF), _localmodel, _fs);
     }
+    if (_stateBase != null)
+      _localmodel.subtractState(_stateBase);
     _sharedmodel = null; //avoid serialization overhead
   }
 
@@ -222,6 +231,9 @@ public class DeepLearningTask extends FrameTask<DeepLearningTask> {
       // model averaging
       if (_chunk_node_count > 1)
         _localmodel.div(_chunk_node_count);
+      // apply the averaged deltas to the float weights and optimizer state of the driver
+      if (_stateBase != null)
+        _localmodel.addState(_stateBase);
       if (_localmodel.get_params()._elastic_averaging)
         _sharedmodel = DeepLearningModelInfo.timeAverage(_localmodel);
     } else {
@@ -21,6 +21,8 @@ public class DeepLearningTask2 extends MRTask<DeepLearningTask2> {
     _jobKey = jobKey;
     _fr = train;
     _sharedmodel = model_info;
+    if (model_info.shipsBFloat16Deltas())
+      model_info.setBFloat16State(true); //sent to the other nodes as bfloat16, see DeepLearningTask
     _sync_fraction = sync_fraction;
     _iteration = iteration;
   }
@@ -78,6 +80,8 @@ public class DeepLearningTask2 extends MRTask<DeepLearningTask2> {
     super.postGlobal();
     // model averaging (DeepLearningTask only computed the per-node models, each on all the data)
     _res.model_info().div(_res._chunk_node_count);
+    if (_res._stateBase != null)
+      _res.model_info().addState(_res._stateBase); //the nodes shipped deltas, apply their average to the float weights
     _res.model_info().add_processed_global(_res.model_info().get_processed_local()); //switch from local counters to global counters
     _res.model_info().set_processed_local(0l);
     DeepLearningModelInfo nodeAverageModel = _res.model_info();
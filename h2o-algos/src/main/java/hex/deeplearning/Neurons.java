@@ -91,6 +91,17 @@ public abstract class Neurons {
    */
   private boolean _shortcut = false;
 
+  /**
+   * Block sizes of the mini-batch kernels (a block of 64 rows x 256 columns of the float weights takes 64kB)
+   */
+  static final int ROW_BLOCK = 64;
+  static final int COL_BLOCK = 256;
+
+  /**
+   * Scratch space for the summed mini-batch gradient of one row of the weights
+   */
+  private double[] _grad;
+
   public Storage.DenseVector _avg_a;
 
   /**
@@ -226,14 +237,14 @@ public abstract class Neurons {
    * @param n Actual mini-batch size
    */
   final void bprop(final int row, final double[/*actual mini-batch size*/] partial_grad, final float rate, final float momentum, int n) {
-    final float rho = (float)params._rho;
-    final float eps = (float)params._epsilon;
+    if (n > 1 && _k == 0) {
+      bpropMiniBatch(row, partial_grad, rate, momentum, n);
+      return;
+    }
     final float l1 = (float)params._l1;
     final float l2 = (float)params._l2;
     final float max_w2 = params._max_w2;
-    final boolean have_momenta = _minfo.has_momenta();
     final boolean have_ada = _minfo.adaDelta();
-    final boolean nesterov = params._nesterov_accelerated_gradient;
     final boolean fast_mode = params._fast_mode;
     final int cols = _previous._a[0].size();
     assert(partial_grad.length == n);
@@ -267,29 +278,7 @@ public abstract class Neurons {
         if (DeepLearningModelInfo.gradientCheck != null)
           DeepLearningModelInfo.gradientCheck.apply(_index, row, col, grad);
 
-        if (have_ada) {
-          final double grad2 = grad*grad;
-          avg_grad2 += grad2;
-          float brate = computeAdaDeltaRateForWeight(grad, w, _ada_dx_g, rho, eps);
-          _w.raw()[w] -= brate * grad;
-        } else {
-          if (!nesterov) {
-            final double delta = -rate * grad;
-            _w.raw()[w] += delta;
-            if( have_momenta ) {
-              _w.raw()[w] += momentum * _wm.raw()[w];
-              _wm.raw()[w] = (float)delta;
-            }
-          } else {
-            double tmp = -grad;
-            if( have_momenta ) {
-              _wm.raw()[w] *= momentum;
-              _wm.raw()[w] += tmp;
-              tmp = _wm.raw()[w];
-            }
-            _w.raw()[w] += rate * tmp;
-          }
-        }
+        avg_grad2 += updateWeight(w, grad, rate, momentum);
       }
     }
     if (max_w2 != Float.POSITIVE_INFINITY)
@@ -301,6 +290,102 @@ public abstract class Neurons {
     }
   }
 
+  /**
+   * Mini-batch version of {@link #bprop(int, double[], float, float, int)}: the gradient of every incoming weight is
+   * summed over the mini-batch (the errors are already normalized by the mini-batch size) and the weight is updated
+   * once. The errors of the previous layer are propagated with the weights before the update.
+   * The mini-batch is processed in blocks of {@link #COL_BLOCK} columns, so that the slice of the weight row stays in
+   * the L1 cache while it's used for all the samples.
+   */
+  private void bpropMiniBatch(final int row, final double[] partial_grad, final float rate, final float momentum, int n) {
+    final float l1 = (float)params._l1;
+    final float l2 = (float)params._l2;
+    final float max_w2 = params._max_w2;
+    final boolean have_ada = _minfo.adaDelta();
+    final boolean fast_mode = params._fast_mode;
+    final int cols = _previous._a[0].size();
+    final int idx = row * cols;
+    final float[] w = _w.raw();
+    assert(partial_grad.length == n);
+
+    double bias_grad = 0;
+    boolean zero = true;
+    for (int mb = 0; mb < n; mb++) {
+      bias_grad += partial_grad[mb];
+      zero &= partial_grad[mb] == 0;
+    }
+    if (_shortcut && zero) return;
+    if (_grad == null || _grad.length != cols) _grad = new double[cols];
+    final double[] grad = _grad;
+    Arrays.fill(grad, 0);
+    for (int c0 = 0; c0 < cols; c0 += COL_BLOCK) {
+      final int c1 = Math.min(cols, c0 + COL_BLOCK);
+      for (int mb = 0; mb < n; mb++) {
+        final double g = partial_grad[mb];
+        if (g == 0) continue;
+        final double[] a = _previous._a[mb].raw();
+        for (int col = c0; col < c1; col++)
+          grad[col] += g * a[col];
+        if (_previous._e != null && _previous._e[mb] != null) {
+          final double[] e = _previous._e[mb].raw();
+          for (int col = c0; col < c1; col++)
+            e[col] += g * w[idx + col]; // propagate the error dE/dnet to the previous layer, via connecting weights
+        }
+      }
+    }
+
+    double avg_grad2 = 0;
+    for (int col = 0; col < cols; col++) {
+      if (fast_mode && grad[col] == 0) continue;
+      final int wi = idx + col;
+      final double weight = w[wi];
+      double gr = grad[col] + Math.signum(weight) * l1 + weight * l2;
+      if (_wEA != null)
+        gr += params._elastic_averaging_regularization * (weight - _wEA.raw()[wi]);
+      if (DeepLearningModelInfo.gradientCheck != null)
+        DeepLearningModelInfo.gradientCheck.apply(_index, row, col, gr);
+      avg_grad2 += updateWeight(wi, gr, rate, momentum);
+    }
+    if (max_w2 != Float.POSITIVE_INFINITY)
+      rescale_weights(_w, row, max_w2, 0);
+    if (have_ada) avg_grad2 /= cols;
+    update_bias(_b, _bEA, _bm, row, new double[]{bias_grad}, avg_grad2, rate, momentum, 0);
+  }
+
+  /**
+   * Apply the gradient to a single weight (ADADELTA, momentum or Nesterov accelerated gradient)
+   * @param w linear index of the weight
+   * @param grad gradient dE/dw (including regularization)
+   * @param rate learning rate
+   * @param momentum momentum factor (needed only if ADADELTA isn't used)
+   * @return squared gradient (for ADADELTA), 0 otherwise
+   */
+  private double updateWeight(final int w, final double grad, final float rate, final float momentum) {
+    if (_minfo.adaDelta()) {
+      final double grad2 = grad*grad;
+      float brate = computeAdaDeltaRateForWeight(grad, w, _ada_dx_g, (float)params._rho, (float)params._epsilon);
+      _w.raw()[w] -= brate * grad;
+      return grad2;
+    }
+    if (!params._nesterov_accelerated_gradient) {
+      final double delta = -rate * grad;
+      _w.raw()[w] += delta;
+      if( _minfo.has_momenta() ) {
+        _w.raw()[w] += momentum * _wm.raw()[w];
+        _wm.raw()[w] = (float)delta;
+      }
+    } else {
+      double tmp = -grad;
+      if( _minfo.has_momenta() ) {
+        _wm.raw()[w] *= momentum;
+        _wm.raw()[w] += tmp;
+        tmp = _wm.raw()[w];
+      }
+      _w.raw()[w] += rate * tmp;
+    }
+    return 0;
+  }
+
   private void rescale_weights(final Storage.DenseRowMatrix w, final int row, final float max_w2, int mb) {
     final int cols = _previous._a[0].size();
     int start;
@@ -624,9 +709,7 @@ public abstract class Neurons {
   public static class Tanh extends Neurons {
     public Tanh(int units) { super(units); }
     @Override protected void fprop(long seed, boolean training, int n) {
-      // TODO: implement GEMM
-      for (int mb=0;mb<n;++mb)
-        gemv(_a[mb], _w, _previous._a[mb], _b, _dropout != null ? _dropout.bits() : null);
+      gemm(_dropout != null ? _dropout.bits() : null, n);
       final int rows = _a[0].size();
       for (int mb=0;mb<n;++mb)
         for( int row = 0; row < rows; row++ )
@@ -749,9 +832,7 @@ public abstract class Neurons {
   public static class Rectifier extends Neurons {
     public Rectifier(int units) { super(units); }
     @Override protected void fprop(long seed, boolean training, int n) {
-      // TODO: implement GEMM
-      for (int mb=0;mb<n;++mb)
-        gemv(_a[mb], _w, _previous._a[mb], _b, _dropout != null ? _dropout.bits() : null);
+      gemm(_dropout != null ? _dropout.bits() : null, n);
       final int rows = _a[0].size();
       for (int mb=0;mb<n;++mb) {
         for( int row = 0; row < rows; row++ ) {
@@ -799,8 +880,7 @@ public abstract class Neurons {
   public static class ExpRectifier extends Neurons {
     public ExpRectifier(int units) { super(units); }
     @Override protected void fprop(long seed, boolean training, int n) {
-      for (int mb=0;mb<n;++mb)
-        gemv(_a[mb], _w, _previous._a[mb], _b, _dropout != null ? _dropout.bits() : null);
+      gemm(_dropout != null ? _dropout.bits() : null, n);
       final int rows = _a[0].size();
       for( int row = 0; row < rows; row++ ) {
         for (int mb=0;mb<n;++mb) {
@@ -862,8 +942,7 @@ public abstract class Neurons {
   public static class Softmax extends Output {
     public Softmax(int units) { super(units); }
     protected void fprop(long seed, boolean training, int n) {
-      for (int mb=0;mb<n;++mb)
-        gemv(_a[mb], _w, _previous._a[mb], _b, null);
+      gemm(null, n);
       for (int mb=0;mb<n;++mb) {
         final double max = ArrayUtils.maxValue(_a[mb].raw());
         double scaling = 0;
@@ -919,8 +998,7 @@ public abstract class Neurons {
       super(1);
     }
     protected void fprop(long seed, boolean training, int n) {
-      for (int mb=0;mb<n;++mb)
-        gemv(_a[mb], _w, _previous._a[mb], _b, _dropout != null ? _dropout.bits() : null);
+      gemm(_dropout != null ? _dropout.bits() : null, n);
     }
 
     /**
@@ -935,6 +1013,147 @@ public abstract class Neurons {
     }
   }
 
+  /**
+   * Linear part of the forward propagation for the first n samples of the mini-batch: a[mb] = W * previous a[mb] + b
+   * For a single sample, this is a gemv, otherwise the samples are multiplied as a (row-major) matrix by a blocked
+   * gemm. Sparse input (e.g., one-hot encoded categoricals) only visits the non-zero input values.
+   * @param row_bits if not null, check bits of this byte[] to determine whether a row is used or not
+   * @param n number of actually trained samples in this mini-batch
+   */
+  final void gemm(byte[] row_bits, int n) {
+    if (n == 1) {
+      gemv(_a[0], _w, _previous._a[0], _b, row_bits);
+      return;
+    }
+    final double[][] res = new double[n][];
+    final double[][] x = new double[n][];
+    int nnz = 0;
+    for (int mb = 0; mb < n; ++mb) {
+      res[mb] = _a[mb].raw();
+      x[mb] = _previous._a[mb].raw();
+      if (_previous instanceof Input)
+        for (double v : x[mb]) if (v != 0) nnz++;
+    }
+    final int cols = x[0].length;
+    if (_previous instanceof Input && nnz < (long)n * cols / 4)
+      gemm_sparse(res, _w.raw(), x, _b.raw(), row_bits, nnz);
+    else
+      gemm_blocked(res, _w.raw(), x, _b.raw(), row_bits);
+  }
+
+  /**
+   * Cache-blocked Mat-Mat Plus Add (with optional row dropout)
+   * The weights are processed in blocks of ROW_BLOCK x COL_BLOCK, and every weight that is loaded is used for 4 samples.
+   * @param res res[mb] = a*x[mb]+y (pre-allocated, will be overwritten)
+   * @param a matrix of size rows x cols
+   * @param x mini-batch of vectors of length cols
+   * @param y vector of length rows
+   * @param row_bits if not null, check bits of this byte[] to determine whether a row is used or not
+   */
+  static void gemm_blocked(final double[][] res, final float[] a, final double[][] x, final double[] y, final byte[] row_bits) {
+    final int n = x.length;
+    final int cols = x[0].length;
+    final int rows = y.length;
+    for (int mb = 0; mb < n; ++mb) {
+      assert(res[mb].length == rows);
+      for (int row = 0; row < rows; row++)
+        res[mb][row] = row_bits == null || (row_bits[row / 8] & (1 << (row % 8))) != 0 ? y[row] : 0;
+    }
+    for (int r0 = 0; r0 < rows; r0 += ROW_BLOCK) {
+      final int r1 = Math.min(rows, r0 + ROW_BLOCK);
+      for (int c0 = 0; c0 < cols; c0 += COL_BLOCK) {
+        final int c1 = Math.min(cols, c0 + COL_BLOCK);
+        int mb = 0;
+        for (; mb + 4 <= n; mb += 4) {
+          final double[] x0 = x[mb], x1 = x[mb + 1], x2 = x[mb + 2], x3 = x[mb + 3];
+          for (int row = r0; row < r1; row++) {
+            if (row_bits != null && (row_bits[row / 8] & (1 << (row % 8))) == 0) continue;
+            final int off = row * cols;
+            double psum0 = 0, psum1 = 0, psum2 = 0, psum3 = 0, psum4 = 0, psum5 = 0, psum6 = 0, psum7 = 0;
+            int col = c0;
+            for (; col + 1 < c1; col += 2) {
+              final double w0 = a[off + col], w1 = a[off + col + 1];
+              psum0 += w0 * x0[col];
+              psum1 += w0 * x1[col];
+              psum2 += w0 * x2[col];
+              psum3 += w0 * x3[col];
+              psum4 += w1 * x0[col + 1];
+              psum5 += w1 * x1[col + 1];
+              psum6 += w1 * x2[col + 1];
+              psum7 += w1 * x3[col + 1];
+            }
+            for (; col < c1; col++) {
+              final double w = a[off + col];
+              psum0 += w * x0[col];
+              psum1 += w * x1[col];
+              psum2 += w * x2[col];
+              psum3 += w * x3[col];
+            }
+            res[mb    ][row] += psum0 + psum4;
+            res[mb + 1][row] += psum1 + psum5;
+            res[mb + 2][row] += psum2 + psum6;
+            res[mb + 3][row] += psum3 + psum7;
+          }
+        }
+        for (; mb < n; ++mb) {
+          final double[] x0 = x[mb];
+          for (int row = r0; row < r1; row++) {
+            if (row_bits != null && (row_bits[row / 8] & (1 << (row % 8))) == 0) continue;
+            final int off = row * cols;
+            double psum0 = 0;
+            for (int col = c0; col < c1; col++)
+              psum0 += a[off + col] * x0[col];
+            res[mb][row] += psum0;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Mat-Mat Plus Add for a sparse mini-batch (with optional row dropout)
+   * The non-zeros of the mini-batch are compressed by rows (CSR), every row of the matrix is then used for all samples.
+   * @param res res[mb] = a*x[mb]+y (pre-allocated, will be overwritten)
+   * @param a matrix of size rows x cols
+   * @param x mini-batch of vectors of length cols
+   * @param y vector of length rows
+   * @param row_bits if not null, check bits of this byte[] to determine whether a row is used or not
+   * @param nnz number of non-zeros in x
+   */
+  static void gemm_sparse(final double[][] res, final float[] a, final double[][] x, final double[] y, final byte[] row_bits, int nnz) {
+    final int n = x.length;
+    final int cols = x[0].length;
+    final int rows = y.length;
+    final int[] start = new int[n + 1];
+    final int[] ids = MemoryManager.malloc4(nnz);
+    final double[] vals = MemoryManager.malloc8d(nnz);
+    int k = 0;
+    for (int mb = 0; mb < n; ++mb) {
+      start[mb] = k;
+      for (int col = 0; col < cols; col++) {
+        if (x[mb][col] == 0) continue;
+        ids[k] = col;
+        vals[k++] = x[mb][col];
+      }
+    }
+    start[n] = k;
+    assert(k == nnz);
+    for (int row = 0; row < rows; row++) {
+      final boolean active = row_bits == null || (row_bits[row / 8] & (1 << (row % 8))) != 0;
+      final int off = row * cols;
+      for (int mb = 0; mb < n; ++mb) {
+        if (!active) {
+          res[mb][row] = 0;
+          continue;
+        }
+        double psum = 0;
+        for (int i = start[mb]; i < start[mb + 1]; i++)
+          psum += a[off + ids[i]] * vals[i];
+        res[mb][row] = psum + y[row];
+      }
+    }
+  }
+
   /**
    * Mat-Vec Plus Add (with optional row dropout)
    * @param res = a*x+y (pre-allocated, will be overwritten)
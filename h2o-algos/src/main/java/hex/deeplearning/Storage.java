@@ -1,5 +1,7 @@
 package hex.deeplearning;
 
+import hex.genmodel.utils.BFloat16;
+import water.AutoBuffer;
 import water.DKV;
 import water.Iced;
 import water.Key;
@@ -73,13 +75,28 @@ public class Storage {
 
   /**
    * Dense row matrix implementation
+   * Optionally serialized as bfloat16 (half the size, but only ~3 significant digits), the in-memory copy is always float.
    */
   public final static class DenseRowMatrix extends Iced implements Matrix {
     private float[] _data;
     private int _cols;
     private int _rows;
+    private boolean _bf16;
     DenseRowMatrix(int rows, int cols) { this(new float[cols*rows], rows, cols); }
     DenseRowMatrix(float[] v, int rows, int cols) { _data = v; _rows = rows; _cols = cols; }
+    void setBFloat16(boolean bf16) { _bf16 = bf16; }
+    public boolean isBFloat16() { return _bf16; }
+    public final AutoBuffer write_impl(AutoBuffer ab) {
+      ab.put4(_rows).put4(_cols).putZ(_bf16);
+      return _bf16 ? ab.putA2(BFloat16.fromFloats(_data)) : ab.putA4f(_data);
+    }
+    public final DenseRowMatrix read_impl(AutoBuffer ab) {
+      _rows = ab.get4();
+      _cols = ab.get4();
+      _bf16 = ab.getZ();
+      _data = _bf16 ? BFloat16.toFloats(ab.getA2()) : ab.getA4f();
+      return this;
+    }
     @Override public float get(int row, int col) {
       assert(row<_rows && col<_cols) : "_data.length: " + _data.length + ", checking: " + row + " < " + _rows + " && " + col + " < " + _cols;
       return _data[row*_cols + col];
@@ -10,7 +10,6 @@ import hex.gram.Gram;
 import hex.optimization.ADMM;
 import hex.optimization.OptimizationUtils.GradientInfo;
 import hex.optimization.OptimizationUtils.GradientSolver;
-import water.H2O;
 import water.Job;
 import water.MemoryManager;
 import water.util.ArrayUtils;
@@ -386,9 +385,83 @@ public final class ComputationState {
     }
   }
 
+  /**
+   * Multinomial version of the KKT check. Beta and gradient always cover all the columns of all the classes, only
+   * the per class active sets ({@link #activeDataMultinomial(int)}) are restricted by the strong rules. The full
+   * gradient is recomputed once at the end of the fit, inactive columns violating the KKT conditions are added to
+   * the active set of their class.
+   *
+   * @return true if all the KKT conditions are satisfied, false if some columns were added and the model has to be refitted.
+   */
   protected boolean checkKKTsMultinomial(){
-    if(_activeData._activeCols == null) return true;
-    throw H2O.unimpl();
+    if(_parms._family != Family.multinomial || _activeDataMultinomial == null || _allIn)
+      return true;
+    final int P = _dinfo.fullN();
+    final int N = P + 1;
+    _ginfo = _gslvr.getGradient(_beta);
+    double [] grad = _ginfo._gradient.clone();
+    final double l1pen = _alpha * _lambda;
+    for(int c = 0; c < _nclasses; ++c)
+      for(int i = c*N; i < c*N + P; ++i) {
+        if (_beta[i] < 0) grad[i] = ADMM.shrinkage(grad[i] - l1pen, l1pen * 1e-4);
+        else if (_beta[i] > 0) grad[i] = ADMM.shrinkage(grad[i] + l1pen, l1pen * 1e-4);
+        else grad[i] = ADMM.shrinkage(grad[i], l1pen);
+      }
+    double err = 1e-4;
+    int activeTotal = 0;
+    for(int c = 0; c < _nclasses; ++c) {
+      int[] activeCols = _activeDataMultinomial[c].activeCols();
+      activeTotal += activeCols.length - 1;
+      for (int i : activeCols) // set the error tolerance to the highest error of included columns
+        if (i < P) err = Math.max(err, Math.abs(grad[c*N + i]));
+    }
+    _gradientErr = err;
+    if(_parms._max_active_predictors != -1 && activeTotal >= _parms._max_active_predictors) {
+      Log.info("skipping KKT check, reached maximum number of active predictors ("  + _parms._max_active_predictors + ")");
+      return true;
+    }
+    int fcnt = 0;
+    int sum = 0;
+    for(int c = 0; c < _nclasses; ++c) {
+      int[] activeCols = _activeDataMultinomial[c].activeCols();
+      int[] failedCols = new int[16];
+      int k = 0;
+      for (int i = 0; i < P; ++i) {
+        if (Arrays.binarySearch(activeCols, i) >= 0) continue; // always include all previously active columns
+        double g = grad[c*N + i];
+        if (g > err || -g > err) {
+          if (k == failedCols.length)
+            failedCols = Arrays.copyOf(failedCols, failedCols.length << 1);
+          failedCols[k++] = i;
+        }
+      }
+      if (k > 0) {
+        activeCols = ArrayUtils.sortedMerge(activeCols, Arrays.copyOf(failedCols, k));
+        _activeDataMultinomial[c] = _dinfo.filterExpandedColumns(activeCols);
+        fcnt += k;
+      }
+      sum += activeCols.length;
+    }
+    _allIn = sum == N*_nclasses;
+    if (fcnt > 0) {
+      Log.info(fcnt + " variables failed KKT conditions, adding them to the model and recomputing.");
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * @return number of predictors (summed over all the classes for multinomial) the solver currently works with,
+   * i.e. the predictors not screened out by the strong rules
+   */
+  public int activePredictors() {
+    if(_parms._family == Family.multinomial || _parms._family == Family.ordinal) {
+      int res = 0;
+      for(int c = 0; c < _nclasses; ++c)
+        res += activeDataMultinomial(c).fullN();
+      return res;
+    }
+    return _activeData.fullN();
   }
 
   protected boolean checkKKTs() {
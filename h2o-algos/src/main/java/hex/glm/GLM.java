@@ -4,6 +4,7 @@ import hex.DataInfo;
 import hex.ModelBuilder;
 import hex.ModelCategory;
 import hex.ModelMetrics;
+import hex.PreprocessingCache;
 import hex.deeplearning.DeepLearningModel.DeepLearningParameters.MissingValuesHandling;
 import hex.glm.GLMModel.GLMOutput;
 import hex.glm.GLMModel.GLMParameters;
@@ -248,6 +249,8 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
     private ArrayList<Double> _lambdas = new ArrayList<>();
     private ArrayList<Integer> _lambdaIters = new ArrayList<>();
     private ArrayList<Integer> _lambdaPredictors = new ArrayList<>();
+    private ArrayList<Integer> _lambdaActivePredictors = new ArrayList<>();
+    private ArrayList<Long> _lambdaDurations = new ArrayList<>();
     private ArrayList<Double> _lambdaDevTrain = new ArrayList<>();
     private ArrayList<Double> _lambdaDevTest;
     private ArrayList<Double> _lambdaDevXval;
@@ -262,11 +265,17 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
       }
     }
 
-    public synchronized void addLambdaScore(int iter, int predictors, double lambda, double devRatioTrain, double devRatioTest, double devRatioXval, double devRatoioXvalSE) {
+    /**
+     * @param activePredictors size of the active set (predictors not screened out by the strong rules) of the final fit
+     * @param duration time spent fitting this lambda (including the KKT check passes) in ms
+     */
+    public synchronized void addLambdaScore(int iter, int predictors, int activePredictors, long duration, double lambda, double devRatioTrain, double devRatioTest, double devRatioXval, double devRatoioXvalSE) {
       _scoringTimes.add(System.currentTimeMillis());
       _lambdaIters.add(iter);
       _lambdas.add(lambda);
       _lambdaPredictors.add(predictors);
+      _lambdaActivePredictors.add(activePredictors);
+      _lambdaDurations.add(duration);
       _lambdaDevTrain.add(devRatioTrain);
       if(_lambdaDevTest != null)_lambdaDevTest.add(devRatioTest);
       if(_lambdaDevXval != null)_lambdaDevXval.add(devRatioXval);
@@ -279,16 +288,19 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
         cnames = ArrayUtils.append(cnames,"deviance_test");
       if(_lambdaDevXval != null)
         cnames = ArrayUtils.append(cnames,new String[]{"deviance_xval","deviance_se"});
+      cnames = ArrayUtils.append(cnames,new String[]{"active_predictors","lambda_duration"});
       String[] ctypes = new String[]{"string", "string", "int", "string","int", "double"};
       if(_lambdaDevTest != null)
         ctypes = ArrayUtils.append(ctypes,"double");
       if(_lambdaDevXval != null)
         ctypes = ArrayUtils.append(ctypes, new String[]{"double","double"});
+      ctypes = ArrayUtils.append(ctypes, new String[]{"int","string"});
       String[] cformats = new String[]{"%s", "%s", "%d","%s", "%d", "%.3f"};
       if(_lambdaDevTest != null)
         cformats = ArrayUtils.append(cformats,"%.3f");
       if(_lambdaDevXval != null)
         cformats = ArrayUtils.append(cformats,new String[]{"%.3f","%.3f"});
+      cformats = ArrayUtils.append(cformats,new String[]{"%d","%s"});
       TwoDimTable res = new TwoDimTable("Scoring History", "", new String[_lambdaIters.size()], cnames, ctypes, cformats, "");
       int j = 0;
       DateTimeFormatter fmt = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss");
@@ -306,6 +318,8 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
           res.set(i, col++, _lambdaDevXval.get(i));
           res.set(i, col++, _lambdaDevXvalSE.get(i));
         }
+        res.set(i, col++, _lambdaActivePredictors.get(i));
+        res.set(i, col++, PrettyPrint.msecs(_lambdaDurations.get(i), true));
       }
       return res;
     }
@@ -433,7 +447,13 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
         _parms._use_all_factor_levels = true;
       if (_parms._link == Link.family_default)
         _parms._link = _parms._family.defaultLink;
-      _dinfo = new DataInfo(_train.clone(), _valid, 1, _parms._use_all_factor_levels || _parms._lambda_search, _parms._standardize ? DataInfo.TransformType.STANDARDIZE : DataInfo.TransformType.NONE, DataInfo.TransformType.NONE, _parms._missing_values_handling == MissingValuesHandling.Skip, _parms._missing_values_handling == MissingValuesHandling.MeanImputation, false, hasWeightCol(), hasOffsetCol(), hasFoldCol(), _parms.interactionSpec());
+      final Frame train = _train.clone();
+      // the interaction vecs are made for every DataInfo
+      _dinfo = DataInfo.cached(_parms.interactionSpec() == null ? _parms._preprocessing_cache : null, dataInfoSignature(train), train, _valid, new PreprocessingCache.Maker<DataInfo>() {
+        @Override public DataInfo make() {
+          return new DataInfo(train, _valid, 1, _parms._use_all_factor_levels || _parms._lambda_search, _parms._standardize ? DataInfo.TransformType.STANDARDIZE : DataInfo.TransformType.NONE, DataInfo.TransformType.NONE, _parms._missing_values_handling == MissingValuesHandling.Skip, _parms._missing_values_handling == MissingValuesHandling.MeanImputation, false, hasWeightCol(), hasOffsetCol(), hasFoldCol(), _parms.interactionSpec());
+        }
+      });
 
       if (_parms._max_iterations == -1) { // fill in default max iterations
         int numclasses = (_parms._family == Family.multinomial)||(_parms._family == Family.ordinal)?nclasses():1;
@@ -550,6 +570,15 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
     }
   }
 
+  /** Everything the DataInfo of a model depends on: the frames and the transform settings. */
+  private String dataInfoSignature(Frame train) {
+    return "GLM.DataInfo:" + Arrays.toString(train.names()) + PreprocessingCache.frameSignature(_parms._train, train)
+        + (_valid == null ? "" : Arrays.toString(_valid.names()) + PreprocessingCache.frameSignature(_parms._valid, _valid))
+        + ":" + (_parms._use_all_factor_levels || _parms._lambda_search) + ":" + _parms._standardize
+        + ":" + _parms._missing_values_handling + ":" + _parms._weights_column + ":" + _parms._offset_column
+        + ":" + _parms._fold_column;
+  }
+
   protected static final long WORK_TOTAL = 1000000;
 
   transient Key [] _toRemove;
@@ -576,10 +605,13 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
 
     private void doCleanup() {
       try {
-        if(_parms._lambda_search && _parms._is_cv_model)
+        // generated weights are kept for the extra submodels fitted after cross-validation,
+        // the cv weights themselves belong to the main model (or to the folds shared by a search)
+        if(_parms._lambda_search && _parms._is_cv_model && _generatedWeights != null)
           Scope.untrack(removeLater(_dinfo.getWeightsVec()._key));
         if(!_cv && _model!=null)
           _model.unlock(_job);
+        setChol(null);
       } catch(Throwable t){
         // nada
       }
@@ -587,6 +619,12 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
     private transient Cholesky _chol;
     private transient L1Solver _lslvr;
 
+    /** Keeps the last decomposition (for the p-values), freeing the previous one if it was distributed. */
+    private void setChol(Cholesky chol) {
+      if (_chol != null && _chol != chol) _chol.remove();
+      _chol = chol;
+    }
+
 
     int [] findZeros(double [] vals){
       int [] res = new int[4];
@@ -604,15 +642,18 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
       if(_parms._remove_collinear_columns || _parms._compute_p_values) {
         if(!_parms._intercept) throw H2O.unimpl();
         ArrayList<Integer> ignoredCols = new ArrayList<>();
-        Cholesky chol = ((_state._iter == 0)?gram.qrCholesky(ignoredCols, _parms._standardize):gram.cholesky(null));
+        Cholesky chol = ((_state._iter == 0)?gram.qrCholesky(ignoredCols, _parms._standardize):gram.cholesky(null, true, "", true));
         if(!ignoredCols.isEmpty() && !_parms._remove_collinear_columns) {
           int [] collinear_cols = new int[ignoredCols.size()];
           for(int i = 0; i < collinear_cols.length; ++i)
             collinear_cols[i] = ignoredCols.get(i);
           throw new Gram.CollinearColumnsException("Found collinear columns in the dataset. P-values can not be computed with collinear columns in the dataset. Set remove_collinear_columns flag to true to remove collinear columns automatically. Found collinear columns " + Arrays.toString(ArrayUtils.select(_dinfo.coefNames(),collinear_cols)));
         }
-        if(!chol.isSPD()) throw new NonSPDMatrixException();
-        _chol = chol;
+        if(!chol.isSPD()) {
+          chol.remove();
+          throw new NonSPDMatrixException();
+        }
+        setChol(chol);
         if(!ignoredCols.isEmpty()) { // got some redundant cols
           int [] collinear_cols = new int[ignoredCols.size()];
           for(int i = 0; i < collinear_cols.length; ++i)
@@ -631,7 +672,7 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
         gram = gram.deep_clone();
         xy = xy.clone();
         GramSolver slvr = new GramSolver(gram.clone(), xy.clone(), _parms._intercept, _state.l2pen(),_state.l1pen(), _state.activeBC()._betaGiven, _state.activeBC()._rho, _state.activeBC()._betaLB, _state.activeBC()._betaUB);
-        _chol = slvr._chol;
+        setChol(slvr._chol);
         if(_state.l1pen() == 0 && !_state.activeBC().hasBounds()) {
           slvr.solve(xy);
         } else {
@@ -1115,6 +1156,7 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
         _model.addSubmodel(sm = new Submodel(lambda,getNullBeta(),_state._iter,_nullDevTrain,_nullDevTest));
       else {
         _model.addSubmodel(sm = new Submodel(lambda, _state.beta(),_state._iter,-1,-1));
+        long t0 = System.currentTimeMillis();
         _state.setLambda(lambda);
         checkMemoryFootPrint(_state.activeData());
         do {
@@ -1125,7 +1167,8 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
             Log.info(LogMsg("Got " + _state.activeData().fullN() + " active columns out of " + _state._dinfo.fullN() + " total"));
           fitModel();
         } while (!_state.checkKKTs());
-        Log.info(LogMsg("solution has " + ArrayUtils.countNonzeros(_state.beta()) + " nonzeros"));
+        long fitTime = System.currentTimeMillis() - t0;
+        Log.info(LogMsg("solution has " + ArrayUtils.countNonzeros(_state.beta()) + " nonzeros, fitted in " + fitTime + "ms"));
         if (_parms._lambda_search) {  // need train and test deviance, only "the best" submodel will be fully scored
           double trainDev = _state.deviance() / _nobs;
           double testDev = Double.NaN;
@@ -1140,7 +1183,7 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
           Log.info(LogMsg("train deviance = " + trainDev + ", test deviance = " + testDev));
           double xvalDev = _xval_test_deviances == null ? -1 : _xval_test_deviances[i];
           double xvalDevSE = _xval_test_sd == null ? -1 : _xval_test_sd[i];
-          _lsc.addLambdaScore(_state._iter, ArrayUtils.countNonzeros(_state.beta()), _state.lambda(), trainDev, testDev, xvalDev, xvalDevSE);
+          _lsc.addLambdaScore(_state._iter, ArrayUtils.countNonzeros(_state.beta()), _state.activePredictors(), fitTime, _state.lambda(), trainDev, testDev, xvalDev, xvalDevSE);
           _model.updateSubmodel(sm = new Submodel(_state.lambda(), _state.beta(), _state._iter, trainDev, testDev));
         } else // model is gonna be scored subsequently anyways
           _model.updateSubmodel(sm = new Submodel(lambda, _state.beta(), _state._iter, -1, -1));
@@ -1592,27 +1635,35 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
         rhos = Arrays.copyOf(rhos,rhos.length-1);
         _xy[_xy.length-1] = 0;
       }
-      _chol = gram.cholesky(null, true, null);
+      factor(gram);
       if (!_chol.isSPD()) { // make sure rho is big enough
         gram.addDiag(ArrayUtils.mult(rhos, -1));
         gram.addDiag(rhoAdd,!intercept);
         Log.info("Got NonSPD matrix with original rho, re-computing with rho = " + (_rho[0]+rhoAdd));
-        _chol = gram.cholesky(null, true, null);
+        factor(gram);
         int cnt = 0;
         double rhoAddSum = rhoAdd;
         while (!_chol.isSPD() && cnt++ < 5) {
           gram.addDiag(rhoAdd,!intercept);
           rhoAddSum += rhoAdd;
           Log.warn("Still NonSPD matrix, re-computing with rho = " + (rhos[0] + rhoAddSum));
-          _chol = gram.cholesky(null, true, null);
+          factor(gram);
         }
-        if (!_chol.isSPD())
+        if (!_chol.isSPD()) {
+          _chol.remove();
           throw new NonSPDMatrixException();
+        }
       }
       gram.addDiag(ArrayUtils.mult(rhos, -1));
       ArrayUtils.mult(rhos, -1);
     }
 
+    // a distributed factor is freed by the GLM driver holding the solver's decomposition
+    private void factor(Gram gram) {
+      if (_chol != null) _chol.remove();
+      _chol = gram.cholesky(null, true, null, true);
+    }
+
     @Override
     public double[] rho() {
       return _rho;
@@ -383,6 +383,16 @@ public abstract class GLMTask  {
    public long nobs() {return _basicStats.nobs();}
  }
 
+  // Blocked gram accumulation for dense data with enough numeric columns, null => rows are added one by one
+  static Gram.RowBlock gramBlock(Gram gram, int blockSize, boolean sparse, int denseN) {
+    if(blockSize == 0 || sparse) return null;
+    if(blockSize < 0) {
+      if(!Gram.RowBlock.useFor(denseN)) return null;
+      blockSize = Gram.RowBlock.DEFAULT_BLOCK_SIZE;
+    }
+    return new Gram.RowBlock(gram, blockSize);
+  }
+
   static double  computeMultinomialEtas(double [] etas, double [] exps) {
     double maxRow = ArrayUtils.maxValue(etas);
     double sumExp = 0;
@@ -530,97 +540,61 @@ public abstract class GLMTask  {
     }
     protected abstract void computeGradientMultipliers(double [] es, double [] ys, double [] ws);
 
-    private final void computeCategoricalEtas(Chunk [] chks, double [] etas, double [] vals, int [] ids) {
+    // dense columns only, the sparse ones are in the SparseChunkIndex
+    private final void computeCategoricalEtas(Chunk [] chks, double [] etas, int [] ids, SparseChunkIndex sparse) {
       // categoricals
       for(int cid = 0; cid < _dinfo._cats; ++cid){
+        if(sparse.isIndexed(cid)) continue;
         Chunk c = chks[cid];
-        if(c.isSparseZero()) {
-          int nvals = c.getSparseDoubles(vals,ids,-1);
-          for(int i = 0; i < nvals; ++i){
-            int id = _dinfo.getCategoricalId(cid,(int)vals[i]);
-            if(id >=0) etas[ids[i]] += _beta[id];
-          }
-        } else {
-          c.getIntegers(ids, 0, c._len,-1);
-          for(int i = 0; i < ids.length; ++i){
-            int id = _dinfo.getCategoricalId(cid,ids[i]);
-            if(id >=0) etas[i] += _beta[id];
-          }
+        c.getIntegers(ids, 0, c._len,-1);
+        for(int i = 0; i < ids.length; ++i){
+          int id = _dinfo.getCategoricalId(cid,ids[i]);
+          if(id >=0) etas[i] += _beta[id];
         }
       }
     }
 
-    private final void computeCategoricalGrads(Chunk [] chks, double [] etas, double [] vals, int [] ids) {
+    private final void computeCategoricalGrads(Chunk [] chks, double [] etas, int [] ids, SparseChunkIndex sparse) {
       // categoricals
       for(int cid = 0; cid < _dinfo._cats; ++cid){
+        if(sparse.isIndexed(cid)) continue;
         Chunk c = chks[cid];
-        if(c.isSparseZero()) {
-          int nvals = c.getSparseDoubles(vals,ids,-1);
-          for(int i = 0; i < nvals; ++i){
-            int id = _dinfo.getCategoricalId(cid,(int)vals[i]);
-            if(id >=0) _gradient[id] += etas[ids[i]];
-          }
-        } else {
-          c.getIntegers(ids, 0, c._len,-1);
-          for(int i = 0; i < ids.length; ++i){
-            int id = _dinfo.getCategoricalId(cid,ids[i]);
-            if(id >=0) _gradient[id] += etas[i];
-          }
+        c.getIntegers(ids, 0, c._len,-1);
+        for(int i = 0; i < ids.length; ++i){
+          int id = _dinfo.getCategoricalId(cid,ids[i]);
+          if(id >=0) _gradient[id] += etas[i];
         }
       }
     }
 
-    private final void computeNumericEtas(Chunk [] chks, double [] etas, double [] vals, int [] ids) {
+    private final void computeNumericEtas(Chunk [] chks, double [] etas, double [] vals, SparseChunkIndex sparse) {
       int numOff = _dinfo.numStart();
       for(int cid = 0; cid < _dinfo._nums; ++cid){
+        if(sparse.isIndexed(_dinfo._cats + cid)) continue;
         double scale = _dinfo._normMul != null?_dinfo._normMul[cid]:1;
         double off = _dinfo._normSub != null?_dinfo._normSub[cid]:0;
         double NA = _dinfo._numMeans[cid];
         Chunk c = chks[cid+_dinfo._cats];
         double b = scale*_beta[numOff+cid];
-        if(c.isSparseZero()){
-          int nvals = c.getSparseDoubles(vals,ids,NA);
-          for(int i = 0; i < nvals; ++i)
-            etas[ids[i]] += vals[i] * b;
-        } else if(c.isSparseNA()){
-          int nvals = c.getSparseDoubles(vals,ids,NA);
-          for(int i = 0; i < nvals; ++i)
-            etas[ids[i]] += (vals[i] - off) * b;
-        } else {
-          c.getDoubles(vals,0,vals.length,NA);
-          for(int i = 0; i < vals.length; ++i)
-            etas[i] += (vals[i] - off) * b;
-        }
+        c.getDoubles(vals,0,vals.length,NA);
+        for(int i = 0; i < vals.length; ++i)
+          etas[i] += (vals[i] - off) * b;
       }
     }
 
-    private final void computeNumericGrads(Chunk [] chks, double [] etas, double [] vals, int [] ids) {
+    private final void computeNumericGrads(Chunk [] chks, double [] etas, double [] vals, SparseChunkIndex sparse) {
       int numOff = _dinfo.numStart();
       for(int cid = 0; cid < _dinfo._nums; ++cid){
+        if(sparse.isIndexed(_dinfo._cats + cid)) continue;
         double NA = _dinfo._numMeans[cid];
         Chunk c = chks[cid+_dinfo._cats];
         double scale = _dinfo._normMul == null?1:_dinfo._normMul[cid];
-        if(c.isSparseZero()){
-          double g = 0;
-          int nVals = c.getSparseDoubles(vals,ids,NA);
-          for(int i = 0; i < nVals; ++i)
-            g += vals[i]*scale*etas[ids[i]];
-          _gradient[numOff+cid] = g;
-        } else if(c.isSparseNA()){
-          double off = _dinfo._normSub == null?0:_dinfo._normSub[cid];
-          double g = 0;
-          int nVals = c.getSparseDoubles(vals,ids,NA);
-          for(int i = 0; i < nVals; ++i)
-            g += (vals[i]-off)*scale*etas[ids[i]];
-          _gradient[numOff+cid] = g;
-        } else {
-          double off = _dinfo._normSub == null?0:_dinfo._normSub[cid];
-          c.getDoubles(vals,0,vals.length,NA);
-          double g = 0;
-          for(int i = 0; i < vals.length; ++i)
-            g += (vals[i]-off)*scale*etas[i];
-          _gradient[numOff+cid] = g;
-        }
+        double off = _dinfo._normSub == null?0:_dinfo._normSub[cid];
+        c.getDoubles(vals,0,vals.length,NA);
+        double g = 0;
+        for(int i = 0; i < vals.length; ++i)
+          g += (vals[i]-off)*scale*etas[i];
+        _gradient[numOff+cid] = g;
       }
     }
 
@@ -642,12 +616,16 @@ public abstract class GLMTask  {
       ArrayUtils.add(etas,sparseOffset + _beta[_beta.length-1]);
       double [] vals = MemoryManager.malloc8d(response._len);
       int [] ids = MemoryManager.malloc4(response._len);
-      computeCategoricalEtas(chks,etas,vals,ids);
-      computeNumericEtas(chks,etas,vals,ids);
+      // decode the sparse columns once, both passes below only walk their non-zeros
+      SparseChunkIndex sparse = SparseChunkIndex.make(_dinfo,chks,vals,ids,true);
+      computeCategoricalEtas(chks,etas,ids,sparse);
+      computeNumericEtas(chks,etas,vals,sparse);
+      sparse.addEtas(_beta,etas);
       computeGradientMultipliers(etas,ys,ws);
       // walk the chunks again, add to the gradient
-      computeCategoricalGrads(chks,etas,vals,ids);
-      computeNumericGrads(chks,etas,vals,ids);
+      computeCategoricalGrads(chks,etas,ids,sparse);
+      computeNumericGrads(chks,etas,vals,sparse);
+      sparse.addGradient(etas,_gradient);
       // add intercept
       _gradient[_gradient.length-1] = ArrayUtils.sum(etas);
       if(_dinfo._normSub != null) {
@@ -830,88 +808,62 @@ public abstract class GLMTask  {
       _link = glmp._link;
       _glmp = glmp;
     }
-    // common between multinomial and ordinal
-    private final void computeCategoricalEtas(Chunk [] chks, double [][] etas, double [] vals, int [] ids) {
+    // common between multinomial and ordinal, dense columns only, the sparse ones are in the SparseChunkIndex
+    private final void computeCategoricalEtas(Chunk [] chks, double [][] etas, int [] ids, SparseChunkIndex sparse) {
       // categoricals
       for(int cid = 0; cid < _dinfo._cats; ++cid){
+        if(sparse.isIndexed(cid)) continue;
         Chunk c = chks[cid];
-        if(c.isSparseZero()) {
-          int nvals = c.getSparseDoubles(vals,ids,-1);
-          for(int i = 0; i < nvals; ++i){
-            int id = _dinfo.getCategoricalId(cid,(int)vals[i]);
-            if(id >=0)ArrayUtils.add(etas[ids[i]],_beta[id]);
-          }
-        } else {
-          c.getIntegers(ids, 0, c._len,-1);
-          for(int i = 0; i < ids.length; ++i){
-            int id = _dinfo.getCategoricalId(cid,ids[i]);
-            if(id >=0) ArrayUtils.add(etas[i],_beta[id]);
-          }
+        c.getIntegers(ids, 0, c._len,-1);
+        for(int i = 0; i < ids.length; ++i){
+          int id = _dinfo.getCategoricalId(cid,ids[i]);
+          if(id >=0) ArrayUtils.add(etas[i],_beta[id]);
         }
       }
     }
 
-    private final void computeCategoricalGrads(Chunk [] chks, double [][] etas, double [] vals, int [] ids) {
+    private final void computeCategoricalGrads(Chunk [] chks, double [][] etas, int [] ids, SparseChunkIndex sparse) {
       // categoricals
       for(int cid = 0; cid < _dinfo._cats; ++cid){
+        if(sparse.isIndexed(cid)) continue;
         Chunk c = chks[cid];
-        if(c.isSparseZero()) {
-          int nvals = c.getSparseDoubles(vals,ids,-1);
-          for(int i = 0; i < nvals; ++i){
-            int id = _dinfo.getCategoricalId(cid,(int)vals[i]);
-            if(id >=0) ArrayUtils.add(_gradient[id],etas[ids[i]]);
-          }
-        } else {
-          c.getIntegers(ids, 0, c._len,-1);
-          for(int i = 0; i < ids.length; ++i){
-            int id = _dinfo.getCategoricalId(cid,ids[i]);
-            if(id >=0) ArrayUtils.add(_gradient[id],etas[i]);
-          }
+        c.getIntegers(ids, 0, c._len,-1);
+        for(int i = 0; i < ids.length; ++i){
+          int id = _dinfo.getCategoricalId(cid,ids[i]);
+          if(id >=0) ArrayUtils.add(_gradient[id],etas[i]);
         }
       }
     }
 
-    private final void computeNumericEtas(Chunk [] chks, double [][] etas, double [] vals, int [] ids) {
+    private final void computeNumericEtas(Chunk [] chks, double [][] etas, double [] vals, SparseChunkIndex sparse) {
       int numOff = _dinfo.numStart();
       for(int cid = 0; cid < _dinfo._nums; ++cid){
+        if(sparse.isIndexed(_dinfo._cats + cid)) continue;
         double [] b = _beta[numOff+cid];
         double scale = _dinfo._normMul != null?_dinfo._normMul[cid]:1;
         double NA = _dinfo._numMeans[cid];
         Chunk c = chks[cid+_dinfo._cats];
-        if(c.isSparseZero() || c.isSparseNA()){
-          int nvals = c.getSparseDoubles(vals,ids,NA);
-          for(int i = 0; i < nvals; ++i) {
-            double d = vals[i]*scale;
-            ArrayUtils.wadd(etas[ids[i]],b,d);
-          }
-        } else {
-          c.getDoubles(vals,0,vals.length,NA);
-          double off = _dinfo._normSub != null?_dinfo._normSub[cid]:0;
-          for(int i = 0; i < vals.length; ++i) {
-            double d = (vals[i] - off) * scale;
-            ArrayUtils.wadd(etas[i],b,d);
-          }
+        c.getDoubles(vals,0,vals.length,NA);
+        double off = _dinfo._normSub != null?_dinfo._normSub[cid]:0;
+        for(int i = 0; i < vals.length; ++i) {
+          double d = (vals[i] - off) * scale;
+          ArrayUtils.wadd(etas[i],b,d);
         }
       }
     }
 
-    private final void computeNumericGrads(Chunk [] chks, double [][] etas, double [] vals, int [] ids) {
+    private final void computeNumericGrads(Chunk [] chks, double [][] etas, double [] vals, SparseChunkIndex sparse) {
       int numOff = _dinfo.numStart();
       for(int cid = 0; cid < _dinfo._nums; ++cid){
+        if(sparse.isIndexed(_dinfo._cats + cid)) continue;
         double [] g = _gradient[numOff + cid];
         double NA = _dinfo._numMeans[cid];
         Chunk c = chks[cid+_dinfo._cats];
         double scale = _dinfo._normMul == null?1:_dinfo._normMul[cid];
-        if(c.isSparseZero() || c.isSparseNA()){
-          int nVals = c.getSparseDoubles(vals,ids,NA);
-          for (int i = 0; i < nVals; ++i)
-            ArrayUtils.wadd(g,etas[ids[i]],vals[i] * scale);
-        } else {
-          double off = _dinfo._normSub == null?0:_dinfo._normSub[cid];
-          c.getDoubles(vals,0,vals.length,NA);
-          for(int i = 0; i < vals.length; ++i)
-            ArrayUtils.wadd(g,etas[i],(vals[i] - off) * scale);
-        }
+        double off = _dinfo._normSub == null?0:_dinfo._normSub[cid];
+        c.getDoubles(vals,0,vals.length,NA);
+        for(int i = 0; i < vals.length; ++i)
+          ArrayUtils.wadd(g,etas[i],(vals[i] - off) * scale);
       }
     }
 
@@ -1042,8 +994,11 @@ public abstract class GLMTask  {
       chks = Arrays.copyOf(chks,chks.length-1-(_dinfo._weights?1:0));
       double [] vals = MemoryManager.malloc8d(M);
       int [] ids = MemoryManager.malloc4(M);
-      computeCategoricalEtas(chks,etas,vals,ids);
-      computeNumericEtas(chks,etas,vals,ids);
+      // decode the sparse columns once, both passes below only walk their non-zeros
+      SparseChunkIndex sparse = SparseChunkIndex.make(_dinfo,chks,vals,ids,false);
+      computeCategoricalEtas(chks,etas,ids,sparse);
+      computeNumericEtas(chks,etas,vals,sparse);
+      sparse.addEtas(_beta,etas);
       if (_glmp != null && _link == Link.ologit && (_glmp._solver.equals(GLMParameters.Solver.AUTO) ||
               _glmp._solver.equals((GLMParameters.Solver.GRADIENT_DESCENT_LH))))  // gradient is stored in etas
         computeGradientMultipliersLH(etas, etasOffset, response.getDoubles(vals, 0, M), ws);
@@ -1052,8 +1007,9 @@ public abstract class GLMTask  {
       else
         computeGradientMultipliers(etas, response.getDoubles(vals, 0, M), ws);
 
-      computeCategoricalGrads(chks, etas, vals, ids);
-      computeNumericGrads(chks, etas, vals, ids);
+      computeCategoricalGrads(chks, etas, ids, sparse);
+      computeNumericGrads(chks, etas, vals, sparse);
+      sparse.addGradient(etas, _gradient);
 
       double [] g = _gradient[P-1]; // get the intercept gradient.
       // sum up the gradient over the data rows in this chk[]
@@ -1338,6 +1294,7 @@ public abstract class GLMTask  {
     double [] _xy;
     Gram _gram;
     transient double _sparseOffset;
+    private transient Gram.RowBlock _gramBlock;
 
     public GLMIterationTaskMultinomial(DataInfo dinfo, Key jobKey, double [] beta, int c) {
       super(null, dinfo, jobKey);
@@ -1348,10 +1305,17 @@ public abstract class GLMTask  {
     @Override public void chunkInit(){
       // initialize
       _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats,true);
+      _gramBlock = gramBlock(_gram, -1, _sparse, _dinfo.numNums());
       _xy = MemoryManager.malloc8d(_dinfo.fullN()+1); // + 1 is for intercept
       if(_sparse)
         _sparseOffset = GLM.sparseOffset(_beta,_dinfo);
     }
+    @Override public void chunkDone(){
+      if(_gramBlock != null) {
+        _gramBlock.flush();
+        _gramBlock = null;
+      }
+    }
     @Override
     protected void processRow(Row r) {
       double y = r.response(0);
@@ -1379,7 +1343,8 @@ public abstract class GLMTask  {
       }
       if(_dinfo._intercept)
         _xy[_xy.length-1] += wz;
-      _gram.addRow(r, w);
+      if(_gramBlock != null) _gramBlock.addRow(r, w);
+      else _gram.addRow(r, w);
     }
 
     @Override
@@ -1459,6 +1424,8 @@ public abstract class GLMTask  {
     double wsum, wsumu;
     double _sumsqe;
     int _c = -1;
+    int _gramBlockSize = -1; // rows accumulated into the gram at once, 0 => row by row, -1 => decide by the data
+    private transient Gram.RowBlock _gramBlock;
 
     public  GLMIterationTask(Key jobKey, DataInfo dinfo, GLMWeightsFun glmw,double [] beta) {
       super(null,dinfo,jobKey);
@@ -1477,11 +1444,21 @@ public abstract class GLMTask  {
 
     @Override public boolean handlesSparseData(){return true;}
 
+    /**
+     * Sets the number of rows added to the gram at once, see {@link Gram.RowBlock}.
+     * @param blockSize number of rows, 0 to add the rows one by one, -1 to decide by the number of numeric columns
+     */
+    public GLMIterationTask setGramBlockSize(int blockSize) {
+      _gramBlockSize = blockSize;
+      return this;
+    }
+
     transient private double _sparseOffset;
     @Override
     public void chunkInit() {
       // initialize
       _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats,true);
+      _gramBlock = gramBlock(_gram, _gramBlockSize, _sparse, _dinfo.numNums());
       _xy = MemoryManager.malloc8d(_dinfo.fullN()+1); // + 1 is for intercept
       if(_sparse)
          _sparseOffset = GLM.sparseOffset(_beta,_dinfo);
@@ -1524,11 +1501,18 @@ public abstract class GLMTask  {
       }
       if(_dinfo._intercept)
         _xy[_xy.length-1] += wz;
-      _gram.addRow(r,w);
+      if(_gramBlock != null) _gramBlock.addRow(r,w);
+      else _gram.addRow(r,w);
     }
 
     @Override
-    public void chunkDone(){adjustForSparseStandardizedZeros();}
+    public void chunkDone(){
+      if(_gramBlock != null) {
+        _gramBlock.flush();
+        _gramBlock = null;
+      }
+      adjustForSparseStandardizedZeros();
+    }
 
     @Override
     public void reduce(GLMIterationTask git){
@@ -0,0 +1,118 @@
+package hex.glm;
+
+import hex.DataInfo;
+import water.MemoryManager;
+import water.fvec.Chunk;
+import water.util.ArrayUtils;
+
+/**
+ * Non-zero entries of the sparse predictor columns of a single chunk.
+ *
+ * The entries are decoded once per chunk (with {@link Chunk#getSparseDoubles}) and grouped by column, similar to
+ * a CSR matrix stored by columns. Each entry already carries the coefficient id assigned by {@link DataInfo} (the
+ * categorical level is resolved, numeric values are standardized), so the passes of the gradient computation
+ * (eta = X*beta and then X'*multipliers) only touch the non-zeros and don't need to decompress the chunks again.
+ *
+ * Columns that are not sparse ({@link Chunk#isSparseZero()} or {@link Chunk#isSparseNA()}) are not indexed and
+ * are expected to be processed densely by the caller.
+ */
+final class SparseChunkIndex {
+  private final boolean[] _indexed; // predictor columns (categoricals followed by numerics) which are in the index
+  final int[] _colStart;            // entries of column c are at _colStart[c] until _colStart[c+1]
+  final int[] _rows;                // chunk-relative row of the entry
+  final int[] _coefs;               // coefficient id of the entry
+  final double[] _vals;             // value of the entry (1 for categoricals)
+
+  private SparseChunkIndex(boolean[] indexed, int[] colStart, int[] rows, int[] coefs, double[] vals) {
+    _indexed = indexed;
+    _colStart = colStart;
+    _rows = rows;
+    _coefs = coefs;
+    _vals = vals;
+  }
+
+  /**
+   * Builds the index of the sparse predictor columns of the given chunks.
+   * @param vals scratch buffer of at least chunk length
+   * @param ids scratch buffer of at least chunk length
+   * @param centerSparseNA subtract the DataInfo mean from the values of NA-sparse numeric columns
+   */
+  static SparseChunkIndex make(DataInfo dinfo, Chunk[] chks, double[] vals, int[] ids, boolean centerSparseNA) {
+    final int ncols = dinfo._cats + dinfo._nums;
+    boolean[] indexed = new boolean[ncols];
+    int[] colStart = new int[ncols + 1];
+    int capacity = 0;
+    for (int cid = 0; cid < ncols; ++cid) {
+      Chunk c = chks[cid];
+      if (c.isSparseZero()) capacity += c.sparseLenZero();
+      else if (cid >= dinfo._cats && c.isSparseNA()) capacity += c.sparseLenNA();
+      else continue;
+      indexed[cid] = true;
+    }
+    int[] rows = MemoryManager.malloc4(capacity);
+    int[] coefs = MemoryManager.malloc4(capacity);
+    double[] xs = MemoryManager.malloc8d(capacity);
+    int nnz = 0;
+    final int numStart = dinfo.numStart();
+    for (int cid = 0; cid < ncols; ++cid) {
+      colStart[cid] = nnz;
+      if (!indexed[cid]) continue;
+      Chunk c = chks[cid];
+      if (cid < dinfo._cats) {
+        int n = c.getSparseDoubles(vals, ids, -1);
+        for (int i = 0; i < n; ++i) {
+          int id = dinfo.getCategoricalId(cid, (int) vals[i]);
+          if (id < 0) continue;
+          rows[nnz] = ids[i];
+          coefs[nnz] = id;
+          xs[nnz++] = 1;
+        }
+      } else {
+        int num = cid - dinfo._cats;
+        double scale = dinfo._normMul != null ? dinfo._normMul[num] : 1;
+        double off = centerSparseNA && c.isSparseNA() && dinfo._normSub != null ? dinfo._normSub[num] : 0;
+        int n = c.getSparseDoubles(vals, ids, dinfo._numMeans[num]);
+        for (int i = 0; i < n; ++i) {
+          rows[nnz] = ids[i];
+          coefs[nnz] = numStart + num;
+          xs[nnz++] = (vals[i] - off) * scale;
+        }
+      }
+    }
+    colStart[ncols] = nnz;
+    return new SparseChunkIndex(indexed, colStart, rows, coefs, xs);
+  }
+
+  /** @return true if the given predictor column (categoricals first, then numerics) is in the index */
+  boolean isIndexed(int cid) { return _indexed[cid]; }
+
+  int nnz() { return _colStart[_colStart.length - 1]; }
+
+  /** etas[row] += x[row, coef] * beta[coef] over all the indexed entries */
+  void addEtas(double[] beta, double[] etas) {
+    final int nnz = nnz();
+    for (int i = 0; i < nnz; ++i)
+      etas[_rows[i]] += _vals[i] * beta[_coefs[i]];
+  }
+
+  /** grad[coef] += x[row, coef] * multipliers[row] over all the indexed entries */
+  void addGradient(double[] multipliers, double[] grad) {
+    final int nnz = nnz();
+    for (int i = 0; i < nnz; ++i)
+      grad[_coefs[i]] += _vals[i] * multipliers[_rows[i]];
+  }
+
+  /** Multinomial version of {@link #addEtas(double[], double[])}, beta is indexed by [coef][class]. */
+  void addEtas(double[][] beta, double[][] etas) {
+    final int nnz = nnz();
+    for (int i = 0; i < nnz; ++i)
+      ArrayUtils.wadd(etas[_rows[i]], beta[_coefs[i]], _vals[i]);
+  }
+
+  /** Multinomial version of {@link #addGradient(double[], double[])}, grad is indexed by [coef][class]. */
+  void addGradient(double[][] multipliers, double[][] grad) {
+    final int nnz = nnz();
+    for (int i = 0; i < nnz; ++i)
+      ArrayUtils.wadd(grad[_coefs[i]], multipliers[_rows[i]], _vals[i]);
+  }
+}
@@ -8,6 +8,7 @@ import hex.DMatrix;
 import hex.DataInfo;
 import hex.ModelBuilder;
 import hex.ModelCategory;
+import hex.PreprocessingCache;
 import hex.genmodel.algos.glrm.GlrmInitialization;
 import hex.genmodel.algos.glrm.GlrmLoss;
 import hex.genmodel.algos.glrm.GlrmMojoModel;
@@ -68,6 +69,9 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
 
   private ArrayList<Integer> _binaryColumnIndices;  // store binary columns using binary loss functions.
 
+  // Warm start: number of leading rows of _train already factorized by the _checkpoint model
+  private transient long _warmStartRows;
+
   @Override protected GLRMDriver trainModelImpl() { return new GLRMDriver(); }
   @Override public ModelCategory[] can_build() { return new ModelCategory[]{ModelCategory.Clustering}; }
   @Override public boolean isSupervised() { return false; }
@@ -218,7 +222,53 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
         throw H2O.unimpl("GLRM cannot handle String or UUID data");
     }
 
+    if (_parms.hasCheckpoint()) initCheckpoint();
+
     if (expensive && error_count() == 0) checkMemoryFootPrint();  // check to make sure we can fit.
+    if (_parms.hasCheckpoint() && _wideDataset)
+      error("_checkpoint", "Warm start from a checkpoint is not supported for wide datasets");
+  }
+
+  /**
+   * Validate the _checkpoint model for a warm start: _train must have the same columns as the checkpointed model and
+   * contain its training rows followed by the new rows.
+   */
+  private void initCheckpoint() {
+    if (_parms._refine_iterations < 0)
+      error("_refine_iterations", "refine_iterations must be a non-negative number");
+    Value cv = DKV.get(_parms._checkpoint);
+    if (cv == null) return;  // reported by ModelBuilder
+    if (!(cv.get() instanceof GLRMModel)) {
+      error("_checkpoint", "Checkpoint has to point to a GLRM model");
+      return;
+    }
+    GLRMModel checkpoint = cv.get();
+    GLRMParameters cp = checkpoint._parms;
+    if (!Arrays.equals(_train.names(), checkpoint._output._names))
+      error("_checkpoint", "The columns of the training data must be the same as for the checkpointed model");
+    else if (!Arrays.deepEquals(_train.domains(), checkpoint._output._domains))
+      error("_checkpoint", "Categorical factor levels of the training data must be the same as for the " +
+              "checkpointed model");
+    if (_parms._k != cp._k)
+      error("_k", "k must be the same as for the checkpointed model (" + cp._k + ")");
+    if (_parms._transform != cp._transform)
+      error("_transform", "transform must be the same as for the checkpointed model (" + cp._transform + ")");
+    if (_parms._loss != cp._loss || _parms._multi_loss != cp._multi_loss || _parms._period != cp._period ||
+            !Arrays.equals(_parms._loss_by_col, cp._loss_by_col) ||
+            !Arrays.equals(_parms._loss_by_col_idx, cp._loss_by_col_idx))
+      error("_loss", "Loss functions must be the same as for the checkpointed model");
+    if (_parms._user_x != null || _parms._user_y != null)
+      error("_checkpoint", "Cannot use user-specified X or Y together with a checkpoint");
+
+    Frame x = checkpoint._output._representation_key == null ? null :
+            DKV.<Frame>getGet(checkpoint._output._representation_key);
+    if (x == null)
+      error("_checkpoint", "The X frame (representation) of the checkpointed model is no longer available");
+    else if (x.numRows() > _train.numRows())
+      error("_checkpoint", "The training frame must contain the " + x.numRows() + " rows of the checkpointed " +
+              "model followed by the new rows");
+    else
+      _warmStartRows = x.numRows();
   }
 
   /** Validate all Loss-related parameters, and fill in the `_lossFunc` array. */
@@ -379,6 +429,13 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
     private double[][] initialXY(DataInfo tinfo, Frame dfrm, GLRMModel model, long na_cnt) {
       double[][] centers, centers_exp = null;
 
+      if (_parms.hasCheckpoint()) {  // Warm start: Y and X of the old rows from the checkpointed model
+        GLRMModel checkpoint = DKV.getGet(_parms._checkpoint);
+        new InitialXCheckpoint(_parms, checkpoint._output._representation_key, _warmStartRows, _ncolA, _ncolX)
+                .doAll(dfrm);
+        return checkpoint._output._archetypes_raw.getY(false);  // Don't project, Y is already a solution
+      }
+
       if (_parms._init == GlrmInitialization.User) { // Set X and Y to user-specified points if available,
                                                      // Gaussian matrix if not
         Frame userYFrame = _parms._user_y == null? null : _parms._user_y.get();
@@ -535,6 +592,10 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
 
     // In case of quadratic loss and regularization, initialize closed form X = AY'(YY' + \gamma)^(-1)
     private void initialXClosedForm(DataInfo dinfo, Archetypes yt_arch, double[] normSub, double[] normMul) {
+      initialXClosedForm(dinfo, yt_arch, normSub, normMul, 0);
+    }
+    private void initialXClosedForm(DataInfo dinfo, Archetypes yt_arch, double[] normSub, double[] normMul,
+                                    long rowStart) {
       Log.info("Initializing X = AY'(YY' + gamma I)^(-1) where A = training data");
       double[][] ygram = ArrayUtils.formGram(yt_arch._archetypes);
       if (_parms._gamma_y > 0) {
@@ -546,17 +607,54 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
         Log.warn("Initialization failed: (YY' + gamma I) is non-SPD. Setting initial X to standard normal" +
                 " random matrix. Results will be numerically unstable");
       else {
-        CholMulTask cmtsk = new CholMulTask(yychol, yt_arch, _ncolA, _ncolX, dinfo._cats, normSub, normMul);
+        CholMulTask cmtsk = new CholMulTask(yychol, yt_arch, _ncolA, _ncolX, dinfo._cats, normSub, normMul, rowStart);
         cmtsk.doAll(dinfo._adaptedFrame);
       }
     }
 
+    /**
+     * Warm start: fit X of the rows appended since the checkpointed model with Y fixed (closed form if possible,
+     * proximal gradient steps otherwise).  Only the new rows are updated, the old rows keep their X.
+     */
+    private void solveNewRowsX(DataInfo dinfo, Archetypes yt, GLRMModel model, int weightId, long na_cnt) {
+      final long newRows = _train.numRows() - _warmStartRows;
+      Log.info("Warm start from " + _parms._checkpoint + ": solving X for " + newRows + " new rows");
+      if (newRows == 0) return;
+      if (hasClosedForm(na_cnt)) {
+        initialXClosedForm(dinfo, yt, model._output._normSub, model._output._normMul, _warmStartRows);
+        return;
+      }
+      Frame fr = dinfo._adaptedFrame;
+      boolean regX = _parms._regularization_x != GlrmRegularizer.None && _parms._gamma_x != 0;
+      ObjCalc objtsk = new ObjCalc(_parms, yt, _ncolA, _ncolX, dinfo._cats, model._output._normSub,
+              model._output._normMul, model._output._lossFunc, weightId, regX, _warmStartRows).doAll(fr);
+      double objective = objtsk._loss + _parms._gamma_x * objtsk._xold_reg;
+      double step = _parms._init_step_size;
+      for (int iter = 0; iter < _parms._max_iterations && step > _parms._min_step_size && !stop_requested(); iter++) {
+        UpdateX xtsk = new UpdateX(_parms, yt, step/_ncolA, _ncolA, _ncolX, dinfo._cats, model._output._normSub,
+                model._output._normMul, model._output._lossFunc, weightId, _warmStartRows).doAll(fr);
+        objtsk = new ObjCalc(_parms, yt, _ncolA, _ncolX, dinfo._cats, model._output._normSub,
+                model._output._normMul, model._output._lossFunc, weightId, false, _warmStartRows).doAll(fr);
+        double obj_new = objtsk._loss + _parms._gamma_x * xtsk._xreg;
+        double avg_change_obj = (objective - obj_new) / (newRows * _ncolA);
+        if (avg_change_obj > 0) {
+          objective = obj_new;
+          step *= 1.05;
+          new updateXVecs(_ncolA, _ncolX, _warmStartRows).doAll(fr);
+          if (avg_change_obj < TOLERANCE) break;
+        } else
+          step /= 1.5;
+      }
+      new ResetWorkingX(_ncolA, _ncolX, _warmStartRows).doAll(fr);  // W = X for the objective of the joint updates
+    }
+
     // Stopping criteria
     private boolean isDone(GLRMModel model, int steps_in_row, double step) {
       if (stop_requested()) return true;  // Stopped/cancelled
 
-      // Stopped for running out of iterations
-      if (model._output._iterations >= _parms._max_iterations) return true;
+      // Stopped for running out of iterations, a warm start only refines the joint solution
+      int max_iterations = _parms.hasCheckpoint() ? _parms._refine_iterations : _parms._max_iterations;
+      if (model._output._iterations >= max_iterations) return true;
       if (model._output._updates >= _parms._max_updates) return true;
 
       // Stopped for falling below minimum step size
@@ -682,6 +780,24 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
     }
 
     private transient Frame _rebalancedTrain;
+
+    /**
+     * DataInfo of the training frame (with the X and W columns of this model, all zeros at this point) and the
+     * validation frame, shared by the models of a search.
+     */
+    private DataInfo makeDataInfo(final Frame train, final Frame valid) {
+      String signature = "GLRM.DataInfo:" + Arrays.toString(train.names()) + PreprocessingCache.frameSignature(_parms._train, train)
+          + (valid == null ? "" : Arrays.toString(valid.names()) + PreprocessingCache.frameSignature(_parms._valid, valid))
+          + ":" + _parms._transform;
+      return DataInfo.cached(_parms._preprocessing_cache, signature, train, valid, new PreprocessingCache.Maker<DataInfo>() {
+        @Override public DataInfo make() {
+          return new DataInfo(train, valid, /* nResponses */ 0, /* useAllFactorLevels */ true, _parms._transform,
+                  DataInfo.TransformType.NONE, /* skipMissing */ false, /* imputeMissing */ false,
+                  /* missingBucket */ false, /* weights */ false, /* offset */ false, /* fold */ false);
+        }
+      });
+    }
+
     @SuppressWarnings("ConstantConditions")  // Method too complex for IntelliJ
     @Override
     public void computeImpl() {
@@ -708,15 +824,11 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
 
         _rebalancedTrain = new Frame(_train);
         // Save adapted frame info for scoring later
-        tinfo = new DataInfo(_train, _valid, 0, true, _parms._transform,
-                DataInfo.TransformType.NONE, false, false, false,
-                /* weights */ false, /* offset */ false, /* fold */ false);
+        tinfo = makeDataInfo(_train, _valid);
         DKV.put(tinfo._key, tinfo);
 
         // used later to recover SVD info
-        tempinfo = new DataInfo(_train, null, 0, true, _parms._transform,
-                DataInfo.TransformType.NONE, false, false, false,
-                /* weights */ false, /* offset */ false, /* fold */ false);
+        tempinfo = makeDataInfo(_train, null);
 
         correctForBinaryLoss(tinfo);
 
@@ -744,6 +856,11 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
           Arrays.fill(model._output._normMul, 1.0);
         } else
           model._output._normMul = tinfo._normMul;
+        if (_parms.hasCheckpoint()) {  // keep the transformation Y of the checkpointed model was fitted with
+          GLRMModel checkpoint = DKV.getGet(_parms._checkpoint);
+          model._output._normSub = checkpoint._output._normSub;
+          model._output._normMul = checkpoint._output._normMul;
+        }
 
         // Save loss function for each column in adapted frame order
         assert _lossFunc != null && _lossFunc.length == _train.numCols();
@@ -767,11 +884,7 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
         for (int i = 0; i < _ncolX; i++) fr.add("xcol_" + i, anyvec.makeZero());
         for (int i = 0; i < _ncolX; i++) fr.add("wcol_" + i, anyvec.makeZero());
 
-        dinfo = new DataInfo(/* train */ fr, /* validation */ null, /* nResponses */ 0,
-                /* useAllFactorLevels */ true, /* pred. transform */ _parms._transform,
-                /* resp. transform */ DataInfo.TransformType.NONE, /* skipMissing */ false,
-                /* imputeMissing */ false, /* missingBucket */ false,
-                /* weights */ false, /* offset */ false, /* fold */ false);
+        dinfo = makeDataInfo(fr, null);
         DKV.put(dinfo._key, dinfo); // for wideDataset, contains A, Yex_old, Yex_new.  For normal, contains A, XO, W
         fr = dinfo._adaptedFrame;
         int weightId = dinfo._weights ? dinfo.weightChunkId() : -1;
@@ -788,7 +901,9 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
         double yreg = _parms._regularization_y.regularize(yt._archetypes);
         // Set X to closed-form solution of ALS equation if possible for better accuracy.  No need to set to
         // work with wideDataset.  Dealing with small matrices anymore.  Optimize to use H2O Chol maybe.
-        if (!(_parms._init == GlrmInitialization.User && _parms._user_x != null) && hasClosedForm(na_cnt))
+        if (_parms.hasCheckpoint())
+          solveNewRowsX(dinfo, yt, model, weightId, na_cnt);
+        else if (!(_parms._init == GlrmInitialization.User && _parms._user_x != null) && hasClosedForm(na_cnt))
           initialXClosedForm(dinfo, yt, model._output._normSub, model._output._normMul);
 
         if (_wideDataset) { // 1. create fr as transpose(A). 2. make T(X) as double[][] array 3. build frame for x
@@ -983,7 +1098,7 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
         model.update(_job);
       } finally {
         List<Key<Vec>> keep = new ArrayList<>();
-        if (model._output._iterations ==0) {
+        if (model._output._iterations ==0 && !_parms.hasCheckpoint()) {
           warn("_max_runtime_secs", "model may not be properly built due to timeout.  Set " +
                   "max_runtime_secs to 0 or increase its value.");
         }
@@ -1306,6 +1421,51 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
   protected static int idx_xold(int c, int ncolA) { return ncolA+c; }
   protected static int idx_xnew(int c, int ncolA, int ncolX) { return ncolA+ncolX+c; }
 
+  // First row of the chunk with global row index >= rowStart (chunk length if there is none)
+  private static int firstRow(Chunk chk, long rowStart) {
+    return (int) Math.min(chk._len, Math.max(0, rowStart - chk.start()));
+  }
+
+  // Warm start: copy X of the rows factorized by the checkpointed model, initialize the new rows like InitialXProj
+  private static class InitialXCheckpoint extends MRTask<InitialXCheckpoint> {
+    GLRMParameters _parms;
+    final Key<Frame> _xKey;   // X of the checkpointed model
+    final long _oldRows;      // Number of rows of that X
+    final int _ncolA;         // Number of cols in training frame
+    final int _ncolX;         // Number of cols in X (k)
+
+    InitialXCheckpoint(GLRMParameters parms, Key<Frame> xKey, long oldRows, int ncolA, int ncolX) {
+      _parms = parms;
+      _xKey = xKey;
+      _oldRows = oldRows;
+      _ncolA = ncolA;
+      _ncolX = ncolX;
+    }
+
+    @Override public void map(Chunk[] chks) {
+      Frame x = DKV.getGet(_xKey);
+      Vec.Reader[] xold = new Vec.Reader[_ncolX];
+      for (int c = 0; c < _ncolX; c++) xold[c] = x.vec(c).new Reader();
+      Random rand = RandomUtils.getRNG(0);
+
+      for (int row = 0; row < chks[0]._len; row++) {
+        long gid = chks[0].start() + row;
+        double[] xrow;
+        if (gid < _oldRows) {
+          xrow = new double[_ncolX];
+          for (int c = 0; c < _ncolX; c++) xrow[c] = xold[c].at(gid);
+        } else {
+          rand.setSeed(_parms._seed + gid);   // global row ID determines the seed
+          xrow = _parms._regularization_x.project(ArrayUtils.gaussianVector(_ncolX, rand), rand);
+        }
+        for (int c = 0; c < _ncolX; c++) {
+          chks[_ncolA+c].set(row, xrow[c]);
+          chks[_ncolA+_ncolX+c].set(row, xrow[c]);
+        }
+      }
+    }
+  }
+
   // Initialize X to standard Gaussian random matrix projected into regularizer subspace
   private static class InitialXProj extends MRTask<InitialXProj> {
     GLRMParameters _parms;
@@ -1394,25 +1554,51 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
     int _startCol;
     int _numCols;
     int _endCols;
+    long _rowStart;
 
     public updateXVecs(int startCol, int numCols) {
+      this(startCol, numCols, 0);
+    }
+    public updateXVecs(int startCol, int numCols, long rowStart) {
       assert startCol >= 0;
       assert numCols > 0;
 
       _startCol = startCol;
       _numCols = numCols;
       _endCols = startCol+numCols;
+      _rowStart = rowStart;
     }
 
     public void map(Chunk[] chks) {
       for (int colIndex = _startCol; colIndex < _endCols; colIndex++) {
-        for (int rowIndex = 0; rowIndex < chks[0]._len; rowIndex++) {
+        for (int rowIndex = firstRow(chks[0], _rowStart); rowIndex < chks[0]._len; rowIndex++) {
           xFrameVec(chks, colIndex, 0).set(rowIndex, xFrameVec(chks, colIndex, _numCols).atd(rowIndex));
         }
       }
     }
   }
 
+  // Reverse of updateXVecs: reset the working copy W to X
+  private static class ResetWorkingX extends MRTask<ResetWorkingX> {
+    final int _startCol;
+    final int _numCols;
+    final long _rowStart;
+
+    ResetWorkingX(int startCol, int numCols, long rowStart) {
+      _startCol = startCol;
+      _numCols = numCols;
+      _rowStart = rowStart;
+    }
+
+    @Override public void map(Chunk[] chks) {
+      for (int colIndex = _startCol; colIndex < _startCol+_numCols; colIndex++) {
+        for (int rowIndex = firstRow(chks[0], _rowStart); rowIndex < chks[0]._len; rowIndex++) {
+          xFrameVec(chks, colIndex, _numCols).set(rowIndex, xFrameVec(chks, colIndex, 0).atd(rowIndex));
+        }
+      }
+    }
+  }
+
   //--------------------------------------------------------------------------------------------------------------------
   // Update X step
   //--------------------------------------------------------------------------------------------------------------------
@@ -1429,12 +1615,17 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
     final double[] _normSub;  // For standardizing training data
     final double[] _normMul;
     final int _weightId;
+    final long _rowStart;     // Only rows from this one on are updated (warm start)
 
     // Output
     double _xreg;    // Regularization evaluated on new X
 
     UpdateX(GLRMParameters parms, Archetypes yt, double alpha, int ncolA, int ncolX, int ncats,
             double[] normSub, double[] normMul, GlrmLoss[] lossFunc, int weightId) {
+      this(parms, yt, alpha, ncolA, ncolX, ncats, normSub, normMul, lossFunc, weightId, 0);
+    }
+    UpdateX(GLRMParameters parms, Archetypes yt, double alpha, int ncolA, int ncolX, int ncats,
+            double[] normSub, double[] normMul, GlrmLoss[] lossFunc, int weightId, long rowStart) {
       assert yt != null && yt.rank() == ncolX;
       _parms = parms;
       _yt = yt;
@@ -1449,6 +1640,7 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
       _weightId = weightId;
       _normSub = normSub;
       _normMul = normMul;
+      _rowStart = rowStart;
     }
 
     private Chunk chk_xold(Chunk[] chks, int c) {
@@ -1474,7 +1666,7 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
         prod = new double[_yt._numLevels[0]];
       }
 
-      for (int row = 0; row < cs[0]._len; row++) {
+      for (int row = firstRow(cs[0], _rowStart); row < cs[0]._len; row++) {
         rand.setSeed(_parms._seed + cs[0].start() + row); //global row ID determines the seed
         Arrays.fill(tgrad, 0.0);  // temporary gradient for comparison
 
@@ -2401,6 +2593,7 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
     final double[] _normMul;
     final int _weightId;
     final boolean _regX;      // Should I calculate regularization of (old) X matrix?
+    final long _rowStart;     // Only rows from this one on are evaluated (warm start)
 
     // Output
     double _loss;       // Loss evaluated on A - XY using new X (and current Y)
@@ -2412,6 +2605,10 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
     }
     ObjCalc(GLRMParameters parms, Archetypes yt, int ncolA, int ncolX, int ncats, double[] normSub, double[] normMul,
             GlrmLoss[] lossFunc, int weightId, boolean regX) {
+      this(parms, yt, ncolA, ncolX, ncats, normSub, normMul, lossFunc, weightId, regX, 0);
+    }
+    ObjCalc(GLRMParameters parms, Archetypes yt, int ncolA, int ncolX, int ncats, double[] normSub, double[] normMul,
+            GlrmLoss[] lossFunc, int weightId, boolean regX, long rowStart) {
       assert yt != null && yt.rank() == ncolX;
       assert ncats <= ncolA;
       _parms = parms;
@@ -2421,6 +2618,7 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
       _ncolX = ncolX;
       _ncats = ncats;
       _regX = regX;
+      _rowStart = rowStart;
 
       _weightId = weightId;
       _normSub = normSub;
@@ -2447,7 +2645,7 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
          xrow = new double[_ncolX];
 
 
-        for (int row = 0; row < cs[0]._len; row++) {
+        for (int row = firstRow(cs[0], _rowStart); row < cs[0]._len; row++) {
           // Additional user-specified weight on loss for this row
           double cweight = chkweight.atd(row);  // weight is per row for normal dataset
           assert !Double.isNaN(cweight) : "User-specified weight cannot be NaN";
@@ -2521,9 +2719,10 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
     final double[] _normSub;  // For standardizing training data
     final double[] _normMul;
     CholeskyDecomposition _chol;   // Cholesky decomposition of D = D', since we solve D'X' = DX' = AY'
+    final long _rowStart;     // Only rows from this one on are solved (warm start)
 
     CholMulTask(CholeskyDecomposition chol, Archetypes yt, int ncolA, int ncolX, int ncats,
-                double[] normSub, double[] normMul) {
+                double[] normSub, double[] normMul, long rowStart) {
       assert yt != null && yt.rank() <= ncolX;
       assert ncats <= ncolA;
       _yt = yt;
@@ -2531,6 +2730,7 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
       _ncolX = ncolX;
       _ncats = ncats;
       _chol = chol;
+      _rowStart = rowStart;
 
       _normSub = normSub;
       _normMul = normMul;
@@ -2541,7 +2741,7 @@ public class GLRM extends ModelBuilder<GLRMModel, GLRMModel.GLRMParameters, GLRM
       assert (_ncolA + 2*_ncolX) == cs.length;
       double[] xrow = new double[_ncolX];
 
-      for (int row = 0; row < cs[0]._len; row++) {
+      for (int row = firstRow(cs[0], _rowStart); row < cs[0]._len; row++) {
         // 1) Compute single row of AY'
         for (int k = 0; k < _ncolX; k++) {
           // Categorical columns
@@ -0,0 +1,406 @@
+package hex.gram;
+
+import water.DKV;
+import water.Futures;
+import water.H2O;
+import water.H2ONode;
+import water.Iced;
+import water.Key;
+import water.LocalMR;
+import water.MRTask;
+import water.MrFun;
+import water.util.ArrayUtils;
+import water.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Tiled Cholesky decomposition of a symmetric positive definite matrix with the tiles spread over the cloud.
+ *
+ * The lower triangle of the matrix is cut into square tiles of {@link #tileSize()} rows and columns, every tile is
+ * stored in DKV under a key homed to one of the nodes (assigned round-robin). The factorization is the standard
+ * right-looking tile algorithm; for each column of tiles k:
+ * <ol>
+ *   <li>the diagonal tile (k,k) is factored on the calling node (POTRF),</li>
+ *   <li>all tiles (i,k), i &gt; k are solved against it on their home nodes (TRSM),</li>
+ *   <li>all tiles (i,j), k &lt; j &lt;= i of the trailing matrix are updated on their home nodes (SYRK/GEMM).</li>
+ * </ol>
+ * Each node only fetches the tiles of the current panel, so the O(p^3) work of the factorization is shared by the
+ * whole cloud, and so is the memory of a factor kept distributed.
+ *
+ * The input matrix is not distributed: {@link #factor(double[][], int, int)} scatters the tiles from a matrix held
+ * by the calling node, as the GLM gram is reduced to one node before it is factored. A gram which doesn't fit into
+ * the memory of one node (about 8*p^2/2 bytes for the gram plus as much again for the copy being factored) still
+ * fails; building the tiles directly from the distributed accumulation of the gram would be needed for that.
+ *
+ * The distributed version is used by {@link Gram#cholesky(Gram.Cholesky, boolean, String)} once the dense part of
+ * the gram has at least {@link #minCols()} columns. Callers able to free the factor (GLM) keep it distributed
+ * once it has at least {@link #gatherMaxCols()} columns and solve with {@link #solve(double[][])}, smaller factors
+ * are gathered back into the {@link Gram.Cholesky}. The thresholds are configured by system properties
+ * {@code sys.ai.h2o.glm.cholesky.distributed.minCols}, {@code sys.ai.h2o.glm.cholesky.distributed.gatherMaxCols}
+ * and {@code sys.ai.h2o.glm.cholesky.distributed.tileSize}.
+ *
+ * The tiles stay in DKV until {@link #remove()} is called.
+ */
+public final class DistributedCholesky {
+
+  private static final String PROP_PREFIX = H2O.OptArgs.SYSTEM_PROP_PREFIX + "glm.cholesky.distributed.";
+
+  /** @return minimal number of dense columns for which Gram switches to the distributed decomposition */
+  public static int minCols() { return Integer.getInteger(PROP_PREFIX + "minCols", 20000); }
+
+  /** @return number of dense columns from which a factor the caller can keep distributed is not gathered back */
+  public static int gatherMaxCols() { return Integer.getInteger(PROP_PREFIX + "gatherMaxCols", 10000); }
+
+  /** @return number of rows (and columns) of a tile */
+  public static int tileSize() { return Integer.getInteger(PROP_PREFIX + "tileSize", 512); }
+
+  /** Dense block of the matrix, rows x cols values stored row by row. */
+  public static final class Tile extends Iced<Tile> {
+    public int _rows;
+    public int _cols;
+    public double[] _a;
+
+    public Tile() {}
+
+    Tile(int rows, int cols) {
+      _rows = rows;
+      _cols = cols;
+      _a = new double[rows * cols];
+    }
+  }
+
+  final int _n;
+  final int _tile;
+  final int _nb;
+  final Key[] _keys;    // tile (i,j), j <= i is stored under _keys[i*(i+1)/2 + j]
+  private boolean _isSPD = true;
+
+  private DistributedCholesky(int n, int tile) {
+    if (tile <= 0) throw new IllegalArgumentException("Tile size must be positive, got " + tile);
+    _n = n;
+    _tile = tile;
+    _nb = (n + tile - 1) / tile;
+    _keys = new Key[_nb * (_nb + 1) / 2];
+    H2ONode[] nodes = H2O.CLOUD.members();
+    for (int i = 0; i < _keys.length; ++i)
+      _keys[i] = Key.make(nodes[i % nodes.length]);
+  }
+
+  static int tileIdx(int i, int j) { return i * (i + 1) / 2 + j; }
+
+  /**
+   * Distributes the lower triangle of the given matrix and computes its Cholesky factor. The whole matrix must be
+   * in the memory of the calling node, only the factorization and the factor are distributed.
+   * @param xx lower triangular matrix, row i holds at least the columns off..off+i
+   * @param off index of the first column of the matrix in the rows of xx
+   * @param tileSize number of rows and columns of a tile
+   * @return the factor, the tiles are kept in DKV until {@link #remove()} is called
+   */
+  public static DistributedCholesky factor(double[][] xx, int off, int tileSize) {
+    long t0 = System.currentTimeMillis();
+    DistributedCholesky dc = new DistributedCholesky(xx.length, tileSize);
+    dc.scatter(xx, off);
+    try {
+      dc.decompose();
+    } catch (RuntimeException e) {
+      dc.remove();
+      throw e;
+    }
+    Log.info("Distributed Cholesky of " + dc._n + " columns (" + dc._keys.length + " tiles of " + tileSize
+        + " on " + H2O.CLOUD.size() + " nodes) done in " + (System.currentTimeMillis() - t0) + "ms");
+    return dc;
+  }
+
+  public boolean isSPD() { return _isSPD; }
+
+  private int tileRows(int i) { return Math.min(_tile, _n - i * _tile); }
+
+  private void scatter(double[][] xx, int off) {
+    Futures fs = new Futures();
+    for (int i = 0; i < _nb; ++i) {
+      int rows = tileRows(i);
+      for (int j = 0; j <= i; ++j) {
+        int cols = tileRows(j);
+        Tile t = new Tile(rows, cols);
+        for (int r = 0; r < rows; ++r) {
+          int row = i * _tile + r;
+          // the diagonal tile only has the lower triangle in xx
+          int len = i == j ? r + 1 : cols;
+          System.arraycopy(xx[row], off + j * _tile, t._a, r * cols, len);
+        }
+        DKV.put(_keys[tileIdx(i, j)], t, fs);
+      }
+    }
+    fs.blockForPending();
+  }
+
+  /** Copies the lower triangle of the factor into dst, row i of the factor goes to dst[i][off..off+i]. */
+  public void gather(double[][] dst, int off) {
+    for (int i = 0; i < _nb; ++i) {
+      for (int j = 0; j <= i; ++j) {
+        Tile t = DKV.getGet(_keys[tileIdx(i, j)]);
+        for (int r = 0; r < t._rows; ++r) {
+          int len = i == j ? r + 1 : t._cols;
+          System.arraycopy(t._a, r * t._cols, dst[i * _tile + r], off + j * _tile, len);
+        }
+      }
+    }
+  }
+
+  public void remove() {
+    Futures fs = new Futures();
+    for (Key k : _keys)
+      DKV.remove(k, fs);
+    fs.blockForPending();
+  }
+
+  private void decompose() {
+    for (int k = 0; k < _nb; ++k) {
+      Key kk = _keys[tileIdx(k, k)];
+      Tile diag = DKV.getGet(kk);
+      _isSPD &= potrf(diag);
+      DKV.put(kk, diag);
+      if (k == _nb - 1) break;
+      new PanelTask(_keys, _nb, k).doAllNodes();
+      new UpdateTask(_keys, _nb, k).doAllNodes();
+    }
+  }
+
+  /** In-place Cholesky of a diagonal tile, only the lower triangle is referenced. */
+  static boolean potrf(Tile t) {
+    final int m = t._rows;
+    final double[] a = t._a;
+    boolean spd = true;
+    for (int r = 0; r < m; ++r) {
+      final int ro = r * m;
+      for (int c = 0; c < r; ++c) {
+        final int co = c * m;
+        double s = a[ro + c];
+        for (int q = 0; q < c; ++q) s -= a[ro + q] * a[co + q];
+        a[ro + c] = s / a[co + c];
+      }
+      double d = a[ro + r];
+      for (int q = 0; q < r; ++q) d -= a[ro + q] * a[ro + q];
+      spd = spd && d > 0;
+      a[ro + r] = Math.sqrt(Math.max(0, d));
+    }
+    return spd;
+  }
+
+  /** a := a * L^-T where L is the factored diagonal tile of the same column. */
+  static void trsm(Tile l, Tile a) {
+    final int m = l._rows;
+    final double[] ld = l._a;
+    final double[] ad = a._a;
+    for (int r = 0; r < a._rows; ++r) {
+      final int ro = r * m;
+      for (int c = 0; c < m; ++c) {
+        final int co = c * m;
+        double s = ad[ro + c];
+        for (int q = 0; q < c; ++q) s -= ad[ro + q] * ld[co + q];
+        ad[ro + c] = s / ld[co + c];
+      }
+    }
+  }
+
+  /** c := c - a * b', for the diagonal tiles (a == b) only the lower triangle is updated. */
+  static void gemm(Tile a, Tile b, Tile c, boolean lower) {
+    final int k = a._cols;
+    final double[] ad = a._a, bd = b._a, cd = c._a;
+    for (int r = 0; r < c._rows; ++r) {
+      final int ao = r * k;
+      final int n = lower ? r + 1 : c._cols;
+      for (int s = 0; s < n; ++s) {
+        final int bo = s * k;
+        double d = 0;
+        for (int q = 0; q < k; ++q) d += ad[ao + q] * bd[bo + q];
+        cd[r * c._cols + s] -= d;
+      }
+    }
+  }
+
+  /**
+   * Runs the given action over the tiles homed on this node, in parallel.
+   * @param tiles (row, column) indices of the candidate tiles
+   * @return number of tiles processed on this node
+   */
+  private static int forLocalTiles(Key[] keys, ArrayList<int[]> tiles, final TileAction action) {
+    final ArrayList<int[]> local = new ArrayList<>();
+    for (int[] t : tiles)
+      if (keys[tileIdx(t[0], t[1])].home()) local.add(t);
+    final int n = local.size();
+    if (n == 0) return 0;
+    final int nthreads = Math.min(n, H2O.NUMCPUS);
+    H2O.submitTask(new LocalMR(new MrFun() {
+      @Override protected void map(int id) {
+        for (int i = id; i < n; i += nthreads) action.apply(local.get(i)[0], local.get(i)[1]);
+      }
+    }, nthreads)).join();
+    return n;
+  }
+
+  private interface TileAction {
+    void apply(int i, int j);
+  }
+
+  /** Solves the tiles below the diagonal tile k against its factor. */
+  static class PanelTask extends MRTask<PanelTask> {
+    final Key[] _keys;
+    final int _nb;
+    final int _k;
+
+    PanelTask(Key[] keys, int nb, int k) { _keys = keys; _nb = nb; _k = k; }
+
+    @Override protected void setupLocal() {
+      ArrayList<int[]> tiles = new ArrayList<>();
+      for (int i = _k + 1; i < _nb; ++i) tiles.add(new int[]{i, _k});
+      final Tile l = DKV.getGet(_keys[tileIdx(_k, _k)]);
+      forLocalTiles(_keys, tiles, new TileAction() {
+        @Override public void apply(int i, int j) {
+          Key key = _keys[tileIdx(i, j)];
+          Tile a = DKV.getGet(key);
+          trsm(l, a);
+          DKV.put(key, a);
+        }
+      });
+    }
+  }
+
+  /** Subtracts the outer product of panel k from the tiles of the trailing matrix. */
+  static class UpdateTask extends MRTask<UpdateTask> {
+    final Key[] _keys;
+    final int _nb;
+    final int _k;
+
+    UpdateTask(Key[] keys, int nb, int k) { _keys = keys; _nb = nb; _k = k; }
+
+    @Override protected void setupLocal() {
+      ArrayList<int[]> tiles = new ArrayList<>();
+      for (int i = _k + 1; i < _nb; ++i)
+        for (int j = _k + 1; j <= i; ++j)
+          tiles.add(new int[]{i, j});
+      forLocalTiles(_keys, tiles, new TileAction() {
+        @Override public void apply(int i, int j) {
+          Key key = _keys[tileIdx(i, j)];
+          Tile c = DKV.getGet(key);
+          Tile a = DKV.getGet(_keys[tileIdx(i, _k)]);
+          Tile b = i == j ? a : DKV.<Tile>getGet(_keys[tileIdx(j, _k)]);
+          gemm(a, b, c, i == j);
+          DKV.put(key, c);
+        }
+      });
+    }
+  }
+
+  /**
+   * Solves L*L'*x = y for each of the given right hand sides, the result is stored in place.
+   *
+   * The diagonal blocks are solved on the calling node, the off-diagonal products are computed on the home nodes
+   * of the tiles, one pass over the cloud per row of tiles in each direction. Intended for a few right hand sides,
+   * each pass sends all of them to every node.
+   */
+  public void solve(double[][] ys) {
+    if (!_isSPD) throw new Gram.NonSPDMatrixException();
+    final int nrhs = ys.length;
+    // Solve L*z = y
+    for (int j = 0; j < _nb; ++j) {
+      double[][] x = solveDiag(j, ys, false);
+      if (j == _nb - 1) break;
+      double[][] res = new SolveStepTask(_keys, _nb, _tile, _n, j, false, x).doAllNodes()._res;
+      if (res != null)
+        for (int r = 0; r < nrhs; ++r)
+          for (int t = (j + 1) * _tile; t < _n; ++t)
+            ys[r][t] -= res[r][t];
+    }
+    // Solve L'*x = z
+    for (int i = _nb - 1; i >= 0; --i) {
+      double[][] x = solveDiag(i, ys, true);
+      if (i == 0) break;
+      double[][] res = new SolveStepTask(_keys, _nb, _tile, _n, i, true, x).doAllNodes()._res;
+      if (res != null)
+        for (int r = 0; r < nrhs; ++r)
+          for (int t = 0; t < i * _tile; ++t)
+            ys[r][t] -= res[r][t];
+    }
+  }
+
+  /** Solves the diagonal block j of each y with L_jj (or its transpose), returns copies of the solved blocks. */
+  private double[][] solveDiag(int j, double[][] ys, boolean transpose) {
+    Tile l = DKV.getGet(_keys[tileIdx(j, j)]);
+    final int m = l._rows;
+    final int off = j * _tile;
+    double[][] res = new double[ys.length][];
+    for (int r = 0; r < ys.length; ++r) {
+      double[] y = ys[r];
+      if (!transpose) {
+        for (int k = 0; k < m; ++k) {
+          double d = y[off + k];
+          for (int q = 0; q < k; ++q) d -= l._a[k * m + q] * y[off + q];
+          y[off + k] = d / l._a[k * m + k];
+        }
+      } else {
+        for (int k = m - 1; k >= 0; --k) {
+          double d = y[off + k] / l._a[k * m + k];
+          y[off + k] = d;
+          for (int q = 0; q < k; ++q) y[off + q] -= d * l._a[k * m + q];
+        }
+      }
+      res[r] = Arrays.copyOfRange(y, off, off + m);
+    }
+    return res;
+  }
+
+  /**
+   * Products of the off-diagonal tiles with a solved block of the right hand sides. Forward pass: L_ij*x_j for all
+   * i &gt; j, backward pass: L_ij'*x_i for all j &lt; i.
+   */
+  static class SolveStepTask extends MRTask<SolveStepTask> {
+    final Key[] _keys;
+    final int _nb, _tile, _n, _step;
+    final boolean _transpose;
+    final double[][] _x;
+    double[][] _res;
+
+    SolveStepTask(Key[] keys, int nb, int tile, int n, int step, boolean transpose, double[][] x) {
+      _keys = keys; _nb = nb; _tile = tile; _n = n; _step = step; _transpose = transpose; _x = x;
+    }
+
+    @Override protected void setupLocal() {
+      ArrayList<int[]> tiles = new ArrayList<>();
+      if (_transpose) for (int j = 0; j < _step; ++j) tiles.add(new int[]{_step, j});
+      else for (int i = _step + 1; i < _nb; ++i) tiles.add(new int[]{i, _step});
+      final double[][] res = new double[_x.length][_n];
+      int n = forLocalTiles(_keys, tiles, new TileAction() {
+        @Override public void apply(int i, int j) {
+          Tile t = DKV.getGet(_keys[tileIdx(i, j)]);
+          // every tile writes a distinct block of res
+          int off = (_transpose ? j : i) * _tile;
+          for (int r = 0; r < _x.length; ++r) {
+            double[] x = _x[r];
+            double[] y = res[r];
+            for (int a = 0; a < t._rows; ++a) {
+              if (_transpose) {
+                double xa = x[a];
+                for (int b = 0; b < t._cols; ++b) y[off + b] += t._a[a * t._cols + b] * xa;
+              } else {
+                double d = 0;
+                for (int b = 0; b < t._cols; ++b) d += t._a[a * t._cols + b] * x[b];
+                y[off + a] += d;
+              }
+            }
+          }
+        }
+      });
+      if (n > 0) _res = res;
+    }
+
+    @Override public void reduce(SolveStepTask mrt) {
+      if (_res == null) _res = mrt._res;
+      else if (mrt._res != null)
+        for (int r = 0; r < _res.length; ++r)
+          ArrayUtils.add(_res[r], mrt._res[r]);
+    }
+  }
+}
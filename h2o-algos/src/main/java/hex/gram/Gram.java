@@ -4,10 +4,12 @@ package hex.gram;
 import hex.DataInfo;
 import hex.FrameTask2;
 import jsr166y.ForkJoinTask;
+import jsr166y.ForkJoinWorkerThread;
 import jsr166y.RecursiveAction;
 import water.*;
 import water.fvec.Chunk;
 import water.util.ArrayUtils;
+import water.util.Log;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -434,16 +436,37 @@ public final class Gram extends Iced<Gram> {
    *  2. The diagonal*dense part is simply divided by the sqrt of diagonal.
    *  3. Compute Cholesky of dense*dense - outer product of Cholesky of diagonal*dense computed in previous step
    *
+   * Step 3 is computed across the cloud by {@link DistributedCholesky} once the dense part has at least
+   * {@link DistributedCholesky#minCols()} columns. The gram itself is still held by this node, only the
+   * factorization work (and the factor, see {@link #cholesky(Cholesky, boolean, String, boolean)}) is distributed.
+   *
    * @param chol
    * @return the Cholesky decomposition
    */
   public Cholesky cholesky(Cholesky chol, boolean parallelize,String id) {
+    return cholesky(chol, parallelize, id, false);
+  }
+
+  /**
+   * Compute the Cholesky decomposition, see {@link #cholesky(Cholesky, boolean, String)}.
+   *
+   * @param keepDistributed if the dense part was factored by {@link DistributedCholesky} and has at least
+   *                        {@link DistributedCholesky#gatherMaxCols()} columns, keep it distributed instead of
+   *                        gathering it back: solves then run across the cloud and the caller must free the factor
+   *                        with {@link Cholesky#remove()}
+   * @return the Cholesky decomposition
+   */
+  public Cholesky cholesky(Cholesky chol, boolean parallelize, String id, boolean keepDistributed) {
     long start = System.currentTimeMillis();
     if( chol == null ) {
       double[][] xx = _xx.clone();
       for( int i = 0; i < xx.length; ++i )
         xx[i] = xx[i].clone();
       chol = new Cholesky(xx, _diag.clone());
+    } else if( chol._dist != null ) { // reused, drop its distributed factor
+      chol.remove();
+      for( int i = 0; i < chol._xx.length; ++i )
+        chol._xx[i] = Arrays.copyOf(chol._xx[i], _xx[i].length);
     }
     final Cholesky fchol = chol;
     final int sparseN = _diag.length;
@@ -499,20 +522,39 @@ public final class Gram extends Iced<Gram> {
     }
     ForkJoinTask.invokeAll(fjts);
     // compute the cholesky of dense*dense-outer_product(diagonal*dense)
-    double[][] arr = new double[denseN][];
-    for( int i = 0; i < arr.length; ++i )
-      arr[i] = Arrays.copyOfRange(fchol._xx[i], sparseN, sparseN + denseN);
-    int p = Runtime.getRuntime().availableProcessors();
-    InPlaceCholesky d = InPlaceCholesky.decompose_2(arr, 10, p);
-    fchol.setSPD(d.isSPD());
-    arr = d.getL();
-    for( int i = 0; i < arr.length; ++i ) {
-      // See PUBDEV-5585: we use a manual array copy instead of System.arraycopy because of behavior on Java 10
-      // Used to be: System.arraycopy(arr[i], 0, fchol._xx[i], sparseN, i + 1);
-      for (int j = 0; j < i + 1; j++)
-        fchol._xx[i][sparseN + j] = arr[i][j];
+    if (denseN >= DistributedCholesky.minCols() && denseN > 0) {
+      // too slow for a single node, factor the tiles of the dense part across the cloud
+      DistributedCholesky dc = DistributedCholesky.factor(fchol._xx, sparseN, DistributedCholesky.tileSize());
+      fchol.setSPD(dc.isSPD());
+      if (keepDistributed && denseN >= DistributedCholesky.gatherMaxCols()) {
+        // only the diagonal*dense part stays here
+        for( int i = 0; i < denseN; ++i )
+          fchol._xx[i] = Arrays.copyOf(fchol._xx[i], sparseN);
+        fchol._dist = dc;
+      } else {
+        try {
+          dc.gather(fchol._xx, sparseN);
+        } finally {
+          dc.remove();
+        }
+      }
+    } else {
+      double[][] arr = new double[denseN][];
+      for( int i = 0; i < arr.length; ++i )
+        arr[i] = Arrays.copyOfRange(fchol._xx[i], sparseN, sparseN + denseN);
+      int p = Runtime.getRuntime().availableProcessors();
+      InPlaceCholesky d = InPlaceCholesky.decompose_2(arr, 10, p);
+      fchol.setSPD(d.isSPD());
+      arr = d.getL();
+      for( int i = 0; i < arr.length; ++i ) {
+        // See PUBDEV-5585: we use a manual array copy instead of System.arraycopy because of behavior on Java 10
+        // Used to be: System.arraycopy(arr[i], 0, fchol._xx[i], sparseN, i + 1);
+        for (int j = 0; j < i + 1; j++)
+          fchol._xx[i][sparseN + j] = arr[i][j];
+      }
     }
-
+    Log.debug("Cholesky of " + _fullN + " columns (" + denseN + " dense" + (fchol._dist != null ? ", kept distributed" : "")
+        + ") done in " + (System.currentTimeMillis() - start) + "ms");
     return chol;
   }
 
@@ -581,6 +623,9 @@ public final class Gram extends Iced<Gram> {
     protected final double[] _diag;
     private boolean _isSPD;
     private boolean _icptFirst;
+    // dense part of the factor when it is kept distributed (_xx then only holds the diagonal*dense part), see
+    // Gram#cholesky(Cholesky, boolean, String, boolean)
+    private DistributedCholesky _dist;
 
     public Cholesky(double[][] xx, double[] diag) {
       _xx = xx;
@@ -595,8 +640,27 @@ public final class Gram extends Iced<Gram> {
       _isSPD = true;
     }
 
+    /** @return true if the dense part of the factor lives in DKV and solves run across the cloud */
+    public boolean isDistributed() { return _dist != null; }
+
+    /** Frees the distributed part of the factor (if any), the decomposition can't be used after. */
+    public void remove() {
+      if (_dist != null) {
+        _dist.remove();
+        _dist = null;
+      }
+    }
+
+    /** @return number of rows (and columns) of the factor */
+    private int size() { return _diag.length + _xx.length; }
 
     public void solve(final double [][] ys){
+      if (_dist != null) {
+        for (int i = 0; i < ys.length; ++i)
+          ys[i][i] = 1;
+        solveDistributed(ys);
+        return;
+      }
       RecursiveAction [] ras = new RecursiveAction[ys.length];
       for(int i = 0; i < ras.length; ++i) {
         final int fi = i;
@@ -611,7 +675,8 @@ public final class Gram extends Iced<Gram> {
       ForkJoinTask.invokeAll(ras);
     }
     public double [][] getInv(){
-      double [][] res = new double[_xx[_xx.length-1].length][_xx[_xx.length-1].length];
+      final int N = _dist != null ? size() : _xx[_xx.length-1].length;
+      double [][] res = new double[N][N];
       for(int i = 0; i < res.length; ++i)
         res[i][i] = 1;
       solve(res);
@@ -620,6 +685,18 @@ public final class Gram extends Iced<Gram> {
 
     public double [] getInvDiag(){
       final double [] res = new double[_xx.length + _diag.length];
+      if (_dist != null) { // solve for blocks of unit vectors, each block is one pass over the tiles
+        final int block = DistributedCholesky.tileSize();
+        for (int b = 0; b < res.length; b += block) {
+          double[][] ys = new double[Math.min(block, res.length - b)][res.length];
+          for (int i = 0; i < ys.length; ++i)
+            ys[i][b + i] = 1;
+          solveDistributed(ys);
+          for (int i = 0; i < ys.length; ++i)
+            res[b + i] = ys[i][b + i];
+        }
+        return res;
+      }
       RecursiveAction [] ras = new RecursiveAction[res.length];
       for(int i = 0; i < ras.length; ++i) {
         final int fi = i;
@@ -649,6 +726,8 @@ public final class Gram extends Iced<Gram> {
           xx[i + _diag.length][j] = _xx[i][j];
         }
       }
+      if (_dist != null)
+        _dist.gather(Arrays.copyOfRange(xx, _diag.length, N), _diag.length);
       return xx;
     }
 
@@ -662,6 +741,10 @@ public final class Gram extends Iced<Gram> {
      */
     public final void   solve(double[] y) {
       if( !isSPD() ) throw new NonSPDMatrixException();
+      if (_dist != null) {
+        solveDistributed(new double[][]{y});
+        return;
+      }
       if(_icptFirst) {
         double icpt = y[y.length-1];
         for(int i = y.length-1; i > 0; --i)
@@ -698,6 +781,50 @@ public final class Gram extends Iced<Gram> {
     }
     public final boolean isSPD() {return _isSPD;}
     public final void setSPD(boolean b) {_isSPD = b;}
+
+    /**
+     * Solves A*x = y for each of the given ys in place, the dense part of the factor being distributed. The
+     * diagonal and diagonal*dense parts are applied here, the dense part is solved by
+     * {@link DistributedCholesky#solve(double[][])}, in blocks of ys to bound what goes over the wire.
+     */
+    private void solveDistributed(double[][] ys) {
+      if( !isSPD() ) throw new NonSPDMatrixException();
+      assert !_icptFirst : "the distributed factor is never computed by qrCholesky";
+      final int sparseN = _diag.length;
+      final int denseN = _xx.length;
+      final int block = DistributedCholesky.tileSize();
+      for (int b = 0; b < ys.length; b += block) {
+        double[][] dense = new double[Math.min(block, ys.length - b)][];
+        for (int r = 0; r < dense.length; ++r) {
+          double[] y = ys[b + r];
+          for (int k = 0; k < sparseN; ++k)
+            y[k] /= _diag[k];
+          double[] z = Arrays.copyOfRange(y, sparseN, sparseN + denseN);
+          for (int i = 0; i < denseN; ++i) {
+            double[] row = _xx[i];
+            double d = 0;
+            for (int k = 0; k < sparseN; ++k)
+              d += row[k] * y[k];
+            z[i] -= d;
+          }
+          dense[r] = z;
+        }
+        _dist.solve(dense);
+        for (int r = 0; r < dense.length; ++r) {
+          double[] y = ys[b + r];
+          double[] z = dense[r];
+          for (int i = 0; i < denseN; ++i) {
+            double[] row = _xx[i];
+            double zi = z[i];
+            y[sparseN + i] = zi;
+            for (int k = 0; k < sparseN; ++k)
+              y[k] -= zi * row[k];
+          }
+          for (int k = 0; k < sparseN; ++k)
+            y[k] /= _diag[k];
+        }
+      }
+    }
   }
 
   public final void addRowSparse(DataInfo.Row r, double w) {
@@ -780,6 +907,206 @@ public final class Gram extends Iced<Gram> {
     if(hasDiag)
       _diag[row.binIds[0]] += w;
   }
+  /**
+   * Accumulates rows into a Gram a block of rows at a time.
+   *
+   * {@link #addRowDense} reads and writes the whole lower triangle of the numeric part for every single row, with
+   * thousands of numeric columns this is bound by the memory bandwidth. The block buffers the (weighted) numeric
+   * values of up to {@code blockSize} rows column-major and adds them to the Gram in one cache-blocked rank-k
+   * (SYRK style) update, so the triangle is touched once per block and the inner loops are dot products over
+   * contiguous arrays. Products of numeric and categorical columns are added one Gram row at a time; the
+   * categorical x categorical and intercept products (a handful per row) are added right away. Sparse rows are
+   * passed to {@link #addRowSparse}. Large updates are split among the F/J threads.
+   *
+   * {@link #flush()} must be called before the Gram is used.
+   */
+  public static final class RowBlock {
+    /** Default number of rows in a block */
+    public static final int DEFAULT_BLOCK_SIZE = 256;
+    /** Number of numeric columns from which the blocked accumulation pays off */
+    public static final int MIN_DENSE_COLS = 32;
+    // Width of the tiles of the triangle (a tile of 64 columns of a 256 row block is 128kB)
+    private static final int TILE = 64;
+    // Number of numeric columns from which the update is split among F/J threads
+    private static final int PAR_MIN_COLS = 256;
+
+    private final Gram _gram;
+    private final int _blockSize;
+    private final double[][] _x;   // numeric values, column-major: _x[col][row]
+    private final double[][] _wx;  // numeric values multiplied by the row weight
+    private final int[][] _bins;   // categorical ids of the buffered rows
+    private final int[] _nBins;
+    private int _n;
+
+    public RowBlock(Gram gram, int blockSize) {
+      if (blockSize < 1) throw new IllegalArgumentException("Block size needs to be positive, got " + blockSize);
+      _gram = gram;
+      _blockSize = blockSize;
+      _x = new double[gram._denseN][blockSize];
+      _wx = new double[gram._denseN][blockSize];
+      _bins = new int[blockSize][];
+      _nBins = new int[blockSize];
+    }
+
+    /** @return true if blocked accumulation is worth it for a Gram with the given number of numeric columns */
+    public static boolean useFor(int denseN) {
+      return denseN >= MIN_DENSE_COLS;
+    }
+
+    public Gram gram() {
+      return _gram;
+    }
+
+    public void addRow(DataInfo.Row row, double w) {
+      if (row.numIds != null) {
+        _gram.addRowSparse(row, w);
+        return;
+      }
+      final Gram g = _gram;
+      final int k = _n;
+      for (int i = 0; i < g._denseN; ++i) {
+        double v = row.numVals[i];
+        _x[i][k] = v;
+        _wx[i][k] = w * v;
+      }
+      int[] bins = _bins[k];
+      if (bins == null || bins.length < row.nBins)
+        bins = _bins[k] = new int[Math.max(row.nBins, 4)];
+      System.arraycopy(row.binIds, 0, bins, 0, row.nBins);
+      _nBins[k] = row.nBins;
+      if (g._hasIntercept) {
+        final double[] interceptRow = g._xx[g._xx.length - 1];
+        interceptRow[interceptRow.length - 1] += w;
+        for (int j = 0; j < row.nBins; ++j)
+          interceptRow[row.binIds[j]] += w;
+      }
+      final boolean hasDiag = (g._diagN > 0 && row.nBins > 0 && row.binIds[0] < g._diagN);
+      for (int i = hasDiag ? 1 : 0; i < row.nBins; ++i) {
+        final double[] mrow = g._xx[row.binIds[i] - g._diagN];
+        for (int j = 0; j <= i; ++j)
+          mrow[row.binIds[j]] += w;
+      }
+      if (hasDiag)
+        g._diag[row.binIds[0]] += w;
+      if (++_n == _blockSize)
+        flush();
+    }
+
+    /** Adds the buffered rows to the Gram. */
+    public void flush() {
+      if (_n == 0) return;
+      final Gram g = _gram;
+      final int n = _n;
+      final int denseN = g._denseN;
+      final int intercept = g._hasIntercept ? 1 : 0;
+      final int denseColStart = g._fullN - denseN - intercept;
+      final int denseRowStart = denseColStart - g._diagN;
+      if (g._hasIntercept) {
+        final double[] interceptRow = g._xx[g._xx.length - 1];
+        for (int i = 0; i < denseN; ++i)
+          interceptRow[denseColStart + i] += sum(_wx[i], n);
+      }
+      if (denseN >= PAR_MIN_COLS && Thread.currentThread() instanceof ForkJoinWorkerThread) {
+        // split the rows of the triangle into bands of about the same area
+        int nbands = Math.min(H2O.NUMCPUS, denseN / TILE);
+        RecursiveAction[] ras = new RecursiveAction[nbands];
+        int lo = 0;
+        for (int b = 0; b < nbands; ++b) {
+          final int from = lo;
+          final int to = b == nbands - 1 ? denseN : (int) (denseN * Math.sqrt((b + 1.0) / nbands));
+          lo = to;
+          ras[b] = new RecursiveAction() {
+            @Override protected void compute() { update(from, to, n, denseRowStart, denseColStart); }
+          };
+        }
+        ForkJoinTask.invokeAll(ras);
+      } else {
+        update(0, denseN, n, denseRowStart, denseColStart);
+      }
+      _n = 0;
+    }
+
+    // Adds the products of the numeric columns [from, to) with all the numeric columns left of them and with the
+    // categorical columns.
+    private void update(int from, int to, int n, int denseRowStart, int denseColStart) {
+      final double[][] xx = _gram._xx;
+      for (int i = from; i < to; ++i) {
+        final double[] mrow = xx[denseRowStart + i];
+        final double[] wxi = _wx[i];
+        for (int k = 0; k < n; ++k) {
+          final double d = wxi[k];
+          if (d == 0) continue;
+          final int[] bins = _bins[k];
+          for (int j = 0; j < _nBins[k]; ++j)
+            mrow[bins[j]] += d;
+        }
+      }
+      for (int it = from; it < to; it += TILE) {
+        final int itEnd = Math.min(it + TILE, to);
+        for (int jt = 0; jt < itEnd; jt += TILE) {
+          final int jtEnd = Math.min(jt + TILE, itEnd);
+          int i = it;
+          // 2x2 register blocks: each loaded value is used twice
+          for (; i + 1 < itEnd; i += 2) {
+            final double[] mrow0 = xx[denseRowStart + i], mrow1 = xx[denseRowStart + i + 1];
+            final double[] a0 = _wx[i], a1 = _wx[i + 1];
+            final int jEnd = Math.min(jtEnd, i + 2);
+            int j = jt;
+            for (; j + 1 < jEnd; j += 2) {
+              final double[] b0 = _x[j], b1 = _x[j + 1];
+              double s00 = 0, s01 = 0, s10 = 0, s11 = 0;
+              for (int k = 0; k < n; ++k) {
+                final double x0 = b0[k], x1 = b1[k], y0 = a0[k], y1 = a1[k];
+                s00 += y0 * x0;
+                s01 += y0 * x1;
+                s10 += y1 * x0;
+                s11 += y1 * x1;
+              }
+              if (j <= i) {
+                mrow0[denseColStart + j] += s00;
+                if (j + 1 <= i) mrow0[denseColStart + j + 1] += s01;
+              }
+              mrow1[denseColStart + j] += s10;
+              mrow1[denseColStart + j + 1] += s11;
+            }
+            for (; j < jEnd; ++j) {
+              if (j <= i) mrow0[denseColStart + j] += dot(a0, _x[j], n);
+              mrow1[denseColStart + j] += dot(a1, _x[j], n);
+            }
+          }
+          for (; i < itEnd; ++i) {
+            final double[] mrow = xx[denseRowStart + i];
+            final double[] wxi = _wx[i];
+            final int jEnd = Math.min(jtEnd, i + 1);
+            for (int j = jt; j < jEnd; ++j)
+              mrow[denseColStart + j] += dot(wxi, _x[j], n);
+          }
+        }
+      }
+    }
+
+    private static double sum(double[] a, int n) {
+      double s = 0;
+      for (int k = 0; k < n; ++k)
+        s += a[k];
+      return s;
+    }
+
+    private static double dot(double[] a, double[] b, int n) {
+      double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+      int k = 0;
+      for (; k + 3 < n; k += 4) {
+        s0 += a[k] * b[k];
+        s1 += a[k + 1] * b[k + 1];
+        s2 += a[k + 2] * b[k + 2];
+        s3 += a[k + 3] * b[k + 3];
+      }
+      for (; k < n; ++k)
+        s0 += a[k] * b[k];
+      return (s0 + s1) + (s2 + s3);
+    }
+  }
+
   public void mul(double x){
     if(_diag != null)for(int i = 0; i < _diag.length; ++i)
       _diag[i] *= x;
@@ -27,13 +27,15 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
   @Override public ToEigenVec getToEigenVec() { return LinearAlgebraUtils.toEigen; }
   // Convergence tolerance
   final static private double TOLERANCE = 1e-4;
+  // Max number of sampling rounds of the KMeans|| initialization
+  final static private int MAX_PARALLEL_ROUNDS = 5;
 
   @Override public ModelCategory[] can_build() { return new ModelCategory[]{ ModelCategory.Clustering }; }
 
   @Override public boolean havePojo() { return true; }
   @Override public boolean haveMojo() { return true; }
 
-  public enum Initialization { Random, PlusPlus, Furthest, User }
+  public enum Initialization { Random, PlusPlus, Furthest, User, PlusPlusParallel }
   /** Start the KMeans training Job on an F/J thread. */
   @Override protected KMeansDriver trainModelImpl() { return new KMeansDriver();  }
 
@@ -77,6 +79,10 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       else if( user_points.numRows() != _parms._k)
         error("_user_y", "The number of rows in the user-specified points is not equal to k = " + _parms._k);
     }
+    if (_parms._mini_batch_size < 0)
+      error("_mini_batch_size", "mini_batch_size must be non-negative");
+    if (_parms._mini_batch_size > 0 && _parms._estimate_k)
+      error("_mini_batch_size", "Cannot estimate k with mini-batch iterations.");
     if (_parms._estimate_k) {
       if (_parms._user_points!=null)
         error("_estimate_k", "Cannot estimate k if user_points are provided.");
@@ -128,8 +134,10 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
           }
         }
       }
-      else { // Random, Furthest, or PlusPlus initialization
-        if (_parms._init == Initialization.Random) {
+      else { // Random, Furthest, PlusPlus or PlusPlusParallel initialization
+        if (_parms._init == Initialization.PlusPlusParallel) {
+          centers = scalablePlusPlus(model, vecs, means, mults, modes, k, rand);
+        } else if (_parms._init == Initialization.Random) {
           // Initialize all cluster centers to random rows
           centers = new double[k][model._output.nfeatures()];
           for (double[] center : centers)
@@ -170,8 +178,63 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       return centers;
     }
 
+    // Scalable k-means++ (k-means||, Bahmani et al.): starting from one random row, every round
+    // samples about 2k rows, each with probability proportional to its square distance to the
+    // candidates picked so far.  Each row keeps its distance to (and the index of) the nearest
+    // candidate in temporary Vecs, so a round only computes distances to the rows sampled in the
+    // previous round.  The candidates, weighted by the number of rows nearest to them, are then
+    // reclustered down to k centers on this node.
+    double[][] scalablePlusPlus(KMeansModel model, final Vec[] vecs, final double[] means, final double[] mults, final int[] modes, int k, Random rand) {
+      final long seed = _parms.getOrMakeRealSeed();
+      final double oversampling = 2 * k;
+      long costMs = 0, samplingMs = 0, start = System.currentTimeMillis();
+      Vec[] vecs3 = Arrays.copyOf(vecs, vecs.length+2);
+      vecs3[vecs3.length-2] = vecs[0].makeCon(Double.MAX_VALUE); // square distance to the nearest candidate
+      vecs3[vecs3.length-1] = vecs[0].makeCon(0);                // index of the nearest candidate
+      try {
+        double[][] candidates = new double[1][model._output.nfeatures()];
+        randomRow(vecs, rand, candidates[0], means, mults, modes);
+        double[][] added = candidates;
+        int rounds = -1;
+        CandidateCost cost;
+        for (int round = 0; ; round++) {
+          long t = System.currentTimeMillis();
+          cost = new CandidateCost(added, candidates.length - added.length, candidates.length, means, mults, modes, _isCats, hasWeightCol()).doAll(vecs3);
+          costMs += System.currentTimeMillis() - t;
+          if (rounds < 0) // O(log(cost)) rounds, at most MAX_PARALLEL_ROUNDS
+            rounds = (int) Math.max(1, Math.min(MAX_PARALLEL_ROUNDS, Math.ceil(Math.log(cost._sqr))));
+          if (round == rounds || cost._sqr == 0 || stop_requested()) break;
+          t = System.currentTimeMillis();
+          added = new CandidateSampler(oversampling / cost._sqr, seed + round, means, mults, modes, hasWeightCol()).doAll(vecs3)._sampled;
+          samplingMs += System.currentTimeMillis() - t;
+          candidates = ArrayUtils.append(candidates, added);
+          model._output._centers_raw = destandardize(candidates, _isCats, means, mults);
+          model.update(_job); // Make early version of model visible, but don't update progress using update(1)
+        }
+        long t = System.currentTimeMillis();
+        double[][] centers = reclusterWeighted(candidates, cost._counts, rand, k, _isCats);
+        for (int i = candidates.length; i < k; i++) { // Fewer candidates than clusters (tiny data), pad with random rows
+          centers[i] = new double[model._output.nfeatures()];
+          randomRow(vecs, rand, centers[i], means, mults, modes);
+        }
+        long reclusterMs = System.currentTimeMillis() - t;
+        String msg = "KMeans|| initialization: " + candidates.length + " candidates in " + rounds + " rounds, "
+                + "distance passes " + PrettyPrint.msecs(costMs, true) + ", sampling passes " + PrettyPrint.msecs(samplingMs, true)
+                + ", local reclustering " + PrettyPrint.msecs(reclusterMs, true)
+                + ", total " + PrettyPrint.msecs(System.currentTimeMillis() - start, true) + ".";
+        Log.info(msg);
+        _job.update(0, msg);
+        return centers;
+      } finally {
+        vecs3[vecs3.length-2].remove();
+        vecs3[vecs3.length-1].remove();
+      }
+    }
+
     // Number of reinitialization attempts for preventing empty clusters
     transient private int _reinit_attempts;
+    // Row-to-center distances computed by all the Lloyds iterations, and the number a full scan would compute
+    transient private long _distances, _allDistances;
     // Handle the case where some centers go dry.  Rescue only 1 cluster
     // per iteration ('cause we only tracked the 1 worst row)
     boolean cleanupBadClusters( LloydsIterationTask task, final Vec[] vecs, final double[][] centers, final double[] means, final double[] mults, final int[] modes ) {
@@ -207,13 +270,22 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     // Compute all interesting KMeans stats (errors & variances of clusters,
     // etc).  Return new centers.
     double[][] computeStatsFillModel(LloydsIterationTask task, KMeansModel model, final Vec[] vecs, final double[] means, final double[] mults, final int[] modes, int k) {
-      // Fill in the model based on original destandardized centers
+      fillCenterStats(task._cMeans, task._size, task._cSqr, model, vecs, means, mults, modes, k);
+      model._output._iterations++;
+      appendHistory(model._output, task._reassigned_count, task._allDistances == 0 ? 0 : 1 - (double)task._distances / task._allDistances, k);
+      model._output._distance_speedup = _distances == 0 ? 1 : (double)_allDistances / _distances;
+      fillTablesAndMetrics(model);
+      return task._cMeans;      // New centers
+    }
+
+    // Fill in the model based on original destandardized centers and the given cluster stats
+    private void fillCenterStats(double[][] centers, long[] size, double[] withinss, KMeansModel model, final Vec[] vecs, final double[] means, final double[] mults, final int[] modes, int k) {
       if (model._parms._standardize) {
-        model._output._centers_std_raw = task._cMeans;
+        model._output._centers_std_raw = centers;
       }
-      model._output._centers_raw = destandardize(task._cMeans, _isCats, means, mults);
-      model._output._size = task._size;
-      model._output._withinss = task._cSqr;
+      model._output._centers_raw = destandardize(centers, _isCats, means, mults);
+      model._output._size = size;
+      model._output._withinss = withinss;
       double ssq = 0;       // sum squared error
       for( int i=0; i<k; i++ )
         ssq += model._output._withinss[i]; // sum squared error all clusters
@@ -229,21 +301,83 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
         model._output._totss = totss._tss;
       }
       model._output._betweenss = model._output._totss - model._output._tot_withinss;  // MSE between-cluster
-      model._output._iterations++;
+    }
 
-      model._output._history_withinss = ArrayUtils.copyAndFillOf( model._output._history_withinss, model._output._history_withinss.length+1, model._output._tot_withinss);
-      model._output._k = ArrayUtils.copyAndFillOf(model._output._k, model._output._k.length+1, k);
-      model._output._training_time_ms = ArrayUtils.copyAndFillOf(model._output._training_time_ms, model._output._training_time_ms.length+1, System.currentTimeMillis());
-      model._output._reassigned_count = ArrayUtils.copyAndFillOf(model._output._reassigned_count, model._output._reassigned_count.length+1, task._reassigned_count);
+    // One more row of the scoring history, with the current tot_withinss
+    private void appendHistory(KMeansModel.KMeansOutput output, double reassigned, double pruned, int k) {
+      output._history_withinss = ArrayUtils.copyAndFillOf( output._history_withinss, output._history_withinss.length+1, output._tot_withinss);
+      output._k = ArrayUtils.copyAndFillOf(output._k, output._k.length+1, k);
+      output._training_time_ms = ArrayUtils.copyAndFillOf(output._training_time_ms, output._training_time_ms.length+1, System.currentTimeMillis());
+      output._reassigned_count = ArrayUtils.copyAndFillOf(output._reassigned_count, output._reassigned_count.length+1, reassigned);
+      output._pruned_distance_fraction = ArrayUtils.copyAndFillOf(output._pruned_distance_fraction, output._pruned_distance_fraction.length+1, pruned);
+    }
 
+    private void fillTablesAndMetrics(KMeansModel model) {
       // Two small TwoDimTables - cheap
       model._output._model_summary = createModelSummaryTable(model._output);
       model._output._scoring_history = createScoringHistoryTable(model._output);
 
       // Take the cluster stats from the model, and assemble them into a model metrics object
       model._output._training_metrics = makeTrainingMetrics(model);
+    }
 
-      return task._cMeans;      // New centers
+    // Mini-batch KMeans (Sculley, "Web-Scale K-Means Clustering"): every iteration samples about
+    // mini_batch_size rows, assigns them to the nearest centers and moves each center towards its
+    // rows with a per-center learning rate of 1/(rows assigned to the center so far).  The centers
+    // are the running means of all the rows they were assigned (categorical columns: the most
+    // frequent level).  A final full pass computes the exact cluster stats.
+    double[][] miniBatchIterations(KMeansModel model, final Vec[] vecs, final Vec[] vecs2, double[][] centers, final double[] means, final double[] mults, final int[] modes, int k) {
+      final int N = centers[0].length;
+      final double fraction = Math.min(1, (double) _parms._mini_batch_size / _train.numRows());
+      final long seed = _parms.getOrMakeRealSeed();
+      long[] counts = new long[k];           // Rows assigned to each center so far
+      long[][][] cats = new long[k][N][];    // Histograms of the categorical levels assigned to each center
+      for (int clu = 0; clu < k; clu++)
+        for (int col = 0; col < N; col++)
+          if (_isCats[col] != null) cats[clu][col] = new long[vecs[col].cardinality()];
+      ClusterDist cd = new ClusterDist();
+      model._output._iterations = 0;
+      while (model._output._iterations < _parms._max_iterations && !stop_requested()) {
+        double[][] batch = new Sampler(means, mults, modes, fraction, seed + model._output._iterations, hasWeightCol()).doAll(vecs)._sampled;
+        // Assign the whole batch first, with the centers of the previous iteration
+        int[] nearest = new int[batch.length];
+        double sqr = 0;
+        for (int i = 0; i < batch.length; i++) {
+          nearest[i] = closest(centers, batch[i], _isCats, cd)._cluster;
+          sqr += cd._dist;
+        }
+        for (int i = 0; i < batch.length; i++) {
+          int clu = nearest[i];
+          double eta = 1.0 / ++counts[clu];  // Per-center learning rate
+          for (int col = 0; col < N; col++) {
+            double x = batch[i][col];
+            if (_isCats[col] != null) {
+              long[] levels = cats[clu][col];
+              if (++levels[(int) x] > levels[(int) centers[clu][col]]) centers[clu][col] = x;
+            } else
+              centers[clu][col] += eta * (x - centers[clu][col]);
+          }
+        }
+        // Estimate of the tot_withinss from the batch
+        model._output._tot_withinss = batch.length == 0 ? Double.NaN : sqr * _train.numRows() / batch.length;
+        model._output._centers_std_raw = _parms._standardize ? centers : null;
+        model._output._centers_raw = destandardize(centers, _isCats, means, mults);
+        model._output._iterations++;
+        appendHistory(model._output, Double.NaN, 0, k);
+        model.update(_job);
+        _job.update(1);
+      }
+      // Exact stats of the final centers
+      LloydsIterationTask task = new LloydsIterationTask(centers, means, mults, modes, _isCats, k, hasWeightCol()).doAll(vecs2);
+      fillCenterStats(centers, task._size, task._cSqr, model, vecs, means, mults, modes, k);
+      // The last row of the scoring history is for the final centers: replace its estimate by the exact value
+      // (the previous rows are estimates from their mini-batch)
+      int last = model._output._history_withinss.length - 1;
+      if (model._output._iterations > 0 && last >= 0)
+        model._output._history_withinss[last] = model._output._tot_withinss;
+      fillTablesAndMetrics(model);
+      Log.info("Mini-batch KMeans: " + model._output._iterations + " iterations with " + _parms._mini_batch_size + " rows each.");
+      return centers;
     }
 
     // Main worker thread
@@ -289,16 +423,28 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
         final double rel_improvement_cutoff = Math.min(0.02 + 10. / _train.numRows() + 2.5 / Math.pow(model._output.nfeatures(), 2), 0.8);
         if (_parms._estimate_k)
           Log.info("Cutoff for relative improvement in within_cluster_sum_of_squares: " + rel_improvement_cutoff);
-        Vec[] vecs2 = Arrays.copyOf(vecs, vecs.length+1);
-        vecs2[vecs2.length-1] = vecs2[0].makeCon(-1);
+        Vec[] vecs2 = Arrays.copyOf(vecs, vecs.length+2);
+        vecs2[vecs2.length-2] = vecs2[0].makeCon(-1); // cluster assignment
+        vecs2[vecs2.length-1] = vecs2[0].makeCon(0);  // lower bound of the distance to the 2nd closest center
         for (int k = startK; k <= _parms._k; ++k) {
           Log.info("Running Lloyds iteration for " + k + " centroids.");
           model._output._iterations = 0;  // Loop ends only when iterations > max_iterations with strict inequality
           double[][] lo=null, hi=null;
+          double[][] boundCenters = null; // Centers the row bounds were computed for
+          if (_parms._mini_batch_size > 0) { // No estimate_k with mini-batches, k is fixed
+            centers = miniBatchIterations(model, vecs, vecs2, centers, means, mults, impute_cat, k);
+            continue;
+          }
           boolean stop = false;
           do { //Lloyds algorithm
             assert(centers.length == k);
-            LloydsIterationTask task = new LloydsIterationTask(centers, means, mults, impute_cat, _isCats, k, hasWeightCol()).doAll(vecs2); //1 PASS OVER THE DATA
+            LloydsIterationTask task = new LloydsIterationTask(centers, means, mults, impute_cat, _isCats, k, hasWeightCol());
+            if (_parms._bounds_pruning && boundCenters != null)
+              task.setBounds(boundCenters);
+            boundCenters = ArrayUtils.deepClone(centers);
+            task.doAll(vecs2); //1 PASS OVER THE DATA
+            _distances += task._distances;
+            _allDistances += task._allDistances;
             // Pick the max categorical level for cluster center
             max_cats(task._cMeans, task._cats, _isCats);
 
@@ -354,7 +500,11 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
           if (lo != null && hi != null && _parms._estimate_k)
             centers = splitLargestCluster(centers, lo, hi, means, mults, impute_cat, vecs2, k);
         } //k-finder
+        vecs2[vecs2.length-2].remove();
         vecs2[vecs2.length-1].remove();
+        if (_allDistances > 0)
+          Log.info("Lloyds iterations computed " + _distances + " of " + _allDistances + " distances, "
+                  + String.format("%.1f", model._output._distance_speedup) + "x speedup of the distance computations.");
 
         // Create metrics by scoring on training set otherwise scores are based on last Lloyd iteration
         model.score(_train).delete();
@@ -459,6 +609,7 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       }
       colHeaders.add("Number of Reassigned Observations"); colTypes.add("long"); colFormat.add("%d");
       colHeaders.add("Within Cluster Sum Of Squares"); colTypes.add("double"); colFormat.add("%.5f");
+      colHeaders.add("Pruned Distance Fraction"); colTypes.add("double"); colFormat.add("%.5f");
 
       final int rows = output._history_withinss.length;
       TwoDimTable table = new TwoDimTable(
@@ -481,6 +632,7 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
           table.set(row, col++, output._k[i]);
         table.set(row, col++, output._reassigned_count[i]);
         table.set(row, col++, output._history_withinss[i]);
+        table.set(row, col++, output._pruned_distance_fraction[i]);
         row++;
       }
       return table;
@@ -566,7 +718,7 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
 
   // -------------------------------------------------------------------------
   // Sample rows with increasing probability the farther they are from any
-  // cluster center.
+  // cluster center.  Without centers, sample rows uniformly (mini-batches).
   private static class Sampler extends MRTask<Sampler> {
     // IN
     double[][] _centers;
@@ -581,6 +733,11 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     // OUT
     double[][] _sampled;   // New cluster centers
 
+    // Uniform sample of (in expectation) the given fraction of the rows
+    Sampler( double[] means, double[] mults, int[] modes, double fraction, long seed, boolean hasWeight ) {
+      this(null, means, mults, modes, null, 0, fraction, seed, hasWeight);
+    }
+
     Sampler( double[][] centers, double[] means, double[] mults, int[] modes, String[][] isCats, double sqr, double prob, long seed, boolean hasWeight ) {
       _centers = centers;
       _means = means;
@@ -600,12 +757,24 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       Random rand = RandomUtils.getRNG(0);
       ClusterDist cd = new ClusterDist();
 
-      for( int row = 0; row < cs[0]._len; row++ ) {
-        rand.setSeed(_seed + cs[0].start()+row);
-        data(values, cs, row, _means, _mults, _modes);
-        double sqr = minSqr(_centers, values, _isCats, cd);
-        if( _probability * sqr > rand.nextDouble() * _sqr )
+      if( _centers == null ) { // Uniform sample: draw the row indices, don't touch the other rows
+        rand.setSeed(_seed + cs[0].start());
+        double expected = _probability * cs[0]._len;
+        int count = (int)expected + (rand.nextDouble() < expected - (int)expected ? 1 : 0);
+        for( int i = 0; i < count; i++ ) {
+          int row = rand.nextInt(cs[0]._len);
+          if( _hasWeight && cs[N].atd(row) == 0 ) continue; // skip holdout rows
+          data(values, cs, row, _means, _mults, _modes);
           list.add(values.clone());
+        }
+      } else {
+        for( int row = 0; row < cs[0]._len; row++ ) {
+          rand.setSeed(_seed + cs[0].start()+row);
+          data(values, cs, row, _means, _mults, _modes);
+          double sqr = minSqr(_centers, values, _isCats, cd);
+          if( _probability * sqr > rand.nextDouble() * _sqr )
+            list.add(values.clone());
+        }
       }
 
       _sampled = new double[list.size()][];
@@ -620,14 +789,137 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     }
   }
 
+  // -------------------------------------------------------------------------
+  // KMeans|| distance pass: update each row's square distance to the nearest
+  // candidate with the candidates added in the last round, sum the distances,
+  // and count the rows nearest to every candidate.
+  private static class CandidateCost extends MRTask<CandidateCost> {
+    // IN
+    double[][] _added;           // Candidates added in the last round
+    final int _offset;           // Index of the first added candidate
+    final int _candidates;       // Number of all candidates
+    double[] _means, _mults;     // Standardization
+    int[] _modes;                // Imputation of missing categoricals
+    final String[][] _isCats;
+    final boolean _hasWeight;
+
+    // OUT
+    double _sqr;                 // Sum of the square distances to the nearest candidates
+    long[] _counts;              // Number of rows nearest to each candidate
+
+    CandidateCost(double[][] added, int offset, int candidates, double[] means, double[] mults, int[] modes, String[][] isCats, boolean hasWeight) {
+      _added = added;
+      _offset = offset;
+      _candidates = candidates;
+      _means = means;
+      _mults = mults;
+      _modes = modes;
+      _isCats = isCats;
+      _hasWeight = hasWeight;
+    }
+
+    @Override public void map(Chunk[] cs) {
+      int N = cs.length - (_hasWeight ? 1:0) - 2 /*distance, nearest candidate*/;
+      Chunk dist = cs[cs.length-2];
+      Chunk nearest = cs[cs.length-1];
+      double[] values = new double[N];
+      _counts = new long[_candidates];
+      for( int row = 0; row < cs[0]._len; row++ ) {
+        if( _hasWeight && cs[N].atd(row) == 0 ) { // skip holdout rows, never sample them
+          dist.set(row, 0);
+          continue;
+        }
+        data(values, cs, row, _means, _mults, _modes);
+        double min = dist.atd(row);
+        int idx = (int) nearest.at8(row);
+        boolean closer = false;
+        for( int i = 0; i < _added.length; i++ ) {
+          double sqr = hex.genmodel.GenModel.KMeans_distance(_added[i], values, _isCats);
+          if( sqr < min ) { min = sqr; idx = _offset + i; closer = true; }
+        }
+        if( closer ) {
+          dist.set(row, min);
+          nearest.set(row, idx);
+        }
+        _sqr += min;
+        _counts[idx]++;
+      }
+      _added = null;
+      _means = _mults = null;
+      _modes = null;
+    }
+
+    @Override public void reduce(CandidateCost other) {
+      _sqr += other._sqr;
+      ArrayUtils.add(_counts, other._counts);
+    }
+  }
+
+  // KMeans|| sampling pass: sample rows with probability proportional to
+  // their (stored) square distance to the nearest candidate.
+  private static class CandidateSampler extends MRTask<CandidateSampler> {
+    // IN
+    final double _probability;   // Odds to select a row, per unit of square distance
+    final long _seed;
+    double[] _means, _mults;     // Standardization
+    int[] _modes;                // Imputation of missing categoricals
+    final boolean _hasWeight;
+
+    // OUT
+    double[][] _sampled;         // New candidates
+
+    CandidateSampler(double probability, long seed, double[] means, double[] mults, int[] modes, boolean hasWeight) {
+      _probability = probability;
+      _seed = seed;
+      _means = means;
+      _mults = mults;
+      _modes = modes;
+      _hasWeight = hasWeight;
+    }
+
+    @Override public void map(Chunk[] cs) {
+      int N = cs.length - (_hasWeight ? 1:0) - 2 /*distance, nearest candidate*/;
+      Chunk dist = cs[cs.length-2];
+      Random rand = RandomUtils.getRNG(_seed + cs[0].start());
+      ArrayList<double[]> list = new ArrayList<>();
+      for( int row = 0; row < cs[0]._len; row++ ) {
+        if( _probability * dist.atd(row) > rand.nextDouble() ) {
+          double[] values = new double[N];
+          data(values, cs, row, _means, _mults, _modes);
+          list.add(values);
+        }
+      }
+      _sampled = list.toArray(new double[list.size()][]);
+      _means = _mults = null;
+      _modes = null;
+    }
+
+    @Override public void reduce(CandidateSampler other) {
+      _sampled = ArrayUtils.append(_sampled, other._sampled);
+    }
+  }
+
   // ---------------------------------------
   // A Lloyd's pass:
   //   Find nearest cluster center for every point
   //   Compute new mean/center & variance & rows for each cluster
   //   Compute distance between clusters
   //   Compute total sqr distance
+  //
+  // Rows are assigned with Hamerly's triangle inequality bounds: the row's
+  // distance to its center is compared to half the distance between that
+  // center and the nearest other one, and to a lower bound on the distance
+  // to the second closest center (kept per row in a temporary Vec, decayed
+  // by how far the centers moved since it was computed).  If the assigned
+  // center is closer than either, the scan over all the centers is skipped.
+  // The distance to the assigned center is always computed exactly, the
+  // cluster stats (withinss, worst row) need it anyway.
 
   private static class LloydsIterationTask extends MRTask<LloydsIterationTask> {
+    // Slack for the rounding errors of the bounds, we only prune if the
+    // assigned center is clearly (not by a tie) the closest one
+    private static final double BOUNDS_EPS = 1e-10;
+
     // IN
     double[][] _centers;
     double[] _means, _mults;      // Standardization
@@ -635,6 +927,10 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     final int _k;
     final String[][] _isCats;
     boolean _hasWeight;
+    double[] _halfGap;          // Half the distance from each center to the closest other center
+    double _maxMove, _maxMove2; // Largest and second largest center movement since the bounds were computed
+    int _maxMoveIdx = -1;       // Center with the largest movement
+    boolean _bounded;           // Are the row bounds valid for these centers?
 
     // OUT
     double[][] _lo, _hi;        // Bounding box
@@ -645,6 +941,8 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     long[] _size;               // Number of rows in each cluster
     long _worst_row;            // Row with max err
     double _worst_err;          // Max-err-row's max-err
+    long _distances;            // Number of row-to-center distances computed
+    long _allDistances;         // Number of row-to-center distances of a full scan
 
     LloydsIterationTask(double[][] centers, double[] means, double[] mults, int[] modes, String[][] isCats, int k, boolean hasWeight ) {
       _centers = centers;
@@ -656,8 +954,32 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       _hasWeight = hasWeight;
     }
 
+    /**
+     * Use the row bounds computed by the previous pass.
+     * @param oldCenters the centers of the previous pass (same number of centers)
+     */
+    LloydsIterationTask setBounds(double[][] oldCenters) {
+      assert oldCenters.length == _k;
+      _maxMove = _maxMove2 = 0;
+      for( int clu = 0; clu < _k; clu++ ) {
+        double move = Math.sqrt(hex.genmodel.GenModel.KMeans_distance(oldCenters[clu], _centers[clu], _isCats));
+        if( move > _maxMove ) { _maxMove2 = _maxMove; _maxMove = move; _maxMoveIdx = clu; }
+        else if( move > _maxMove2 ) _maxMove2 = move;
+      }
+      _halfGap = new double[_k];
+      Arrays.fill(_halfGap, Double.MAX_VALUE);
+      for( int a = 0; a < _k; a++ )
+        for( int b = a+1; b < _k; b++ ) {
+          double gap = 0.5 * Math.sqrt(hex.genmodel.GenModel.KMeans_distance(_centers[a], _centers[b], _isCats));
+          _halfGap[a] = Math.min(_halfGap[a], gap);
+          _halfGap[b] = Math.min(_halfGap[b], gap);
+        }
+      _bounded = true;
+      return this;
+    }
+
     @Override public void map(Chunk[] cs) {
-      int N = cs.length - (_hasWeight ? 1:0) - 1 /*clusterassignment*/;
+      int N = cs.length - (_hasWeight ? 1:0) - 2 /*clusterassignment, bound*/;
       assert _centers[0].length==N;
       _lo = new double[_k][N];
       for( int clu=0; clu< _k; clu++ )
@@ -675,7 +997,8 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
           _cats[clu][col] = _isCats[col]==null ? null : new long[cs[col].vec().cardinality()];
       _worst_err = 0;
 
-      Chunk assignment = cs[cs.length-1];
+      Chunk assignment = cs[cs.length-2];
+      Chunk bound = cs[cs.length-1];
       // Find closest cluster center for each row
       double[] values = new double[N]; // Temp data to hold row as doubles
       ClusterDist cd = new ClusterDist();
@@ -684,7 +1007,7 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
         if (weight == 0) continue; //skip holdout rows
         assert(weight == 1); //K-Means only works for weight 1 (or weight 0 for holdout)
         data(values, cs, row, _means, _mults, _modes); // Load row as doubles
-        closest(_centers, values, _isCats, cd); // Find closest cluster center
+        closest(values, (int)assignment.at8(row), bound, row, cd); // Find closest cluster center
         if (cd._cluster != assignment.at8(row)) {
           _reassigned_count+=weight;
           assignment.set(row, cd._cluster);
@@ -717,10 +1040,42 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       _centers = null;
       _means = _mults = null;
       _modes = null;
+      _halfGap = null;
+    }
+
+    // Closest center of the row, the scan over all centers is skipped if the bounds prove the assigned one is the closest
+    private void closest(double[] values, int assigned, Chunk bound, int row, ClusterDist cd) {
+      _allDistances += _k;
+      double assignedSqr = Double.NaN;
+      if( _bounded && assigned >= 0 ) {
+        double lower = bound.atd(row) - (assigned == _maxMoveIdx ? _maxMove2 : _maxMove);
+        assignedSqr = hex.genmodel.GenModel.KMeans_distance(_centers[assigned], values, _isCats);
+        _distances++;
+        if( Math.sqrt(assignedSqr) * (1 + BOUNDS_EPS) < Math.max(_halfGap[assigned], lower) ) {
+          bound.set(row, lower);
+          cd._cluster = assigned;
+          cd._dist = assignedSqr;
+          return;
+        }
+      }
+      int min = -1;
+      double minSqr = Double.MAX_VALUE, min2Sqr = Double.MAX_VALUE;
+      for( int cluster = 0; cluster < _k; cluster++ ) {
+        double sqr;
+        if( cluster == assigned && !Double.isNaN(assignedSqr) ) sqr = assignedSqr;
+        else { sqr = hex.genmodel.GenModel.KMeans_distance(_centers[cluster], values, _isCats); _distances++; }
+        if( sqr < minSqr ) { min2Sqr = minSqr; min = cluster; minSqr = sqr; }
+        else if( sqr < min2Sqr ) min2Sqr = sqr;
+      }
+      bound.set(row, Math.sqrt(min2Sqr)); // Distance to the second closest center
+      cd._cluster = min;
+      cd._dist = minSqr;
     }
 
     @Override public void reduce(LloydsIterationTask mr) {
       _reassigned_count += mr._reassigned_count;
+      _distances += mr._distances;
+      _allDistances += mr._allDistances;
       for( int clu = 0; clu < _k; clu++ ) {
         long ra =    _size[clu];
         long rb = mr._size[clu];
@@ -817,6 +1172,71 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     return res;
   }
 
+  // Weighted k-means++ seeding of the points, followed by a few weighted
+  // Lloyds iterations (all local, used by the KMeans|| initialization).
+  // If there are fewer points than N, the remaining centers are null.
+  private static double[][] reclusterWeighted(double[][] points, long[] weights, Random rand, int N, String[][] isCats) {
+    double[][] res = new double[N][];
+    if( points.length <= N ) {
+      for( int i = 0; i < points.length; i++ ) res[i] = points[i].clone();
+      return res;
+    }
+    ClusterDist cd = new ClusterDist();
+    // Seeding: pick points with probability proportional to weight * square distance to the picked ones
+    double[] odds = new double[points.length];
+    double[] sqr = new double[points.length];
+    Arrays.fill(sqr, Double.MAX_VALUE);
+    for( int count = 0; count < N; count++ ) {
+      double sum = 0;
+      for( int i = 0; i < points.length; i++ ) {
+        if( count > 0 ) sqr[i] = Math.min(sqr[i], hex.genmodel.GenModel.KMeans_distance(res[count-1], points[i], isCats));
+        odds[i] = count == 0 ? weights[i] : weights[i] * sqr[i]; // First center: proportional to the weight only
+        sum += odds[i];
+      }
+      int pick = -1;
+      if( sum > 0 ) {
+        double r = rand.nextDouble() * sum;
+        for( int i = 0; i < points.length && r >= 0; i++ )
+          if( odds[i] > 0 ) { r -= odds[i]; pick = i; }
+      } else { // All remaining points coincide with the picked ones
+        pick = rand.nextInt(points.length);
+      }
+      res[count] = points[pick].clone();
+      sqr[pick] = 0;
+    }
+    // Weighted Lloyds iterations on the candidates
+    int F = points[0].length;
+    int[] card = new int[F];
+    for( double[] point : points )
+      for( int col = 0; col < F; col++ )
+        if( isCats[col] != null ) card[col] = Math.max(card[col], (int)point[col] + 1);
+    for( int iter = 0; iter < 10; iter++ ) {
+      double[][] sums = new double[N][F];
+      long[][][] cats = new long[N][F][];
+      long[] size = new long[N];
+      for( int clu = 0; clu < N; clu++ )
+        for( int col = 0; col < F; col++ )
+          if( isCats[col] != null ) cats[clu][col] = new long[card[col]];
+      for( int i = 0; i < points.length; i++ ) {
+        int clu = closest(res, points[i], isCats, cd)._cluster;
+        size[clu] += weights[i];
+        for( int col = 0; col < F; col++ )
+          if( isCats[col] == null ) sums[clu][col] += weights[i] * points[i][col];
+          else cats[clu][col][(int)points[i][col]] += weights[i];
+      }
+      boolean changed = false;
+      for( int clu = 0; clu < N; clu++ ) {
+        if( size[clu] == 0 ) continue; // Keep the old center
+        for( int col = 0; col < F; col++ ) {
+          double v = isCats[col] == null ? sums[clu][col] / size[clu] : ArrayUtils.maxIndex(cats[clu][col]);
+          if( v != res[clu][col] ) { res[clu][col] = v; changed = true; }
+        }
+      }
+      if( !changed ) break;
+    }
+    return res;
+  }
+
   private void randomRow(Vec[] vecs, Random rand, double[] center, double[] means, double[] mults, int[] modes) {
     long row = Math.max(0, (long) (rand.nextDouble() * vecs[0].length()) - 1);
     data(center, vecs, row, means, mults, modes);
@@ -904,12 +1324,12 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     }
 
     @Override public void map(Chunk[] cs) {
-      int N = cs.length - (_hasWeight ? 1:0) - 1 /*clusterassignment*/;
+      int N = cs.length - (_hasWeight ? 1:0) - 2 /*clusterassignment, bound*/;
       assert _centers[0].length==N;
       _cMeans = new double[_k][N];
       _size = new long[_k];
 
-      Chunk assignment = cs[cs.length-1];
+      Chunk assignment = cs[cs.length-2];
       // Find closest cluster center for each row
       double[] values = new double[N]; // Temp data to hold row as doubles
       ClusterDist cd = new ClusterDist();
@@ -39,6 +39,8 @@ public class KMeansModel extends ClusteringModel<KMeansModel,KMeansModel.KMeansP
     public boolean _pred_indicator = false;   // For internal use only: generate indicator cols during prediction
                                               // Ex: k = 4, cluster = 3 -> [0, 0, 1, 0]
     public boolean _estimate_k = false;       // If enabled, iteratively find up to _k clusters
+    public int _mini_batch_size = 0;          // If positive, each iteration only uses a random sample of about this many rows
+    public boolean _bounds_pruning = true;    // For internal use only: skip distance computations proven unnecessary by the triangle inequality
   }
 
   public static class KMeansOutput extends ClusteringModel.ClusteringOutput {
@@ -65,6 +67,10 @@ public class KMeansModel extends ClusteringModel<KMeansModel,KMeansModel.KMeansP
     public long[/*iterations*/] _training_time_ms = new long[]{System.currentTimeMillis()};
     public double[/*iterations*/] _reassigned_count = new double[]{Double.NaN};
     public int[/*iterations*/] _k = new int[]{0};
+    // Fraction of the row-to-center distance computations skipped thanks to the triangle inequality bounds
+    public double[/*iterations*/] _pruned_distance_fraction = new double[]{Double.NaN};
+    // Distance computations of plain Lloyds iterations divided by the distance computations actually done
+    public double _distance_speedup = 1;
 
     public KMeansOutput( KMeans b ) { super(b); }
   }
@@ -4,6 +4,7 @@ import hex.DataInfo;
 import hex.ModelBuilder;
 import hex.ModelCategory;
 import hex.ModelMetrics;
+import hex.PreprocessingCache;
 import hex.genmodel.algos.glrm.GlrmInitialization;
 import hex.genmodel.algos.glrm.GlrmLoss;
 import hex.genmodel.algos.glrm.GlrmRegularizer;
@@ -66,6 +67,17 @@ public class PCA extends ModelBuilder<PCAModel,PCAModel.PCAParameters,PCAModel.P
     double gramSize =  _train.lastVec().nChunks()==1 ? 1 :
             Math.log((double) _train.lastVec().nChunks()) / Math.log(2.);
 
+    if (_parms._pca_method == PCAParameters.Method.RandomizedTSQR) {
+      // no Gram, only p by l sketches (one per thread)
+      long mem_usage_tsqr = (long) (hb._cpus_allowed * p * SVD.tsqrSketchSize(_parms._k, (int) p) * 8/*doubles*/ *
+              gramSize);
+      if (mem_usage_tsqr > hb.get_free_mem())
+        error("_train", "Sketch matrices (one per thread) won't fit in the driver node's memory ("
+                + PrettyPrint.bytes(mem_usage_tsqr) + " > " + PrettyPrint.bytes(hb.get_free_mem())
+                + ") - try reducing the number of columns and/or the number of categorical factors.");
+      return;
+    }
+
     long mem_usage = (useGramSVD || usePower || useRandomized || useGLRM) ? (long) (hb._cpus_allowed * p * p * 8/*doubles*/ *
             gramSize) : 1; //one gram per core
     long mem_usage_w = (useGramSVD || usePower || useRandomized || useGLRM) ? (long) (hb._cpus_allowed * r * r *
@@ -248,6 +260,24 @@ public class PCA extends ModelBuilder<PCAModel,PCAModel.PCAParameters,PCAModel.P
       buildTables(pca, dinfo.coefNames());
     }
   
+    /**
+     * DataInfo of the training and validation frames, shared by the models of a search.
+     * @param naOmitted whether the rows with NAs were removed from the training frame
+     */
+    private DataInfo makeDataInfo(boolean naOmitted) {
+      String signature = "PCA.DataInfo:" + Arrays.toString(_train.names()) + PreprocessingCache.frameSignature(_parms._train, _train)
+          + (_valid == null ? "" : Arrays.toString(_valid.names()) + PreprocessingCache.frameSignature(_parms._valid, _valid))
+          + ":" + naOmitted + ":" + _parms._use_all_factor_levels + ":" + _parms._transform + ":" + _parms._impute_missing;
+      return DataInfo.cached(_parms._preprocessing_cache, signature, _train, _valid, new PreprocessingCache.Maker<DataInfo>() {
+        @Override public DataInfo make() {
+          return new DataInfo(_train, _valid, 0, _parms._use_all_factor_levels, _parms._transform,
+                  DataInfo.TransformType.NONE, /* skipMissing */ !_parms._impute_missing, /* imputeMissing */
+                  _parms._impute_missing, /* missingBucket */ false, /* weights */ false,
+                    /* offset */ false, /* fold */ false, /* intercept */ false);
+        }
+      });
+    }
+
     // Main worker thread
     @Override
     public void computeImpl() {
@@ -276,10 +306,7 @@ public class PCA extends ModelBuilder<PCAModel,PCAModel.PCAParameters,PCAModel.P
         }
 
         if ((!_parms._impute_missing) && tranRebalanced.hasNAs()) { // remove NAs rows
-          tinfo = new DataInfo(_train, _valid, 0, _parms._use_all_factor_levels, _parms._transform,
-                  DataInfo.TransformType.NONE, /* skipMissing */ !_parms._impute_missing, /* imputeMissing */
-                  _parms._impute_missing, /* missingBucket */ false, /* weights */ false,
-                    /* offset */ false, /* fold */ false, /* intercept */ false);
+          tinfo = makeDataInfo(false);
           DKV.put(tinfo._key, tinfo);
 
           DKV.put(tranRebalanced._key, tranRebalanced);
@@ -289,10 +316,7 @@ public class PCA extends ModelBuilder<PCAModel,PCAModel.PCAParameters,PCAModel.P
           checkMemoryFootPrint();   // check memory footprint again to enable wideDataSet
         }
 
-        dinfo = new DataInfo(_train, _valid, 0, _parms._use_all_factor_levels, _parms._transform,
-                DataInfo.TransformType.NONE, /* skipMissing */ !_parms._impute_missing, /* imputeMissing */
-                _parms._impute_missing, /* missingBucket */ false, /* weights */ false,
-                  /* offset */ false, /* fold */ false, /* intercept */ false);
+        dinfo = makeDataInfo(!_parms._impute_missing && tranRebalanced.hasNAs());
         DKV.put(dinfo._key, dinfo);
 
         if (!_parms._impute_missing && tranRebalanced.hasNAs()) {
@@ -355,7 +379,8 @@ public class PCA extends ModelBuilder<PCAModel,PCAModel.PCAParameters,PCAModel.P
           //  model._output._scoring_history.tableHeader = "Scoring history from GLRM";
 
         } else if(_parms._pca_method == PCAParameters.Method.Power ||
-            _parms._pca_method == PCAParameters.Method.Randomized) {
+            _parms._pca_method == PCAParameters.Method.Randomized ||
+            _parms._pca_method == PCAParameters.Method.RandomizedTSQR) {
           SVDModel.SVDParameters parms = new SVDModel.SVDParameters();
           parms._train = _parms._train;
           parms._valid = _parms._valid;
@@ -375,6 +400,8 @@ public class PCA extends ModelBuilder<PCAModel,PCAModel.PCAParameters,PCAModel.P
             parms._svd_method = SVDModel.SVDParameters.Method.Power;
           } else if(_parms._pca_method == PCAParameters.Method.Randomized) {
             parms._svd_method = SVDModel.SVDParameters.Method.Randomized;
+          } else if(_parms._pca_method == PCAParameters.Method.RandomizedTSQR) {
+            parms._svd_method = SVDModel.SVDParameters.Method.RandomizedTSQR;
           }
 
           // Calculate standard deviation, but not projection
@@ -24,6 +24,8 @@ public class AggregatorV99 extends ModelBuilderSchema<Aggregator,AggregatorV99,A
             "categorical_encoding",
             "save_mapping_frame",
             "num_iteration_without_new_exemplar",
+            "streaming",
+            "exemplar_budget",
 //            "pca_method",
 //            "k",
 //            "max_iterations",
@@ -63,5 +65,11 @@ public class AggregatorV99 extends ModelBuilderSchema<Aggregator,AggregatorV99,A
 
     @API(help = "The number of iterations to run before aggregator exits if the number of exemplars collected didn't change", direction = API.Direction.INOUT, level= API.Level.expert)
     public int num_iteration_without_new_exemplar;
+
+    @API(help = "Aggregate in a single pass with a bounded number of exemplars (per node) instead of searching for the radius", direction = API.Direction.INOUT, level= API.Level.expert)
+    public boolean streaming;
+
+    @API(help = "Maximum number of exemplars kept at once in the streaming mode (0: four times the upper limit of target_num_exemplars). Exemplars with different categorical levels are only merged (the smallest into the nearest) if there are more combinations of levels than the budget", direction = API.Direction.INOUT, level= API.Level.expert)
+    public int exemplar_budget;
   }
 }
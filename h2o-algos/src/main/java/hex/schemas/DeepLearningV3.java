@@ -99,7 +99,10 @@ public class DeepLearningV3 extends ModelBuilderSchema<DeepLearning,DeepLearning
         "categorical_encoding",
         "elastic_averaging",
         "elastic_averaging_moving_rate",
-        "elastic_averaging_regularization"
+        "elastic_averaging_regularization",
+        "parameter_server",
+        "parameter_server_staleness",
+        "weights_precision"
     };
 
 
@@ -658,6 +661,18 @@ public class DeepLearningV3 extends ModelBuilderSchema<DeepLearning,DeepLearning
         help = "Elastic averaging regularization strength (only if elastic averaging is enabled).")
     public double elastic_averaging_regularization;
 
+    @API(level = API.Level.expert, direction = API.Direction.INOUT, gridable = true,
+        help = "Asynchronous training: nodes push weight updates to sharded parameter holders and pull fresh weights on their own schedule. #Experimental")
+    public boolean parameter_server;
+
+    @API(level = API.Level.expert, direction = API.Direction.INOUT, gridable = true,
+        help = "Max. number of rounds a node can get ahead of the slowest node (only if the parameter server is enabled).")
+    public int parameter_server_staleness;
+
+    @API(level = API.Level.expert, direction = API.Direction.INOUT, values = {"Float32", "BFloat16"},
+        help = "Precision of the weight updates sent between nodes and of the weights in saved models and MOJOs (training is always done in float). BFloat16 halves the size.")
+    public DeepLearningParameters.WeightsPrecision weights_precision;
+
     @API(level = API.Level.expert, direction = API.Direction.INOUT,
         help = "Pretrained autoencoder model to initialize this model with.")
     public KeyV3.ModelKeyV3 pretrained_autoencoder;
@@ -46,6 +46,8 @@ public class GLRMV3 extends ModelBuilderSchema<GLRM, GLRMV3, GLRMV3.GLRMParamete
         "impute_original",
         "recover_svd",
         "max_runtime_secs",
+        "checkpoint",
+        "refine_iterations",
     };
 
     @API(help = "Transformation of training data", values = { "NONE", "STANDARDIZE", "NORMALIZE", "DEMEAN", "DESCALE" }, gridable = true)  // TODO: pull out of categorical class
@@ -87,6 +89,10 @@ public class GLRMV3 extends ModelBuilderSchema<GLRM, GLRMV3, GLRMV3.GLRMParamete
     @API(help = "Maximum number of updates, defaults to 2*max_iterations", gridable = true)
     public int max_updates;
 
+    @API(help = "Number of joint X and Y iterations after solving X of the new rows when warm starting from a checkpoint " +
+            "(the rows of the checkpointed model followed by the new rows)", level = API.Level.secondary)
+    public int refine_iterations;
+
     @API(help = "Initial step size", gridable = true)
     public double init_step_size;
 
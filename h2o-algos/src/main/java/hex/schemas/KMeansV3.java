@@ -23,6 +23,7 @@ public class KMeansV3 extends ClusteringModelBuilderSchema<KMeans,KMeansV3,KMean
         "score_each_iteration",
         "k",
         "estimate_k",
+        "mini_batch_size",
         "user_points",
         "max_iterations",
         "standardize",
@@ -47,10 +48,13 @@ public class KMeansV3 extends ClusteringModelBuilderSchema<KMeans,KMeansV3,KMean
     @API(help = "RNG Seed", level = API.Level.secondary /* tested, works: , dependsOn = {"k", "max_iterations"} */, gridable = true)
     public long seed;
 
-    @API(help = "Initialization mode", values = { "Random", "PlusPlus", "Furthest", "User" }, gridable = true) // TODO: pull out of categorical class. . .
+    @API(help = "Initialization mode", values = { "Random", "PlusPlus", "Furthest", "User", "PlusPlusParallel" }, gridable = true) // TODO: pull out of categorical class. . .
     public KMeans.Initialization init;
 
     @API(help = "Whether to estimate the number of clusters (<=k) iteratively and deterministically.", level = API.Level.critical, gridable = true)
     public boolean estimate_k = false;
+
+    @API(help = "Number of rows sampled per iteration for mini-batch KMeans (0 for full Lloyds iterations over the training frame).", level = API.Level.expert, gridable = true)
+    public int mini_batch_size;
   }
 }
@@ -37,8 +37,10 @@ public class PCAV3 extends ModelBuilderSchema<PCA,PCAV3,PCAV3.PCAParametersV3> {
                     "GramSVD - uses a distributed computation of the Gram matrix, followed by a local SVD; " +
                     "Power - computes the SVD using the power iteration method (experimental); " +
                     "Randomized - uses randomized subspace iteration method; " +
+                    "RandomizedTSQR - uses a randomized sketch with power iterations and a distributed tall-skinny QR, " +
+                    "never forms the Gram matrix (for wide data); " +
                     "GLRM - fits a generalized low-rank model with L2 loss function and no regularization and solves for the SVD using local matrix algebra (experimental)",
-            values = { "GramSVD", "Power", "Randomized", "GLRM" })   // TODO: pull out of categorical class
+            values = { "GramSVD", "Power", "Randomized", "RandomizedTSQR", "GLRM" })   // TODO: pull out of categorical class
     public PCAParameters.Method pca_method;
   
     @API(
@@ -11,6 +11,15 @@ public class Word2VecModelV3 extends ModelSchemaV3<Word2VecModel, Word2VecModelV
   public static final class Word2VecModelOutputV3 extends ModelOutputSchemaV3<Word2VecModel.Word2VecOutput, Word2VecModelOutputV3> {
     @API(help = "Number of epochs executed")
     public int epochs;
+
+    @API(help = "Recall@10 of the synonym index compared to the exact search (NaN if the model has no synonym index)")
+    public double synonym_index_recall;
+
+    @Override public Word2VecModelOutputV3 fillFromImpl(Word2VecModel.Word2VecOutput impl) {
+      super.fillFromImpl(impl);
+      synonym_index_recall = impl._synonymIndexRecall;
+      return this;
+    }
   } // Word2VecModelOutputV2
 
 
@@ -14,12 +14,14 @@ public class Word2VecV3 extends ModelBuilderSchema<Word2Vec,Word2VecV3,Word2VecV
             "min_word_freq",
             "word_model",
             "norm_model",
+            "negative_samples",
             "vec_size",
             "window_size",
             "sent_sample_rate",
             "init_learning_rate",
             "epochs",
             "pre_trained",
+            "synonym_index_trees",
             "max_runtime_secs"
     };
 
@@ -45,9 +47,15 @@ public class Word2VecV3 extends ModelBuilderSchema<Word2Vec,Word2VecV3,Word2VecV
     /**
      *
      */
-    @API(help="Use Hierarchical Softmax", values = {"HSM"})
+    @API(help="Use Hierarchical Softmax (HSM) or Negative Sampling (NegSampling)", values = {"HSM", "NegSampling"})
     public Word2Vec.NormModel norm_model;
 
+    /**
+     *
+     */
+    @API(help="Number of negative (noise) words drawn for every word, used only with Negative Sampling")
+    public int negative_samples;
+
     /**
      *
      */
@@ -77,5 +85,11 @@ public class Word2VecV3 extends ModelBuilderSchema<Word2Vec,Word2VecV3,Word2VecV
      */
     @API(help="Id of a data frame that contains a pre-trained (external) word2vec model")
     public KeyV3.FrameKeyV3 pre_trained;
+
+    /**
+     *
+     */
+    @API(help="Number of trees of an approximate nearest neighbor index used to find synonyms (0 = exact search, no index)", level = API.Level.expert)
+    public int synonym_index_trees;
   }
 }
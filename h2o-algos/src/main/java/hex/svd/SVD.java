@@ -51,6 +51,10 @@ public class SVD extends ModelBuilder<SVDModel,SVDModel.SVDParameters,SVDModel.S
   // Maximum number of columns when categoricals expanded
   private final int MAX_COLS_EXPANDED = 5000;
 
+  // RandomizedTSQR: number of extra sketch columns and (maximum) number of power iterations
+  static final int TSQR_OVERSAMPLE = 10;
+  static final int TSQR_POWER_ITERATIONS = 2;
+
   private boolean _callFromGLRM;  // when SVD is used as an init method for GLRM, need to initialize properly
   private GLRMModel _glrmModel;
 
@@ -92,6 +96,15 @@ public class SVD extends ModelBuilder<SVDModel,SVDModel.SVDParameters,SVDModel.S
     boolean useRandomized = _parms._svd_method == SVDParameters.Method.Randomized;
     double gramSize =  _train.lastVec().nChunks()==1 ? 1 :
             Math.log((double) _train.lastVec().nChunks()) / Math.log(2.); // gets to zero if nChunks=1
+    if (_parms._svd_method == SVDParameters.Method.RandomizedTSQR) {
+      // no Gram, the largest objects are p by l sketches (one per thread)
+      long mem_usage_tsqr = (long) (hb._cpus_allowed * p * tsqrSketchSize(_parms._nv, (int) p) * 8/*doubles*/ * gramSize);
+      if (mem_usage_tsqr > hb.get_free_mem())
+        error("_train", "Sketch matrices (one per thread) won't fit in the driver node's memory ("
+                + PrettyPrint.bytes(mem_usage_tsqr) + " > " + PrettyPrint.bytes(hb.get_free_mem())
+                + ") - try reducing the number of columns and/or the number of categorical factors.");
+      return;
+    }
     long mem_usage = (useGramSVD || usePower || useRandomized) ? (long) (hb._cpus_allowed * p * p * 8/*doubles*/
             * gramSize) : 1; //one gram per core
     long mem_usage_w = (useGramSVD || usePower || useRandomized) ? (long) (hb._cpus_allowed * r * r * 8/*doubles*/
@@ -148,6 +161,11 @@ public class SVD extends ModelBuilder<SVDModel,SVDModel.SVDParameters,SVDModel.S
     }
   }
 
+  /** Number of columns of the random sketch of RandomizedTSQR (rank + oversampling) */
+  public static int tsqrSketchSize(int nv, int ncolExp) {
+    return Math.min(ncolExp, nv + TSQR_OVERSAMPLE);
+  }
+
   // Compute ivv_sum - vec * vec' for symmetric array ivv_sum
   public static double[][] updateIVVSum(double[][] ivv_sum, double[] vec) {
     double diff;
@@ -515,6 +533,65 @@ public class SVD extends ModelBuilder<SVDModel,SVDModel.SVDParameters,SVDModel.S
       return u;
     }
 
+    // Left singular vectors U = AVD^(-1)
+    private Frame computeU(DataInfo dinfo, SVDModel model, String u_name) {
+      model._output._u_key = Key.make(u_name);
+      double[][] vt = ArrayUtils.transpose(model._output._v);
+      for (int k = 0; k < _parms._nv; k++)
+        ArrayUtils.div(vt[k], model._output._d[k]);
+      BMulTask tsk = new BMulTask(_job._key, dinfo, vt).doAll(_parms._nv, Vec.T_NUM, dinfo._adaptedFrame);
+      return tsk.outputFrame(model._output._u_key, null, null);
+    }
+
+    /**
+     * Randomized SVD with power iterations (Algorithms 4.3 and 5.1 from Halko et al, http://arxiv.org/pdf/0909.4061.pdf)
+     * where the orthonormalization of the n by l sketch Y = AW uses TSQR (tall-skinny QR: every chunk factors its rows
+     * of Y, the reduce factors the stacked R factors; Demmel et al, http://arxiv.org/pdf/0808.2664.pdf).
+     *
+     * Every pass over the data costs O(n*p*l) and only communicates l by p matrices, the core SVD of the l by p matrix
+     * B = Q'A runs on the driver node. Nothing is of size p*p or n*n, l = nv + oversampling.
+     */
+    private void randomizedTSQR(DataInfo dinfo, SVDModel model) {
+      final int l = tsqrSketchSize(_parms._nv, _ncolExp);
+      int powerIterations = Math.min(_parms._max_iterations, TSQR_POWER_ITERATIONS);
+
+      // 1) W ~ N(0,1), p by l (stored transposed)
+      double[][] wt = ArrayUtils.gaussianArray(l, _ncolExp, _parms._seed);
+      SketchTask stsk;
+      model._output._iterations = 0;
+      while (true) {
+        boolean last = model._output._iterations >= powerIterations;
+        _job.update(1, last ? "Computing TSQR of the random sketch Y = AW" :
+                "Iteration " + (model._output._iterations + 1) + " of power method (randomized SVD)");
+        // 2) Y'A = W'A'A, with R of Y = QR in the last pass
+        stsk = new SketchTask(_job._key, dinfo, wt, last).doAll(dinfo._adaptedFrame);
+        model._output._training_time_ms.add(System.currentTimeMillis());
+        if (last) break;
+        // 3) Power iteration: W = orth(A'AW)
+        wt = orthonormalRows(stsk._yta);
+        model._output._iterations++;
+        model.update(_job);
+        if (stop_requested()) {
+          if (timeout())
+            _job.warn("_train SVD: max_runtime_secs is reached.  Not all power iterations are computed.");
+          powerIterations = model._output._iterations;
+        }
+      }
+
+      model._output._nobs = stsk._nobs;
+      if (stsk._nobs == 0)
+        error("_train", "Every row in _train contains at least one missing value. Consider setting impute_missing = TRUE.");
+      if (error_count() > 0) throw new IllegalArgumentException("Found validation errors: " + validationErrors());
+      model._output._total_variance = stsk._sumsq / (stsk._nobs - 1);
+
+      // 4) B = Q'A = R^(-T)Y'A, SVD of B' = VDU'' gives A ~ QB = (QU'')DV'
+      _job.update(1, "Calculating SVD of small matrix locally");
+      double[][] b = ArrayUtils.multArrArr(pinvTranspose(stsk._r), stsk._yta);
+      SingularValueDecomposition svdB = new Matrix(ArrayUtils.transpose(b)).svd();
+      model._output._d = Arrays.copyOf(svdB.getSingularValues(), _parms._nv);
+      model._output._v = svdB.getU().getMatrix(0, _ncolExp - 1, 0, _parms._nv - 1).getArray();
+    }
+
     /*
       Form orthonormal matrix U = QV
      */
@@ -618,14 +695,16 @@ public class SVD extends ModelBuilder<SVDModel,SVDModel.SVDParameters,SVDModel.S
             System.arraycopy(v[i], 0, model._output._v[i], 0, _parms._nv);
 
           // Calculate left singular vectors U = AVD^(-1) if requested
-          if(_parms._keep_u) {
-            model._output._u_key = Key.make(u_name);
-            double[][] vt = ArrayUtils.transpose(model._output._v);
-            for (int k = 0; k < _parms._nv; k++)
-              ArrayUtils.div(vt[k], model._output._d[k]);
-            BMulTask tsk = new BMulTask(_job._key, dinfo, vt).doAll(_parms._nv, Vec.T_NUM, dinfo._adaptedFrame);
-            u = tsk.outputFrame(model._output._u_key, null, null);
-          }
+          if(_parms._keep_u)
+            u = computeU(dinfo, model, u_name);
+        } else if(_parms._svd_method == SVDParameters.Method.RandomizedTSQR) {
+          randomizedTSQR(dinfo, model);
+          if(_parms._keep_u)
+            u = computeU(dinfo, model, u_name);
+          LinkedHashMap<String, ArrayList> scoreTable = new LinkedHashMap<String, ArrayList>();
+          scoreTable.put("Timestamp", model._output._training_time_ms);
+          model._output._scoring_history = createScoringHistoryTableDR(scoreTable,
+                  "Scoring History from Randomized SVD (TSQR)", _job.start_time());
         } else if(_parms._svd_method == SVDParameters.Method.Power) {
           // Calculate and save Gram matrix of training data
           // NOTE: Gram computes A'A/n where n = nrow(A) = number of rows in training set (excluding rows with NAs)
@@ -857,6 +936,33 @@ public class SVD extends ModelBuilder<SVDModel,SVDModel.SVDParameters,SVDModel.S
     }
   }
 
+  // Orthonormal basis of the row space of the (l by p) matrix xt, as l by p matrix
+  private static double[][] orthonormalRows(double[][] xt) {
+    return new QRDecomposition(new Matrix(ArrayUtils.transpose(xt))).getQ().transpose().getArray();
+  }
+
+  // (Pseudo-)inverse of R', directions with negligible singular values (rank deficient sketch) are dropped
+  private static double[][] pinvTranspose(double[][] r) {
+    SingularValueDecomposition svd = new Matrix(r).svd();
+    double[] s = svd.getSingularValues();
+    double[][] u = svd.getU().getArray();
+    double[][] vt = svd.getV().transpose().getArray();
+    for (int i = 0; i < s.length; i++) {
+      double inv = s[i] > s[0] * 1e-12 ? 1 / s[i] : 0;
+      for (int j = 0; j < u.length; j++) u[j][i] *= inv;
+    }
+    return ArrayUtils.multArrArr(u, vt);  // R' = VSU' => R^(-T) = US^(-1)V'
+  }
+
+  // R factor (l by l) of the QR decomposition of the first rows of the row-major matrix y (l columns)
+  private static double[][] qrR(double[] y, int rows, int l) {
+    Matrix m = new Matrix(Math.max(rows, l), l);  // padded with zero rows, Jama expects rows >= columns
+    for (int i = 0; i < rows; i++)
+      for (int j = 0; j < l; j++)
+        m.set(i, j, y[i * l + j]);
+    return new QRDecomposition(m).getR().getArray();
+  }
+
   /*
   This method may make changes to the dinfo parameters if SVD is called by GLRM as a init method.
    */
@@ -991,6 +1097,82 @@ public class SVD extends ModelBuilder<SVDModel,SVDModel.SVDParameters,SVDModel.S
     }
   }
 
+  // Compute Y'A (l by p) for Y = AW where A is n by p and W is p by l (given as W'), without materializing Y.
+  // If requested, also computes R of the TSQR of Y: every chunk factors its block of rows of Y, the reduce factors
+  // the two stacked R factors.
+  private static class SketchTask extends FrameTask<SketchTask> {
+    final double[][] _wt;
+    final boolean _tsqr;
+    // OUTPUT
+    double[][] _yta;
+    double[][] _r;
+    double _sumsq;  // sum of squares of the (transformed) data
+    long _nobs;
+
+    private transient double[] _y;
+    private transient double[] _yblock; // rows of Y of the current chunk
+    private transient int _yrows;
+
+    SketchTask(Key<Job> jobKey, DataInfo dinfo, double[][] wt, boolean tsqr) {
+      super(jobKey, dinfo);
+      _wt = wt;
+      _tsqr = tsqr;
+    }
+
+    @Override protected boolean chunkInit() {
+      final int l = _wt.length;
+      _yta = MemoryManager.malloc8d(l, _wt[0].length);
+      _y = MemoryManager.malloc8d(l);
+      if (_tsqr) {
+        _yblock = MemoryManager.malloc8d(64 * l);
+        _yrows = 0;
+      }
+      return true;
+    }
+
+    @Override protected void processRow(long gid, DataInfo.Row r) {
+      final int l = _wt.length;
+      for (int j = 0; j < l; j++) {
+        _y[j] = r.innerProduct(_wt[j]);
+        if (_y[j] != 0) r.addToArray(_y[j], _yta[j]);
+      }
+      _sumsq += r.dotSame(r);
+      ++_nobs;
+      if (_tsqr) {
+        if ((_yrows + 1) * l > _yblock.length) _yblock = Arrays.copyOf(_yblock, 2 * _yblock.length);
+        System.arraycopy(_y, 0, _yblock, _yrows++ * l, l);
+      }
+    }
+
+    @Override protected void chunkDone(long n) {
+      if (_tsqr) {
+        _r = qrR(_yblock, _yrows, _wt.length);
+        _yblock = null;
+      }
+    }
+
+    @Override public void reduce(SketchTask other) {
+      if (other._yta == null) return;
+      if (_yta == null) {
+        _yta = other._yta;
+        _r = other._r;
+      } else {
+        ArrayUtils.add(_yta, other._yta);
+        if (_tsqr) {
+          final int l = _wt.length;
+          double[] stacked = new double[2 * l * l];
+          for (int i = 0; i < l; i++) {
+            System.arraycopy(_r[i], 0, stacked, i * l, l);
+            System.arraycopy(other._r[i], 0, stacked, (l + i) * l, l);
+          }
+          _r = qrR(stacked, 2 * l, l);
+        }
+      }
+      _sumsq += other._sumsq;
+      _nobs += other._nobs;
+    }
+  }
+
   // Compute Y = AG where A is n by p and G is a p by k standard Gaussian matrix
   private static class RandSubInit extends FrameTask<RandSubInit> {
     final double[][] _gaus;   // G' is k by p for convenient multiplication
@@ -22,6 +22,7 @@ public class SVDModel extends Model<SVDModel, SVDModel.SVDParameters, SVDModel.S
         case GramSVD:    return 2;
         case Power:      return 1 + _nv;
         case Randomized: return 5 + _max_iterations;
+        case RandomizedTSQR: return 2 + Math.min(_max_iterations, SVD.TSQR_POWER_ITERATIONS);
         default:         return _nv;
       }
     }
@@ -40,7 +41,7 @@ public class SVDModel extends Model<SVDModel, SVDModel.SVDParameters, SVDModel.S
     public boolean _impute_missing = false;   // Should missing numeric values be imputed with the column mean?
 
     public enum Method {
-      GramSVD, Power, Randomized
+      GramSVD, Power, Randomized, RandomizedTSQR
     }
   }
 
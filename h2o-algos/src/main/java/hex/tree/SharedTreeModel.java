@@ -93,6 +93,8 @@ public abstract class SharedTreeModel<
       return CHECKPOINT_NON_MODIFIABLE_FIELDS;
     }
 
+    @Override public boolean supportsCheckpoint() { return true; }
+
     /** This method will take actual parameters and validate them with parameters of
      * requested checkpoint. In case of problem, it throws an API exception.
      *
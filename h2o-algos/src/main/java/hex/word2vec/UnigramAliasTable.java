@@ -0,0 +1,67 @@
+package hex.word2vec;
+
+import water.Key;
+import water.Keyed;
+
+/**
+ * Noise distribution of Negative Sampling - the unigram distribution of the vocabulary raised to the power of 3/4,
+ * represented as an alias table (Vose's method) so that every draw takes O(1) time.
+ */
+class UnigramAliasTable extends Keyed<UnigramAliasTable> {
+  static final double POWER = 0.75;
+
+  float[] _prob;
+  int[] _alias;
+
+  public UnigramAliasTable() {}
+
+  private UnigramAliasTable(Key<UnigramAliasTable> key, int size) {
+    super(key);
+    _prob = new float[size];
+    _alias = new int[size];
+  }
+
+  static UnigramAliasTable buildUnigramAliasTable(long[] wordCounts) {
+    final int size = wordCounts.length;
+    UnigramAliasTable t = new UnigramAliasTable(Key.<UnigramAliasTable>make(), size);
+
+    double[] p = new double[size];
+    double sum = 0;
+    for (int i = 0; i < size; i++) sum += (p[i] = Math.pow(wordCounts[i], POWER));
+    for (int i = 0; i < size; i++) p[i] = p[i] * size / sum;
+
+    // words with scaled probability < 1 are topped up by a word with probability > 1
+    int[] small = new int[size];
+    int[] large = new int[size];
+    int ns = 0, nl = 0;
+    for (int i = 0; i < size; i++) {
+      if (p[i] < 1) small[ns++] = i;
+      else large[nl++] = i;
+    }
+    while (ns > 0 && nl > 0) {
+      int s = small[--ns];
+      int l = large[--nl];
+      t._prob[s] = (float) p[s];
+      t._alias[s] = l;
+      p[l] = (p[l] + p[s]) - 1;
+      if (p[l] < 1) small[ns++] = l;
+      else large[nl++] = l;
+    }
+    // leftovers (only due to rounding errors) are always picked
+    while (nl > 0) { int l = large[--nl]; t._prob[l] = 1; t._alias[l] = l; }
+    while (ns > 0) { int s = small[--ns]; t._prob[s] = 1; t._alias[s] = s; }
+    return t;
+  }
+
+  /**
+   * Draws a word from the noise distribution.
+   * @param bits 64 random bits
+   * @return index of the word
+   */
+  int sample(long bits) {
+    int col = (int) ((bits >>> 32) * _prob.length >>> 32);
+    float u = (bits & 0xFFFFFF) / (float) 0x1000000;
+    return u < _prob[col] ? col : _alias[col];
+  }
+
+}
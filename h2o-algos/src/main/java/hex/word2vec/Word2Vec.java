@@ -8,7 +8,7 @@ import water.util.Log;
 
 public class Word2Vec extends ModelBuilder<Word2VecModel,Word2VecModel.Word2VecParameters,Word2VecModel.Word2VecOutput> {
   public enum WordModel { SkipGram }
-  public enum NormModel { HSM }
+  public enum NormModel { HSM, NegSampling }
 
   @Override public ModelCategory[] can_build() { return new ModelCategory[]{ ModelCategory.WordEmbedding, }; }
   @Override public BuilderVisibility builderVisibility() { return BuilderVisibility.Stable; }
@@ -44,6 +44,8 @@ public class Word2Vec extends ModelBuilder<Word2VecModel,Word2VecModel.Word2VecP
     if (_parms._sent_sample_rate < 0.0) error("_sent_sample_rate", "Negative sentence sample rate not allowed for Word2Vec.  Expected a value > 0.0, received " + _parms._sent_sample_rate);
     if (_parms._init_learning_rate < 0.0) error("_init_learning_rate", "Negative learning rate not allowed for Word2Vec.  Expected a value > 0.0, received " + _parms._init_learning_rate);
     if (_parms._epochs < 1) error("_epochs", "Negative epoch count not allowed for Word2Vec.  Expected value > 0, received " + _parms._epochs);
+    if (_parms._norm_model == NormModel.NegSampling && _parms._negative_samples < 1) error("_negative_samples", "Negative Sampling requires at least one negative sample per word.  Expected value > 0, received " + _parms._negative_samples);
+    if (_parms._synonym_index_trees < 0) error("_synonym_index_trees", "Negative number of synonym index trees not allowed for Word2Vec.  Expected value >= 0, received " + _parms._synonym_index_trees);
   }
 
   @Override
@@ -68,6 +70,8 @@ public class Word2Vec extends ModelBuilder<Word2VecModel,Word2VecModel.Word2VecP
           convertToModel(_parms._pre_trained.get(), model);
         else
           trainModel(model);
+        if (_parms._synonym_index_trees > 0)
+          model.buildSynonymIndex(_parms._synonym_index_trees);
       } finally {
         if (model != null) model.unlock(_job);
       }
@@ -92,6 +96,7 @@ public class Word2Vec extends ModelBuilder<Word2VecModel,Word2VecModel.Word2VecP
         model.update(_job); // Early version of model is visible
         double duration = (stop - start) / 1000.0;
         Log.info("Epoch " + i + " took "  + duration + "s; Words trained/s: " + actProcessedWords / duration);
+        _job.update(0, String.format("Epoch %d of %d, %.0f words/sec", i + 1, _parms._epochs, actProcessedWords / duration));
         model._output._epochs=i;
 
         if (stop_requested()) { // do at least one iteration to avoid null model being returned and all hell will break loose
@@ -3,6 +3,7 @@ package hex.word2vec;
 import hex.ModelCategory;
 import hex.ModelMetrics;
 import hex.ModelMojoWriter;
+import hex.genmodel.algos.word2vec.RandomProjectionForest;
 import water.*;
 import water.fvec.*;
 import water.parser.BufferedString;
@@ -15,6 +16,9 @@ import java.util.*;
 
 public class Word2VecModel extends Model<Word2VecModel, Word2VecParameters, Word2VecOutput> {
 
+  // Number of sampled words used to measure the recall of the synonym index
+  private static final int SYNONYM_INDEX_RECALL_QUERIES = 100;
+
   public Word2VecModel(Key<Word2VecModel> selfKey, Word2VecParameters params, Word2VecOutput output) {
     super(selfKey, params, output);
     assert(Arrays.equals(_key._kb, selfKey._kb));
@@ -201,10 +205,15 @@ public class Word2VecModel extends Model<Word2VecModel, Word2VecParameters, Word
   /**
    * Find synonyms (i.e. word-vectors with the highest cosine similarity)
    *
+   * Uses the synonym index (approximate search) if the model has one.
+   *
    * @param target String of desired word
    * @param cnt Number of synonyms to find
    */
   public Map<String, Float> findSynonyms(String target, int cnt) {
+    if (_output._synonymIndex != null)
+      return findSynonyms(new String[]{target}, cnt).get(0);
+
     float[] vec = transform(target);
 
     if ((vec == null) || (cnt == 0))
@@ -242,6 +251,84 @@ public class Word2VecModel extends Model<Word2VecModel, Word2VecParameters, Word
     return result;
   }
 
+  /**
+   * Find synonyms of multiple words at once, the queries run in parallel on this node.
+   *
+   * @param targets words to find synonyms for
+   * @param cnt Number of synonyms to find for each word
+   * @return synonyms and their cosine similarity for each of the targets (empty for unknown words)
+   */
+  public List<Map<String, Float>> findSynonyms(final String[] targets, final int cnt) {
+    final int[][] synonyms = new int[targets.length][];
+    final float[][] scores = new float[targets.length][cnt];
+    H2O.submitTask(new LocalMR(new MrFun() {
+      @Override protected void map(int id) {
+        float[] vec = transform(targets[id]);
+        if ((vec == null) || (cnt == 0))
+          synonyms[id] = new int[0];
+        else if (_output._synonymIndex != null)
+          synonyms[id] = _output._synonymIndex.query(_output._vecs, vec, cnt, _output._synonymIndex.defaultSearchK(cnt), scores[id]);
+        else
+          synonyms[id] = RandomProjectionForest.exactQuery(_output._vecs, _output._vecSize, vec, cnt, scores[id]);
+      }
+    }, targets.length)).join();
+    List<Map<String, Float>> result = new ArrayList<>(targets.length);
+    for (int i = 0; i < targets.length; i++) {
+      Map<String, Float> found = new HashMap<>(synonyms[i].length);
+      for (int j = 0; j < synonyms[i].length; j++)
+        found.put(_output._words[synonyms[i][j]].toString(), scores[i][j]);
+      result.add(found);
+    }
+    return result;
+  }
+
+  /**
+   * Builds the synonym index (random projection forest) over the word vectors and measures its recall@10
+   * against the exact search on a sample of the vocabulary.
+   *
+   * @param trees number of trees of the forest
+   */
+  void buildSynonymIndex(final int trees) {
+    final float[] vecs = _output._vecs;
+    final int vecSize = _output._vecSize;
+    final RandomProjectionForest.Tree[] forest = new RandomProjectionForest.Tree[trees];
+    long start = System.currentTimeMillis();
+    H2O.submitTask(new LocalMR(new MrFun() {
+      @Override protected void map(int id) {
+        forest[id] = RandomProjectionForest.buildTree(vecs, vecSize, 0xDECAF + id);
+      }
+    }, trees)).join();
+    final RandomProjectionForest index = new RandomProjectionForest(vecSize, _output._words.length, forest);
+    long buildTime = System.currentTimeMillis() - start;
+
+    // Recall of the approximate search
+    final int k = Math.min(10, _output._words.length - 1);
+    int queries = Math.min(SYNONYM_INDEX_RECALL_QUERIES, _output._words.length);
+    Random rand = RandomUtils.getRNG(0xDECAF);
+    long exactTime = 0, approxTime = 0;
+    long found = 0, expected = 0;
+    float[] scores = new float[Math.max(k, 0)];
+    for (int q = 0; q < queries && k > 0; q++) {
+      int word = rand.nextInt(_output._words.length);
+      float[] vec = Arrays.copyOfRange(vecs, word * vecSize, (word + 1) * vecSize);
+      long t = System.nanoTime();
+      int[] exact = RandomProjectionForest.exactQuery(vecs, vecSize, vec, k, scores);
+      exactTime += System.nanoTime() - t;
+      t = System.nanoTime();
+      int[] approx = index.query(vecs, vec, k, index.defaultSearchK(k), scores);
+      approxTime += System.nanoTime() - t;
+      Set<Integer> approxSet = new HashSet<>();
+      for (int w : approx) approxSet.add(w);
+      for (int w : exact) if (approxSet.contains(w)) found++;
+      expected += exact.length;
+    }
+    _output._synonymIndex = index;
+    _output._synonymIndexRecall = expected == 0 ? 1 : (double) found / expected;
+    Log.info("Word2Vec: built synonym index with " + trees + " trees in " + PrettyPrint.msecs(buildTime, true)
+            + ", recall@" + k + " " + String.format("%.3f", _output._synonymIndexRecall)
+            + ", query speedup over exact search " + String.format("%.1f", (double) exactTime / Math.max(approxTime, 1)) + "x.");
+  }
+
   /**
    * Basic calculation of cosine similarity
    * @param target - a word vector
@@ -301,10 +388,12 @@ public class Word2VecModel extends Model<Word2VecModel, Word2VecParameters, Word
     public int _min_word_freq = 5;
     public int _vec_size = 100;
     public int _window_size = 5;
+    public int _negative_samples = 5; // number of negative (noise) words per positive word, NegSampling only
     public int _epochs = 5;
     public float _init_learning_rate = 0.025f;
     public float _sent_sample_rate = 1e-3f;
     public Key<Frame> _pre_trained;  // key of a frame that contains a pre-trained word2vec model
+    public int _synonym_index_trees = 0; // number of trees of the (approximate) synonym index, 0 = no index
     boolean isPreTrained() { return _pre_trained != null; }
     Vec trainVec() { return train().vec(0); }
   }
@@ -317,6 +406,8 @@ public class Word2VecModel extends Model<Word2VecModel, Word2VecParameters, Word
     public BufferedString[] _words;
     public float[] _vecs;
     public IcedHashMapGeneric<BufferedString, Integer> _vocab;
+    public RandomProjectionForest _synonymIndex;  // approximate nearest neighbor index of _vecs, optional
+    public double _synonymIndexRecall = Double.NaN; // recall@10 of the index compared to the exact search
 
     @Override public ModelCategory getModelCategory() {
       return ModelCategory.WordEmbedding;
@@ -330,6 +421,7 @@ public class Word2VecModel extends Model<Word2VecModel, Word2VecParameters, Word
 
     float[] _syn0, _syn1;
     Key<HBWTree> _treeKey;
+    Key<UnigramAliasTable> _noiseKey;
     Key<Vocabulary> _vocabKey;
     Key<WordCounts> _wordCountsKey;
 
@@ -365,10 +457,11 @@ public class Word2VecModel extends Model<Word2VecModel, Word2VecParameters, Word
         countAry[idx] = wc.getValue()._val;
         vocab._data.put(wc.getKey(), idx++);
       }
-      HBWTree t = HBWTree.buildHuffmanBinaryWordTree(countAry);
-
       _vocabWordCount = vocabWordCount;
-      _treeKey = publish(t);
+      if (_parameters._norm_model == Word2Vec.NormModel.HSM)
+        _treeKey = publish(HBWTree.buildHuffmanBinaryWordTree(countAry));
+      else
+        _noiseKey = publish(UnigramAliasTable.buildUnigramAliasTable(countAry));
       _vocabKey = publish(vocab);
       _wordCountsKey = publish(wordCounts);
 
@@ -20,7 +20,7 @@ public class Word2VecMojoWriter extends ModelMojoWriter<Word2VecModel, Word2VecM
   }
 
   @Override public String mojoVersion() {
-    return "1.00";
+    return model._output._synonymIndex != null ? "1.10" : "1.00";
   }
 
   @Override
@@ -40,6 +40,12 @@ public class Word2VecMojoWriter extends ModelMojoWriter<Word2VecModel, Word2VecM
     for (float v : model._output._vecs)
       bb.putFloat(v);
     writeblob("vectors", bb.array());
+
+    // Synonym index
+    if (model._output._synonymIndex != null) {
+      writekv("synonym_index_trees", model._output._synonymIndex.getNumTrees());
+      writeblob("synonym_index", model._output._synonymIndex.toBytes());
+    }
   }
 
 }
@@ -1,19 +1,23 @@
 package hex.word2vec;
 
-import water.DKV;
-import water.Job;
-import water.Key;
-import water.MRTask;
+import water.*;
 import water.fvec.Chunk;
 import water.parser.BufferedString;
 import hex.word2vec.Word2VecModel.*;
-import water.util.ArrayUtils;
 import water.util.IcedHashMap;
 import water.util.IcedHashMapGeneric;
 import water.util.IcedLong;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
+/**
+ * One epoch of Skip-Gram training with either Hierarchical Softmax or Negative Sampling.
+ *
+ * The weights are published in DKV, every node trains its own copy. All threads of a node update the node's copy
+ * without any synchronization (Hogwild!). In a multi-node cloud, the nodes only send back the changes of the rows
+ * (words) they actually updated, the changes are averaged weighted by the number of processed words.
+ */
 public class WordVectorTrainer extends MRTask<WordVectorTrainer> {
   private static final int MAX_SENTENCE_LEN = 1000;
   private static final int EXP_TABLE_SIZE = 1000;
@@ -29,19 +33,25 @@ public class WordVectorTrainer extends MRTask<WordVectorTrainer> {
   private final float _initLearningRate;
   private final float _sentSampleRate;
   private final long _vocabWordCount;
+  private final Word2Vec.NormModel _normModel;
+  private final int _negativeSamples;
+  private final int _nodes;
 
   // Model IN
   private final Key<Vocabulary> _vocabKey;
   private final Key<WordCounts> _wordCountsKey;
   private final Key<HBWTree> _treeKey;
+  private final Key<UnigramAliasTable> _noiseKey;
+  private final Key<Weights> _weightsKey;
   private final long _prevTotalProcessedWords;
 
-  // Model IN & OUT
+  // Model OUT
   // _syn0 represents the matrix of synaptic weights connecting the input layer of the NN to the hidden layer,
   // similarly _syn1 corresponds to the weight matrix of the synapses connecting the hidden layer to the output layer
   // both matrices are represented in a 1D array, where M[i,j] == array[i * VEC_SIZE + j]
-  float[] _syn0, _syn1;
+  transient float[] _syn0, _syn1;
   long _processedWords = 0L;
+  private WeightsUpdate _update; // changes of the weights made by this node (or by a sub-tree of nodes after reduce)
 
   // Node-Local (Shared)
   IcedLong _nodeProcessedWords; // mutable long, approximates the total number of words processed by this node
@@ -49,6 +59,10 @@ public class WordVectorTrainer extends MRTask<WordVectorTrainer> {
   private transient IcedHashMap<BufferedString, IcedLong> _wordCounts;
   private transient int[][] _HBWTCode;
   private transient int[][] _HBWTPoint;
+  private transient UnigramAliasTable _noise;
+  private transient Weights _start;             // weights at the start of the epoch (only in a multi-node cloud)
+  private transient boolean[] _touched0, _touched1; // rows of _syn0/_syn1 updated by this node
+  private transient long _nodeStartMs;
 
   private float _curLearningRate;
   private long _seed = System.nanoTime();
@@ -58,6 +72,7 @@ public class WordVectorTrainer extends MRTask<WordVectorTrainer> {
     _job = job;
 
     _treeKey = input._treeKey;
+    _noiseKey = input._noiseKey;
     _vocabKey = input._vocabKey;
     _wordCountsKey = input._wordCountsKey;
 
@@ -67,12 +82,18 @@ public class WordVectorTrainer extends MRTask<WordVectorTrainer> {
     _sentSampleRate = input.getParams()._sent_sample_rate;
     _epochs = input.getParams()._epochs;
     _initLearningRate = input.getParams()._init_learning_rate;
+    _normModel = input.getParams()._norm_model;
+    _negativeSamples = input.getParams()._negative_samples;
+    _nodes = H2O.CLOUD.size();
 
     _vocabWordCount = input._vocabWordCount;
     _prevTotalProcessedWords = input._totalProcessedWords;
 
-    _syn0 = input._syn0;
-    _syn1 = input._syn1;
+    // the weights are not part of the task, the nodes fetch them from DKV
+    Weights weights = new Weights(input._syn0, input._syn1);
+    Scope.track_generic(weights);
+    DKV.put(weights);
+    _weightsKey = weights._key;
     _curLearningRate = calcLearningRate(_initLearningRate, _epochs, _prevTotalProcessedWords, _vocabWordCount);
   }
 
@@ -80,10 +101,49 @@ public class WordVectorTrainer extends MRTask<WordVectorTrainer> {
   protected void setupLocal() {
     _vocab = ((Vocabulary) DKV.getGet(_vocabKey))._data;
     _wordCounts = ((WordCounts) DKV.getGet(_wordCountsKey))._data;
-    HBWTree t = DKV.getGet(_treeKey);
-    _HBWTCode = t._code;
-    _HBWTPoint = t._point;
+    if (_normModel == Word2Vec.NormModel.HSM) {
+      HBWTree t = DKV.getGet(_treeKey);
+      _HBWTCode = t._code;
+      _HBWTPoint = t._point;
+    } else
+      _noise = DKV.getGet(_noiseKey);
+    Weights weights = DKV.getGet(_weightsKey);
+    if (_nodes > 1) {
+      // train a copy and remember the starting point, only the changes of the touched rows are sent back
+      _start = weights;
+      _syn0 = weights._syn0.clone();
+      _syn1 = weights._syn1.clone();
+      _touched0 = new boolean[_syn0.length / _wordVecSize];
+      _touched1 = new boolean[_syn1.length / _wordVecSize];
+      _update = new WeightsUpdate();
+    } else {
+      _syn0 = weights._syn0;
+      _syn1 = weights._syn1;
+    }
     _nodeProcessedWords = new IcedLong(0L);
+    _nodeStartMs = System.currentTimeMillis();
+  }
+
+  @Override
+  protected void closeLocal() {
+    if (_update != null) { // shared by all the local copies of the task, including the one holding the local result
+      _update._rows0 = touchedRows(_touched0);
+      _update._delta0 = delta(_syn0, _start._syn0, _update._rows0);
+      _update._rows1 = touchedRows(_touched1);
+      _update._delta1 = delta(_syn1, _start._syn1, _update._rows1);
+    }
+  }
+
+  @Override
+  protected void postGlobal() {
+    Weights weights = DKV.getGet(_weightsKey);
+    if (_update != null) {
+      _update.applyTo(weights._syn0, weights._syn1, _wordVecSize);
+      _update = null;
+    }
+    _syn0 = weights._syn0;
+    _syn1 = weights._syn1;
+    DKV.remove(_weightsKey);
   }
 
   // Precompute the exp() table
@@ -97,6 +157,7 @@ public class WordVectorTrainer extends MRTask<WordVectorTrainer> {
   }
 
   @Override public void map(Chunk chk) {
+    _seed ^= (chk.cidx() + 1) * 0x9E3779B97F4A7C15L; // don't draw the same random numbers in every chunk
     final int winSize = _windowSize;
     float[] neu1e = new float[_wordVecSize];
     ChunkSentenceIterator sentIter = new ChunkSentenceIterator(chk);
@@ -130,15 +191,15 @@ public class WordVectorTrainer extends MRTask<WordVectorTrainer> {
     } // while more sentences
     _processedWords = wordCount;
     _nodeProcessedWords._val += wordCount % 10000;
-    _job.update(1);
+    double wordsPerSec = _nodeProcessedWords._val * 1000.0 / Math.max(1, System.currentTimeMillis() - _nodeStartMs);
+    _job.update(1, String.format("Training, %.0f words/sec (node %s)", wordsPerSec, H2O.SELF));
   }
 
   @Override public void reduce(WordVectorTrainer other) {
     _processedWords += other._processedWords;
-    if (_syn0 != other._syn0) { // other task worked on a different syn0
-      float c = (float) other._processedWords / _processedWords;
-      ArrayUtils.add(1.0f - c, _syn0, c, other._syn0);
-      ArrayUtils.add(1.0f - c, _syn1, c, other._syn1);
+    if (_update != other._update) { // other task comes from a different node
+      float c = _processedWords > 0 ? (float) other._processedWords / _processedWords : 0.5f;
+      _update = WeightsUpdate.average(_update, other._update, c, _wordVecSize);
       // for diagnostics only
       _nodeProcessedWords._val += other._nodeProcessedWords._val;
     }
@@ -149,10 +210,14 @@ public class WordVectorTrainer extends MRTask<WordVectorTrainer> {
     final int l1 = winWord * vecSize;
     for (int i = 0; i < vecSize; i++) neu1e[i] = 0;
 
-    hierarchicalSoftmaxSG(curWord, l1, neu1e);
+    if (_normModel == Word2Vec.NormModel.HSM)
+      hierarchicalSoftmaxSG(curWord, l1, neu1e);
+    else
+      negativeSamplingSG(curWord, l1, neu1e);
 
     // Learned weights input -> hidden
     for (int i = 0; i < vecSize; i++) _syn0[i + l1] += neu1e[i];
+    if (_touched0 != null) _touched0[winWord] = true;
   }
 
   private void hierarchicalSoftmaxSG(final int targetWord, final int l1, float[] neu1e) {
@@ -175,6 +240,41 @@ public class WordVectorTrainer extends MRTask<WordVectorTrainer> {
       for (int j = 0; j < vecSize; j++) neu1e[j] += gradient * _syn1[j + l2];
       // Learn weights hidden -> output
       for (int j = 0; j < vecSize; j++) _syn1[j + l2] += gradient * _syn0[j + l1];
+      if (_touched1 != null) _touched1[_HBWTPoint[targetWord][i]] = true;
+    }
+  }
+
+  private void negativeSamplingSG(final int targetWord, final int l1, float[] neu1e) {
+    final int vecSize = _wordVecSize;
+    final float alpha = _curLearningRate;
+
+    for (int d = 0; d <= _negativeSamples; d++) {
+      final int word;
+      final int label;
+      if (d == 0) {
+        word = targetWord;
+        label = 1;
+      } else {
+        word = _noise.sample(cheapRandLong());
+        if (word == targetWord) continue;
+        label = 0;
+      }
+      int l2 = word * vecSize;
+
+      float f = 0;
+      // Propagate hidden -> output (calc sigmoid)
+      for (int j = 0; j < vecSize; j++) f += _syn0[j + l1] * _syn1[j + l2];
+
+      float gradient;
+      if (f > MAX_EXP) gradient = (label - 1) * alpha;
+      else if (f < -MAX_EXP) gradient = label * alpha;
+      else gradient = (label - _expTable[(int) ((f + MAX_EXP) * (EXP_TABLE_SIZE / MAX_EXP / 2))]) * alpha;
+
+      // Propagate errors output -> hidden
+      for (int j = 0; j < vecSize; j++) neu1e[j] += gradient * _syn1[j + l2];
+      // Learn weights hidden -> output
+      for (int j = 0; j < vecSize; j++) _syn1[j + l2] += gradient * _syn0[j + l1];
+      if (_touched1 != null) _touched1[word] = true;
     }
   }
 
@@ -203,11 +303,100 @@ public class WordVectorTrainer extends MRTask<WordVectorTrainer> {
     * @return int between 0-(max-1).
     */
   private int cheapRandInt(int max) {
+    int r = (int) cheapRandLong() % max;
+    return r > 0 ? r : -r;
+  }
+
+  private long cheapRandLong() {
     _seed ^= ( _seed << 21);
     _seed ^= ( _seed >>> 35);
     _seed ^= ( _seed << 4);
-    int r = (int) _seed % max;
-    return r > 0 ? r : -r;
+    return _seed;
+  }
+
+  private static int[] touchedRows(boolean[] touched) {
+    int cnt = 0;
+    for (boolean t : touched) if (t) cnt++;
+    int[] rows = new int[cnt];
+    cnt = 0;
+    for (int i = 0; i < touched.length; i++) if (touched[i]) rows[cnt++] = i;
+    return rows;
+  }
+
+  private float[] delta(float[] syn, float[] start, int[] rows) {
+    final int vecSize = _wordVecSize;
+    float[] delta = new float[rows.length * vecSize];
+    for (int r = 0; r < rows.length; r++) {
+      int off = rows[r] * vecSize;
+      for (int j = 0; j < vecSize; j++) delta[r * vecSize + j] = syn[off + j] - start[off + j];
+    }
+    return delta;
+  }
+
+  /** Weights of the model at the start of an epoch */
+  public static class Weights extends Keyed<Weights> {
+    float[] _syn0, _syn1;
+    public Weights() {}
+    Weights(float[] syn0, float[] syn1) {
+      super(Key.<Weights>make());
+      _syn0 = syn0;
+      _syn1 = syn1;
+    }
+  }
+
+  /**
+   * Sparse changes of the weights, only the rows (words) that were updated. Row indices are sorted,
+   * the deltas hold vecSize values per row.
+   */
+  public static class WeightsUpdate extends Iced<WeightsUpdate> {
+    int[] _rows0, _rows1;
+    float[] _delta0, _delta1;
+
+    /** (1 - c) * a + c * b, rows missing in one of the updates count as zero changes */
+    static WeightsUpdate average(WeightsUpdate a, WeightsUpdate b, float c, int vecSize) {
+      WeightsUpdate res = new WeightsUpdate();
+      res._rows0 = mergeRows(a._rows0, b._rows0);
+      res._delta0 = average(res._rows0, a._rows0, a._delta0, b._rows0, b._delta0, c, vecSize);
+      res._rows1 = mergeRows(a._rows1, b._rows1);
+      res._delta1 = average(res._rows1, a._rows1, a._delta1, b._rows1, b._delta1, c, vecSize);
+      return res;
+    }
+
+    void applyTo(float[] syn0, float[] syn1, int vecSize) {
+      apply(syn0, _rows0, _delta0, vecSize);
+      apply(syn1, _rows1, _delta1, vecSize);
+    }
+
+    private static int[] mergeRows(int[] a, int[] b) {
+      int[] res = new int[a.length + b.length];
+      int i = 0, j = 0, n = 0;
+      while (i < a.length || j < b.length) {
+        if (j == b.length || (i < a.length && a[i] < b[j])) res[n++] = a[i++];
+        else if (i == a.length || b[j] < a[i]) res[n++] = b[j++];
+        else { res[n++] = a[i++]; j++; }
+      }
+      return Arrays.copyOf(res, n);
+    }
+
+    private static float[] average(int[] rows, int[] rowsA, float[] deltaA, int[] rowsB, float[] deltaB, float c, int vecSize) {
+      float[] res = new float[rows.length * vecSize];
+      for (int r = 0, i = 0, j = 0; r < rows.length; r++) {
+        if (i < rowsA.length && rowsA[i] == rows[r]) {
+          for (int k = 0; k < vecSize; k++) res[r * vecSize + k] += (1 - c) * deltaA[i * vecSize + k];
+          i++;
+        }
+        if (j < rowsB.length && rowsB[j] == rows[r]) {
+          for (int k = 0; k < vecSize; k++) res[r * vecSize + k] += c * deltaB[j * vecSize + k];
+          j++;
+        }
+      }
+      return res;
+    }
+
+    private static void apply(float[] syn, int[] rows, float[] delta, int vecSize) {
+      for (int r = 0; r < rows.length; r++)
+        for (int k = 0; k < vecSize; k++) syn[rows[r] * vecSize + k] += delta[r * vecSize + k];
+    }
   }
 
   private class ChunkSentenceIterator implements Iterator<int[]> {
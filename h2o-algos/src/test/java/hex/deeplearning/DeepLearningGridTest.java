@@ -0,0 +1,223 @@
+package hex.deeplearning;
+
+import hex.Model;
+import hex.PreprocessingCache;
+import hex.deeplearning.DeepLearningModel.DeepLearningParameters;
+import hex.grid.Grid;
+import hex.grid.GridSearch;
+import hex.grid.HyperSpaceSearchCriteria;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+public class DeepLearningGridTest extends TestUtil {
+
+  @BeforeClass()
+  public static void setup() {
+    stall_till_cloudsize(1);
+  }
+
+  @Test
+  public void testSharedDataInfo() {
+    Grid grid = null;
+    Frame fr = null;
+    DeepLearningModel single = null;
+    PreprocessingCache cache = new PreprocessingCache();
+    try {
+      Random rng = new Random(3);
+      double[] x1 = new double[300], y = new double[300];
+      String[] c = new String[300];
+      for (int i = 0; i < y.length; i++) {
+        x1[i] = rng.nextDouble();
+        c[i] = "L" + rng.nextInt(4);
+        y[i] = 2 * x1[i] + (c[i].equals("L1") ? 1 : 0) + 0.1 * rng.nextGaussian();
+      }
+      fr = new TestFrameBuilder()
+          .withName("dl_train")
+          .withColNames("x1", "c", "y")
+          .withVecTypes(Vec.T_NUM, Vec.T_CAT, Vec.T_NUM)
+          .withDataForCol(0, x1)
+          .withDataForCol(1, c)
+          .withDataForCol(2, y)
+          .build();
+
+      HashMap<String, Object[]> hyperParms = new HashMap<>();
+      hyperParms.put("_hidden", new int[][]{{5}, {10}});
+      hyperParms.put("_l1", new Double[]{0.0, 1e-4});
+
+      DeepLearningParameters params = new DeepLearningParameters();
+      params._train = fr._key;
+      params._response_column = "y";
+      params._epochs = 2;
+      params._seed = 3;
+      params._reproducible = true;
+      params._preprocessing_cache = cache;
+      grid = GridSearch.startGridSearch(null, params, hyperParms).get();
+      Assert.assertEquals(4, grid.getModelCount());
+
+      // the DataInfo was made for the first candidate only
+      Assert.assertEquals(1, cache.misses());
+      Assert.assertEquals(3, cache.hits());
+
+      // same model as with a DataInfo of its own
+      DeepLearningParameters p = (DeepLearningParameters) params.clone();
+      p._preprocessing_cache = null;
+      p._hidden = new int[]{10};
+      p._l1 = 1e-4;
+      single = new DeepLearning(p).trainModel().get();
+      DeepLearningModel fromGrid = null;
+      for (Model m : grid.getModels()) {
+        DeepLearningModel dl = (DeepLearningModel) m;
+        if (dl._parms._hidden[0] == 10 && dl._parms._l1 == 1e-4) fromGrid = dl;
+      }
+      Assert.assertNotNull(fromGrid);
+      Assert.assertArrayEquals(single._output._names, fromGrid._output._names);
+      Assert.assertEquals(single.model_info().data_info().fullN(), fromGrid.model_info().data_info().fullN());
+      Assert.assertEquals(single._output._training_metrics.mse(), fromGrid._output._training_metrics.mse(), 1e-8);
+    } finally {
+      cache.release();
+      if (fr != null) fr.remove();
+      if (grid != null) {
+        for (Model m : grid.getModels()) m.delete(); // with its DataInfo
+        grid.remove();
+      }
+      if (single != null) single.delete();
+    }
+  }
+
+  @Test
+  public void testSharedDataInfoRebalanced() {
+    Grid grid = null;
+    Frame fr = null;
+    DeepLearningModel single = null;
+    PreprocessingCache cache = new PreprocessingCache();
+    try {
+      Random rng = new Random(5);
+      double[] x1 = new double[300], y = new double[300];
+      String[] c = new String[300];
+      for (int i = 0; i < y.length; i++) {
+        x1[i] = rng.nextDouble();
+        c[i] = "L" + rng.nextInt(4);
+        y[i] = 2 * x1[i] + (c[i].equals("L1") ? 1 : 0) + 0.1 * rng.nextGaussian();
+      }
+      fr = new TestFrameBuilder()
+          .withName("dl_train_lb")
+          .withColNames("x1", "c", "y")
+          .withVecTypes(Vec.T_NUM, Vec.T_CAT, Vec.T_NUM)
+          .withDataForCol(0, x1)
+          .withDataForCol(1, c)
+          .withDataForCol(2, y)
+          .build();
+      Assert.assertEquals(1, fr.anyVec().nChunks()); // every model trains on its own rebalanced copy
+
+      HashMap<String, Object[]> hyperParms = new HashMap<>();
+      hyperParms.put("_hidden", new int[][]{{5}, {10}});
+      hyperParms.put("_l1", new Double[]{0.0, 1e-4});
+
+      DeepLearningParameters params = new DeepLearningParameters(); // default _force_load_balance
+      params._train = fr._key;
+      params._response_column = "y";
+      params._epochs = 1;
+      params._seed = 5;
+      params._preprocessing_cache = cache;
+      grid = GridSearch.startGridSearch(null, params, hyperParms).get();
+      Assert.assertEquals(4, grid.getModelCount());
+
+      Assert.assertEquals(1, cache.misses());
+      Assert.assertEquals(3, cache.hits());
+
+      DeepLearningParameters p = (DeepLearningParameters) params.clone();
+      p._preprocessing_cache = null;
+      single = new DeepLearning(p).trainModel().get();
+      for (Model m : grid.getModels()) {
+        DeepLearningModel dl = (DeepLearningModel) m;
+        Assert.assertNotNull(dl._output._training_metrics);
+        Assert.assertArrayEquals(single._output._names, dl._output._names);
+        Assert.assertArrayEquals(single.model_info().data_info()._normSub, dl.model_info().data_info()._normSub, 1e-10);
+        Assert.assertArrayEquals(single.model_info().data_info()._normMul, dl.model_info().data_info()._normMul, 1e-10);
+        Assert.assertArrayEquals(single.model_info().data_info()._normRespSub, dl.model_info().data_info()._normRespSub, 1e-10);
+      }
+    } finally {
+      cache.release();
+      if (fr != null) fr.remove();
+      if (grid != null) {
+        for (Model m : grid.getModels()) m.delete();
+        grid.remove();
+      }
+      if (single != null) single.delete();
+    }
+  }
+
+  @Test
+  public void testSuccessiveHalvingGrid() {
+    Grid grid = null;
+    Frame fr = null;
+    try {
+      Random rng = new Random(42);
+      double[] x1 = new double[500], x2 = new double[500], y = new double[500];
+      for (int i = 0; i < y.length; i++) {
+        x1[i] = rng.nextDouble();
+        x2[i] = rng.nextDouble();
+        y[i] = Math.sin(3 * x1[i]) + x1[i] * x2[i] + 0.1 * rng.nextGaussian();
+      }
+      fr = new TestFrameBuilder()
+          .withName("dl_sh_train")
+          .withColNames("x1", "x2", "y")
+          .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+          .withDataForCol(0, x1)
+          .withDataForCol(1, x2)
+          .withDataForCol(2, y)
+          .build();
+
+      HashMap<String, Object[]> hyperParms = new HashMap<>();
+      hyperParms.put("_hidden", new int[][]{{5}, {10}, {20}});
+      hyperParms.put("_l1", new Double[]{0.0, 1e-4, 1e-3});
+
+      DeepLearningParameters params = new DeepLearningParameters();
+      params._train = fr._key;
+      params._response_column = "y";
+      params._epochs = 9;
+      params._seed = 42;
+      params._reproducible = true;
+
+      HyperSpaceSearchCriteria.SuccessiveHalvingSearchCriteria criteria = new HyperSpaceSearchCriteria.SuccessiveHalvingSearchCriteria();
+      criteria.set_max_models(9);
+      criteria.set_seed(42);
+      grid = GridSearch.startGridSearch(null, params, hyperParms,
+          new GridSearch.SimpleParametersBuilderFactory<DeepLearningParameters>(), criteria).get();
+
+      // rungs of 9, 3 and 1 candidates with 1, 3 and 9 epochs, every promoted candidate continues from its checkpoint
+      Model[] ms = grid.getModels();
+      Assert.assertEquals(9, ms.length);
+      int[] byEpochs = new int[10];
+      DeepLearningModel best = null;
+      for (Model m : ms) {
+        DeepLearningModel dl = (DeepLearningModel) m;
+        byEpochs[(int) dl._parms._epochs]++;
+        if (dl._parms._epochs == 9) best = dl;
+      }
+      Assert.assertEquals(6, byEpochs[1]);
+      Assert.assertEquals(2, byEpochs[3]);
+      Assert.assertEquals(1, byEpochs[9]);
+      Assert.assertNotNull(best._parms._checkpoint);
+      Assert.assertEquals(9, best.epoch_counter, 0.5);
+      // the scoring history goes back to the first rung
+      int epochs = Arrays.asList(best._output._scoring_history.getColHeaders()).indexOf("Epochs");
+      Assert.assertTrue((Double) best._output._scoring_history.get(1, epochs) <= 1 + 1e-6);
+    } finally {
+      if (fr != null) fr.remove();
+      if (grid != null) {
+        for (Model m : grid.getModels()) m.delete();
+        grid.remove();
+      }
+    }
+  }
+}
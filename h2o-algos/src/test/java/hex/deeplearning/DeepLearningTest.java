@@ -2,8 +2,12 @@ package hex.deeplearning;
 
 
 import hex.*;
+import hex.genmodel.ModelMojoReader;
+import hex.genmodel.MojoReaderBackendFactory;
 import hex.genmodel.utils.DistributionFamily;
+import hex.genmodel.utils.ParseUtils;
 import hex.deeplearning.DeepLearningModel.DeepLearningParameters;
+import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
@@ -14,15 +18,26 @@ import water.exceptions.H2OModelBuilderIllegalArgumentException;
 import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.NFSFileVec;
+import water.fvec.TestFrameBuilder;
 import water.fvec.Vec;
 import water.parser.ParseDataset;
 import water.util.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.Arrays;
+import java.util.Properties;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import static hex.genmodel.utils.DistributionFamily.*;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class DeepLearningTest extends TestUtil {
@@ -567,6 +582,71 @@ public class DeepLearningTest extends TestUtil {
     }
   }
 
+  @Test public void parameterServer() {
+    DeepLearningModel[] models = new DeepLearningModel[3]; // model averaging, elastic averaging, parameter server
+    Scope.enter();
+    try {
+      java.util.Random rnd = new java.util.Random(42);
+      int nrows = 5000, ncols = 8;
+      double[][] cols = new double[ncols + 1][nrows];
+      for (int r = 0; r < nrows; ++r) {
+        for (int c = 0; c < ncols; ++c) cols[c][r] = rnd.nextGaussian();
+        cols[ncols][r] = Math.sin(cols[0][r]) + cols[1][r] * cols[2][r] - 0.5 * cols[3][r] + 0.1 * rnd.nextGaussian();
+      }
+      TestFrameBuilder fb = new TestFrameBuilder().withName("psTrain");
+      String[] names = new String[ncols + 1];
+      byte[] types = new byte[ncols + 1];
+      for (int c = 0; c <= ncols; ++c) {
+        names[c] = c == ncols ? "y" : "x" + c;
+        types[c] = Vec.T_NUM;
+        fb.withDataForCol(c, cols[c]);
+      }
+      Frame fr = Scope.track(fb.withColNames(names).withVecTypes(types).withChunkLayout(1250, 1250, 1250, 1250).build());
+
+      double[] mse = new double[models.length];
+      for (int mode = 0; mode < models.length; ++mode) {
+        DeepLearningParameters dl = new DeepLearningParameters();
+        dl._train = fr._key;
+        dl._response_column = "y";
+        dl._hidden = new int[]{20, 20};
+        dl._epochs = 20;
+        dl._seed = 1234;
+        dl._train_samples_per_iteration = nrows;
+        dl._elastic_averaging = mode == 1;
+        dl._parameter_server = mode == 2;
+        DeepLearningModel model = models[mode] = new DeepLearning(dl).trainModel().get();
+        mse[mode] = model._output._training_metrics._MSE;
+        long trainMs = Math.max(1, model.total_training_time_ms - model.total_scoring_time_ms - model.total_setup_time_ms);
+        Log.info("Mode " + mode + ": training MSE " + mse[mode] + ", "
+            + (long) (model.epoch_counter * nrows * 1000 / trainMs / H2O.CLOUD.size()) + " samples/sec per node");
+        Assert.assertEquals(dl._epochs, model.epoch_counter, 1);
+        // the shards and the per-node models are removed after training
+        Assert.assertNull(DKV.get(model.model_info().parameterShardKey(0)));
+        Assert.assertNull(DKV.get(model.model_info().parameterServerClockKey()));
+      }
+      // the response has variance ~1.7, a diverged (stale) parameter server model is nowhere near model averaging
+      assertTrue(Arrays.toString(mse), mse[0] < 0.2);
+      assertTrue(Arrays.toString(mse), !Double.isNaN(mse[2]) && mse[2] < 0.2);
+      assertTrue(Arrays.toString(mse), mse[2] < 2 * mse[0]);
+    } finally {
+      for (DeepLearningModel model : models)
+        if (model != null) model.delete();
+      Scope.exit();
+    }
+  }
+
+  @Test public void parameterServerValidation() {
+    DeepLearningParameters dl = new DeepLearningParameters();
+    dl._parameter_server = true;
+    dl._elastic_averaging = true;
+    dl._parameter_server_staleness = -1;
+    DeepLearning job = new DeepLearning(dl);
+    Assert.assertTrue(job.error_count() > 0);
+    String msg = job.validationErrors();
+    assertTrue(msg, msg.contains("elastic averaging"));
+    assertTrue(msg, msg.contains("staleness must be >= 0"));
+  }
+
   @Ignore
   @Test public void elasticAveraging() {
     DeepLearningParameters dl;
@@ -1599,6 +1679,8 @@ public class DeepLearningTest extends TestUtil {
   public void testMiniBatch50() {
     Frame tfr = null;
     DeepLearningModel dl = null;
+    DeepLearningModel dl1 = null;
+    DeepLearningModel dl2 = null;
 
     try {
       tfr = parse_test_file("./smalldata/gbm_test/BostonHousing.csv");
@@ -1612,16 +1694,209 @@ public class DeepLearningTest extends TestUtil {
 
       dl = new DeepLearning(parms).trainModel().get();
 
-      Assert.assertEquals(12.938076268040659,dl._output._training_metrics._MSE,1e-6);
+      Assert.assertEquals(50, dl._parms._mini_batch_size);
+      // 50x fewer (but less noisy) updates than with mini-batch size 1, must still beat the mean
+      double var = tfr.lastVec().sigma() * tfr.lastVec().sigma();
+      assertTrue(dl._output._training_metrics._MSE < var);
+      // reproducible
+      dl2 = new DeepLearning(parms).trainModel().get();
+      Assert.assertEquals(dl._output._training_metrics._MSE, dl2._output._training_metrics._MSE, 0);
+
+      // mini-batch size 1 (what size 50 used to be reset to) still goes through the per-sample path
+      parms._mini_batch_size = 1;
+      dl1 = new DeepLearning(parms).trainModel().get();
+      Assert.assertEquals(12.938076268040659,dl1._output._training_metrics._MSE,1e-6);
 
     } finally {
       if (tfr != null) tfr.delete();
       if (dl != null) dl.deleteCrossValidationModels();
       if (dl != null) dl.delete();
+      if (dl1 != null) dl1.delete();
+      if (dl2 != null) dl2.delete();
+    }
+  }
+
+  @Test
+  public void testMiniBatchSynthetic() {
+    DeepLearningModel[] models = new DeepLearningModel[3];
+    Scope.enter();
+    try {
+      java.util.Random rnd = new java.util.Random(0xBA7C4);
+      int nrows = 4000, ncols = 6, nlevels = 40;
+      double[][] cols = new double[ncols + 1][nrows];
+      String[] cats = new String[nrows];
+      for (int r = 0; r < nrows; ++r) {
+        int level = rnd.nextInt(nlevels);
+        cats[r] = "L" + level;
+        for (int c = 0; c < ncols; ++c) cols[c][r] = rnd.nextGaussian();
+        cols[ncols][r] = Math.sin(cols[0][r]) + cols[1][r] * cols[2][r] + (level % 4) * 0.5 + 0.1 * rnd.nextGaussian();
+      }
+      TestFrameBuilder fb = new TestFrameBuilder().withName("mbTrain");
+      String[] names = new String[ncols + 2];
+      byte[] types = new byte[ncols + 2];
+      for (int c = 0; c <= ncols; ++c) {
+        names[c] = c == ncols ? "y" : "x" + c;
+        types[c] = Vec.T_NUM;
+        fb.withDataForCol(c, cols[c]);
+      }
+      names[ncols + 1] = "cat";
+      types[ncols + 1] = Vec.T_CAT;
+      fb.withDataForCol(ncols + 1, cats);
+      Frame fr = Scope.track(fb.withColNames(names).withVecTypes(types).build());
+
+      int[] miniBatchSizes = new int[]{1, 4, 16};
+      double[] mse = new double[models.length];
+      for (int i = 0; i < models.length; ++i) {
+        DeepLearningParameters dl = new DeepLearningParameters();
+        dl._train = fr._key;
+        dl._response_column = "y";
+        dl._hidden = new int[]{32, 32};
+        dl._epochs = 20;
+        dl._seed = 1234;
+        dl._reproducible = true;
+        dl._mini_batch_size = miniBatchSizes[i];
+        models[i] = new DeepLearning(dl).trainModel().get();
+        Assert.assertEquals(miniBatchSizes[i], models[i]._parms._mini_batch_size);
+        mse[i] = models[i]._output._training_metrics._MSE;
+        Log.info("Mini-batch size " + miniBatchSizes[i] + ": training MSE " + mse[i]);
+      }
+      // the response has variance ~1.8
+      for (double m : mse)
+        assertTrue(Arrays.toString(mse), m < 0.5);
+      // regression pins of the (reproducible) mini-batch paths
+      Assert.assertEquals(0.031377416159974705, mse[0], 1e-6);
+      Assert.assertEquals(0.03256634942640118, mse[1], 1e-6);
+      Assert.assertEquals(0.041708454834305644, mse[2], 1e-6);
+    } finally {
+      for (DeepLearningModel model : models)
+        if (model != null) model.delete();
+      Scope.exit();
     }
   }
 
 
+  @Test
+  public void testBFloat16Weights() throws Exception {
+    DeepLearningModel dl = null;
+    Scope.enter();
+    try {
+      java.util.Random rnd = new java.util.Random(0xBF16);
+      int nrows = 2000, ncols = 5;
+      double[][] cols = new double[ncols + 1][nrows];
+      for (int r = 0; r < nrows; ++r) {
+        for (int c = 0; c < ncols; ++c) cols[c][r] = rnd.nextGaussian();
+        cols[ncols][r] = Math.sin(cols[0][r]) + cols[1][r] * cols[2][r] + 0.1 * rnd.nextGaussian();
+      }
+      TestFrameBuilder fb = new TestFrameBuilder().withName("bf16Train");
+      String[] names = new String[ncols + 1];
+      byte[] types = new byte[ncols + 1];
+      for (int c = 0; c <= ncols; ++c) {
+        names[c] = c == ncols ? "y" : "x" + c;
+        types[c] = Vec.T_NUM;
+        fb.withDataForCol(c, cols[c]);
+      }
+      Frame fr = Scope.track(fb.withColNames(names).withVecTypes(types).build());
+
+      DeepLearningParameters parms = new DeepLearningParameters();
+      parms._train = fr._key;
+      parms._response_column = "y";
+      parms._hidden = new int[]{16, 16};
+      parms._epochs = 10;
+      parms._seed = 1234;
+      parms._reproducible = true;
+      parms._weights_precision = DeepLearningParameters.WeightsPrecision.BFloat16;
+      dl = new DeepLearning(parms).trainModel().get();
+      assertTrue(dl._output._training_metrics._MSE < 0.3);
+
+      // the model keeps its float weights, only the bfloat16 weight deltas between nodes are rounded
+      Storage.DenseRowMatrix w = dl.model_info().get_weights(1);
+      assertFalse(w.isBFloat16());
+      Storage.DenseRowMatrix copy = IcedUtils.deepCopy(w);
+      assertArrayEquals(w.raw(), copy.raw(), 0);
+      w.setBFloat16(true);
+      int bf16Size = w.asBytes().length;
+      w.setBFloat16(false);
+      int floatSize = w.asBytes().length;
+      assertTrue(bf16Size + " vs " + floatSize, bf16Size < 0.6 * floatSize);
+
+      // the ADADELTA state (twice the size of the weights) is shipped as bfloat16 as well
+      DeepLearningModelInfo minfo = IcedUtils.deepCopy(dl.model_info());
+      int shippedFloat = 0, shippedBF16 = 0;
+      for (int l = 0; l < parms._hidden.length + 1; ++l) {
+        shippedFloat += minfo.get_weights(l).asBytes().length + minfo.get_ada_dx_g(l).asBytes().length;
+      }
+      minfo.setBFloat16State(true);
+      for (int l = 0; l < parms._hidden.length + 1; ++l) {
+        assertTrue(minfo.get_ada_dx_g(l).isBFloat16());
+        shippedBF16 += minfo.get_weights(l).asBytes().length + minfo.get_ada_dx_g(l).asBytes().length;
+      }
+      minfo.setBFloat16State(false);
+      assertTrue(shippedBF16 + " vs " + shippedFloat, shippedBF16 < 0.55 * shippedFloat);
+
+      // small updates survive the round trip of the deltas, but not a round trip of the weights
+      int layers = parms._hidden.length + 1;
+      float[][] base = minfo.copyState();
+      float[] updated = minfo.get_weights(1).raw();
+      for (int i = 0; i < updated.length; ++i) updated[i] += 1e-4f * base[1][i];
+      float[] expected = updated.clone();
+      float[] updatedAda = minfo.get_ada_dx_g(1).raw();
+      for (int i = 0; i < updatedAda.length; ++i) updatedAda[i] += 1e-4f * base[layers + 1][i];
+      float[] expectedAda = updatedAda.clone();
+      minfo.subtractState(base);
+      minfo = IcedUtils.deepCopy(minfo);
+      minfo.addState(base);
+      int lost = 0;
+      for (int i = 0; i < expected.length; ++i) {
+        assertEquals(expected[i], minfo.get_weights(1).raw()[i], 1e-6 * Math.abs(base[1][i]));
+        if (hex.genmodel.utils.BFloat16.fromFloat(expected[i]) == hex.genmodel.utils.BFloat16.fromFloat(base[1][i])) lost++;
+      }
+      assertTrue(lost > expected.length / 2);
+      for (int i = 0; i < expectedAda.length; ++i)
+        assertEquals(expectedAda[i], minfo.get_ada_dx_g(1).raw()[i], 1e-6 * Math.abs(base[layers + 1][i]));
+      assertFalse(minfo.get_ada_dx_g(1).isBFloat16());
+
+      // the saved model has bfloat16 weights
+      float[] trained = w.raw().clone();
+      File file = File.createTempFile("bf16Model", null);
+      try {
+        dl.exportBinaryModel(file.getAbsolutePath(), true);
+        assertFalse(dl.model_info().get_weights(1).isBFloat16());
+        dl.delete();
+        dl = Model.importBinaryModel(file.getAbsolutePath());
+      } finally {
+        assertTrue(file.delete());
+      }
+      for (int i = 0; i < trained.length; ++i)
+        assertEquals(hex.genmodel.utils.BFloat16.toFloat(hex.genmodel.utils.BFloat16.fromFloat(trained[i])), dl.model_info().get_weights(1).raw()[i], 0);
+
+      // the MOJO has bfloat16 weights as well, its predictions are within the precision of bfloat16
+      Frame preds = Scope.track(dl.score(fr));
+      assertTrue(dl.testJavaScoring(fr, preds, 5e-2, 5e-2));
+
+      // readers without the version check fail on the weights, newer versions are refused
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      dl.getMojo().writeTo(os);
+      Properties ini = new Properties();
+      ini.load(new StringReader(new String(unzipEntry(os.toByteArray(), "model.ini"), "UTF-8")));
+      assertEquals("1.10", ini.getProperty("mojo_version"));
+      try {
+        ParseUtils.tryParse(ini.getProperty("weight_layer0"), new double[0]);
+        Assert.fail("weights of a bfloat16 MOJO should not parse as a text array");
+      } catch (NumberFormatException ignored) { /* what an old reader runs into */ }
+      byte[] newer = replaceInZip(os.toByteArray(), "model.ini", "mojo_version = 1.10", "mojo_version = 1.20");
+      try {
+        ModelMojoReader.readFrom(MojoReaderBackendFactory.createReaderBackend(new ByteArrayInputStream(newer),
+                MojoReaderBackendFactory.CachingStrategy.MEMORY));
+        Assert.fail("MOJO version 1.20 should be refused");
+      } catch (IOException e) {
+        assertTrue(e.getMessage(), e.getMessage().contains("1.2 is not supported"));
+      }
+    } finally {
+      if (dl != null) dl.delete();
+      Scope.exit();
+    }
+  }
+
   @Test
   public void testPretrainedAE() {
     Frame tfr = null;
@@ -2532,5 +2807,31 @@ public class DeepLearningTest extends TestUtil {
     }
   }
 
+
+  private static byte[] unzipEntry(byte[] zip, String name) throws IOException {
+    ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zip));
+    for (ZipEntry e = zis.getNextEntry(); e != null; e = zis.getNextEntry())
+      if (e.getName().equals(name)) return IOUtils.toByteArray(zis);
+    throw new IOException("No " + name + " in the zip");
+  }
+
+  private static byte[] replaceInZip(byte[] zip, String name, String from, String to) throws IOException {
+    ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zip));
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    ZipOutputStream zos = new ZipOutputStream(bos);
+    for (ZipEntry e = zis.getNextEntry(); e != null; e = zis.getNextEntry()) {
+      byte[] content = IOUtils.toByteArray(zis);
+      if (e.getName().equals(name)) {
+        String text = new String(content, "UTF-8");
+        assertTrue(text.contains(from));
+        content = text.replace(from, to).getBytes("UTF-8");
+      }
+      zos.putNextEntry(new ZipEntry(e.getName()));
+      zos.write(content);
+      zos.closeEntry();
+    }
+    zos.close();
+    return bos.toByteArray();
+  }
 }
 
@@ -109,4 +109,40 @@ public class NeuronsTest extends water.TestUtil {
     System.out.println("optimized dense row * dense time: " + PrettyPrint.msecs(System.currentTimeMillis()-start, true));
   }
 
+  @Test
+  public void matrixMatTest() {
+    Random rng = new Random(0xC0FFEE);
+    for (int n : new int[]{2, 5, 8}) {
+      for (int[] dims : new int[][]{{3, 7}, {70, 300}, {130, 515}}) {
+        final int rows = dims[0], cols = dims[1];
+        float[] a = new float[rows * cols];
+        for (int i = 0; i < a.length; ++i) a[i] = rng.nextFloat() - 0.5f;
+        double[] y = new double[rows];
+        for (int row = 0; row < rows; ++row) y[row] = rng.nextDouble();
+        byte[] bits = new byte[(rows + 7) / 8];
+        rng.nextBytes(bits);
+        double[][] x = new double[n][cols];
+        int nnz = 0;
+        for (int mb = 0; mb < n; ++mb)
+          for (int col = 0; col < cols; ++col)
+            if (rng.nextFloat() < 0.1) {
+              x[mb][col] = rng.nextGaussian();
+              nnz++;
+            }
+        for (byte[] row_bits : new byte[][]{null, bits}) {
+          double[][] dense = new double[n][rows];
+          double[][] sparse = new double[n][rows];
+          gemm_blocked(dense, a, x, y, row_bits);
+          gemm_sparse(sparse, a, x, y, row_bits, nnz);
+          for (int mb = 0; mb < n; ++mb) {
+            double[] res = new double[rows];
+            gemv_naive(res, a, x[mb], y, row_bits);
+            Assert.assertArrayEquals(res, dense[mb], 1e-10);
+            Assert.assertArrayEquals(res, sparse[mb], 1e-10);
+          }
+        }
+      }
+    }
+  }
+
 }
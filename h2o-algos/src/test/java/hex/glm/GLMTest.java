@@ -9,6 +9,8 @@ import hex.glm.GLMModel.GLMParameters.Link;
 import hex.glm.GLMModel.GLMParameters.Solver;
 import hex.glm.GLMModel.GLMWeightsFun;
 import hex.glm.GLMTask.*;
+import hex.grid.Grid;
+import hex.grid.GridSearch;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
@@ -20,6 +22,7 @@ import water.fvec.*;
 import water.parser.BufferedString;
 import water.parser.ParseDataset;
 import water.util.ArrayUtils;
+import water.util.TwoDimTable;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -1061,6 +1064,202 @@ public class GLMTest  extends TestUtil {
   }
 
 
+  @Test
+  public void testBlockedGramComputation() {
+    Scope.enter();
+    try {
+      Random rnd = new Random(0xC0FFEE);
+      int nrows = 700, nnums = 300;
+      String[] names = new String[nnums + 3];
+      byte[] types = new byte[names.length];
+      TestFrameBuilder fb = new TestFrameBuilder().withName("blockedGramData");
+      String[] dom = new String[]{"a", "b", "c", "d", "e", "f", "g"};
+      for (int c = 0; c < 2; ++c) {
+        String[] vals = new String[nrows];
+        for (int r = 0; r < nrows; ++r) vals[r] = dom[rnd.nextInt(dom.length - 3 * c)];
+        names[c] = "cat" + c;
+        types[c] = Vec.T_CAT;
+        fb.withDataForCol(c, vals);
+      }
+      for (int c = 2; c < names.length; ++c) {
+        double[] vals = new double[nrows];
+        for (int r = 0; r < nrows; ++r) vals[r] = c == names.length - 1 ? rnd.nextInt(5) : rnd.nextDouble() < .3 ? 0 : rnd.nextGaussian();
+        names[c] = c == names.length - 1 ? "y" : "num" + c;
+        types[c] = Vec.T_NUM;
+        fb.withDataForCol(c, vals);
+      }
+      Frame f = Scope.track(fb.withColNames(names).withVecTypes(types).withChunkLayout(300, 250, 150).build());
+      DataInfo dinfo = new DataInfo(f, null, 1, true, DataInfo.TransformType.STANDARDIZE, DataInfo.TransformType.NONE, true, false, false, false, false, false);
+      GLMParameters params = new GLMParameters(Family.poisson);
+      double[] beta = new double[dinfo.fullN() + 1];
+      for (int i = 0; i < beta.length; ++i) beta[i] = 0.01 * rnd.nextGaussian();
+      GLMIterationTask rowWise = new GLMIterationTask(null, dinfo, new GLMWeightsFun(params), beta).setGramBlockSize(0).setSparse(false).doAll(dinfo._adaptedFrame);
+      // block of 7 rows leaves partial blocks at the end of every chunk, -1 picks the default block size
+      for (int blockSize : new int[]{7, -1}) {
+        GLMIterationTask blocked = new GLMIterationTask(null, dinfo, new GLMWeightsFun(params), beta).setGramBlockSize(blockSize).setSparse(false).doAll(dinfo._adaptedFrame);
+        for (int i = 0; i < rowWise._xy.length; ++i) {
+          for (int j = 0; j <= i; ++j) {
+            double expected = rowWise._gram.get(i, j);
+            assertEquals(expected, blocked._gram.get(i, j), 1e-10 * Math.max(1, Math.abs(expected)));
+          }
+          assertEquals(rowWise._xy[i], blocked._xy[i], 0);
+        }
+        assertEquals(rowWise._likelihood, blocked._likelihood, 0);
+      }
+      dinfo.remove();
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  /**
+   * Gradient tasks walk only the non-zeros of sparse chunks, make sure they match the gradient computed from dense rows
+   */
+  @Test
+  public void testSparseGradientTask() {
+    Scope.enter();
+    try {
+      Random rnd = new Random(0xBADCAFE);
+      int nrows = 2000, nsparse = 12;
+      String[] names = new String[nsparse + 4];
+      byte[] types = new byte[names.length];
+      TestFrameBuilder fb = new TestFrameBuilder().withName("sparseGradientData");
+      // mostly the first level, stored as sparse zeros
+      String[] cats = new String[nrows];
+      for (int r = 0; r < nrows; ++r) cats[r] = rnd.nextDouble() < .97 ? "a" : "bcde".substring(rnd.nextInt(4)).substring(0, 1);
+      names[0] = "cat";
+      types[0] = Vec.T_CAT;
+      fb.withDataForCol(0, cats);
+      for (int c = 1; c < names.length; ++c) {
+        double[] vals = new double[nrows];
+        for (int r = 0; r < nrows; ++r) {
+          if (c == names.length - 1) vals[r] = rnd.nextInt(2);                        // response
+          else if (c == names.length - 2) vals[r] = rnd.nextGaussian();               // dense
+          else if (c == names.length - 3) vals[r] = rnd.nextDouble() < .05 ? rnd.nextGaussian() : Double.NaN; // NA-sparse
+          else vals[r] = rnd.nextDouble() < .03 ? (rnd.nextDouble() < .1 ? Double.NaN : rnd.nextGaussian()) : 0;
+        }
+        names[c] = c == names.length - 1 ? "y" : "num" + c;
+        types[c] = Vec.T_NUM;
+        fb.withDataForCol(c, vals);
+      }
+      Frame f = Scope.track(fb.withColNames(names).withVecTypes(types).withChunkLayout(1200, 800).build());
+      assertTrue(f.vec(0).chunkForChunkIdx(0).isSparseZero());
+      assertTrue(f.vec(1).chunkForChunkIdx(0).isSparseZero());
+      assertTrue(f.vec(names.length - 3).chunkForChunkIdx(0).isSparseNA());
+      // sparse categorical chunks don't store the first level, it has to be the dropped one
+      DataInfo dinfo = new DataInfo(f, null, 1, false, DataInfo.TransformType.STANDARDIZE, DataInfo.TransformType.NONE, false, true, false, false, false, false);
+      Scope.track_generic(dinfo);
+      double[] beta = new double[dinfo.fullN() + 1];
+      for (int i = 0; i < beta.length; ++i) beta[i] = 0.1 * rnd.nextGaussian();
+      for (Family family : new Family[]{Family.binomial, Family.gaussian}) {
+        GLMParameters params = new GLMParameters(family);
+        params._obj_reg = 1.0 / nrows;
+        GLMGradientTask gt = family == Family.binomial
+            ? new GLMBinomialGradientTask(null, dinfo, params, 0, beta).doAll(dinfo._adaptedFrame)
+            : new GLMGaussianGradientTask(null, dinfo, params, 0, beta).doAll(dinfo._adaptedFrame);
+        double[] expected = new DenseGradient(dinfo, beta, family == Family.binomial).doAll(dinfo._adaptedFrame)._gradient;
+        for (int i = 0; i < beta.length; ++i)
+          assertEquals(family + ", coefficient " + i, expected[i] / nrows, gt._gradient[i], 1e-10);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testLambdaSearchActiveSetHistory() {
+    Scope.enter();
+    try {
+      Random rnd = new Random(0xFEED);
+      int nrows = 3000, npreds = 40;
+      String[] names = new String[npreds + 2];
+      byte[] types = new byte[names.length];
+      double[][] xs = new double[npreds][nrows];
+      String[] ys = new String[nrows];
+      String[] ybs = new String[nrows];
+      for (int r = 0; r < nrows; ++r) {
+        for (int c = 0; c < npreds; ++c) xs[c][r] = rnd.nextGaussian();
+        // only the first 3 predictors matter
+        double e0 = 2 * xs[0][r] - xs[1][r], e1 = xs[2][r] - xs[0][r];
+        double p0 = Math.exp(e0), p1 = Math.exp(e1), u = rnd.nextDouble() * (p0 + p1 + 1);
+        ys[r] = u < p0 ? "a" : u < p0 + p1 ? "b" : "c";
+        ybs[r] = u < p0 ? "1" : "0";
+      }
+      TestFrameBuilder fb = new TestFrameBuilder().withName("lambdaSearchData");
+      for (int c = 0; c < npreds; ++c) {
+        names[c] = "x" + c;
+        types[c] = Vec.T_NUM;
+        fb.withDataForCol(c, xs[c]);
+      }
+      names[npreds] = "y";
+      types[npreds] = Vec.T_CAT;
+      fb.withDataForCol(npreds, ys);
+      names[npreds + 1] = "yb";
+      types[npreds + 1] = Vec.T_CAT;
+      fb.withDataForCol(npreds + 1, ybs);
+      Frame f = Scope.track(fb.withColNames(names).withVecTypes(types).build());
+      for (Family family : new Family[]{Family.multinomial, Family.binomial}) {
+        GLMParameters params = new GLMParameters(family);
+        params._train = f._key;
+        params._response_column = family == Family.multinomial ? "y" : "yb";
+        params._ignored_columns = new String[]{family == Family.multinomial ? "yb" : "y"};
+        params._solver = Solver.IRLSM;
+        params._alpha = new double[]{1};
+        params._lambda_search = true;
+        params._nlambdas = 15;
+        GLMModel model = new GLM(params).trainModel().get();
+        Scope.track_generic(model);
+        TwoDimTable sh = model._output._scoring_history;
+        int activeCol = Arrays.asList(sh.getColHeaders()).indexOf("active_predictors");
+        assertTrue(activeCol >= 0);
+        assertTrue(Arrays.asList(sh.getColHeaders()).contains("lambda_duration"));
+        int total = npreds * (family == Family.multinomial ? 3 : 1);
+        int minActive = Integer.MAX_VALUE;
+        for (int i = 0; i < sh.getRowDim(); ++i) {
+          int active = (Integer) sh.get(i, activeCol);
+          assertTrue(family + ": " + active, active <= total);
+          minActive = Math.min(minActive, active);
+        }
+        assertTrue(family + ": predictors were not screened", minActive < total);
+        // the KKT check has to bring in all the predictors needed by the final (smallest) lambda
+        GLMParameters full = (GLMParameters) params.clone();
+        full._lambda_search = false;
+        full._lambda = new double[]{model._output._submodels[model._output._submodels.length - 1].lambda_value};
+        GLMModel fullModel = new GLM(full).trainModel().get();
+        Scope.track_generic(fullModel);
+        assertEquals(family.toString(), fullModel._output._training_metrics._MSE, model._output._training_metrics._MSE, 1e-4);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  /** Reference gradient of the binomial (logit) or gaussian likelihood computed from the dense rows. */
+  private static class DenseGradient extends MRTask<DenseGradient> {
+    final DataInfo _dinfo;
+    final double[] _beta;
+    final boolean _logit;
+    double[] _gradient;
+
+    DenseGradient(DataInfo dinfo, double[] beta, boolean logit) { _dinfo = dinfo; _beta = beta; _logit = logit; }
+
+    @Override public void map(Chunk[] chks) {
+      _gradient = new double[_beta.length];
+      DataInfo.Row row = _dinfo.newDenseRow();
+      for (int r = 0; r < chks[0]._len; ++r) {
+        _dinfo.extractDenseRow(chks, r, row);
+        double eta = row.innerProduct(_beta);
+        double mu = _logit ? 1 / (1 + Math.exp(-eta)) : eta;
+        double d = mu - row.response(0);
+        for (int i = 0; i < row.nBins; ++i) _gradient[row.binIds[i]] += d;
+        for (int i = 0; i < row.numVals.length; ++i) _gradient[_dinfo.numStart() + i] += d * row.numVals[i];
+        _gradient[_gradient.length - 1] += d;
+      }
+    }
+
+    @Override public void reduce(DenseGradient mrt) { ArrayUtils.add(_gradient, mrt._gradient); }
+  }
+
   @Test @Ignore public void testConstantColumns(){
     GLMModel model1 = null, model2 = null, model3 = null, model4 = null;
     Frame fr = parse_test_file(Key.make("Airlines"), "smalldata/airlines/allyears2k_headers.zip");
@@ -2074,4 +2273,82 @@ public class GLMTest  extends TestUtil {
       Scope.exit();
     }
   }
+
+  @Test
+  public void testSharedPreprocessingInGrid() {
+    Grid grid = null;
+    Frame trn = null, vld = null;
+    GLMModel single = null;
+    PreprocessingCache cache = new PreprocessingCache();
+    try {
+      Random rng = new Random(17);
+      double[] x1 = new double[300], y = new double[300], vx1 = new double[100], vy = new double[100];
+      String[] c = new String[300], vc = new String[100];
+      for (int i = 0; i < y.length; i++) {
+        x1[i] = rng.nextDouble();
+        c[i] = "L" + rng.nextInt(4);
+        y[i] = 2 * x1[i] + (c[i].equals("L1") ? 1 : 0) + 0.1 * rng.nextGaussian();
+      }
+      for (int i = 0; i < vy.length; i++) {
+        vx1[i] = rng.nextDouble();
+        vc[i] = i % 10 == 0 ? "L9" : "L" + rng.nextInt(3); // other levels than the training frame
+        vy[i] = 2 * vx1[i] + (vc[i].equals("L1") ? 1 : 0) + 0.1 * rng.nextGaussian();
+      }
+      trn = new TestFrameBuilder()
+          .withName("glm_train")
+          .withColNames("x1", "c", "y")
+          .withVecTypes(Vec.T_NUM, Vec.T_CAT, Vec.T_NUM)
+          .withDataForCol(0, x1)
+          .withDataForCol(1, c)
+          .withDataForCol(2, y)
+          .build();
+      vld = new TestFrameBuilder()
+          .withName("glm_valid")
+          .withColNames("x1", "c", "y")
+          .withVecTypes(Vec.T_NUM, Vec.T_CAT, Vec.T_NUM)
+          .withDataForCol(0, vx1)
+          .withDataForCol(1, vc)
+          .withDataForCol(2, vy)
+          .build();
+
+      HashMap<String, Object[]> hyperParms = new HashMap<>();
+      hyperParms.put("_alpha", new double[][]{{0}, {0.5}});
+      hyperParms.put("_lambda", new double[][]{{1e-3}, {1e-2}});
+
+      GLMParameters params = new GLMParameters(Family.gaussian);
+      params._train = trn._key;
+      params._valid = vld._key;
+      params._response_column = "y";
+      params._preprocessing_cache = cache;
+      grid = GridSearch.startGridSearch(null, params, hyperParms).get();
+      assertEquals(4, grid.getModelCount());
+
+      // the DataInfo and the adapted validation frame were made for the first candidate only
+      assertEquals(2, cache.misses());
+      assertEquals(6, cache.hits());
+
+      // same model as with preprocessing of its own
+      GLMParameters p = (GLMParameters) params.clone();
+      p._preprocessing_cache = null;
+      p._alpha = new double[]{0.5};
+      p._lambda = new double[]{1e-2};
+      single = new GLM(p).trainModel().get();
+      GLMModel fromGrid = null;
+      for (Model m : grid.getModels())
+        if (((GLMModel) m)._parms._alpha[0] == 0.5 && ((GLMModel) m)._parms._lambda[0] == 1e-2) fromGrid = (GLMModel) m;
+      assertNotNull(fromGrid);
+      assertArrayEquals(single._output.coefficientNames(), fromGrid._output.coefficientNames());
+      assertArrayEquals(single.beta(), fromGrid.beta(), 1e-10);
+      assertEquals(single._output._validation_metrics.mse(), fromGrid._output._validation_metrics.mse(), 1e-10);
+    } finally {
+      cache.release(); // along with the adapted validation frame
+      if (trn != null) trn.remove();
+      if (vld != null) vld.remove();
+      if (grid != null) {
+        for (Model m : grid.getModels()) m.delete();
+        grid.remove();
+      }
+      if (single != null) single.delete();
+    }
+  }
 }
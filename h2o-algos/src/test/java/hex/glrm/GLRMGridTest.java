@@ -2,6 +2,7 @@ package hex.glrm;
 
 import hex.genmodel.algos.glrm.GlrmInitialization;
 import hex.genmodel.algos.glrm.GlrmLoss;
+import hex.genmodel.algos.glrm.GlrmRegularizer;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -9,16 +10,20 @@ import org.junit.Test;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
 
 import hex.DataInfo;
 import hex.Model;
+import hex.PreprocessingCache;
 import hex.grid.Grid;
 import hex.grid.GridSearch;
 import water.Job;
 import water.Key;
 import water.TestUtil;
 import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
 import water.util.ArrayUtils;
 
 public class GLRMGridTest extends TestUtil {
@@ -174,4 +179,70 @@ public class GLRMGridTest extends TestUtil {
     }
   }
 
+  @Test
+  public void testSharedDataInfo() {
+    Grid grid = null;
+    Frame fr = null;
+    GLRMModel single = null;
+    PreprocessingCache cache = new PreprocessingCache();
+    try {
+      Random rng = new Random(11);
+      double[] x1 = new double[200], x2 = new double[200];
+      String[] c = new String[200];
+      for (int i = 0; i < x1.length; i++) {
+        x1[i] = rng.nextGaussian();
+        x2[i] = 3 * x1[i] + rng.nextGaussian();
+        c[i] = "L" + rng.nextInt(3);
+      }
+      fr = new TestFrameBuilder()
+          .withName("glrm_train")
+          .withColNames("x1", "x2", "c")
+          .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_CAT)
+          .withDataForCol(0, x1)
+          .withDataForCol(1, x2)
+          .withDataForCol(2, c)
+          .build();
+
+      HashMap<String, Object[]> hyperParms = new HashMap<>();
+      hyperParms.put("_gamma_x", new Double[]{0.1, 0.5});
+
+      GLRMModel.GLRMParameters params = new GLRMModel.GLRMParameters();
+      params._train = fr._key;
+      params._k = 2;
+      params._seed = 11;
+      params._transform = DataInfo.TransformType.STANDARDIZE;
+      params._regularization_x = GlrmRegularizer.Quadratic;
+      params._max_iterations = 20;
+      params._preprocessing_cache = cache;
+      grid = GridSearch.startGridSearch(null, params, hyperParms).get();
+      Assert.assertEquals(2, grid.getModelCount());
+
+      // the three DataInfos of a model (training frame, its reordered copy, with the X and W columns) were made once
+      Assert.assertEquals(3, cache.misses());
+      Assert.assertEquals(3, cache.hits());
+
+      // same model as with DataInfos of its own
+      GLRMModel.GLRMParameters p = (GLRMModel.GLRMParameters) params.clone();
+      p._preprocessing_cache = null;
+      p._gamma_x = 0.5;
+      single = new GLRM(p).trainModel().get();
+      GLRMModel fromGrid = null;
+      for (Model m : grid.getModels())
+        if (((GLRMModel) m)._parms._gamma_x == 0.5) fromGrid = (GLRMModel) m;
+      Assert.assertNotNull(fromGrid);
+      Assert.assertArrayEquals(single._output._names_expanded, fromGrid._output._names_expanded);
+      Assert.assertArrayEquals(single._output._normSub, fromGrid._output._normSub, 0);
+      Assert.assertArrayEquals(single._output._normMul, fromGrid._output._normMul, 0);
+      Assert.assertEquals(single._output._objective, fromGrid._output._objective, 1e-6 * Math.abs(single._output._objective));
+    } finally {
+      cache.release();
+      if (fr != null) fr.remove();
+      if (grid != null) {
+        for (Model m : grid.getModels()) m.delete();
+        grid.remove();
+      }
+      if (single != null) single.delete();
+    }
+  }
+
 }
@@ -10,11 +10,13 @@ import hex.genmodel.algos.glrm.GlrmRegularizer;
 import hex.glrm.GLRMModel.GLRMParameters;
 import hex.pca.PCA;
 import hex.pca.PCAModel;
+import hex.svd.SVDModel.SVDParameters;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
 import water.*;
+import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.UploadFileVec;
 import water.fvec.Vec;
@@ -735,4 +737,98 @@ public class GLRMTest extends TestUtil {
       Scope.exit();
     }
   }
+
+  // Rows of a rank 3 frame (plus noise), row i only depends on i so that a shorter frame is a prefix of a longer one
+  private static Frame lowRankFrame(String name, long rows) {
+    Vec template = Vec.makeCon(0, rows, 8, false);
+    final double[][] y = ArrayUtils.gaussianArray(3, 8, 42);
+    Frame fr = new Frame(Key.<Frame>make(name), null, template.makeZeros(8));
+    template.remove();
+    new MRTask() {
+      @Override public void map(Chunk[] cs) {
+        for (int r = 0; r < cs[0]._len; r++) {
+          Random rnd = new Random(cs[0].start() + r);
+          double[] x = ArrayUtils.gaussianVector(3, rnd);
+          for (int j = 0; j < cs.length; j++)
+            cs[j].set(r, ArrayUtils.innerProduct(x, new double[]{y[0][j], y[1][j], y[2][j]}) + 0.01 * rnd.nextGaussian());
+        }
+      }
+    }.doAll(fr);
+    DKV.put(fr);
+    return fr;
+  }
+
+  @Test public void testWarmStartOnAppendedRows() {
+    for (GlrmRegularizer reg : new GlrmRegularizer[]{GlrmRegularizer.None, GlrmRegularizer.L1}) {
+      GLRMModel old = null, warm = null, cold = null;
+      Frame oldFr = null, fr = null;
+      try {
+        oldFr = lowRankFrame("glrm_old.hex", 1500);
+        fr = lowRankFrame("glrm_appended.hex", 2000);
+
+        GLRMParameters parms = new GLRMParameters();
+        parms._train = oldFr._key;
+        parms._k = 3;
+        parms._init = GlrmInitialization.SVD;
+        parms._svd_method = SVDParameters.Method.GramSVD;
+        parms._regularization_x = reg;
+        parms._gamma_x = reg == GlrmRegularizer.None ? 0 : 0.01;
+        parms._max_iterations = 300;
+        parms._seed = 1234;
+        old = new GLRM(parms).trainModel().get();
+
+        parms = (GLRMParameters) parms.clone();
+        parms._train = fr._key;
+        cold = new GLRM(parms).trainModel().get();
+
+        parms = (GLRMParameters) parms.clone();
+        parms._checkpoint = old._key;
+        warm = new GLRM(parms).trainModel().get();
+
+        Log.info("Regularization " + reg + ": objective old = " + old._output._objective + ", warm = " +
+                warm._output._objective + " (" + warm._output._iterations + " iterations), cold = " +
+                cold._output._objective + " (" + cold._output._iterations + " iterations)");
+        assertTrue(warm._output._iterations <= parms._refine_iterations);
+        assertEquals(fr.numRows(), DKV.<Frame>getGet(warm._output._representation_key).numRows());
+        // a few refinement iterations from the old solution get close to training from scratch
+        assertTrue(warm._output._objective <= 1.1 * cold._output._objective);
+        assertArrayEquals(old._output._normSub, warm._output._normSub, 0);
+      } finally {
+        for (GLRMModel m : new GLRMModel[]{old, warm, cold})
+          if (m != null) m.delete();
+        if (oldFr != null) oldFr.delete();
+        if (fr != null) fr.delete();
+      }
+    }
+  }
+
+  @Test public void testWarmStartValidation() {
+    GLRMModel old = null;
+    Frame oldFr = null, fr = null;
+    try {
+      oldFr = lowRankFrame("glrm_old.hex", 1500);
+      fr = lowRankFrame("glrm_fewer.hex", 1000);
+
+      GLRMParameters parms = new GLRMParameters();
+      parms._train = oldFr._key;
+      parms._k = 3;
+      parms._seed = 1234;
+      old = new GLRM(parms).trainModel().get();
+
+      parms = (GLRMParameters) parms.clone();
+      parms._train = fr._key;
+      parms._checkpoint = old._key;
+      GLRM glrm = new GLRM(parms);
+      assertTrue(glrm.validationErrors().contains("followed by the new rows"));
+
+      parms._train = oldFr._key;
+      parms._k = 2;
+      glrm = new GLRM(parms);
+      assertTrue(glrm.validationErrors().contains("k must be the same"));
+    } finally {
+      if (old != null) old.delete();
+      if (oldFr != null) oldFr.delete();
+      if (fr != null) fr.delete();
+    }
+  }
 }
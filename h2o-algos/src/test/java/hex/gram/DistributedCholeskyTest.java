@@ -0,0 +1,275 @@
+package hex.gram;
+
+import hex.glm.GLM;
+import hex.glm.GLMModel;
+import hex.glm.GLMModel.GLMParameters;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.H2O;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DistributedCholeskyTest extends TestUtil {
+
+  private static final String MIN_COLS_PROP = "sys.ai.h2o.glm.cholesky.distributed.minCols";
+  private static final String TILE_SIZE_PROP = "sys.ai.h2o.glm.cholesky.distributed.tileSize";
+  private static final String GATHER_MAX_COLS_PROP = "sys.ai.h2o.glm.cholesky.distributed.gatherMaxCols";
+
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  /** Diagonally dominant (hence SPD) symmetric matrix with zeros between the first diagN columns. */
+  private static double[][] makeSPD(int n, int diagN, long seed) {
+    Random rnd = new Random(seed);
+    double[][] b = new double[n][n];
+    for (double[] row : b)
+      for (int j = 0; j < n; ++j) row[j] = rnd.nextDouble();
+    double[][] m = new double[n][n];
+    for (int i = 0; i < n; ++i)
+      for (int j = 0; j < n; ++j) {
+        if (i != j && i < diagN && j < diagN) continue;
+        for (int k = 0; k < n; ++k) m[i][j] += b[i][k] * b[j][k] / n;
+      }
+    for (int i = 0; i < n; ++i) m[i][i] += n;
+    return m;
+  }
+
+  private static Gram makeGram(double[][] m, int diagN) {
+    int n = m.length;
+    Gram g = new Gram(n - 1, diagN, n - diagN - 1, diagN, true);
+    for (int i = 0; i < diagN; ++i) g._diag[i] = m[i][i];
+    for (int i = diagN; i < n; ++i)
+      for (int j = 0; j <= i; ++j) g._xx[i - diagN][j] = m[i][j];
+    return g;
+  }
+
+  private static double[][] lower(double[][] m) {
+    double[][] res = new double[m.length][];
+    for (int i = 0; i < m.length; ++i) res[i] = Arrays.copyOf(m[i], i + 1);
+    return res;
+  }
+
+  /** Gram.cholesky uses ForkJoin tasks and has to be called from within the H2O pool. */
+  private static Gram.Cholesky cholesky(Gram g) {
+    return cholesky(g, false);
+  }
+
+  private static Gram.Cholesky cholesky(final Gram g, final boolean keepDistributed) {
+    final Gram.Cholesky[] res = new Gram.Cholesky[1];
+    H2O.submitTask(new H2O.H2OCountedCompleter() {
+      @Override public void compute2() {
+        res[0] = g.cholesky(null, true, "", keepDistributed);
+        tryComplete();
+      }
+    }).join();
+    return res[0];
+  }
+
+  /** Inverse (or the diagonal of it as a single row), computed from within the H2O pool as well. */
+  private static double[][] inverse(final Gram.Cholesky chol, final boolean diagOnly) {
+    final double[][][] res = new double[1][][];
+    H2O.submitTask(new H2O.H2OCountedCompleter() {
+      @Override public void compute2() {
+        res[0] = diagOnly ? new double[][]{chol.getInvDiag()} : chol.getInv();
+        tryComplete();
+      }
+    }).join();
+    return res[0];
+  }
+
+  @Test
+  public void testSameAsLocalCholesky() {
+    double[][] m = makeSPD(37, 0, 42);
+    double[][] expected = Gram.InPlaceCholesky.decompose_2(lower(m), 10, 1).getL();
+    // tile sizes dividing and not dividing the dimension, single tile
+    for (int tile : new int[]{1, 5, 8, 37, 100}) {
+      DistributedCholesky dc = DistributedCholesky.factor(lower(m), 0, tile);
+      try {
+        assertTrue(dc.isSPD());
+        double[][] actual = new double[m.length][];
+        for (int i = 0; i < actual.length; ++i) actual[i] = new double[i + 1];
+        dc.gather(actual, 0);
+        for (int i = 0; i < actual.length; ++i)
+          assertArrayEquals("tile " + tile + ", row " + i, expected[i], actual[i], 1e-10);
+      } finally {
+        dc.remove();
+      }
+    }
+  }
+
+  @Test
+  public void testSolve() {
+    double[][] m = makeSPD(29, 0, 7);
+    DistributedCholesky dc = DistributedCholesky.factor(lower(m), 0, 6);
+    try {
+      Random rnd = new Random(1);
+      double[][] ys = new double[3][m.length];
+      for (double[] y : ys)
+        for (int i = 0; i < y.length; ++i) y[i] = rnd.nextGaussian();
+      double[][] xs = new double[ys.length][];
+      for (int r = 0; r < ys.length; ++r) xs[r] = ys[r].clone();
+      dc.solve(xs);
+      for (int r = 0; r < ys.length; ++r)
+        for (int i = 0; i < m.length; ++i) {
+          double d = 0;
+          for (int j = 0; j < m.length; ++j) d += m[i][j] * xs[r][j];
+          assertEquals(ys[r][i], d, 1e-10);
+        }
+    } finally {
+      dc.remove();
+    }
+  }
+
+  @Test
+  public void testGramSwitchesToDistributed() {
+    double[][] m = makeSPD(41, 6, 3);
+    Gram.Cholesky expected = cholesky(makeGram(m, 6));
+    System.setProperty(MIN_COLS_PROP, "10");
+    System.setProperty(TILE_SIZE_PROP, "7");
+    try {
+      Gram.Cholesky actual = cholesky(makeGram(m, 6));
+      assertTrue(actual.isSPD());
+      for (int i = 0; i < expected._xx.length; ++i)
+        assertArrayEquals(expected._xx[i], actual._xx[i], 1e-10);
+      assertArrayEquals(expected._diag, actual._diag, 0);
+      double[] y = new double[m.length];
+      for (int i = 0; i < y.length; ++i) y[i] = i - 20;
+      double[] y2 = y.clone();
+      expected.solve(y);
+      actual.solve(y2);
+      assertArrayEquals(y, y2, 1e-10);
+    } finally {
+      System.clearProperty(MIN_COLS_PROP);
+      System.clearProperty(TILE_SIZE_PROP);
+    }
+  }
+
+  @Test
+  public void testGramKeepsDistributed() {
+    double[][] m = makeSPD(41, 6, 3);
+    Gram.Cholesky expected = cholesky(makeGram(m, 6));
+    System.setProperty(MIN_COLS_PROP, "10");
+    System.setProperty(TILE_SIZE_PROP, "7");
+    System.setProperty(GATHER_MAX_COLS_PROP, "30");
+    Gram.Cholesky actual = null;
+    try {
+      // below the threshold the factor is gathered back
+      Gram.Cholesky gathered = cholesky(makeGram(makeSPD(25, 6, 3), 6), true);
+      assertFalse(gathered.isDistributed());
+
+      actual = cholesky(makeGram(m, 6), true);
+      assertTrue(actual.isDistributed());
+      assertTrue(actual.isSPD());
+      // only the diagonal*dense part is kept on this node
+      for (double[] row : actual._xx) assertEquals(6, row.length);
+      double[] y = new double[m.length];
+      for (int i = 0; i < y.length; ++i) y[i] = i - 20;
+      double[] y2 = y.clone();
+      expected.solve(y);
+      actual.solve(y2);
+      assertArrayEquals(y, y2, 1e-10);
+      double[][] inv = inverse(expected, false);
+      double[][] inv2 = inverse(actual, false);
+      for (int i = 0; i < inv.length; ++i)
+        assertArrayEquals(inv[i], inv2[i], 1e-10);
+      assertArrayEquals(inverse(expected, true)[0], inverse(actual, true)[0], 1e-10);
+      double[][] l = expected.getL();
+      double[][] l2 = actual.getL();
+      for (int i = 0; i < l.length; ++i)
+        assertArrayEquals(l[i], l2[i], 1e-10);
+    } finally {
+      if (actual != null) actual.remove();
+      System.clearProperty(MIN_COLS_PROP);
+      System.clearProperty(TILE_SIZE_PROP);
+      System.clearProperty(GATHER_MAX_COLS_PROP);
+    }
+  }
+
+  private static GLMModel trainGLM(Frame fr, double lambda) {
+    GLMParameters parms = new GLMParameters(GLMParameters.Family.poisson);
+    parms._train = fr._key;
+    parms._response_column = "y";
+    parms._standardize = false;
+    parms._lambda = new double[]{lambda};
+    parms._alpha = new double[]{0};
+    parms._compute_p_values = lambda == 0;
+    parms._max_iterations = 20;
+    GLMModel model = new GLM(parms).trainModel().get();
+    Scope.track_generic(model);
+    return model;
+  }
+
+  @Test
+  public void testGLMWithDistributedFactor() {
+    Scope.enter();
+    try {
+      Random rnd = new Random(11);
+      int cols = 14, rows = 400;
+      String[] names = new String[cols + 1];
+      byte[] types = new byte[cols + 1];
+      TestFrameBuilder b = new TestFrameBuilder().withName("dist_chol_glm");
+      double[] eta = new double[rows];
+      for (int c = 0; c < cols; ++c) {
+        names[c] = "x" + c;
+        types[c] = Vec.T_NUM;
+        double[] x = new double[rows];
+        for (int r = 0; r < rows; ++r) {
+          x[r] = rnd.nextDouble();
+          eta[r] += (c % 3 - 1) * 0.3 * x[r];
+        }
+        b.withDataForCol(c, x);
+      }
+      double[] y = new double[rows];
+      for (int r = 0; r < rows; ++r) y[r] = Math.round(Math.exp(eta[r]) + rnd.nextDouble());
+      names[cols] = "y";
+      types[cols] = Vec.T_NUM;
+      Frame fr = Scope.track(b.withColNames(names).withVecTypes(types).withDataForCol(cols, y).build());
+
+      GLMModel local = trainGLM(fr, 0);
+      GLMModel localPen = trainGLM(fr, 1e-3);
+      System.setProperty(MIN_COLS_PROP, "8");
+      System.setProperty(TILE_SIZE_PROP, "4");
+      System.setProperty(GATHER_MAX_COLS_PROP, "8");
+      try {
+        // the p-values come from the decomposition kept distributed by the last iteration
+        GLMModel dist = trainGLM(fr, 0);
+        assertArrayEquals(local.beta(), dist.beta(), 1e-8);
+        assertArrayEquals(local._output.pValues(), dist._output.pValues(), 1e-8);
+        GLMModel distPen = trainGLM(fr, 1e-3);
+        assertArrayEquals(localPen.beta(), distPen.beta(), 1e-8);
+      } finally {
+        System.clearProperty(MIN_COLS_PROP);
+        System.clearProperty(TILE_SIZE_PROP);
+        System.clearProperty(GATHER_MAX_COLS_PROP);
+      }
+    } finally {
+      Scope.exit(); // the tiles were freed by GLM, nothing else may leak
+    }
+  }
+
+  @Test
+  public void testNonSPD() {
+    double[][] m = makeSPD(20, 0, 5);
+    m[17][17] = -1;
+    DistributedCholesky dc = DistributedCholesky.factor(lower(m), 0, 4);
+    try {
+      assertFalse(dc.isSPD());
+      try {
+        dc.solve(new double[1][m.length]);
+        fail("Expected NonSPDMatrixException");
+      } catch (Gram.NonSPDMatrixException e) {
+        // expected
+      }
+    } finally {
+      dc.remove();
+    }
+  }
+}
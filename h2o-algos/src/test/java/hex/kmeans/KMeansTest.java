@@ -357,6 +357,146 @@ public class KMeansTest extends TestUtil {
     }
   }
 
+  // Triangle inequality bounds must not change the clustering, only skip distance computations
+  @Test public void testBoundsPruning() {
+    Scope.enter();
+    try {
+      Random rng = new Random(0xC0FFEE);
+      double[][] blobs = new double[25][4];
+      for (double[] blob : blobs)
+        for (int j = 0; j < blob.length; j++) blob[j] = 20 * rng.nextDouble();
+      double[][] rows = new double[20000][5];
+      for (double[] row : rows) {
+        int b = rng.nextInt(blobs.length);
+        for (int j = 0; j < 4; j++) row[j] = blobs[b][j] + rng.nextGaussian();
+        row[4] = b % 3; // categorical column
+      }
+      Frame fr = ArrayUtils.frame(Key.<Frame>make("bounds_pruning"), null, rows);
+      fr.replace(4, fr.vec(4).toCategoricalVec()).remove();
+      DKV.put(fr);
+      Scope.track(fr);
+
+      for (boolean estimate_k : new boolean[]{false, true}) {
+        KMeansModel.KMeansParameters parms = new KMeansModel.KMeansParameters();
+        parms._train = fr._key;
+        parms._k = 25;
+        parms._estimate_k = estimate_k;
+        parms._max_iterations = 20;
+        parms._init = KMeans.Initialization.PlusPlus;
+        parms._seed = 1234;
+        parms._bounds_pruning = false;
+        KMeansModel plain = new KMeans(parms).trainModel().get();
+        Scope.track_generic(plain);
+        parms._bounds_pruning = true;
+        KMeansModel pruned = new KMeans(parms).trainModel().get();
+        Scope.track_generic(pruned);
+
+        assertArrayEquals(plain._output._k, pruned._output._k);
+        assertArrayEquals(plain._output._size, pruned._output._size);
+        assertArrayEquals(plain._output._history_withinss, pruned._output._history_withinss, 0);
+        assertArrayEquals(plain._output._reassigned_count, pruned._output._reassigned_count, 0);
+        for (int i = 0; i < plain._output._centers_raw.length; i++)
+          assertArrayEquals(plain._output._centers_raw[i], pruned._output._centers_raw[i], 0);
+
+        assertEquals(1, plain._output._distance_speedup, 0);
+        Assert.assertTrue(pruned._output._distance_speedup > 2);
+        double[] fraction = pruned._output._pruned_distance_fraction;
+        Assert.assertTrue(fraction[fraction.length-1] > 0.5);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void testMiniBatch() {
+    Scope.enter();
+    try {
+      Random rng = new Random(42);
+      double[][] blobs = new double[10][3];
+      for (double[] blob : blobs)
+        for (int j = 0; j < blob.length; j++) blob[j] = 50 * rng.nextDouble();
+      double[][] rows = new double[50000][4];
+      for (double[] row : rows) {
+        int b = rng.nextInt(blobs.length);
+        for (int j = 0; j < 3; j++) row[j] = blobs[b][j] + rng.nextGaussian();
+        row[3] = b % 2; // categorical column
+      }
+      Frame fr = ArrayUtils.frame(Key.<Frame>make("mini_batch"), null, rows);
+      fr.replace(3, fr.vec(3).toCategoricalVec()).remove();
+      DKV.put(fr);
+      Scope.track(fr);
+
+      KMeansModel.KMeansParameters parms = new KMeansModel.KMeansParameters();
+      parms._train = fr._key;
+      parms._k = 10;
+      parms._max_iterations = 20;
+      parms._init = KMeans.Initialization.PlusPlus;
+      parms._seed = 1234;
+      KMeansModel full = new KMeans(parms).trainModel().get();
+      Scope.track_generic(full);
+
+      parms._mini_batch_size = 500;
+      KMeansModel mini = new KMeans(parms).trainModel().get();
+      Scope.track_generic(mini);
+      assertEquals(20, mini._output._iterations);
+      assertEquals(21, mini._output._history_withinss.length);
+      // the last scoring history row has the exact tot_withinss of the final centers, not the mini-batch estimate
+      assertEquals(mini._output._tot_withinss, mini._output._history_withinss[20], 0);
+      assertEquals(mini._output._tot_withinss, (Double) mini._output._scoring_history.get(20, 4), 0);
+      assertEquals(fr.numRows(), ArrayUtils.sum(mini._output._size));
+      Assert.assertTrue("Mini-batch withinss " + mini._output._tot_withinss + " vs full " + full._output._tot_withinss,
+              mini._output._tot_withinss < 1.1 * full._output._tot_withinss);
+
+      Frame preds = Scope.track(mini.score(fr));
+      Assert.assertTrue(mini.testJavaScoring(fr, preds, 1e-15));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void testPlusPlusParallel() {
+    Scope.enter();
+    try {
+      Random rng = new Random(7);
+      double[][] blobs = new double[20][3];
+      for (double[] blob : blobs)
+        for (int j = 0; j < blob.length; j++) blob[j] = 100 * rng.nextDouble();
+      double[][] rows = new double[20000][4];
+      for (double[] row : rows) {
+        int b = rng.nextInt(blobs.length);
+        for (int j = 0; j < 3; j++) row[j] = blobs[b][j] + rng.nextGaussian();
+        row[3] = b % 4; // categorical column
+      }
+      Frame fr = ArrayUtils.frame(Key.<Frame>make("plus_plus_parallel"), null, rows);
+      fr.replace(3, fr.vec(3).toCategoricalVec()).remove();
+      DKV.put(fr);
+      Scope.track(fr);
+
+      KMeansModel.KMeansParameters parms = new KMeansModel.KMeansParameters();
+      parms._train = fr._key;
+      parms._k = 20;
+      parms._standardize = false;
+      parms._max_iterations = 1;
+      parms._init = KMeans.Initialization.PlusPlusParallel;
+      parms._seed = 0xDECAF;
+      KMeansModel kmm = doSeed(parms, parms._seed);
+      Scope.track_generic(kmm);
+      // The initial centers already find the blobs: within sum of squares ~ 3 * rows (unit variance noise)
+      Assert.assertTrue("withinss " + kmm._output._tot_withinss, kmm._output._tot_withinss < 4 * rows.length);
+
+      // Fewer rows than the oversampled candidates
+      Frame tiny = Scope.track(ArrayUtils.frame(ard(d(1,0),d(0,0),d(-1,0),d(4,0),d(1,0),d(2,0))));
+      parms._train = tiny._key;
+      parms._k = 3;
+      parms._max_iterations = 10;
+      KMeansModel tinyModel = doSeed(parms, 42);
+      Scope.track_generic(tinyModel);
+      assertEquals(3, tinyModel._output._centers_raw.length);
+    } finally {
+      Scope.exit();
+    }
+  }
+
   // Negative test - expect to throw IllegalArgumentException
   @Test (expected = H2OModelBuilderIllegalArgumentException.class) public void testTooManyK() {
     Frame fr = ArrayUtils.frame(ard(d(1,0),d(0,0),d(1,0),d(2,0),d(0,0),d(0,0)));
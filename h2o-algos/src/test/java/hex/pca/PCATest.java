@@ -1,7 +1,11 @@
 package hex.pca;
 
 import hex.DataInfo;
+import hex.Model;
+import hex.PreprocessingCache;
 import hex.SplitFrame;
+import hex.grid.Grid;
+import hex.grid.GridSearch;
 import hex.pca.PCAModel.PCAParameters;
 import org.junit.Assert;
 import org.junit.Before;
@@ -13,13 +17,18 @@ import org.junit.runners.Parameterized.Parameter;
 import org.junit.runners.Parameterized.Parameters;
 import water.DKV;
 import water.Key;
+import water.MRTask;
 import water.Scope;
 import water.TestUtil;
+import water.fvec.Chunk;
 import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
 import water.fvec.Vec;
 import water.util.ArrayUtils;
 import water.util.FrameUtils;
 
+import java.util.HashMap;
+import java.util.Random;
 import java.util.concurrent.ExecutionException;
 
 @RunWith(Parameterized.class)
@@ -325,6 +334,117 @@ public class PCATest extends TestUtil {
     }
   }
 
+  /* RandomizedTSQR on an (almost) low rank frame split into many chunks should match GramSVD */
+  @Test public void testRandomizedTSQRMatchesGramSVD() throws InterruptedException, ExecutionException {
+    final int rows = 2000, cols = 40, rank = 4;
+    PCAModel gram = null, tsqr = null;
+    Frame train = null;
+    Vec template = null;
+    try {
+      final double[][] vt = ArrayUtils.gaussianArray(rank, cols, 42);
+      template = Vec.makeCon(0, rows, 8, false);
+      train = new Frame(Key.<Frame>make("pca_low_rank.hex"), null, template.makeZeros(cols));
+      new MRTask() {
+        @Override public void map(Chunk[] cs) {
+          for (int r = 0; r < cs[0]._len; r++) {
+            Random rnd = new Random(cs[0].start() + r);
+            double[] u = new double[rank];
+            for (int k = 0; k < rank; k++) u[k] = (rank - k) * 10 * rnd.nextGaussian();
+            for (int j = 0; j < cs.length; j++) {
+              double x = j + 1e-3 * rnd.nextGaussian(); // non-zero means, removed by the demeaning
+              for (int k = 0; k < rank; k++) x += u[k] * vt[k][j];
+              cs[j].set(r, x);
+            }
+          }
+        }
+      }.doAll(train);
+      DKV.put(train);
+      Assert.assertTrue(train.anyVec().nChunks() > 1);
+
+      pcaParameters._train = train._key;
+      pcaParameters._k = rank;
+      pcaParameters._seed = 1234;
+      pcaParameters._transform = DataInfo.TransformType.DEMEAN;
+      pcaParameters._pca_method = PCAParameters.Method.GramSVD;
+      gram = new PCA(pcaParameters).trainModel().get();
+
+      pcaParameters._pca_method = PCAParameters.Method.RandomizedTSQR;
+      tsqr = new PCA(pcaParameters).trainModel().get(); // passes the memory check without forming a gram
+
+      TestUtil.checkStddev(gram._output._std_deviation, tsqr._output._std_deviation, 1e-6);
+      TestUtil.checkEigvec(gram._output._eigenvectors, tsqr._output._eigenvectors, 1e-6);
+      // GramSVD takes the total variance from the gram, RandomizedTSQR from the SVD
+      Assert.assertEquals(gram._output._total_variance, tsqr._output._total_variance,
+              1e-6 * gram._output._total_variance);
+    } finally {
+      if (train != null) train.delete();
+      if (template != null) template.remove();
+      if (gram != null) gram.delete();
+      if (tsqr != null) tsqr.delete();
+    }
+  }
+
+  @Test public void testSharedDataInfoInGrid() {
+    Grid grid = null;
+    Frame train = null;
+    PCAModel single = null;
+    PreprocessingCache cache = new PreprocessingCache();
+    try {
+      Random rng = new Random(21);
+      double[] x1 = new double[200], x2 = new double[200], x3 = new double[200];
+      String[] c = new String[200];
+      for (int i = 0; i < x1.length; i++) {
+        x1[i] = i % 25 == 0 ? Double.NaN : rng.nextGaussian();
+        x2[i] = 2 * rng.nextGaussian() + 1;
+        x3[i] = x2[i] + rng.nextGaussian();
+        c[i] = "L" + rng.nextInt(3);
+      }
+      train = new TestFrameBuilder()
+          .withName("pca_shared")
+          .withColNames("x1", "x2", "x3", "c")
+          .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_NUM, Vec.T_CAT)
+          .withDataForCol(0, x1)
+          .withDataForCol(1, x2)
+          .withDataForCol(2, x3)
+          .withDataForCol(3, c)
+          .build();
+
+      HashMap<String, Object[]> hyperParms = new HashMap<>();
+      hyperParms.put("_k", new Integer[]{1, 2});
+
+      pcaParameters._train = train._key;
+      pcaParameters._transform = DataInfo.TransformType.STANDARDIZE;
+      pcaParameters._pca_method = PCAParameters.Method.GramSVD;
+      pcaParameters._preprocessing_cache = cache;
+      grid = GridSearch.startGridSearch(null, pcaParameters, hyperParms).get();
+      Assert.assertEquals(2, grid.getModelCount());
+
+      // the DataInfos of the frame with and without the rows with NAs were made once
+      Assert.assertEquals(2, cache.misses());
+      Assert.assertEquals(2, cache.hits());
+
+      // same model as with DataInfos of its own
+      PCAParameters p = (PCAParameters) pcaParameters.clone();
+      p._preprocessing_cache = null;
+      p._k = 2;
+      single = new PCA(p).trainModel().get();
+      PCAModel fromGrid = null;
+      for (Model m : grid.getModels())
+        if (((PCAModel) m)._parms._k == 2) fromGrid = (PCAModel) m;
+      Assert.assertNotNull(fromGrid);
+      Assert.assertArrayEquals(single._output._std_deviation, fromGrid._output._std_deviation, 1e-10);
+      TestUtil.checkEigvec(single._output._eigenvectors, fromGrid._output._eigenvectors, 1e-10);
+    } finally {
+      cache.release();
+      if (train != null) train.delete();
+      if (grid != null) {
+        for (Model m : grid.getModels()) m.delete();
+        grid.remove();
+      }
+      if (single != null) single.delete();
+    }
+  }
+
   @Test public void testGram() {
     double[][] x = ard(ard(1, 2, 3), ard(4, 5, 6));
     double[][] xgram = ard(ard(17, 22, 27), ard(22, 29, 36), ard(27, 36, 45));  // X'X
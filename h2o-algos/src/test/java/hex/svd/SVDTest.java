@@ -11,14 +11,18 @@ import org.junit.Test;
 import org.junit.Ignore;
 import water.DKV;
 import water.Key;
+import water.MRTask;
 import water.Scope;
 import water.TestUtil;
+import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.Vec;
+import water.util.ArrayUtils;
 import water.util.FrameUtils;
 import water.util.Log;
 
 import java.util.Arrays;
+import java.util.Random;
 import java.util.concurrent.ExecutionException;
 
 public class SVDTest extends TestUtil {
@@ -435,4 +439,56 @@ public class SVDTest extends TestUtil {
     }
   }
 
+  /* RandomizedTSQR on a wide, (almost) low rank frame split into many chunks should match GramSVD */
+  @Test public void testRandomizedTSQRWideLowRank() throws InterruptedException, ExecutionException {
+    final int rows = 2000, cols = 300, rank = 5;
+    SVDModel gram = null, tsqr = null;
+    Frame train = null;
+    Vec template = null;
+    try {
+      final double[][] vt = ArrayUtils.gaussianArray(rank, cols, 42);
+      template = Vec.makeCon(0, rows, 8, false);
+      train = new Frame(Key.<Frame>make("wide_low_rank.hex"), null, template.makeZeros(cols));
+      new MRTask() {
+        @Override public void map(Chunk[] cs) {
+          for (int r = 0; r < cs[0]._len; r++) {
+            Random rnd = new Random(cs[0].start() + r);
+            double[] u = new double[rank];
+            for (int k = 0; k < rank; k++) u[k] = (rank - k) * 10 * rnd.nextGaussian();
+            for (int j = 0; j < cs.length; j++) {
+              double x = 1e-3 * rnd.nextGaussian();
+              for (int k = 0; k < rank; k++) x += u[k] * vt[k][j];
+              cs[j].set(r, x);
+            }
+          }
+        }
+      }.doAll(train);
+      DKV.put(train);
+      Assert.assertTrue(train.anyVec().nChunks() > 1);
+
+      SVDParameters parms = new SVDParameters();
+      parms._train = train._key;
+      parms._nv = rank;
+      parms._seed = 1234;
+      parms._transform = DataInfo.TransformType.NONE;
+      parms._save_v_frame = false;
+      parms._svd_method = SVDParameters.Method.GramSVD;
+      gram = new SVD(parms).trainModel().get();
+
+      parms._svd_method = SVDParameters.Method.RandomizedTSQR;
+      tsqr = new SVD(parms).trainModel().get();
+
+      for (int k = 0; k < rank; k++)
+        Assert.assertEquals(gram._output._d[k], tsqr._output._d[k], 1e-6 * gram._output._d[k]);
+      TestUtil.checkEigvec(gram._output._v, tsqr._output._v, 1e-6);
+      Assert.assertEquals(gram._output._total_variance, tsqr._output._total_variance, 1e-6 * gram._output._total_variance);
+      Assert.assertEquals(gram._output._nobs, tsqr._output._nobs);
+    } finally {
+      if (train != null) train.delete();
+      if (template != null) template.remove();
+      if (gram != null) gram.delete();
+      if (tsqr != null) tsqr.delete();
+    }
+  }
+
 }
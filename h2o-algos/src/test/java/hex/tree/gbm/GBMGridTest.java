@@ -1,9 +1,11 @@
 package hex.tree.gbm;
 
+import hex.CVFoldCache;
 import hex.Model;
 import hex.genmodel.utils.DistributionFamily;
 import hex.grid.Grid;
 import hex.grid.GridSearch;
+import hex.grid.HyperSpaceSearchCriteria;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -12,6 +14,7 @@ import water.Job;
 import water.Key;
 import water.TestUtil;
 import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
 import water.fvec.Vec;
 import water.test.util.GridTestUtils;
 import water.util.ArrayUtils;
@@ -328,4 +331,129 @@ public class GBMGridTest extends TestUtil {
       if (gbmRebuilt != null) gbmRebuilt.remove();
     }
   }
+
+  @Test
+  public void testSuccessiveHalvingGrid() {
+    Grid grid = null;
+    Frame fr = null;
+    try {
+      fr = regressionFrame("sh_train", 42);
+
+      HashMap<String, Object[]> hyperParms = new HashMap<>();
+      hyperParms.put("_max_depth", new Integer[]{1, 2, 3, 4, 5});
+      hyperParms.put("_learn_rate", new Double[]{0.01, 0.05, 0.1, 0.3});
+
+      GBMModel.GBMParameters params = new GBMModel.GBMParameters();
+      params._train = fr._key;
+      params._response_column = "y";
+      params._ntrees = 27;
+      params._seed = 42;
+      // would stop all the candidates after a few trees
+      params._stopping_rounds = 2;
+      params._stopping_tolerance = 0.5;
+      params._score_tree_interval = 1;
+
+      HyperSpaceSearchCriteria.SuccessiveHalvingSearchCriteria criteria = new HyperSpaceSearchCriteria.SuccessiveHalvingSearchCriteria();
+      criteria.set_max_models(9);
+      criteria.set_seed(42);
+      grid = GridSearch.startGridSearch(null, params, hyperParms,
+          new GridSearch.SimpleParametersBuilderFactory<GBMModel.GBMParameters>(), criteria).get();
+
+      // rungs of 9, 3 and 1 candidates with 3, 9 and 27 trees, every promoted candidate replaces its previous model
+      Model[] ms = grid.getModels();
+      Assert.assertEquals(9, ms.length);
+      int[] byTrees = new int[28];
+      GBMModel best = null;
+      for (Model m : ms) {
+        GBMModel gbm = (GBMModel) m;
+        byTrees[gbm._parms._ntrees]++;
+        if (gbm._parms._ntrees == 27) {
+          best = gbm;
+        } else {
+          // no early stopping below the last rung, the candidates of a rung get the same budget
+          Assert.assertEquals(0, gbm._parms._stopping_rounds);
+          Assert.assertEquals(gbm._parms._ntrees, gbm._output._ntrees);
+        }
+      }
+      Assert.assertEquals(6, byTrees[3]);
+      Assert.assertEquals(2, byTrees[9]);
+      Assert.assertEquals(1, byTrees[27]);
+      Assert.assertEquals(2, best._parms._stopping_rounds);
+      Assert.assertNotNull(best._parms._checkpoint);
+    } finally {
+      if (fr != null) fr.remove();
+      if (grid != null) grid.remove();
+    }
+  }
+
+  @Test
+  public void testSharedCrossValidationFolds() {
+    Grid grid = null;
+    Frame fr = null;
+    GBMModel single = null;
+    CVFoldCache cache = new CVFoldCache();
+    try {
+      fr = regressionFrame("cv_train", 7);
+
+      HashMap<String, Object[]> hyperParms = new HashMap<>();
+      hyperParms.put("_max_depth", new Integer[]{2, 3});
+      hyperParms.put("_learn_rate", new Double[]{0.1, 0.3});
+
+      GBMModel.GBMParameters params = new GBMModel.GBMParameters();
+      params._train = fr._key;
+      params._response_column = "y";
+      params._ntrees = 5;
+      params._nfolds = 3;
+      params._seed = 7;
+      params._cv_fold_cache = cache;
+      grid = GridSearch.startGridSearch(null, params, hyperParms).get();
+      Assert.assertEquals(4, grid.getModelCount());
+
+      // the folds were made for the first candidate only
+      Assert.assertEquals(1, cache.misses());
+      Assert.assertEquals(3, cache.hits());
+      Assert.assertTrue(cache.savedBytes() > 0);
+
+      // same cross-validation metrics as with folds of its own
+      GBMModel.GBMParameters p = (GBMModel.GBMParameters) params.clone();
+      p._cv_fold_cache = null;
+      p._max_depth = 3;
+      p._learn_rate = 0.3;
+      single = new GBM(p).trainModel().get();
+      GBMModel fromGrid = null;
+      for (Model m : grid.getModels())
+        if (((GBMModel) m)._parms._max_depth == 3 && ((GBMModel) m)._parms._learn_rate == 0.3) fromGrid = (GBMModel) m;
+      Assert.assertNotNull(fromGrid);
+      Assert.assertEquals(single._output._cross_validation_metrics._MSE, fromGrid._output._cross_validation_metrics._MSE, 1e-8);
+    } finally {
+      cache.close();
+      if (fr != null) fr.remove();
+      if (grid != null) {
+        for (Model m : grid.getModels()) m.deleteCrossValidationModels();
+        grid.remove();
+      }
+      if (single != null) {
+        single.deleteCrossValidationModels();
+        single.remove();
+      }
+    }
+  }
+
+  private static Frame regressionFrame(String name, long seed) {
+    Random rng = new Random(seed);
+    double[] x1 = new double[400], x2 = new double[400], y = new double[400];
+    for (int i = 0; i < y.length; i++) {
+      x1[i] = rng.nextDouble();
+      x2[i] = rng.nextDouble();
+      y[i] = 3 * x1[i] + Math.sin(6 * x2[i]) + 0.1 * rng.nextGaussian();
+    }
+    return new TestFrameBuilder()
+        .withName(name)
+        .withColNames("x1", "x2", "y")
+        .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+        .withDataForCol(0, x1)
+        .withDataForCol(1, x2)
+        .withDataForCol(2, y)
+        .build();
+  }
 }
@@ -12,9 +12,11 @@ import org.junit.Test;
 import water.*;
 import water.fvec.Frame;
 import water.fvec.RebalanceDataSet;
+import water.fvec.TestFrameBuilder;
 import water.fvec.Vec;
 import water.parser.ParseDataset;
 import water.util.Log;
+import water.util.VecUtils;
 
 import static water.parser.ParserTest.makeByteVec;
 
@@ -518,4 +520,111 @@ public class AggregatorTest extends TestUtil {
       agg.remove();
     }
   }
+
+  @Test public void testStreaming() {
+    for (Model.Parameters.CategoricalEncodingScheme enc : new Model.Parameters.CategoricalEncodingScheme[]{
+        Model.Parameters.CategoricalEncodingScheme.AUTO, Model.Parameters.CategoricalEncodingScheme.Enum}) {
+      CreateFrame cf = new CreateFrame();
+      cf.rows = 100000;
+      cf.cols = 5;
+      cf.categorical_fraction = 0.2;
+      cf.integer_fraction = 0.2;
+      cf.factors = 4;
+      cf.real_range = 100;
+      cf.integer_range = 100;
+      cf.missing_fraction = 0.01;
+      cf.seed = 1234;
+      Frame frame = cf.execImpl().get();
+
+      AggregatorModel.AggregatorParameters parms = new AggregatorModel.AggregatorParameters();
+      parms._train = frame._key;
+      parms._categorical_encoding = enc;
+      parms._target_num_exemplars = 500;
+      parms._streaming = true;
+      parms._exemplar_budget = 1000;
+      long start = System.currentTimeMillis();
+      AggregatorModel agg = new Aggregator(parms).trainModel().get();
+      System.out.println("Streaming AggregatorModel (" + enc + ") finished in: " + (System.currentTimeMillis() - start)/1000. + " seconds");
+      agg.checkConsistency();
+      // every exemplar represents at least its own row
+      for (long c : agg._counts) Assert.assertTrue(c > 0);
+      Frame output = agg._output._output_frame.get();
+      checkNumExemplars(agg);
+      output.remove();
+      frame.delete();
+      agg.remove();
+    }
+
+    // more categorical levels than the exemplar budget: the budget is a hard cap, the smallest exemplars are merged
+    // into exemplars of other levels
+    CreateFrame cf = new CreateFrame();
+    cf.rows = 20000;
+    cf.cols = 2;
+    cf.categorical_fraction = 0.5;
+    cf.integer_fraction = 0;
+    cf.binary_fraction = 0;
+    cf.factors = 5000;
+    cf.real_range = 100;
+    cf.missing_fraction = 0;
+    cf.seed = 1234;
+    Frame frame = cf.execImpl().get();
+    Vec cat = null;
+    for (Vec v : frame.vecs()) if (v.isCategorical()) cat = v;
+    int levels = new VecUtils.CollectDomainFast((int) cat.max()).doAll(cat).domain().length;
+
+    AggregatorModel.AggregatorParameters parms = new AggregatorModel.AggregatorParameters();
+    parms._train = frame._key;
+    parms._categorical_encoding = Model.Parameters.CategoricalEncodingScheme.Enum;
+    parms._target_num_exemplars = 100;
+    parms._streaming = true;
+    parms._exemplar_budget = 200;
+    AggregatorModel agg = new Aggregator(parms).trainModel().get();
+    agg.checkConsistency();
+    Assert.assertTrue(levels > parms._exemplar_budget);
+    checkNumExemplars(agg);
+    long rows = 0;
+    for (long c : agg._counts) { Assert.assertTrue(c > 0); rows += c; }
+    Assert.assertEquals(frame.numRows(), rows);
+    agg._output._output_frame.get().remove();
+    frame.delete();
+    agg.remove();
+  }
+
+  @Test public void testStreamingAllMissing() {
+    // half of the rows have all numericals missing, they are all at distance 0 from each other
+    final int nrows = 20000;
+    double[][] cols = new double[3][nrows];
+    java.util.Random rnd = new java.util.Random(42);
+    for (int r = 0; r < nrows; r++)
+      for (int c = 0; c < cols.length; c++)
+        cols[c][r] = r % 2 == 0 ? Double.NaN : 100 * rnd.nextDouble();
+    Frame frame = new TestFrameBuilder()
+        .withName("allMissing")
+        .withColNames("x", "y", "z")
+        .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_NUM)
+        .withDataForCol(0, cols[0])
+        .withDataForCol(1, cols[1])
+        .withDataForCol(2, cols[2])
+        .withChunkLayout(5000, 5000, 5000, 5000)
+        .build();
+
+    AggregatorModel.AggregatorParameters parms = new AggregatorModel.AggregatorParameters();
+    parms._train = frame._key;
+    parms._transform = DataInfo.TransformType.NONE;
+    parms._target_num_exemplars = 100;
+    parms._streaming = true;
+    parms._exemplar_budget = 200;
+    AggregatorModel agg = new Aggregator(parms).trainModel().get();
+    agg.checkConsistency();
+    checkNumExemplars(agg);
+    // all of them are assigned to a single exemplar
+    Vec assignment = agg._exemplar_assignment_vec_key.get();
+    java.util.HashSet<Long> missingExemplars = new java.util.HashSet<>();
+    for (int r = 0; r < nrows; r += 2)
+      missingExemplars.add(assignment.at8(r));
+    Assert.assertEquals(1, missingExemplars.size());
+    agg._output._output_frame.get().remove();
+    frame.delete();
+    agg.remove();
+  }
 }
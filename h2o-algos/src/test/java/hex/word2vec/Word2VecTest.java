@@ -1,5 +1,9 @@
 package hex.word2vec;
 
+import hex.genmodel.ModelMojoReader;
+import hex.schemas.Word2VecModelV3;
+import hex.genmodel.MojoReaderBackendFactory;
+import hex.genmodel.algos.word2vec.Word2VecMojoModel;
 import org.junit.*;
 import water.DKV;
 import water.Key;
@@ -12,6 +16,8 @@ import water.parser.BufferedString;
 import water.util.ArrayUtils;
 import water.util.Log;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.*;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -67,6 +73,76 @@ public class Word2VecTest extends TestUtil {
     }
   }
 
+  @Test
+  public void testW2V_SG_NegSampling() {
+    // two groups of words, the words of a group only appear in a sentence together
+    Random r = new Random(42);
+    String[] words = new String[2000 * 11];
+    for (int s = 0; s < 2000; s++) {
+      String group = s % 2 == 0 ? "a" : "b";
+      for (int i = 0; i < 10; i++)
+        words[s * 11 + i] = group + r.nextInt(10);
+      words[s * 11 + 10] = null; // end of sentence
+    }
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(new TestFrameBuilder()
+              .withName("w2v-neg-sampling")
+              .withColNames("Words")
+              .withVecTypes(Vec.T_STR)
+              .withDataForCol(0, words)
+              .withChunkLayout(5500, 5500, 5500, 5500)
+              .build());
+
+      Word2VecModel.Word2VecParameters p = new Word2VecModel.Word2VecParameters();
+      p._train = fr._key;
+      p._norm_model = Word2Vec.NormModel.NegSampling;
+      p._negative_samples = 5;
+      p._vec_size = 10;
+      p._window_size = 3;
+      p._sent_sample_rate = 0;
+      p._epochs = 5;
+
+      Word2VecModel w2vm = (Word2VecModel) Scope.track_generic(new Word2Vec(p).trainModel().get());
+      assertEquals(20, w2vm._output._words.length);
+
+      for (String group : new String[]{"a", "b"}) {
+        Map<String, Float> hm = w2vm.findSynonyms(group + "0", 9);
+        logResults(hm);
+        for (String synonym : hm.keySet())
+          assertTrue(synonym + " is not in group " + group, synonym.startsWith(group));
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testWeightsUpdateAverage() {
+    WordVectorTrainer.WeightsUpdate a = new WordVectorTrainer.WeightsUpdate();
+    a._rows0 = new int[]{0, 2};
+    a._delta0 = new float[]{1, 1, 2, 2};
+    a._rows1 = new int[0];
+    a._delta1 = new float[0];
+    WordVectorTrainer.WeightsUpdate b = new WordVectorTrainer.WeightsUpdate();
+    b._rows0 = new int[]{2, 3};
+    b._delta0 = new float[]{4, 4, 8, 8};
+    b._rows1 = new int[]{1};
+    b._delta1 = new float[]{4, 4};
+
+    WordVectorTrainer.WeightsUpdate avg = WordVectorTrainer.WeightsUpdate.average(a, b, 0.25f, 2);
+    assertArrayEquals(new int[]{0, 2, 3}, avg._rows0);
+    assertArrayEquals(new float[]{0.75f, 0.75f, 2.5f, 2.5f, 2, 2}, avg._delta0, 0);
+    assertArrayEquals(new int[]{1}, avg._rows1);
+    assertArrayEquals(new float[]{1, 1}, avg._delta1, 0);
+
+    float[] syn0 = new float[8];
+    float[] syn1 = new float[8];
+    avg.applyTo(syn0, syn1, 2);
+    assertArrayEquals(new float[]{0.75f, 0.75f, 0, 0, 2.5f, 2.5f, 2, 2}, syn0, 0);
+    assertArrayEquals(new float[]{0, 0, 1, 1, 0, 0, 0, 0}, syn1, 0);
+  }
+
   @Test
   public void testW2V_pretrained() {
     String[] words = new String[1000];
@@ -104,6 +180,88 @@ public class Word2VecTest extends TestUtil {
     }
   }
 
+  @Test
+  public void testW2V_synonymIndex() throws Exception {
+    final int vecSize = 20;
+    Random r = new Random(42);
+    String[] words = new String[2000];
+    double[][] vecs = new double[vecSize][words.length];
+    for (int i = 0; i < words.length; i++) {
+      words[i] = "word" + i;
+      for (int j = 0; j < vecSize; j++)
+        vecs[j][i] = r.nextGaussian();
+    }
+    String[] colNames = new String[vecSize + 1];
+    byte[] vecTypes = new byte[vecSize + 1];
+    colNames[0] = "Word";
+    vecTypes[0] = Vec.T_STR;
+    for (int j = 0; j < vecSize; j++) {
+      colNames[j + 1] = "V" + (j + 1);
+      vecTypes[j + 1] = Vec.T_NUM;
+    }
+    Scope.enter();
+    TestFrameBuilder builder = new TestFrameBuilder()
+            .withName("w2v-pretrained-random")
+            .withColNames(colNames)
+            .withVecTypes(vecTypes)
+            .withDataForCol(0, words);
+    for (int j = 0; j < vecSize; j++)
+      builder = builder.withDataForCol(j + 1, vecs[j]);
+    Frame pretrained = Scope.track(builder.build());
+    try {
+      Word2VecModel.Word2VecParameters p = new Word2VecModel.Word2VecParameters();
+      p._vec_size = vecSize;
+      p._pre_trained = pretrained._key;
+      p._synonym_index_trees = 10;
+
+      Word2VecModel w2vm = (Word2VecModel) Scope.track_generic(new Word2Vec(p).trainModel().get());
+      assertNotNull(w2vm._output._synonymIndex);
+      assertEquals(10, w2vm._output._synonymIndex.getNumTrees());
+      assertTrue("recall = " + w2vm._output._synonymIndexRecall, w2vm._output._synonymIndexRecall > 0.9);
+
+      // batch queries give the same results as single queries
+      String[] targets = {"word0", "word1", "word999", "word1999", "no-such-word"};
+      List<Map<String, Float>> batch = w2vm.findSynonyms(targets, 10);
+      assertEquals(targets.length, batch.size());
+      for (int i = 0; i < targets.length; i++)
+        assertEquals(w2vm.findSynonyms(targets[i], 10), batch.get(i));
+      assertTrue(batch.get(4).isEmpty());
+      assertEquals(10, batch.get(0).size());
+      assertFalse(batch.get(0).containsKey("word0"));
+
+      // MOJO contains the index and gives the same synonyms
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      w2vm.getMojo().writeTo(os);
+      Word2VecMojoModel mojo = (Word2VecMojoModel) ModelMojoReader.readFrom(MojoReaderBackendFactory.createReaderBackend(
+              new ByteArrayInputStream(os.toByteArray()), MojoReaderBackendFactory.CachingStrategy.MEMORY));
+      List<Map<String, Float>> mojoSynonyms = mojo.findSynonyms(targets, 10);
+      for (int i = 0; i < targets.length; i++)
+        assertEquals(batch.get(i), mojoSynonyms.get(i));
+
+      // the recall is reported in the model output
+      Word2VecModelV3 schema = new Word2VecModelV3().fillFromImpl(w2vm);
+      assertEquals(w2vm._output._synonymIndexRecall, schema.output.synonym_index_recall, 0);
+
+      // a MOJO without the index falls back to the exact search
+      p._synonym_index_trees = 0;
+      Word2VecModel exactModel = (Word2VecModel) Scope.track_generic(new Word2Vec(p).trainModel().get());
+      os = new ByteArrayOutputStream();
+      exactModel.getMojo().writeTo(os);
+      Word2VecMojoModel exactMojo = (Word2VecMojoModel) ModelMojoReader.readFrom(MojoReaderBackendFactory.createReaderBackend(
+              new ByteArrayInputStream(os.toByteArray()), MojoReaderBackendFactory.CachingStrategy.MEMORY));
+      List<Map<String, Float>> exactSynonyms = exactMojo.findSynonyms(targets, 10);
+      List<Map<String, Float>> expectedSynonyms = exactModel.findSynonyms(targets, 10);
+      for (int i = 0; i < targets.length; i++) {
+        Map<String, Float> expected = expectedSynonyms.get(i);
+        assertEquals(expected.keySet(), exactSynonyms.get(i).keySet());
+        for (String synonym : expected.keySet())
+          assertEquals(expected.get(synonym), exactSynonyms.get(i).get(synonym), 1e-5);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
   @Test
   public void testW2V_toFrame() {
     Random r = new Random();
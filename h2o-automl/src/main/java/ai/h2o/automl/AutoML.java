@@ -2,7 +2,9 @@ package ai.h2o.automl;
 
 import ai.h2o.automl.UserFeedbackEvent.Stage;
 import ai.h2o.automl.utils.AutoMLUtils;
+import hex.CVFoldCache;
 import hex.Model;
+import hex.PreprocessingCache;
 import hex.ModelBuilder;
 import hex.StackedEnsembleModel;
 import hex.deeplearning.DeepLearningModel;
@@ -27,6 +29,7 @@ import water.util.Log;
 
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static hex.deeplearning.DeepLearningModel.DeepLearningParameters.Activation.RectifierWithDropout;
@@ -86,10 +89,13 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
   private long stopTimeMs;
   private Job job;                  // the Job object for the build of this AutoML.  TODO: can we have > 1?
 
-  private transient ArrayList<Job> jobs;
+  private transient List<Job> jobs;
   private transient ArrayList<Frame> tempFrames;
+  private transient CVFoldCache cvFoldCache;  // cross-validation folds shared by all the models of the run
+  private transient PreprocessingCache preprocessingCache;  // e.g. DataInfo shared by all the models of the run
 
   private AtomicInteger modelCount = new AtomicInteger();  // prepare for concurrency
+  private AtomicInteger reservedModelCount = new AtomicInteger();  // models the running jobs may still build
   private Leaderboard leaderboard;
   private UserFeedback userFeedback;
 
@@ -151,8 +157,10 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
     // TODO: does this need to be updated?  I think its okay to pass a null leaderboardFrame
     leaderboard = Leaderboard.getOrMakeLeaderboard(projectName(), userFeedback, this.leaderboardFrame, this.sort_metric);
 
-    this.jobs = new ArrayList<>();
+    this.jobs = new CopyOnWriteArrayList<>();
     this.tempFrames = new ArrayList<>();
+    this.cvFoldCache = new CVFoldCache();
+    this.preprocessingCache = new PreprocessingCache();
   }
 
   /**
@@ -346,6 +354,19 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
     for (Job j : jobs) j.get(); // Hold until they all completely stop.
     jobs = null;
 
+    if (null != cvFoldCache) {
+      cvFoldCache.close();
+      if (cvFoldCache.hits() > 0)
+        userFeedback.info(Stage.Workflow, "AutoML: " + cvFoldCache);
+      cvFoldCache = null;
+    }
+    if (null != preprocessingCache) {
+      if (preprocessingCache.hits() > 0)
+        userFeedback.info(Stage.Workflow, "AutoML: " + preprocessingCache);
+      preprocessingCache.release();
+      preprocessingCache = null;
+    }
+
     // TODO: add a failsafe, if we haven't marked off as much work as we originally intended?
     // If we don't, we end up with an exceptional completion.
   }
@@ -362,7 +383,7 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
   public int remainingModels() {
     if (buildSpec.build_control.stopping_criteria.max_models() == 0)
       return Integer.MAX_VALUE;
-    return buildSpec.build_control.stopping_criteria.max_models() - modelCount.get();
+    return buildSpec.build_control.stopping_criteria.max_models() - modelCount.get() - reservedModelCount.get();
   }
 
   @Override
@@ -384,14 +405,48 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
       }
       return;
     }
-    userFeedback.info(stage, name + " started");
-    jobs.add(subJob);
+    SubJobTracker tracker = new SubJobTracker(stage, name, workContribution, parentJob, subJob, subJobType, 0);
+    while (subJob.isRunning()) {
+      tracker.poll();
+      try {
+        Thread.currentThread().sleep(1000);
+      }
+      catch (InterruptedException e) {
+        // keep going
+      }
+    }
+    tracker.finish();
+  }
+
+  /**
+   * Progress of a running model build or hyperparameter search: reports its work to the parent job and moves its
+   * models to the leaderboard as soon as they are built.
+   */
+  private class SubJobTracker {
+    final Stage stage;
+    final String name;
+    final long workContribution;
+    final Job parentJob;
+    final Job subJob;
+    final JobType subJobType;
+    final int reservedModels;   // counted against max_models until the job finishes
 
     long lastWorkedSoFar = 0;
-    long cumulative = 0;
-    int gridLastCount = 0;
+    Set<Key<Model>> gridLastModels = Collections.emptySet();
+
+    SubJobTracker(Stage stage, String name, long workContribution, Job parentJob, Job subJob, JobType subJobType, int reservedModels) {
+      this.stage = stage;
+      this.name = name;
+      this.workContribution = workContribution;
+      this.parentJob = parentJob;
+      this.subJob = subJob;
+      this.subJobType = subJobType;
+      this.reservedModels = reservedModels;
+      userFeedback.info(stage, name + " started");
+      jobs.add(subJob);
+    }
 
-    while (subJob.isRunning()) {
+    void poll() {
       if (null != parentJob) {
         if (parentJob.stop_requested()) {
           userFeedback.info(Stage.ModelTraining, "AutoML job cancelled; skipping " + name);
@@ -404,63 +459,199 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
 //        }
       }
       long workedSoFar = Math.round(subJob.progress() * workContribution);
-      cumulative += workedSoFar;
 
       if (null != parentJob) {
         parentJob.update(Math.round(workedSoFar - lastWorkedSoFar), name);
       }
 
       if (JobType.HyperparamSearch == subJobType) {
-        Grid grid = (Grid)subJob._result.get();
-        int gridCount = grid.getModelCount();
-        if (gridCount > gridLastCount) {
-          userFeedback.info(Stage.ModelTraining,
-                  "Built: " + gridCount + " models for search: " + name);
-          this.addModels(grid.getModelKeys());
-          gridLastCount = gridCount;
-        }
+        addGridModels();
       }
+      lastWorkedSoFar = workedSoFar;
+    }
 
-      try {
-        Thread.currentThread().sleep(1000);
-      }
-      catch (InterruptedException e) {
-        // keep going
+    /**
+     * Compares the model keys rather than their count: a successive halving search replaces the models it
+     * promotes, so the grid can hold new models without growing.
+     */
+    private void addGridModels() {
+      Grid grid = (Grid)subJob._result.get();
+      Key<Model>[] modelKeys = grid.getModelKeys();
+      Set<Key<Model>> gridModels = new HashSet<>(Arrays.asList(modelKeys));
+      if (!gridModels.equals(gridLastModels)) {
+        userFeedback.info(Stage.ModelTraining,
+                "Built: " + gridModels.size() + " models for search: " + name);
+        addModels(modelKeys);
+        gridLastModels = gridModels;
       }
-      lastWorkedSoFar = workedSoFar;
     }
 
-    // pick up any stragglers:
-    if (JobType.HyperparamSearch == subJobType) {
-      if (subJob.isCrashed()) {
-        userFeedback.info(stage, name + " failed: " + subJob.ex().toString());
-      } else {
-        Grid grid = (Grid) subJob._result.get();
-        int gridCount = grid.getModelCount();
-        if (gridCount > gridLastCount) {
-          userFeedback.info(Stage.ModelTraining,
-                  "Built: " + gridCount + " models for search: " + name);
-          this.addModels(grid.getModelKeys());
-          gridLastCount = gridCount;
+    void finish() {
+      // pick up any stragglers:
+      if (JobType.HyperparamSearch == subJobType) {
+        if (subJob.isCrashed()) {
+          userFeedback.info(stage, name + " failed: " + subJob.ex().toString());
+        } else {
+          addGridModels();
+          userFeedback.info(stage, name + " complete");
+        }
+      } else if (JobType.ModelBuild == subJobType) {
+        if (subJob.isCrashed()) {
+          userFeedback.info(stage, name + " failed: " + subJob.ex().toString());
+        } else {
+          userFeedback.info(stage, name + " complete");
+          addModel((Model) subJob._result.get());
         }
-        userFeedback.info(stage, name + " complete");
       }
-    } else if (JobType.ModelBuild == subJobType) {
-      if (subJob.isCrashed()) {
-        userFeedback.info(stage, name + " failed: " + subJob.ex().toString());
-      } else {
-        userFeedback.info(stage, name + " complete");
-        this.addModel((Model) subJob._result.get());
+
+      // add remaining work
+      if (null != parentJob) {
+        parentJob.update(workContribution - lastWorkedSoFar);
       }
+
+      jobs.remove(subJob);
+      reservedModelCount.addAndGet(-reservedModels);
     }
+  }
 
-    // add remaining work
-    if (null != parentJob) {
-      parentJob.update(workContribution - lastWorkedSoFar);
+  /**
+   * A model build or hyperparameter search of the AutoML plan, started only when the scheduler gets to it (so that
+   * it sees the time and models left at that point).
+   */
+  private abstract class ModelingStep {
+    final String name;
+    final long workContribution;
+    final JobType jobType;
+    final Key<Grid> gridKey;  // steps searching into the same grid never run at the same time
+    final int maxModels;      // models the step builds at most, 0 if a search may build all the models left
+
+    ModelingStep(String name, long workContribution, JobType jobType, Key<Grid> gridKey) {
+      this(name, workContribution, jobType, gridKey, JobType.HyperparamSearch == jobType ? 0 : 1);
     }
 
-    jobs.remove(subJob);
+    ModelingStep(String name, long workContribution, JobType jobType, Key<Grid> gridKey, int maxModels) {
+      this.name = name;
+      this.workContribution = workContribution;
+      this.jobType = jobType;
+      this.gridKey = gridKey;
+      this.maxModels = maxModels;
+    }
 
+    /** @return the started job, or null if the step is skipped */
+    abstract Job start();
+  }
+
+  // the job is set by startAutoML only once it has been started
+  private boolean stopRequested() {
+    Job job = this.job();
+    return null != job && job.stop_requested();
+  }
+
+  /**
+   * Number of model builds / hyperparameter searches to run at the same time: max_parallel_jobs, or (if that is 0)
+   * as many as the cores and memory of the cluster allow with the given cores_per_job and mem_per_job_mb. These only
+   * size the number of slots, a running job isn't limited to its share of the cores or memory.
+   */
+  int parallelJobs() {
+    AutoMLBuildSpec.AutoMLBuildControl bc = buildSpec.build_control;
+    if (bc.max_parallel_jobs > 0)
+      return bc.max_parallel_jobs;
+    int cores = 0;
+    for (H2ONode node : H2O.CLOUD.members()) cores += node._heartbeat._cpus_allowed;
+    int coresPerJob = bc.cores_per_job > 0 ? bc.cores_per_job : H2O.SELF._heartbeat._cpus_allowed;
+    int n = Math.max(1, cores / Math.max(1, coresPerJob));
+    if (bc.mem_per_job_mb > 0)
+      n = (int) Math.max(1, Math.min(n, H2O.CLOUD.free_mem() / (bc.mem_per_job_mb << 20)));
+    return n;
+  }
+
+  /**
+   * Run the given steps in order, up to {@link #parallelJobs()} of them at the same time. A step starts as soon as
+   * there is a free slot (and no other step of its grid is running), the leaderboard is updated whenever a model is
+   * done. Every job is started with the time left at its start, so all of them stop by the end of the time budget.
+   * With max_models, the running jobs reserve the models they may build; a step that finds all the models left
+   * reserved waits for the running jobs, it's skipped only once the models actually built reach max_models.
+   */
+  void runSteps(List<ModelingStep> steps) {
+    final int parallelism = parallelJobs();
+    if (parallelism <= 1) {
+      for (ModelingStep step : steps)
+        pollAndUpdateProgress(Stage.ModelTraining, step.name, step.workContribution, this.job(), step.start(), step.jobType);
+      return;
+    }
+    userFeedback.info(Stage.ModelTraining, "Running up to " + parallelism + " model builds at the same time");
+    LinkedList<ModelingStep> pending = new LinkedList<>(steps);
+    Map<SubJobTracker, ModelingStep> running = new HashMap<>();
+    while (!pending.isEmpty() || !running.isEmpty()) {
+      // start whatever fits
+      Iterator<ModelingStep> it = pending.iterator();
+      while (running.size() < parallelism && it.hasNext() && !stopRequested()) {
+        ModelingStep step = it.next();
+        if (step.gridKey != null && isGridRunning(running.values(), step.gridKey)) continue;
+        if (remainingModels() <= 0 && reservedModelCount.get() > 0) continue; // the running jobs may not use all of them
+        it.remove();
+        int before = remainingModels();
+        Job subJob = step.start();
+        if (null == subJob) {
+          pollAndUpdateProgress(Stage.ModelTraining, step.name, step.workContribution, this.job(), null, step.jobType);
+          continue;
+        }
+        // a search may build all the models left (unless it's known to build fewer), a single build one of them
+        int reserve = buildSpec.build_control.stopping_criteria.max_models() == 0 ? 0 :
+                step.maxModels > 0 ? Math.min(step.maxModels, Math.max(0, before)) : Math.max(0, before);
+        reservedModelCount.addAndGet(reserve);
+        running.put(new SubJobTracker(Stage.ModelTraining, step.name, step.workContribution, this.job(), subJob, step.jobType, reserve), step);
+      }
+      if (stopRequested() && running.isEmpty()) {
+        for (ModelingStep step : pending)
+          pollAndUpdateProgress(Stage.ModelTraining, step.name, step.workContribution, this.job(), null, step.jobType);
+        pending.clear();
+      }
+
+      Iterator<SubJobTracker> rit = running.keySet().iterator();
+      while (rit.hasNext()) {
+        SubJobTracker tracker = rit.next();
+        if (tracker.subJob.isRunning()) {
+          tracker.poll();
+        } else {
+          tracker.finish();
+          rit.remove();
+        }
+      }
+      if (!running.isEmpty()) {
+        try {
+          Thread.currentThread().sleep(1000);
+        }
+        catch (InterruptedException e) {
+          // keep going
+        }
+      }
+    }
+  }
+
+  private static final double SECS_PER_CANDIDATE = 10;
+
+  /**
+   * Budget of the last rung of a successive halving search. The searches set ntrees and epochs to 10000 and rely on
+   * early stopping, which the lower rungs don't use, so their budgets are derived from these instead.
+   */
+  static final int SUCCESSIVE_HALVING_MAX_TREES = 500;
+  static final double SUCCESSIVE_HALVING_MAX_EPOCHS = 100;
+
+  /**
+   * Number of candidates of the first rung of a successive halving search without max_models: about one per
+   * {@link #SECS_PER_CANDIDATE} seconds of the time left, rounded down to a power of the reduction factor (so that
+   * every rung but the last one is cut down by that factor), between eta^2 and eta^5.
+   */
+  static int successiveHalvingCandidates(double maxRuntimeSecs, double eta) {
+    int k = (int) Math.floor(Math.log(Math.max(1, maxRuntimeSecs / SECS_PER_CANDIDATE)) / Math.log(eta) + 1e-9);
+    return (int) Math.round(Math.pow(eta, Math.max(2, Math.min(5, k))));
+  }
+
+  private static boolean isGridRunning(Collection<ModelingStep> running, Key<Grid> gridKey) {
+    for (ModelingStep step : running)
+      if (gridKey.equals(step.gridKey)) return true;
+    return false;
   }
 
   // These are per (possibly concurrent) AutoML run.
@@ -588,6 +779,26 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
       searchCriteria.set_max_models(Math.min(searchCriteria.max_models(),
               remainingModels()));
 
+    HyperSpaceSearchCriteria criteria = searchCriteria;
+    // the searches over models with a budget (trees, epochs) can train the candidates in rungs of increasing budget
+    if (buildSpec.build_control.successive_halving && baseParms.supportsCheckpoint()) {
+      HyperSpaceSearchCriteria.SuccessiveHalvingSearchCriteria successiveHalving = new HyperSpaceSearchCriteria.SuccessiveHalvingSearchCriteria();
+      successiveHalving.set_seed(searchCriteria.seed());
+      // without max_models, the first rung would be the entire hyperparameter space
+      successiveHalving.set_max_models(buildSpec.build_control.stopping_criteria.max_models() == 0 ?
+              successiveHalvingCandidates(searchCriteria.max_runtime_secs(), successiveHalving.reduction_factor()) :
+              searchCriteria.max_models());
+      successiveHalving.set_max_runtime_secs(searchCriteria.max_runtime_secs());
+      successiveHalving.set_stopping_metric(searchCriteria.stopping_metric());
+      successiveHalving.set_max_budget(baseParms instanceof DeepLearningModel.DeepLearningParameters ?
+              SUCCESSIVE_HALVING_MAX_EPOCHS : SUCCESSIVE_HALVING_MAX_TREES);
+      criteria = successiveHalving;
+      userFeedback.info(Stage.ModelTraining, "AutoML: " + algoName + " hyperparameter search will train the candidates with successive halving");
+      if (baseParms._nfolds > 1 || baseParms._fold_column != null)
+        userFeedback.warn(Stage.ModelTraining, "AutoML: cross-validated models cannot continue from a checkpoint, so the " + algoName +
+                " candidates promoted by successive halving are trained again from scratch in every rung");
+    }
+
     userFeedback.info(Stage.ModelTraining, "AutoML: starting " + algoName + " hyperparameter search");
 
     // If the caller hasn't set ModelBuilder stopping criteria, set it from our global criteria.
@@ -620,7 +831,7 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
             baseParms,
             searchParms,
             new GridSearch.SimpleParametersBuilderFactory(),
-            searchCriteria);
+            criteria);
 
     return gridJob;
   }
@@ -633,10 +844,12 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
     params._response_column = buildSpec.input_spec.response_column;
     params._ignored_columns = buildSpec.input_spec.ignored_columns;
     params._seed = buildSpec.build_control.stopping_criteria.seed();
+    params._preprocessing_cache = preprocessingCache;
 
     // currently required, for the base_models, for stacking:
     if (! (params instanceof StackedEnsembleModel.StackedEnsembleParameters)) {
       params._keep_cross_validation_predictions = true;
+      params._cv_fold_cache = cvFoldCache;
 
       // TODO: StackedEnsemble doesn't support weights yet in score0
       params._fold_column = buildSpec.input_spec.fold_column;
@@ -706,65 +919,26 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
 
 
   /**
-   * Build Arno's magical 5 default GBMs.
-   * @param gridKey
+   * Build one of Arno's magical 5 default GBMs.
    */
-  void defaultGBMs(Key<Grid> gridKey) {
-    if (exceededSearchLimits("default GBMs")) return;
+  Job<GBMModel> defaultGBM(int maxDepth, int minRows) {
+    if (exceededSearchLimits("default GBMs")) return null;
 
     GBMModel.GBMParameters gbmParameters = new GBMModel.GBMParameters();
     setCommonModelBuilderParams(gbmParameters);
 
     gbmParameters._score_tree_interval = 5;
     gbmParameters._histogram_type = SharedTreeModel.SharedTreeParameters.HistogramType.AUTO;
+    gbmParameters._ntrees = 10000; // early stopping takes care of ntrees
 
-    Map<String, Object[]> searchParams = new HashMap<>();
-    searchParams.put("_ntrees", new Integer[]{10000});
-    searchParams.put("_sample_rate", new Double[]{ 0.80 });
-    searchParams.put("_col_sample_rate", new Double[]{ 0.8 });
-    searchParams.put("_col_sample_rate_per_tree", new Double[]{ 0.8 });
-
-    //    searchParams.put("_learn_rate", new Double[]{0.001, 0.005, 0.008, 0.01, 0.05, 0.08, 0.1, 0.5, 0.8});
-    //    searchParams.put("_min_split_improvement", new Double[]{1e-4, 1e-5});
-
-    Job<Grid>gbmJob = null;
-
-    // Default 1:
-    searchParams.put("_max_depth", new Integer[]{ 6 });
-    searchParams.put("_min_rows", new Integer[]{ 1 });
+    gbmParameters._sample_rate = 0.8;
+    gbmParameters._col_sample_rate = 0.8;
+    gbmParameters._col_sample_rate_per_tree = 0.8;
 
-    gbmJob = hyperparameterSearch(gridKey, "GBM", gbmParameters, searchParams);
-    pollAndUpdateProgress(Stage.ModelTraining, "GBM 1", 10, this.job(), gbmJob, JobType.HyperparamSearch);
+    gbmParameters._max_depth = maxDepth;
+    gbmParameters._min_rows = minRows;
 
-    // Default 2:
-    searchParams.put("_max_depth", new Integer[]{ 7 });
-    searchParams.put("_min_rows", new Integer[]{ 10 });
-
-    gbmJob = hyperparameterSearch(gridKey, "GBM", gbmParameters, searchParams);
-    pollAndUpdateProgress(Stage.ModelTraining, "GBM 2", 10, this.job(), gbmJob, JobType.HyperparamSearch);
-
-    // Default 3:
-    searchParams.put("_max_depth", new Integer[]{ 8 });
-    searchParams.put("_min_rows", new Integer[]{ 10 });
-
-    gbmJob = hyperparameterSearch(gridKey, "GBM", gbmParameters, searchParams);
-    pollAndUpdateProgress(Stage.ModelTraining, "GBM 3", 10, this.job(), gbmJob, JobType.HyperparamSearch);
-
-    // Default 4:
-    searchParams.put("_max_depth", new Integer[]{ 10 });
-    searchParams.put("_min_rows", new Integer[]{ 10 });
-
-    gbmJob = hyperparameterSearch(gridKey, "GBM", gbmParameters, searchParams);
-    pollAndUpdateProgress(Stage.ModelTraining, "GBM 4", 10, this.job(), gbmJob, JobType.HyperparamSearch);
-
-    // Default 5:
-    searchParams.put("_max_depth", new Integer[]{ 15 });
-    searchParams.put("_min_rows", new Integer[]{ 100 });
-
-    gbmJob = hyperparameterSearch(gridKey, "GBM", gbmParameters, searchParams);
-    pollAndUpdateProgress(Stage.ModelTraining, "GBM 5", 10, this.job(), gbmJob, JobType.HyperparamSearch);
-
-    return;
+    return trainModel(null, "gbm", gbmParameters);
   }
 
 
@@ -822,9 +996,9 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
 
     gbmParameters._score_tree_interval = 5;
     gbmParameters._histogram_type = SharedTreeModel.SharedTreeParameters.HistogramType.AUTO;
+    gbmParameters._ntrees = 10000; // early stopping takes care of ntrees
 
     Map<String, Object[]> searchParams = new HashMap<>();
-    searchParams.put("_ntrees", new Integer[]{10000});
     searchParams.put("_max_depth", new Integer[]{3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17});
     searchParams.put("_min_rows", new Integer[]{1, 5, 10, 15, 30, 100});
     searchParams.put("_learn_rate", new Double[]{0.001, 0.005, 0.008, 0.01, 0.05, 0.08, 0.1, 0.5, 0.8});
@@ -993,78 +1167,98 @@ public final class AutoML extends Lockable<AutoML> implements TimedH2ORunnable {
 
 //    isClassification = frameMetadata.isClassification();
 
+    // The models are built in this order, several of them at the same time if the resource budget allows it
+    // (see runSteps()); the StackedEnsembles below are built only once all of these are done.
+    List<ModelingStep> steps = new ArrayList<>();
+
     ///////////////////////////////////////////////////////////
     // build a fast RF with default settings...
     ///////////////////////////////////////////////////////////
-    Job<DRFModel>defaultRandomForestJob = defaultRandomForest();
-    pollAndUpdateProgress(Stage.ModelTraining, "Default Random Forest build", 50, this.job(), defaultRandomForestJob, JobType.ModelBuild);
+    steps.add(new ModelingStep("Default Random Forest build", 50, JobType.ModelBuild, null) {
+      @Override Job start() { return defaultRandomForest(); }
+    });
 
 
     ///////////////////////////////////////////////////////////
     // ... and another with "XRT" / extratrees settings
     ///////////////////////////////////////////////////////////
-    Job<DRFModel>defaultExtremelyRandomTreesJob = defaultExtremelyRandomTrees();
-    pollAndUpdateProgress(Stage.ModelTraining, "Extremely Randomized Trees (XRT) Random Forest build", 50, this.job(), defaultExtremelyRandomTreesJob, JobType.ModelBuild);
+    steps.add(new ModelingStep("Extremely Randomized Trees (XRT) Random Forest build", 50, JobType.ModelBuild, null) {
+      @Override Job start() { return defaultExtremelyRandomTrees(); }
+    });
 
 
     ///////////////////////////////////////////////////////////
     // build GLMs with the default search parameters
     ///////////////////////////////////////////////////////////
     // TODO: run for only part of the remaining time?
-    Job<Grid>glmJob = defaultSearchGLM();
-    pollAndUpdateProgress(Stage.ModelTraining, "GLM hyperparameter search", 50, this.job(), glmJob, JobType.HyperparamSearch);
+    // a single point of the hyperparameter space (the alphas are searched within the model), so a single model
+    steps.add(new ModelingStep("GLM hyperparameter search", 50, JobType.HyperparamSearch, null, 1) {
+      @Override Job start() { return defaultSearchGLM(); }
+    });
 
 
     ///////////////////////////////////////////////////////////
-    // build five GBMs with Arno's default settings, using 1-grid
-    // Cartesian searches into the same grid object as the search
-    // below.
+    // build five GBMs with Arno's default settings, as separate
+    // model builds so that they can run at the same time
     ///////////////////////////////////////////////////////////
-    Key<Grid> gbmGridKey = gridKey("GBM");
-    defaultGBMs(gbmGridKey);  // NOTE: does its own polling, 5 models with 10 work units each
+    final Key<Grid> gbmGridKey = gridKey("GBM");
+    final int[][] defaultGBMSettings = new int[][]{ /* max_depth, min_rows */ {6, 1}, {7, 10}, {8, 10}, {10, 10}, {15, 100} };
+    for (int i = 0; i < defaultGBMSettings.length; i++) {
+      final int[] settings = defaultGBMSettings[i];
+      steps.add(new ModelingStep("GBM " + (i + 1), 10, JobType.ModelBuild, null) {
+        @Override Job start() { return defaultGBM(settings[0], settings[1]); }
+      });
+    }
 
 
     ///////////////////////////////////////////////////////////
     // build a fast DL model with almost default settings...
     ///////////////////////////////////////////////////////////
-    Job<DeepLearningModel>defaultDeepLearningJob = defaultDeepLearning();
-    pollAndUpdateProgress(Stage.ModelTraining, "Default Deep Learning build", 20, this.job(), defaultDeepLearningJob, JobType.ModelBuild);
+    steps.add(new ModelingStep("Default Deep Learning build", 20, JobType.ModelBuild, null) {
+      @Override Job start() { return defaultDeepLearning(); }
+    });
 
 
     ///////////////////////////////////////////////////////////
     // build GBMs with the default search parameters
     ///////////////////////////////////////////////////////////
     // TODO: run for only part of the remaining time?
-    Job<Grid> gbmJob = defaultSearchGBM(gbmGridKey);
-    pollAndUpdateProgress(Stage.ModelTraining, "GBM hyperparameter search", 80, this.job(), gbmJob, JobType.HyperparamSearch);
+    steps.add(new ModelingStep("GBM hyperparameter search", 80, JobType.HyperparamSearch, gbmGridKey) {
+      @Override Job start() { return defaultSearchGBM(gbmGridKey); }
+    });
 
     //
     // Build DL models
     //
-    Key<Grid> dlGridKey = gridKey("DeepLearning");
+    final Key<Grid> dlGridKey = gridKey("DeepLearning");
 
     ///////////////////////////////////////////////////////////
     // build DL models with default search parameter set 1
     ///////////////////////////////////////////////////////////
     // TODO: run for only part of the remaining time?
-    Job<Grid>dlJob1 = defaultSearchDL1(dlGridKey);
-    pollAndUpdateProgress(Stage.ModelTraining, "DeepLearning hyperparameter search 1", 150, this.job(), dlJob1, JobType.HyperparamSearch);
+    steps.add(new ModelingStep("DeepLearning hyperparameter search 1", 150, JobType.HyperparamSearch, dlGridKey) {
+      @Override Job start() { return defaultSearchDL1(dlGridKey); }
+    });
 
 
     ///////////////////////////////////////////////////////////
     // build DL models with default search parameter set 2
     ///////////////////////////////////////////////////////////
     // TODO: run for only part of the remaining time?
-    Job<Grid>dlJob2 = defaultSearchDL2(dlGridKey);
-    pollAndUpdateProgress(Stage.ModelTraining, "DeepLearning hyperparameter search 2", 200, this.job(), dlJob2, JobType.HyperparamSearch);
+    steps.add(new ModelingStep("DeepLearning hyperparameter search 2", 200, JobType.HyperparamSearch, dlGridKey) {
+      @Override Job start() { return defaultSearchDL2(dlGridKey); }
+    });
 
 
     ///////////////////////////////////////////////////////////
     // build DL models with default search parameter set 3
     ///////////////////////////////////////////////////////////
     // TODO: run for only part of the remaining time?
-    Job<Grid>dlJob3 = defaultSearchDL3(dlGridKey);
-    pollAndUpdateProgress(Stage.ModelTraining, "DeepLearning hyperparameter search 3", 300, this.job(), dlJob3, JobType.HyperparamSearch);
+    steps.add(new ModelingStep("DeepLearning hyperparameter search 3", 300, JobType.HyperparamSearch, dlGridKey) {
+      @Override Job start() { return defaultSearchDL3(dlGridKey); }
+    });
+
+    runSteps(steps);
 
 
     ///////////////////////////////////////////////////////////
@@ -52,6 +52,15 @@ public class AutoMLBuildSpec extends Iced {
     public boolean keep_cross_validation_predictions = true;
     public boolean keep_cross_validation_models = true; 
 
+    // Resource budget for concurrent model builds: by default one model build (or search) at a time
+    public int max_parallel_jobs = 1;   // 0: as many as cores_per_job and mem_per_job_mb allow
+    // cores_per_job and mem_per_job_mb only size the number of concurrent jobs, they are not enforced per job
+    public int cores_per_job = 0;       // 0: the cores of one node
+    public long mem_per_job_mb = 0;     // 0: no memory limit
+
+    // Successive halving instead of random search for the GBM and DeepLearning hyperparameter searches
+    public boolean successive_halving = false;
+
   }
 
   /**
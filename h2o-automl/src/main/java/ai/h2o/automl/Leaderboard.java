@@ -10,8 +10,10 @@ import water.util.IcedHashMap;
 import water.util.Log;
 import water.util.TwoDimTable;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -260,10 +262,12 @@ public class Leaderboard extends Keyed<Leaderboard> {
         final Key<Model>[] oldModels = updating.models;
         final Key<Model> oldLeader = (oldModels == null || 0 == oldModels.length) ? null : oldModels[0];
 
-        // eliminate duplicates
+        // eliminate duplicates, and models removed since they were added (superseded in a successive halving search)
         Set<Key<Model>> uniques = new HashSet(oldModels.length + newModels.length);
         uniques.addAll(Arrays.asList(oldModels));
         uniques.addAll(Arrays.asList(newModels));
+        for (Iterator<Key<Model>> it = uniques.iterator(); it.hasNext(); )
+          if (null == DKV.get(it.next())) it.remove();
         updating.models = uniques.toArray(new Key[0]);
 
         // Try fetching ModelMetrics for *all* models, not just
@@ -397,10 +401,15 @@ public class Leaderboard extends Keyed<Leaderboard> {
   }
 
   /**
-   * @return list of keys of models sorted by the default metric for the model category, fetched from the DKV
+   * @return list of keys of models sorted by the default metric for the model category, fetched from the DKV;
+   * models deleted since they were added (superseded in a successive halving search) are skipped
    */
   public Key<Model>[] getModelKeys() {
-    return ((Leaderboard)DKV.getGet(this._key)).models;
+    Key<Model>[] models = ((Leaderboard)DKV.getGet(this._key)).models;
+    List<Key<Model>> live = new ArrayList<>(models.length);
+    for (Key<Model> key : models)
+      if (null != DKV.get(key)) live.add(key);
+    return live.size() == models.length ? models : live.toArray(new Key[0]);
   }
 
   /**
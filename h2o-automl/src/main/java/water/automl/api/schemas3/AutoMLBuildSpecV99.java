@@ -48,6 +48,18 @@ public class AutoMLBuildSpecV99 extends SchemaV3<AutoMLBuildSpec, AutoMLBuildSpe
     @API(help="Whether to keep the cross-validated models. Deleting cross-validation models will save memory in the H2O cluster.", direction=API.Direction.INPUT)
     public boolean keep_cross_validation_models;
 
+    @API(help="Maximum number of model builds and hyperparameter searches running at the same time (defaults to 1; use 0 to run as many as cores_per_job and mem_per_job_mb allow). Stacked Ensembles are built once all the other models are done.", level = API.Level.secondary, direction=API.Direction.INPUT)
+    public int max_parallel_jobs;
+
+    @API(help="Number of cores per concurrent model build, used with max_parallel_jobs = 0 (defaults to 0, meaning the cores of one node). Only sizes the number of concurrent builds, a build isn't limited to these cores.", level = API.Level.expert, direction=API.Direction.INPUT)
+    public int cores_per_job;
+
+    @API(help="Memory (in MB) per concurrent model build, used with max_parallel_jobs = 0 (defaults to 0, meaning no limit). Only sizes the number of concurrent builds, a build isn't limited to this memory.", level = API.Level.expert, direction=API.Direction.INPUT)
+    public long mem_per_job_mb;
+
+    @API(help="Use successive halving for the GBM and DeepLearning hyperparameter searches: candidates are trained with increasing numbers of trees / epochs (up to 500 / 100) and only the best third of them is trained further at every step (defaults to false, a random search training every candidate fully).", level = API.Level.secondary, direction=API.Direction.INPUT)
+    public boolean successive_halving;
+
   } // class AutoMLBuildControlV99
 
   /**
@@ -1,5 +1,9 @@
 package ai.h2o.automl;
 
+import hex.CreateFrame;
+import hex.Model;
+import hex.tree.gbm.GBMModel;
+import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import water.Key;
@@ -34,4 +38,126 @@ public class AutoMLTest extends TestUtil {
       if(fr != null) fr.remove();
     }
   }
+
+  private static Frame binomialFrame() {
+    CreateFrame cf = new CreateFrame();
+    cf.rows = 2000;
+    cf.cols = 6;
+    cf.categorical_fraction = 0.2;
+    cf.integer_fraction = 0.2;
+    cf.binary_fraction = 0;
+    cf.missing_fraction = 0;
+    cf.has_response = true;
+    cf.response_factors = 2;
+    cf.seed = 1234;
+    return cf.execImpl().get();
+  }
+
+  @Test public void testParallelJobs() {
+    Frame fr=null;
+    try {
+      fr = binomialFrame();
+      long[][] sequential = modelTimes(fr, 1);
+      long[][] parallel = modelTimes(fr, 3);
+
+      // the concurrent builds share the model budget, so the same number of models as in a sequential run
+      Assert.assertEquals(6, sequential.length);
+      Assert.assertEquals(sequential.length, parallel.length);
+      Assert.assertFalse(overlap(sequential));
+      Assert.assertTrue(overlap(parallel));
+    } finally {
+      if(fr != null) fr.remove();
+    }
+  }
+
+  // whether any two of the (start, end) intervals overlap
+  private static boolean overlap(long[][] times) {
+    for (int i = 0; i < times.length; i++)
+      for (int j = i + 1; j < times.length; j++)
+        if (times[i][0] < times[j][1] && times[j][0] < times[i][1]) return true;
+    return false;
+  }
+
+  @Test public void testSuccessiveHalvingCandidates() {
+    // without max_models, the first rung is sized to the time budget instead of the entire hyperparameter space
+    Assert.assertEquals(9, AutoML.successiveHalvingCandidates(30, 3));
+    Assert.assertEquals(27, AutoML.successiveHalvingCandidates(300, 3));
+    Assert.assertEquals(243, AutoML.successiveHalvingCandidates(3600, 3));
+    Assert.assertEquals(243, AutoML.successiveHalvingCandidates(Integer.MAX_VALUE, 3));
+    Assert.assertEquals(32, AutoML.successiveHalvingCandidates(600, 2));
+  }
+
+  @Test public void testSuccessiveHalvingBudget() {
+    AutoML aml=null;
+    Frame fr=null;
+    try {
+      fr = binomialFrame();
+      AutoMLBuildSpec autoMLBuildSpec = new AutoMLBuildSpec();
+      autoMLBuildSpec.input_spec.training_frame = fr._key;
+      autoMLBuildSpec.input_spec.response_column = "response";
+      autoMLBuildSpec.build_control.stopping_criteria.set_max_runtime_secs(300);
+      autoMLBuildSpec.build_control.stopping_criteria.set_max_models(10);
+      autoMLBuildSpec.build_control.stopping_criteria.set_seed(1234);
+      autoMLBuildSpec.build_control.nfolds = 3;
+      autoMLBuildSpec.build_control.successive_halving = true;
+      autoMLBuildSpec.build_control.keep_cross_validation_models = false; //Prevent leaked keys from CV models
+      autoMLBuildSpec.build_control.keep_cross_validation_predictions = false; //Prevent leaked keys from CV predictions
+      autoMLBuildSpec.build_models.exclude_algos = new AutoML.algo[]{AutoML.algo.GLM, AutoML.algo.DRF, AutoML.algo.DeepLearning, AutoML.algo.StackedEnsemble};
+
+      aml = AutoML.makeAutoML(Key.<AutoML>make(), new Date(), autoMLBuildSpec);
+      AutoML.startAutoML(aml);
+      aml.get();
+
+      // the rungs of the GBM search end at SUCCESSIVE_HALVING_MAX_TREES instead of the 10000 trees of the search
+      int searched = 0;
+      for (Model m : aml.leaderboard().getModels()) {
+        if (!m._key.toString().startsWith("GBM_grid_")) continue;
+        searched++;
+        Assert.assertTrue(((GBMModel) m)._parms._ntrees <= AutoML.SUCCESSIVE_HALVING_MAX_TREES);
+      }
+      Assert.assertTrue(searched > 0);
+
+      boolean warned = false;
+      for (UserFeedbackEvent event : aml.userFeedback().feedbackEvents)
+        warned |= event.getLevel() == UserFeedbackEvent.Level.Warn && event.getMessage().contains("trained again from scratch");
+      Assert.assertTrue(warned);
+    } finally {
+      // Cleanup
+      if(aml!=null) aml.deleteWithChildren();
+      if(fr != null) fr.remove();
+    }
+  }
+
+  /** start and end times of the models built by AutoML */
+  private static long[][] modelTimes(Frame fr, int maxParallelJobs) {
+    AutoML aml=null;
+    try {
+      AutoMLBuildSpec autoMLBuildSpec = new AutoMLBuildSpec();
+      autoMLBuildSpec.input_spec.training_frame = fr._key;
+      autoMLBuildSpec.input_spec.response_column = "response";
+      autoMLBuildSpec.build_control.stopping_criteria.set_max_runtime_secs(120);
+      autoMLBuildSpec.build_control.stopping_criteria.set_max_models(6);
+      autoMLBuildSpec.build_control.stopping_criteria.set_seed(1234);
+      autoMLBuildSpec.build_control.nfolds = 3;
+      autoMLBuildSpec.build_control.max_parallel_jobs = maxParallelJobs;
+      autoMLBuildSpec.build_control.keep_cross_validation_models = false; //Prevent leaked keys from CV models
+      autoMLBuildSpec.build_control.keep_cross_validation_predictions = false; //Prevent leaked keys from CV predictions
+      // the levelone frames of Stacked Ensembles are kept
+      // without the forests: the GLM search (a single model) and the default GBMs
+      autoMLBuildSpec.build_models.exclude_algos = new AutoML.algo[]{AutoML.algo.DRF, AutoML.algo.DeepLearning, AutoML.algo.StackedEnsemble};
+
+      aml = AutoML.makeAutoML(Key.<AutoML>make(), new Date(), autoMLBuildSpec);
+      AutoML.startAutoML(aml);
+      aml.get();
+      Model[] models = aml.leaderboard().getModels();
+      long[][] times = new long[models.length][];
+      for (int i = 0; i < models.length; i++)
+        // from the start of the build job (incl. the cross-validation models) to the end of the main model
+        times[i] = new long[]{models[i]._output._job.start_time(), models[i]._output._end_time};
+      return times;
+    } finally {
+      // Cleanup
+      if(aml!=null) aml.deleteWithChildren();
+    }
+  }
 }
@@ -0,0 +1,110 @@
+package hex;
+
+import water.Futures;
+import water.Key;
+import water.Scope;
+import water.fvec.Vec;
+import water.util.Log;
+import water.util.PrettyPrint;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Cross-validation folds shared by the models of a search (grid, AutoML). Models trained on the same rows with the
+ * same fold assignment get the same 2*N fold weight Vecs, which are made by the first of them and removed when the
+ * search closes the cache.
+ *
+ * The cache is node-local: it is referenced by a transient field of the model parameters, so models built from
+ * parameters that went over the wire just make their own folds.
+ */
+public final class CVFoldCache {
+
+  /** Makes the fold weights on a cache miss, see {@link ModelBuilder#cv_makeWeights(int, Vec)}. */
+  public interface WeightsMaker {
+    Vec[] make();
+  }
+
+  private static final class Entry {
+    Vec[] _weights;
+    long _makeMs;
+    long _bytes;
+  }
+
+  private final HashMap<String, Entry> _entries = new HashMap<>();
+  private boolean _closed;
+  private int _misses;
+  private int _hits;
+  private long _savedMs;
+  private long _savedBytes;
+
+  /**
+   * Fold weights for the given identity of the folds, made by the given maker if no model made them yet.
+   * @param key identity of the folds: training rows, fold assignment, seed, weights
+   * @param maker makes the weights on a miss
+   * @return the shared weights (not to be removed by the caller), or null if the cache is already closed
+   */
+  public Vec[] getOrMake(String key, WeightsMaker maker) {
+    Entry e;
+    synchronized (this) {
+      if (_closed) return null;
+      e = _entries.get(key);
+      if (e == null) _entries.put(key, e = new Entry());
+    }
+    // models sharing the folds wait for the first one to make them
+    synchronized (e) {
+      if (e._weights != null) {
+        synchronized (this) {
+          _hits++;
+          _savedMs += e._makeMs;
+          _savedBytes += e._bytes;
+        }
+        return e._weights;
+      }
+      long start = System.currentTimeMillis();
+      Vec[] weights = maker.make(); // on failure, the next model tries again
+      List<Key<Vec>> keys = new ArrayList<>(weights.length);
+      long bytes = 0;
+      for (Vec w : weights) {
+        keys.add(w._key);
+        bytes += w.byteSize();
+      }
+      Scope.untrack(keys); // owned by the cache, not by the model that made them
+      e._makeMs = System.currentTimeMillis() - start;
+      e._bytes = bytes;
+      e._weights = weights;
+      synchronized (this) { _misses++; }
+      return weights;
+    }
+  }
+
+  /** Removes all the shared weights, later models make their own folds. */
+  public synchronized void close() {
+    if (_closed) return;
+    _closed = true;
+    Futures fs = new Futures();
+    for (Entry e : _entries.values())
+      if (e._weights != null)
+        for (Vec w : e._weights) w.remove(fs);
+    fs.blockForPending();
+    _entries.clear();
+    if (_misses > 0) Log.info(toString());
+  }
+
+  public synchronized int hits() { return _hits; }
+
+  public synchronized int misses() { return _misses; }
+
+  /** Time it would have taken to make the reused folds again. */
+  public synchronized long savedMs() { return _savedMs; }
+
+  /** Memory the reused folds would have taken up again. */
+  public synchronized long savedBytes() { return _savedBytes; }
+
+  @Override
+  public synchronized String toString() {
+    return "Cross-validation folds made " + _misses + " time(s) and reused " + _hits + " time(s), saving "
+        + PrettyPrint.msecs(_savedMs, true) + " and " + PrettyPrint.bytes(_savedBytes) + ".";
+  }
+}
@@ -231,6 +231,12 @@ public abstract class Model<M extends Model<M,P,O>, P extends Model.Parameters,
 
     public boolean _is_cv_model; //internal helper
 
+    /** Cross-validation folds shared with the other models of a search (grid, AutoML), if any; internal helper */
+    public transient CVFoldCache _cv_fold_cache;
+
+    /** Preprocessing results (e.g. DataInfo) shared with the other models of a search, if any; internal helper */
+    public transient PreprocessingCache _preprocessing_cache;
+
     // Scoring a model on a dataset is not free; sometimes it is THE limiting
     // factor to model building.  By default, partially built models are only
     // scored every so many major model iterations - throttled to limit scoring
@@ -343,6 +349,9 @@ public abstract class Model<M extends Model<M,P,O>, P extends Model.Parameters,
 
     public boolean hasCheckpoint() { return _checkpoint != null; }
 
+    /** @return true if the builder can continue training a model from a checkpoint (with a larger budget) */
+    public boolean supportsCheckpoint() { return false; }
+
     // FIXME: this is really horrible hack, Model.Parameters has method checksum_impl,
     // but not checksum, the API is totally random :(
     public long checksum() {
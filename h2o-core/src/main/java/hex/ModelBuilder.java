@@ -311,10 +311,8 @@ abstract public class ModelBuilder<M extends Model<M,P,O>, P extends Model.Param
       Scope.enter();
 
       // Step 1: Assign each row to a fold
-      final Vec foldAssignment = cv_AssignFold(N);
-
       // Step 2: Make 2*N binary weight vectors
-      final Vec[] weights = cv_makeWeights(N,foldAssignment);
+      final Vec[] weights = cv_foldWeights(N);
 
       // Step 3: Build N train & validation frames; build N ModelBuilders; error check them all
       ModelBuilder<M, P, O> cvModelBuilders[] = cv_makeFramesAndBuilders(N,weights);
@@ -345,6 +343,45 @@ abstract public class ModelBuilder<M extends Model<M,P,O>, P extends Model.Param
     }
   }
 
+  /** Transient flag: the fold weights belong to the {@link CVFoldCache} of the search, not to this model */
+  private transient boolean _cvSharedWeights;
+
+  // Steps 1 and 2: the fold weights, made once for all the models of a search that share the same folds
+  private Vec[] cv_foldWeights(final int N) {
+    final CVFoldCache cache = _parms._cv_fold_cache;
+    // a per-model rebalanced training frame has its own layout, its folds can't be shared
+    if (cache != null && !_parms._keep_cross_validation_fold_assignment &&
+        train().anyVec().group().equals(_parms.train().anyVec().group())) {
+      Vec[] weights = cache.getOrMake(cv_foldsKey(N), new CVFoldCache.WeightsMaker() {
+        @Override public Vec[] make() { return cv_makeWeights(N, cv_AssignFold(N)); }
+      });
+      if (weights != null) {
+        _cvSharedWeights = true;
+        return weights;
+      }
+    }
+    return cv_makeWeights(N, cv_AssignFold(N));
+  }
+
+  /** Identity of the folds: the training rows, how they are assigned to folds, and the observation weights */
+  private String cv_foldsKey(int N) {
+    Vec any = train().anyVec();
+    StringBuilder sb = new StringBuilder();
+    sb.append(any.group()._key).append('/').append(Arrays.hashCode(any.espc())).append('/').append(N);
+    if (_parms._fold_column != null) {
+      sb.append("/fold:").append(train().vec(_parms._fold_column)._key);
+    } else {
+      sb.append('/').append(_parms._fold_assignment);
+      if (_parms._fold_assignment != Model.Parameters.FoldAssignmentScheme.Modulo)
+        sb.append("/seed:").append(_parms.getOrMakeRealSeed());
+      if (_parms._fold_assignment == Model.Parameters.FoldAssignmentScheme.Stratified)
+        sb.append("/response:").append(response()._key);
+    }
+    if (_parms._weights_column != null)
+      sb.append("/weights:").append(train().vec(_parms._weights_column)._key);
+    return sb.toString();
+  }
+
   // Step 1: Assign each row to a fold
   // TODO: Implement better splitting algo (with Strata if response is
   // categorical), e.g. http://www.lexjansen.com/scsug/2009/Liang_Xie2.pdf
@@ -453,7 +490,8 @@ abstract public class ModelBuilder<M extends Model<M,P,O>, P extends Model.Param
     if( error_count() > 0 ) {               // Found an error in one or more submodels
       Futures fs = new Futures();
       for (Frame cvf : cvFramesForFailedModels) {
-        cvf.vec(weightName).remove(fs);     // delete the Vec's chunks
+        if (!_cvSharedWeights)
+          cvf.vec(weightName).remove(fs);   // delete the Vec's chunks
         DKV.remove(cvf._key, fs);           // delete the Frame from the DKV, leaving its vecs
         Log.info("Removing frame for failed cv model: " + cvf._key);
       }
@@ -545,8 +583,10 @@ abstract public class ModelBuilder<M extends Model<M,P,O>, P extends Model.Param
       }
       DKV.remove(cvModelBuilders[i]._parms._train,fs);
       DKV.remove(cvModelBuilders[i]._parms._valid,fs);
-      weights[2*i  ].remove(fs);
-      weights[2*i+1].remove(fs);
+      if (!_cvSharedWeights) {
+        weights[2*i  ].remove(fs);
+        weights[2*i+1].remove(fs);
+      }
     }
     fs.blockForPending();
     return mbs;
@@ -1182,7 +1222,13 @@ abstract public class ModelBuilder<M extends Model<M,P,O>, P extends Model.Param
     if (fr.numRows()==0) error(field, frDesc + " must have > 0 rows.");
     Frame adapted = new Frame(null /* not putting this into KV */, fr._names.clone(), fr.vecs().clone());
     try {
-      String[] msgs = Model.adaptTestForTrain(adapted, null, null, _train._names, _train.domains(), _parms, expensive, true, null, getToEigenVec(), _toDelete, false);
+      String[] msgs;
+      if (expensive && _parms._preprocessing_cache != null && !_parms._is_cv_model) { // the holdout frames aren't shared
+        AdaptedFrame cached = cachedAdaptedFrame(fr);
+        adapted = new Frame(null, cached._frame.names().clone(), cached._frame.vecs().clone());
+        msgs = cached._msgs;
+      } else
+        msgs = Model.adaptTestForTrain(adapted, null, null, _train._names, _train.domains(), _parms, expensive, true, null, getToEigenVec(), _toDelete, false);
       Vec response = adapted.vec(_parms._response_column);
       if (response == null && _parms._response_column != null)
         error(field, frDesc + " must have a response column '" + _parms._response_column + "'.");
@@ -1198,6 +1244,57 @@ abstract public class ModelBuilder<M extends Model<M,P,O>, P extends Model.Param
     return adapted;
   }
 
+  /** A frame adapted to a training frame, and what the adaptation made (removed with it). */
+  static final class AdaptedFrame extends Keyed<AdaptedFrame> {
+    final Frame _frame;
+    final String[] _msgs;
+    final IcedHashMap<Key, String> _made;
+
+    AdaptedFrame(Frame frame, String[] msgs, IcedHashMap<Key, String> made) {
+      super(Key.<AdaptedFrame>make());
+      _frame = frame;
+      _msgs = msgs;
+      _made = made;
+    }
+
+    @Override protected Futures remove_impl(Futures fs) {
+      for (Key k : _made.keySet())
+        k.remove(fs);
+      return super.remove_impl(fs);
+    }
+  }
+
+  /**
+   * The frame adapted by {@link Model#adaptTestForTrain}, shared through the preprocessing cache by the models trained
+   * on the same frames. The vecs made by the adaptation belong to the cache (not to the scope of the model that made
+   * them).
+   */
+  private AdaptedFrame cachedAdaptedFrame(final Frame fr) {
+    PreprocessingCache cache = _parms._preprocessing_cache;
+    String signature = "ModelBuilder.adaptFrameToTrain:" + Arrays.toString(fr.names()) + PreprocessingCache.frameSignature(fr._key, fr)
+        + ":" + Arrays.toString(_train.names()) + PreprocessingCache.frameSignature(_parms._train, _train)
+        + ":" + Arrays.deepHashCode(_train.domains()) + ":" + _parms._response_column + ":" + _parms._weights_column
+        + ":" + _parms._offset_column + ":" + _parms._fold_column + ":" + _parms._categorical_encoding
+        + ":" + _parms._max_categorical_levels + ":" + _parms.missingColumnsType();
+    AdaptedFrame adapted = cache.get(signature, new PreprocessingCache.Maker<AdaptedFrame>() {
+      @Override public AdaptedFrame make() {
+        Frame frame = new Frame(null /* not putting this into KV */, fr._names.clone(), fr.vecs().clone());
+        IcedHashMap<Key, String> made = new IcedHashMap<>();
+        String[] msgs = Model.adaptTestForTrain(frame, null, null, _train._names, _train.domains(), _parms, true, true, null, getToEigenVec(), made, false);
+        // the new vecs outlive this model's scope
+        for (Key<Vec> k : frame.keys())
+          if (ArrayUtils.find(fr.keys(), k) == -1) {
+            Scope.untrack(k);
+            made.put(k, "adapted vec");
+          }
+        return new AdaptedFrame(frame, msgs, made);
+      }
+    });
+    if (cache.released()) // not kept by the cache, this model owns what it made
+      _toDelete.putAll(adapted._made);
+    return adapted;
+  }
+
   private Frame encodeFrameCategoricals(Frame fr, boolean scopeTrack) {
     String[] skipCols = new String[]{_parms._weights_column, _parms._offset_column, _parms._fold_column, _parms._response_column};
     Frame encoded = FrameUtils.categoricalEncoder(fr, skipCols, _parms._categorical_encoding, getToEigenVec(), _parms._max_categorical_levels);
@@ -0,0 +1,133 @@
+package hex;
+
+import water.DKV;
+import water.Futures;
+import water.IcedUtils;
+import water.Key;
+import water.Keyed;
+import water.fvec.Frame;
+import water.util.Log;
+import water.util.PrettyPrint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Preprocessing results (e.g. the DataInfo of a training frame) shared by the models of a search (grid, AutoML).
+ *
+ * The first model to need a result makes it, a copy of it is kept in the DKV, every other model with the same
+ * signature (frame, checksum and transform settings) gets its own deep copy of that instead of making it again.
+ * The searches using the cache hold a reference to it ({@link #retain()}, e.g. the grids of an AutoML run); the kept
+ * results are removed from the DKV when the last of them releases it.
+ *
+ * Like {@link CVFoldCache} it is referenced by a transient field of the model parameters.
+ */
+public final class PreprocessingCache {
+
+  /** Makes a result on a cache miss. */
+  public interface Maker<T extends Keyed<T>> {
+    T make();
+  }
+
+  private static final class Entry {
+    Key _key;
+    long _makeMs;
+  }
+
+  private final HashMap<String, Entry> _entries = new HashMap<>();
+  private int _refs = 1; // the creator's
+  private int _misses;
+  private int _hits;
+  private long _savedMs;
+
+  /** Another search shares the cache, it must {@link #release()} it when done. */
+  public synchronized PreprocessingCache retain() {
+    if (_refs == 0) return new PreprocessingCache(); // too late, start over
+    _refs++;
+    return this;
+  }
+
+  /** Drops a reference, the last one removes all the kept results. */
+  public void release() {
+    List<Key> keys = new ArrayList<>();
+    synchronized (this) {
+      if (_refs == 0 || --_refs > 0) return;
+      for (Entry e : _entries.values())
+        if (e._key != null) keys.add(e._key);
+      _entries.clear();
+      if (_misses > 0) Log.info(toString());
+    }
+    Futures fs = new Futures();
+    for (Key k : keys) Keyed.remove(k, fs);
+    fs.blockForPending();
+  }
+
+  /**
+   * Result for the given signature, private to the caller.
+   * @param signature everything the result depends on
+   * @param maker makes the result on a miss
+   * @return the result made by the maker (a miss or a released cache), or a deep copy of the kept one (with its own key)
+   */
+  public <T extends Keyed<T>> T get(String signature, Maker<T> maker) {
+    Entry e;
+    synchronized (this) {
+      if (_refs == 0) return maker.make();
+      e = _entries.get(signature);
+      if (e == null) _entries.put(signature, e = new Entry());
+    }
+    // models with the same signature wait for the first one to make the result
+    synchronized (e) {
+      T kept = e._key == null ? null : DKV.<T>getGet(e._key);
+      if (kept != null) {
+        T copy = IcedUtils.deepCopy(kept);
+        copy._key = Key.make();
+        synchronized (this) {
+          _hits++;
+          _savedMs += e._makeMs;
+        }
+        return copy;
+      }
+      long start = System.currentTimeMillis();
+      T made = maker.make();
+      synchronized (this) {
+        _misses++;
+        if (_refs == 0) return made; // released in the meantime
+        T copy = IcedUtils.deepCopy(made);
+        copy._key = Key.make();
+        DKV.put(copy);
+        e._makeMs = System.currentTimeMillis() - start;
+        e._key = copy._key;
+      }
+      return made;
+    }
+  }
+
+  /** Whether the last reference was dropped, the results handed out since then are not kept (nor removed). */
+  public synchronized boolean released() { return _refs == 0; }
+
+  /**
+   * Identifies a frame of a model in a signature. The frames of the models are identified by the user's frames, the
+   * models make their own copies of them (e.g. rebalancing) with different keys.
+   * @param key the user's frame (can be null)
+   * @param adapted the frame of the model made from it
+   */
+  public static String frameSignature(Key<Frame> key, Frame adapted) {
+    Frame fr = key == null ? null : key.get();
+    return fr == null ? Arrays.toString(adapted.keys()) + adapted.checksum() : key + ":" + fr.checksum();
+  }
+
+  public synchronized int hits() { return _hits; }
+
+  public synchronized int misses() { return _misses; }
+
+  /** Time it would have taken to make the reused results again. */
+  public synchronized long savedMs() { return _savedMs; }
+
+  @Override
+  public synchronized String toString() {
+    return "Preprocessing results made " + _misses + " time(s) and reused " + _hits + " time(s), saving "
+        + PrettyPrint.msecs(_savedMs, true) + ".";
+  }
+}
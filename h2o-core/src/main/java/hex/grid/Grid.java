@@ -10,6 +10,7 @@ import water.util.PojoUtils.FieldNaming;
 import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Map;
 
 /**
  * A Grid of Models representing result of hyper-parameter space exploration.
@@ -148,6 +149,17 @@ public class Grid<MP extends Model.Parameters> extends Lockable<Grid<MP>> {
     return _models.put(IcedLong.valueOf(checksum), modelKey);
   }
 
+  /**
+   * Removes the given model from this grid, e.g. once it is superseded by a model continuing from it. The model
+   * itself is not deleted.
+   */
+  /* package */
+  synchronized void removeModel(Key<?> modelKey) {
+    for (Map.Entry<IcedLong, Key<Model>> e : _models.entrySet())
+      if (modelKey.equals(e.getValue()))
+        _models.remove(e.getKey());
+  }
+
   /**
    * This method appends a new item to the list of failed model parameters.
    * <p/>
@@ -165,6 +165,14 @@ public final class GridSearch<MP extends Model.Parameters> extends Keyed<GridSea
     //                       ? grid._key + "_model_"
     //                       : _hyperSpaceWalker.getParams()._model_id.toString() + H2O.calcNextUniqueModelId("") + "_";
     String protoModelKey = grid._key + "_model_";
+    // the candidates share their cross-validation folds, unless the caller (e.g. AutoML) shares them more widely
+    MP baseParams = _hyperSpaceWalker.getParams();
+    CVFoldCache foldCache = baseParams._cv_fold_cache == null ? new CVFoldCache() : null;
+    if (foldCache != null) baseParams._cv_fold_cache = foldCache;
+    // ... and their preprocessing (shared with the caller, if any, until both are done)
+    PreprocessingCache callerCache = baseParams._preprocessing_cache;
+    PreprocessingCache preprocessingCache = callerCache == null ? new PreprocessingCache() : callerCache.retain();
+    baseParams._preprocessing_cache = preprocessingCache;
 
     try {
       // Get iterator to traverse hyper space
@@ -217,6 +225,17 @@ public final class GridSearch<MP extends Model.Parameters> extends Keyed<GridSea
               model.fillScoringInfo(scoringInfo);
               grid.setScoringInfos(ScoringInfo.prependScoringInfo(scoringInfo, grid.getScoringInfos()));
               ScoringInfo.sort(grid.getScoringInfos(), _hyperSpaceWalker.search_criteria().stopping_metric()); // Currently AUTO for Cartesian and user-specified for RandomDiscrete
+              // e.g. the model this one continued from a checkpoint (SuccessiveHalving)
+              Key<? extends Model<?, ?, ?>> superseded = it.supersededModel();
+              if (superseded != null && !superseded.equals(model._key)) {
+                grid.removeModel(superseded);
+                Model<?, ?, ?> previous = superseded.get();
+                if (previous != null) {
+                  previous.deleteCrossValidationModels();
+                  previous.deleteCrossValidationPreds();
+                  previous.delete(); // along with what the model owns (e.g. its DataInfo)
+                }
+              }
             }
           } catch (RuntimeException e) { // Catch everything
             if (!Job.isCancelledException(e)) {
@@ -248,6 +267,12 @@ public final class GridSearch<MP extends Model.Parameters> extends Keyed<GridSea
       } // while (it.hasNext(model))
       Log.info("For grid: " + grid._key + " built: " + grid.getModelCount() + " models.");
     } finally {
+      if (foldCache != null) {
+        foldCache.close();
+        baseParams._cv_fold_cache = null;
+      }
+      preprocessingCache.release();
+      baseParams._preprocessing_cache = callerCache;
       grid.unlock(_job);
     }
   }
@@ -9,7 +9,7 @@ import water.fvec.Frame;
  * when to stop the search.
  */
 public class HyperSpaceSearchCriteria extends Iced {
-  public enum Strategy { Unknown, Cartesian, RandomDiscrete } // search strategy
+  public enum Strategy { Unknown, Cartesian, RandomDiscrete, SuccessiveHalving } // search strategy
 
   public final Strategy _strategy;
   public final Strategy strategy() { return _strategy; }
@@ -121,4 +121,85 @@ public class HyperSpaceSearchCriteria extends Iced {
       this._stopping_tolerance = _stopping_tolerance;
     }
   }
+
+  /**
+   * Search criteria for a successive halving hyperparameter search: a random sample of the hyperparameter space is
+   * trained in rungs of increasing budget (e.g. number of trees or epochs), only the best 1/reduction_factor of the
+   * candidates of a rung are trained further in the next rung.
+   */
+  public static final class SuccessiveHalvingSearchCriteria extends HyperSpaceSearchCriteria {
+    private long _seed = -1; // -1 means true random
+
+    private int _max_models = 0;
+    private double _max_runtime_secs = 0;
+    private ScoreKeeper.StoppingMetric _stopping_metric = ScoreKeeper.StoppingMetric.AUTO;
+
+    private String _budget_parameter = null;
+    private double _min_budget = 0;
+    private double _max_budget = 0;
+    private double _reduction_factor = 3;
+
+    /** Seed for the random choices of hyperparameter values.  Set to a value other than -1 to get a repeatable pseudorandom sequence. */
+    public long seed() { return _seed; }
+
+    /** Number of hyperparameter combinations trained in the first rung, 0 for the entire hyperparameter space. */
+    public int max_models() { return _max_models; }
+
+    /** Max runtime for the entire grid, in seconds. Set to 0 to disable. */
+    public double max_runtime_secs() { return _max_runtime_secs; }
+
+    /** Metric used to rank the candidates of a rung (cross-validation, validation or training metric, as available). */
+    public ScoreKeeper.StoppingMetric stopping_metric() { return _stopping_metric; }
+
+    /**
+     * Model parameter holding the budget of a candidate, e.g. "ntrees" or "epochs". If not set, whichever of the two
+     * the model parameters have is used.
+     */
+    public String budget_parameter() { return _budget_parameter; }
+
+    /** Budget of the first rung. Set to 0 to have as many rungs as the number of candidates allows. */
+    public double min_budget() { return _min_budget; }
+
+    /** Budget of the last rung. Set to 0 to use the value of the budget parameter in the model parameters. */
+    public double max_budget() { return _max_budget; }
+
+    /** Factor by which the number of candidates is reduced (and their budget is increased) from rung to rung. */
+    public double reduction_factor() { return _reduction_factor; }
+
+    public SuccessiveHalvingSearchCriteria() {
+      super(Strategy.SuccessiveHalving);
+    }
+
+    public void set_seed(long _seed) {
+      this._seed = _seed;
+    }
+
+    public void set_max_models(int _max_models) {
+      this._max_models = _max_models;
+    }
+
+    public void set_max_runtime_secs(double _max_runtime_secs) {
+      this._max_runtime_secs = _max_runtime_secs;
+    }
+
+    public void set_stopping_metric(ScoreKeeper.StoppingMetric _stopping_metric) {
+      this._stopping_metric = _stopping_metric;
+    }
+
+    public void set_budget_parameter(String _budget_parameter) {
+      this._budget_parameter = _budget_parameter;
+    }
+
+    public void set_min_budget(double _min_budget) {
+      this._min_budget = _min_budget;
+    }
+
+    public void set_max_budget(double _max_budget) {
+      this._max_budget = _max_budget;
+    }
+
+    public void set_reduction_factor(double _reduction_factor) {
+      this._reduction_factor = _reduction_factor;
+    }
+  }
 }
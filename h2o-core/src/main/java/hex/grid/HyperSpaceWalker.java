@@ -4,6 +4,7 @@ import hex.Model;
 import hex.ModelParametersBuilderFactory;
 import hex.ScoreKeeper;
 import hex.ScoringInfo;
+import water.Key;
 import water.exceptions.H2OIllegalArgumentException;
 import water.util.PojoUtils;
 
@@ -32,14 +33,14 @@ public interface HyperSpaceWalker<MP extends Model.Parameters, C extends HyperSp
      * @throws IllegalArgumentException  when model parameters cannot be constructed
      * @throws java.util.NoSuchElementException if the iteration has no more elements
      */
-    MP nextModelParameters(Model previousModel);
+    MP nextModelParameters(Model<?, ?, ?> previousModel);
 
     /**
      * Returns true if the iterator can continue.  Takes into account strategy-specific stopping criteria, if any.
      * @param previousModel  optional parameter which helps to determine next step, can be null
      * @return  true if the iterator can produce one more model parameters configuration.
      */
-    boolean hasNext(Model previousModel);
+    boolean hasNext(Model<?, ?, ?> previousModel);
 
     void reset();
 
@@ -62,7 +63,7 @@ public interface HyperSpaceWalker<MP extends Model.Parameters, C extends HyperSp
      * Inform the Iterator that a model build failed in case it needs to adjust its internal state.
      * @param failedModel
      */
-    void modelFailed(Model failedModel);
+    void modelFailed(Model<?, ?, ?> failedModel);
 
     /**
      * Returns current "raw" state of iterator.
@@ -72,6 +73,14 @@ public interface HyperSpaceWalker<MP extends Model.Parameters, C extends HyperSp
      * @return  array of "untyped" values representing configuration of grid parameters
      */
     Object[] getCurrentRawParameters();
+
+    /**
+     * Returns the model superseded by the model built for the current point in hyper space, e.g. the model the
+     * current point continues training from a checkpoint. The grid search removes it once the new model is built.
+     *
+     * @return key of the superseded model or null if there is no such model
+     */
+    Key<? extends Model<?, ?, ?>> supersededModel();
   } // interface HyperSpaceIterator
 
   /**
@@ -154,6 +163,12 @@ public interface HyperSpaceWalker<MP extends Model.Parameters, C extends HyperSp
      */
     final MP _params;
 
+    /** A fresh copy of the base model parameters. */
+    @SuppressWarnings("unchecked")
+    protected MP cloneParams() {
+      return (MP) _params.clone();
+    }
+
     /**
      * Hyper space description - in this case only dimension and possible values.
      */
@@ -190,6 +205,8 @@ public interface HyperSpaceWalker<MP extends Model.Parameters, C extends HyperSp
           return new HyperSpaceWalker.CartesianWalker<>(params, hyperParams, paramsBuilderFactory, (HyperSpaceSearchCriteria.CartesianSearchCriteria) search_criteria);
         else if (strategy == HyperSpaceSearchCriteria.Strategy.RandomDiscrete )
           return new HyperSpaceWalker.RandomDiscreteValueWalker<>(params, hyperParams, paramsBuilderFactory, (HyperSpaceSearchCriteria.RandomDiscreteValueSearchCriteria) search_criteria);
+        else if (strategy == HyperSpaceSearchCriteria.Strategy.SuccessiveHalving)
+          return new HyperSpaceWalker.SuccessiveHalvingWalker<>(params, hyperParams, paramsBuilderFactory, (HyperSpaceSearchCriteria.SuccessiveHalvingSearchCriteria) search_criteria);
         else
           throw new H2OIllegalArgumentException("strategy", "GridSearch", strategy);
       }
@@ -357,13 +374,13 @@ public interface HyperSpaceWalker<MP extends Model.Parameters, C extends HyperSp
         private int[] _currentHyperparamIndices = null;
 
         @Override
-        public MP nextModelParameters(Model previousModel) {
+        public MP nextModelParameters(Model<?, ?, ?> previousModel) {
           _currentHyperparamIndices = _currentHyperparamIndices != null ? nextModelIndices(_currentHyperparamIndices) : new int[_hyperParamNames.length];
           if (_currentHyperparamIndices != null) {
             // Fill array of hyper-values
             Object[] hypers = hypers(_currentHyperparamIndices, new Object[_hyperParamNames.length]);
             // Get clone of parameters
-            MP commonModelParams = (MP) _params.clone();
+            MP commonModelParams = cloneParams();
             // Fill model parameters
             MP params = getModelParams(commonModelParams, hypers);
 
@@ -374,7 +391,7 @@ public interface HyperSpaceWalker<MP extends Model.Parameters, C extends HyperSp
         }
 
         @Override
-        public boolean hasNext(Model previousModel) {
+        public boolean hasNext(Model<?, ?, ?> previousModel) {
           if (_currentHyperparamIndices == null) {
             return true;
           }
@@ -400,7 +417,7 @@ public interface HyperSpaceWalker<MP extends Model.Parameters, C extends HyperSp
         public int max_models() { return _maxHyperSpaceSize > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int)_maxHyperSpaceSize; }
 
         @Override
-        public void modelFailed(Model failedModel) {
+        public void modelFailed(Model<?, ?, ?> failedModel) {
           // nada
         }
 
@@ -409,6 +426,9 @@ public interface HyperSpaceWalker<MP extends Model.Parameters, C extends HyperSp
           Object[] hyperValues = new Object[_hyperParamNames.length];
           return hypers(_currentHyperparamIndices, hyperValues);
         }
+
+        @Override
+        public Key<? extends Model<?, ?, ?>> supersededModel() { return null; }
       }; // anonymous HyperSpaceIterator class
     } // iterator()
 
@@ -485,7 +505,7 @@ public interface HyperSpaceWalker<MP extends Model.Parameters, C extends HyperSp
 
         // TODO: override into a common subclass:
         @Override
-        public MP nextModelParameters(Model previousModel) {
+        public MP nextModelParameters(Model<?, ?, ?> previousModel) {
           // NOTE: nextModel checks _visitedHyperparamIndices and does not return a duplicate set of indices.
           // NOTE: in RandomDiscreteValueWalker nextModelIndices() returns a new array each time, rather than
           // mutating the last one.
@@ -499,7 +519,7 @@ public interface HyperSpaceWalker<MP extends Model.Parameters, C extends HyperSp
             // Fill array of hyper-values
             Object[] hypers = hypers(_currentHyperparamIndices, new Object[_hyperParamNames.length]);
             // Get clone of parameters
-            MP commonModelParams = (MP) _params.clone();
+            MP commonModelParams = cloneParams();
             // Fill model parameters
             MP params = getModelParams(commonModelParams, hypers);
 
@@ -530,7 +550,7 @@ public interface HyperSpaceWalker<MP extends Model.Parameters, C extends HyperSp
         }
 
         @Override
-        public boolean hasNext(Model previousModel) {
+        public boolean hasNext(Model<?, ?, ?> previousModel) {
           // Note: we compare _currentPermutationNum to max_models, because it counts successfully created models, but
           // we compare _visitedPermutationHashes.size() to _maxHyperSpaceSize because we want to stop when we have attempted each combo.
           //
@@ -563,7 +583,7 @@ public interface HyperSpaceWalker<MP extends Model.Parameters, C extends HyperSp
         }
 
         @Override
-        public void modelFailed(Model failedModel) {
+        public void modelFailed(Model<?, ?, ?> failedModel) {
           // Leave _visitedPermutations, _visitedPermutationHashes and _currentHyperparamIndices alone
           // so we don't revisit bad parameters. Note that if a model build fails for other reasons we
           // won't retry.
@@ -575,6 +595,9 @@ public interface HyperSpaceWalker<MP extends Model.Parameters, C extends HyperSp
           Object[] hyperValues = new Object[_hyperParamNames.length];
           return hypers(_currentHyperparamIndices, hyperValues);
         }
+
+        @Override
+        public Key<? extends Model<?, ?, ?>> supersededModel() { return null; }
       }; // anonymous HyperSpaceIterator class
     } // iterator()
 
@@ -598,4 +621,268 @@ public interface HyperSpaceWalker<MP extends Model.Parameters, C extends HyperSp
     } // nextModel
 
   } // RandomDiscreteValueWalker
+
+  /**
+   * Hyperparameter space walker for successive halving. A random sample of the hyperparameter combinations is trained
+   * in rungs of increasing budget, the budget being a model parameter such as the number of trees or epochs. After
+   * each rung only the best 1/reduction_factor of its candidates (ranked by the stopping metric) are trained further.
+   * A candidate continues from its model of the previous rung if the algorithm supports checkpoints and the models are
+   * not cross-validated, otherwise it is trained again from scratch with the larger budget. Either way the model of the
+   * previous rung is superseded, so the grid ends up with one model per candidate, the one with its largest budget.
+   * Early stopping is turned off in all rungs but the last one, so the candidates of a rung are compared with the same
+   * budget.
+   */
+  public static class SuccessiveHalvingWalker<MP extends Model.Parameters>
+      extends BaseWalker<MP, HyperSpaceSearchCriteria.SuccessiveHalvingSearchCriteria> {
+
+    /** Model parameter holding the budget, e.g. "_ntrees". */
+    final String _budgetParam;
+
+    /** Budget of every rung, in increasing order. */
+    final double[] _budgets;
+
+    /** Number of candidates of the first rung. */
+    final int _candidates;
+
+    /** Continue the candidates of a rung from their models of the previous rung? */
+    final boolean _resume;
+
+    public SuccessiveHalvingWalker(MP params,
+                                   Map<String, Object[]> hyperParams,
+                                   ModelParametersBuilderFactory<MP> paramsBuilderFactory,
+                                   HyperSpaceSearchCriteria.SuccessiveHalvingSearchCriteria search_criteria) {
+      super(params, hyperParams, paramsBuilderFactory, search_criteria);
+
+      _budgetParam = budgetParam(params, search_criteria.budget_parameter());
+      for (String name : _hyperParamNames)
+        if (_budgetParam.equals(name) || _budgetParam.equals("_" + name))
+          throw new H2OIllegalArgumentException("Successive halving sets the budget parameter '" + name + "' of every model, it cannot be a hyperparameter.");
+      final double eta = search_criteria.reduction_factor();
+      if (!(eta > 1))
+        throw new H2OIllegalArgumentException("reduction_factor", "SuccessiveHalving", eta);
+      Object budget = PojoUtils.getFieldValue(params, _budgetParam, PojoUtils.FieldNaming.CONSISTENT);
+      double maxBudget = search_criteria.max_budget() > 0 ? search_criteria.max_budget() : ((Number) budget).doubleValue();
+      if (!(maxBudget > 0) || search_criteria.min_budget() > maxBudget)
+        throw new H2OIllegalArgumentException("max_budget", "SuccessiveHalving", maxBudget);
+      boolean integral = budget instanceof Integer || budget instanceof Long;
+
+      long candidates = search_criteria.max_models() > 0 ? Math.min(search_criteria.max_models(), _maxHyperSpaceSize) : _maxHyperSpaceSize;
+      _candidates = (int) Math.min(Integer.MAX_VALUE, candidates);
+
+      // as many rungs as it takes to get down to a single candidate, unless the first rung gets less than min_budget
+      int rungs = 1 + (int) floor(Math.log(_candidates) / Math.log(eta) + 1e-9);
+      double minBudget = search_criteria.min_budget() > 0 ? search_criteria.min_budget() : integral ? 1 : 0;
+      if (minBudget > 0)
+        rungs = min(rungs, 1 + (int) floor(Math.log(maxBudget / minBudget) / Math.log(eta) + 1e-9));
+      List<Double> budgets = new ArrayList<>();
+      for (int r = 0; r < rungs; r++) {
+        double b = maxBudget / Math.pow(eta, rungs - 1 - r);
+        if (integral) b = Math.ceil(b - 1e-9);
+        if (budgets.isEmpty() || b > budgets.get(budgets.size() - 1)) budgets.add(b);
+      }
+      _budgets = new double[budgets.size()];
+      for (int r = 0; r < _budgets.length; r++) _budgets[r] = budgets.get(r);
+
+      _resume = params.supportsCheckpoint() && params._nfolds == 0 && params._fold_column == null;
+    }
+
+    private static String budgetParam(Model.Parameters params, String name) {
+      String[] names = name == null || name.isEmpty() ? new String[]{"_ntrees", "_epochs"}
+                                                      : new String[]{name.startsWith("_") ? name : "_" + name};
+      for (String n : names) {
+        try {
+          if (PojoUtils.getFieldValue(params, n, PojoUtils.FieldNaming.CONSISTENT) instanceof Number)
+            return n;
+        } catch (IllegalArgumentException e) {
+          // not a parameter of this algo
+        }
+      }
+      throw new H2OIllegalArgumentException("budget_parameter", "SuccessiveHalving", name == null ? "ntrees or epochs" : name);
+    }
+
+    /** Number of candidates trained in every rung. */
+    int[] rungSizes() {
+      int[] sizes = new int[_budgets.length];
+      double n = _candidates;
+      for (int r = 0; r < sizes.length; r++) {
+        sizes[r] = (int) n;
+        n = Math.max(1, floor(n / search_criteria().reduction_factor()));
+      }
+      return sizes;
+    }
+
+    /** A point in hyperparameter space and its model of the last rung it was trained in. */
+    private static final class Candidate {
+      final int[] _hidx;
+      Key<? extends Model<?, ?, ?>> _model;
+      ScoringInfo _scoring;
+      int _rung = -1;
+
+      Candidate(int[] hidx) { _hidx = hidx; }
+    }
+
+    /** Distinct random points in hyperparameter space. */
+    private List<Candidate> sample(Random random) {
+      List<Candidate> res = new ArrayList<>(_candidates);
+      if (2L * _candidates >= _maxHyperSpaceSize) {
+        List<Long> all = new ArrayList<>();
+        for (long i = 0; i < _maxHyperSpaceSize; i++) all.add(i);
+        Collections.shuffle(all, random);
+        for (int i = 0; i < _candidates; i++) res.add(new Candidate(indices(all.get(i))));
+      } else {
+        Set<Long> visited = new HashSet<>();
+        while (res.size() < _candidates) {
+          long i = (long) (random.nextDouble() * _maxHyperSpaceSize);
+          if (visited.add(i)) res.add(new Candidate(indices(i)));
+        }
+      }
+      return res;
+    }
+
+    /** Indices of the hyperparameter values of the i-th point of the hyperparameter space. */
+    private int[] indices(long i) {
+      int[] hidx = new int[_hyperParamNames.length];
+      for (int h = 0; h < hidx.length; h++) {
+        int n = _hyperParams.get(_hyperParamNames[h]).length;
+        hidx[h] = (int) (i % n);
+        i /= n;
+      }
+      return hidx;
+    }
+
+    @Override
+    public HyperSpaceIterator<MP> iterator() {
+      return new HyperSpaceIterator<MP>() {
+        /** Candidates of the current rung. */
+        private List<Candidate> _rungCandidates;
+        private int _rung;
+
+        /** Index of the next candidate of the current rung to train. */
+        private int _next;
+
+        /** Candidate trained last, and its model once it has been reported back. */
+        private Candidate _current;
+        private Key<? extends Model<?, ?, ?>> _lastModel;
+
+        /** Model of the previous rung of the candidate trained last. */
+        private Key<? extends Model<?, ?, ?>> _superseded;
+
+        /** Start time of this grid */
+        private long _start_time;
+
+        {
+          reset();
+        }
+
+        @Override
+        public MP nextModelParameters(Model<?, ?, ?> previousModel) {
+          modelBuilt(previousModel);
+          if (!nextCandidate())
+            throw new NoSuchElementException("No more elements to explore in hyper-space!");
+          _current = _rungCandidates.get(_next++);
+          _superseded = _current._model;
+          // Fill model parameters
+          Object[] hypers = hypers(_current._hidx, new Object[_hyperParamNames.length]);
+          MP params = getModelParams(cloneParams(), hypers);
+          PojoUtils.setField(params, _budgetParam, _budgets[_rung], PojoUtils.FieldNaming.CONSISTENT);
+          if (_rung < _budgets.length - 1)
+            params._stopping_rounds = 0;
+          if (_resume && _current._model != null)
+            params._checkpoint = _current._model;
+          return params;
+        }
+
+        @Override
+        public boolean hasNext(Model<?, ?, ?> previousModel) {
+          modelBuilt(previousModel);
+          return nextCandidate();
+        }
+
+        /** Record the model of the candidate trained last (the same model can be reported several times). */
+        private void modelBuilt(Model<?, ?, ?> model) {
+          if (model == null || _current == null || model._key.equals(_lastModel)) return;
+          _lastModel = model._key;
+          _current._model = model._key;
+          _current._rung = _rung;
+          _current._scoring = new ScoringInfo();
+          model.fillScoringInfo(_current._scoring);
+        }
+
+        /** Is there a candidate left in this rung, or are there any candidates promoted to the next one? */
+        private boolean nextCandidate() {
+          if (_next < _rungCandidates.size()) return true;
+          if (_rung + 1 >= _budgets.length) return false;
+          // candidates whose model failed are out
+          List<Candidate> trained = new ArrayList<>();
+          for (Candidate c : _rungCandidates)
+            if (c._rung == _rung) trained.add(c);
+          if (trained.isEmpty()) return false;
+
+          ScoreKeeper.StoppingMetric metric = search_criteria().stopping_metric();
+          if (metric == ScoreKeeper.StoppingMetric.AUTO) {
+            ScoringInfo si = trained.get(0)._scoring;
+            metric = si.is_classification ? ScoreKeeper.StoppingMetric.logloss
+                   : si.is_autoencoder ? ScoreKeeper.StoppingMetric.RMSE : ScoreKeeper.StoppingMetric.deviance;
+          }
+          final Comparator<ScoringInfo> byMetric = ScoringInfo.comparator(metric);
+          // best first
+          Collections.sort(trained, new Comparator<Candidate>() {
+            @Override
+            public int compare(Candidate c1, Candidate c2) { return byMetric.compare(c2._scoring, c1._scoring); }
+          });
+          int keep = (int) Math.max(1, floor(trained.size() / search_criteria().reduction_factor()));
+          _rungCandidates = new ArrayList<>(trained.subList(0, keep));
+          _rung++;
+          _next = 0;
+          return true;
+        }
+
+        @Override
+        public void reset() {
+          _start_time = System.currentTimeMillis();
+          long seed = search_criteria().seed();
+          _rungCandidates = sample(-1 == seed ? new Random() : new Random(seed));
+          _rung = 0;
+          _next = 0;
+          _current = null;
+          _lastModel = null;
+          _superseded = null;
+        }
+
+        @Override
+        public double max_runtime_secs() {
+          return search_criteria().max_runtime_secs();
+        }
+
+        /** Number of model builds of the whole search */
+        @Override
+        public int max_models() {
+          long n = 0;
+          for (int size : rungSizes()) n += size;
+          return (int) Math.min(Integer.MAX_VALUE, n);
+        }
+
+        @Override
+        public double time_remaining_secs() {
+          return search_criteria().max_runtime_secs() - (System.currentTimeMillis() - _start_time) / 1000.0;
+        }
+
+        @Override
+        public void modelFailed(Model<?, ?, ?> failedModel) {
+          // the candidate gets no model in this rung, so it is not promoted
+        }
+
+        @Override
+        public Object[] getCurrentRawParameters() {
+          Object[] hyperValues = new Object[_hyperParamNames.length];
+          return hypers(_current._hidx, hyperValues);
+        }
+
+        @Override
+        public Key<? extends Model<?, ?, ?>> supersededModel() {
+          return _superseded;
+        }
+      }; // anonymous HyperSpaceIterator class
+    } // iterator()
+  } // SuccessiveHalvingWalker
 }
@@ -99,6 +99,14 @@ public class GridSearchSchema<G extends Grid<MP>,
           if (p.containsKey("max_models") && Integer.parseInt((String) p.get("max_models"))<0) {
             throw new H2OIllegalArgumentException("max_models must be >= 0 (0 for all models)", strategy);
           }
+        } else if ("SuccessiveHalving".equals(strategy)) {
+          search_criteria = new HyperSpaceSearchCriteriaV99.SuccessiveHalvingSearchCriteriaV99();
+          if (p.containsKey("max_runtime_secs") && Double.parseDouble((String) p.get("max_runtime_secs"))<0) {
+            throw new H2OIllegalArgumentException("max_runtime_secs must be >= 0 (0 for unlimited time)", strategy);
+          }
+          if (p.containsKey("max_models") && Integer.parseInt((String) p.get("max_models"))<0) {
+            throw new H2OIllegalArgumentException("max_models must be >= 0 (0 for all models)", strategy);
+          }
         } else {
           throw new H2OIllegalArgumentException("search_criteria.strategy", strategy);
         }
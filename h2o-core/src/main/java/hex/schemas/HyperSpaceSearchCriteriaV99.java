@@ -13,7 +13,7 @@ import water.exceptions.H2OIllegalArgumentException;
 public class HyperSpaceSearchCriteriaV99<I extends HyperSpaceSearchCriteria, S extends HyperSpaceSearchCriteriaV99<I,S>>
     extends SchemaV3<I, S> {
 
-  @API(help = "Hyperparameter space search strategy.", required = true, values = { "Unknown", "Cartesian", "RandomDiscrete" }, direction = API.Direction.INOUT)
+  @API(help = "Hyperparameter space search strategy.", required = true, values = { "Unknown", "Cartesian", "RandomDiscrete", "SuccessiveHalving" }, direction = API.Direction.INOUT)
   public HyperSpaceSearchCriteria.Strategy strategy;
 
 // TODO: add a factory which accepts a Strategy and calls the right constructor
@@ -64,6 +64,40 @@ public class HyperSpaceSearchCriteriaV99<I extends HyperSpaceSearchCriteria, S e
     public double stopping_tolerance;
   }
 
+  /**
+   * Search criteria for a successive halving hyperparameter search: random candidates are trained with a small budget
+   * (e.g. number of trees), only the best of them continue with a larger budget.
+   */
+  public static class SuccessiveHalvingSearchCriteriaV99 extends HyperSpaceSearchCriteriaV99<HyperSpaceSearchCriteria.SuccessiveHalvingSearchCriteria, SuccessiveHalvingSearchCriteriaV99> {
+    public SuccessiveHalvingSearchCriteriaV99() {
+      strategy = HyperSpaceSearchCriteria.Strategy.SuccessiveHalving;
+    }
+
+    @API(help = "Seed for random number generator; set to a value other than -1 for reproducibility.", required = false, direction = API.Direction.INOUT)
+    public long seed;
+
+    @API(help = "Maximum number of candidates of the first rung (optional).", required = false, direction = API.Direction.INOUT)
+    public int max_models;
+
+    @API(help = "Maximum time to spend building models (optional).", required = false, direction = API.Direction.INOUT)
+    public double max_runtime_secs;
+
+    @API(help = "Metric to rank the candidates of a rung by (AUTO: logloss for classification, deviance for regression)", values = {"AUTO", "deviance", "logloss", "MSE", "RMSE","MAE","RMSLE", "AUC", "lift_top_group", "misclassification", "mean_per_class_error"}, level = API.Level.secondary, direction=API.Direction.INOUT)
+    public ScoreKeeper.StoppingMetric stopping_metric;
+
+    @API(help = "Model parameter holding the budget of a candidate (default: ntrees, or epochs for Deep Learning).", required = false, direction = API.Direction.INOUT)
+    public String budget_parameter;
+
+    @API(help = "Budget of the first rung (optional; by default the max budget is divided by the reduction factor until one candidate is left).", required = false, direction = API.Direction.INOUT)
+    public double min_budget;
+
+    @API(help = "Budget of the last rung (optional; by default the value of the budget parameter).", required = false, direction = API.Direction.INOUT)
+    public double max_budget;
+
+    @API(help = "Only 1/reduction_factor of the candidates of a rung are trained in the next rung, with reduction_factor times the budget.", required = false, direction = API.Direction.INOUT)
+    public double reduction_factor;
+  }
+
   /**
    * Fill with the default values from the corresponding Iced object.
    */
@@ -74,6 +108,8 @@ public class HyperSpaceSearchCriteriaV99<I extends HyperSpaceSearchCriteria, S e
       defaults = new HyperSpaceSearchCriteria.CartesianSearchCriteria();
     } else if (HyperSpaceSearchCriteria.Strategy.RandomDiscrete == strategy) {
       defaults = new HyperSpaceSearchCriteria.RandomDiscreteValueSearchCriteria();
+    } else if (HyperSpaceSearchCriteria.Strategy.SuccessiveHalving == strategy) {
+      defaults = new HyperSpaceSearchCriteria.SuccessiveHalvingSearchCriteria();
     } else {
       throw new H2OIllegalArgumentException("search_criteria.strategy", strategy.toString());
     }
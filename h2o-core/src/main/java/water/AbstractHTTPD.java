@@ -10,9 +10,11 @@ import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.bio.SocketConnector;
 import org.eclipse.jetty.server.handler.AbstractHandler;
 import org.eclipse.jetty.server.handler.HandlerWrapper;
+import org.eclipse.jetty.server.nio.SelectChannelConnector;
 import org.eclipse.jetty.server.session.HashSessionIdManager;
 import org.eclipse.jetty.server.session.HashSessionManager;
 import org.eclipse.jetty.server.session.SessionHandler;
+import org.eclipse.jetty.server.ssl.SslSelectChannelConnector;
 import org.eclipse.jetty.server.ssl.SslSocketConnector;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.util.security.Constraint;
@@ -204,10 +206,18 @@ public abstract class AbstractHTTPD {
     return s;
   }
 
+  /**
+   * @return true to serve the connections by a non-blocking (NIO) connector, its threads are released
+   * while a request is suspended
+   */
+  protected boolean useNonBlockingConnector() {
+    return false;
+  }
+
   protected void startHttp() throws Exception {
     _server = makeServer();
 
-    Connector connector=new SocketConnector();
+    Connector connector = useNonBlockingConnector() ? new SelectChannelConnector() : new SocketConnector();
     connector.setHost(_ip);
     connector.setPort(_port);
 
@@ -225,7 +235,8 @@ public abstract class AbstractHTTPD {
     SslContextFactory sslContextFactory = new SslContextFactory(_args.jks);
     sslContextFactory.setKeyStorePassword(_args.jks_pass);
 
-    SslSocketConnector httpsConnector = new SslSocketConnector(sslContextFactory);
+    Connector httpsConnector = useNonBlockingConnector() ?
+        new SslSelectChannelConnector(sslContextFactory) : new SslSocketConnector(sslContextFactory);
 
     if (getIp() != null) {
       httpsConnector.setHost(getIp());
@@ -1303,7 +1303,7 @@ public final class AutoBuffer {
     }
     return this;
   }
-  AutoBuffer putA2( short[] ary ) {
+  public AutoBuffer putA2( short[] ary ) {
     //_arys++;
     if( ary == null ) return putInt(-1);
     putInt(ary.length);
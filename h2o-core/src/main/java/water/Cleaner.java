@@ -4,6 +4,8 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Arrays;
 import water.fvec.Chunk;
+import water.metrics.Counter;
+import water.metrics.MetricsRegistry;
 import water.util.Log;
 import water.util.PrettyPrint;
 
@@ -43,6 +45,11 @@ class Cleaner extends Thread {
   // Desired cache level. Set by the MemoryManager asynchronously.
   static volatile long DESIRED;
 
+  // Spill statistics, rates are derived by the consumers of the MetricsRegistry
+  private static final Counter PASSES = MetricsRegistry.counter("h2o_cleaner_passes_total", "Passes of the Cleaner over the K/V store");
+  private static final Counter SPILLED_BYTES = MetricsRegistry.counter("h2o_cleaner_spilled_bytes_total", "Bytes written to disk by the Cleaner");
+  private static final Counter FREED_BYTES = MetricsRegistry.counter("h2o_cleaner_freed_bytes_total", "Bytes freed from the heap by the Cleaner");
+
   Cleaner() {
     super("MemCleaner");
     setDaemon(true);
@@ -186,6 +193,9 @@ class Cleaner extends Thread {
         force = (h._cached >= DESIRED || !MemoryManager.CAN_ALLOC); // Forced to clean
       }
 
+      PASSES.inc();
+      SPILLED_BYTES.inc(cleaned);
+      FREED_BYTES.inc(Math.max(freed, 0));
       String s1 = "Cleaner pass took: "+PrettyPrint.msecs(System.currentTimeMillis()-now,true)+
                   ", spilled "+PrettyPrint.bytes(cleaned)+" in "+PrettyPrint.usecs(io_ns>>10);
       h = Histo.current(true); // Force a new histogram
@@ -226,6 +236,8 @@ class Cleaner extends Thread {
     // built nor blocking for one being in-progress.
     static long cached() { return H._cached; }
     static long swapped(){ return H._swapped;}
+    // Latest histogram, null until the first one is computed
+    static Histo latest() { return H; }
 
     final long[] _hs = new long[128];
     long _oldest; // Time of the oldest K/V discovered this pass
@@ -20,6 +20,10 @@ import java.nio.channels.SocketChannel;
  * <p>When reading the data, it is expected that h2o frame is in DKV. To read more about the reading API, please read
  * documentation of {@link ExternalFrameReaderClient}</p>
  *
+ * <p>Clients can optionally start with a {@code PROTOCOL_HANDSHAKE} request to agree on the protocol version. Clients
+ * which skip the handshake talk {@link ExternalFrameUtils#PROTOCOL_VERSION_ROW}, the original value-by-value
+ * protocol. {@link ExternalFrameUtils#PROTOCOL_VERSION_COLUMNAR} allows writing whole column vectors per chunk at once.</p>
+ *
  *
  */
 final class ExternalFrameHandler {
@@ -67,6 +71,13 @@ final class ExternalFrameHandler {
      */
     static final byte CREATE_FRAME = 0;
     static final byte DOWNLOAD_FRAME = 1;
+    static final byte PROTOCOL_HANDSHAKE = 2;
+    static final byte CREATE_FRAME_COLUMNAR = 3;
+
+    /**
+     * Highest protocol version supported by this backend
+     */
+    static final byte PROTOCOL_VERSION_MAX = ExternalFrameUtils.PROTOCOL_VERSION_COLUMNAR;
 
     /**
      * Method which receives the {@link ByteChannel} and {@link AutoBuffer} and dispatches the request for further processing
@@ -80,6 +91,25 @@ final class ExternalFrameHandler {
             case DOWNLOAD_FRAME:
                 ExternalFrameReaderBackend.handleReadingFromChunk(sock, ab);
                 break;
+            case PROTOCOL_HANDSHAKE:
+                handleHandshake(sock, ab);
+                break;
+            case CREATE_FRAME_COLUMNAR:
+                ExternalFrameWriterBackend.handleWriteToChunkColumnar(sock, ab);
+                break;
+            default:
+                throw new IOException("Unknown request type: " + requestType);
         }
     }
+
+    /**
+     * Agree on the protocol version. The client sends the highest version it understands, the backend answers with
+     * the highest version understood by both sides.
+     */
+    private static void handleHandshake(ByteChannel sock, AutoBuffer ab) throws IOException {
+        byte clientVersion = ab.get1();
+        AutoBuffer outputAb = new AutoBuffer();
+        outputAb.put1((byte) Math.min(clientVersion, PROTOCOL_VERSION_MAX));
+        ExternalFrameUtils.writeToChannel(outputAb, sock);
+    }
 }
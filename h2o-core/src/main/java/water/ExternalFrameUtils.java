@@ -6,6 +6,7 @@ import water.network.SocketChannelFactory;
 import java.io.IOException;
 import java.nio.channels.ByteChannel;
 import java.sql.Timestamp;
+import java.util.BitSet;
 
 import static water.ExternalFrameHandler.*;
 
@@ -32,6 +33,13 @@ public class ExternalFrameUtils {
     public static final byte EXPECTED_TIMESTAMP = 9;
     public static final byte EXPECTED_VECTOR = 10;
 
+    /**
+     * Versions of the writing protocol. The row protocol sends one value at a time and signals NAs by marker bytes.
+     * The columnar protocol sends whole columns per chunk and signals NAs by a bitmap per column.
+     */
+    public static final byte PROTOCOL_VERSION_ROW = 1;
+    public static final byte PROTOCOL_VERSION_COLUMNAR = 2;
+
     /* Helper empty int array */
     public static final int[] EMPTY_ARI = new int[0];
 
@@ -307,9 +315,24 @@ public class ExternalFrameUtils {
         writeToChannel(ab, channel);
     }
 
+    /**
+     * Encode NA bitmap of a column sent by the columnar protocol. Columns without NAs are sent as null array.
+     */
+    static void putNABitmap(AutoBuffer ab, BitSet nas) {
+        ab.putA1(nas == null || nas.isEmpty() ? null : nas.toByteArray());
+    }
+
+    static BitSet getNABitmap(AutoBuffer ab) {
+        byte[] bitmap = ab.getA1();
+        return bitmap == null ? new BitSet() : BitSet.valueOf(bitmap);
+    }
+
     public static void writeToChannel(AutoBuffer ab, ByteChannel channel) throws IOException {
         ab.flipForReading();
-        channel.write(ab._bb);
+        // columnar batches can be large, make sure the whole buffer gets out
+        while (ab._bb.hasRemaining()) {
+            channel.write(ab._bb);
+        }
         ab.clearForWriting(H2O.MAX_PRIORITY);
     }
 }
@@ -2,9 +2,11 @@ package water;
 
 import water.fvec.ChunkUtils;
 import water.fvec.NewChunk;
+import water.parser.BufferedString;
 
 import java.io.IOException;
 import java.nio.channels.ByteChannel;
+import java.util.BitSet;
 
 import static water.ExternalFrameUtils.*;
 
@@ -71,6 +73,114 @@ final class ExternalFrameWriterBackend {
             }
             currentRowIdx++;
         }
+        closeAndConfirm(sock, nchnk);
+    }
+
+    /**
+     * Internal method use on the h2o backend side to handle writing to the chunk when the columnar protocol is used.
+     * Each column arrives as a single batch and is bulk-loaded into the corresponding {@link NewChunk}.
+     * @param sock socket channel originating from non-h2o node
+     * @param ab {@link AutoBuffer} containing information necessary for preparing backend for writing
+     */
+    static void handleWriteToChunkColumnar(ByteChannel sock, AutoBuffer ab) throws IOException {
+        String frameKey = ab.getStr();
+        byte[] expectedTypes = ab.getA1();
+        if( expectedTypes == null){
+          throw new RuntimeException("Expected types can't be null.");
+        }
+        int[] maxVecSizes = ab.getA4();
+
+        int[] elemSizes = ExternalFrameUtils.getElemSizes(expectedTypes, maxVecSizes != null ? maxVecSizes : EMPTY_ARI);
+        int[] startPos = ExternalFrameUtils.getStartPositions(elemSizes);
+        byte[] vecTypes = vecTypesFromExpectedTypes(expectedTypes, maxVecSizes != null ? maxVecSizes : EMPTY_ARI);
+        int expectedNumRows = ab.getInt();
+        int chunk_id = ab.getInt();
+        NewChunk[] nchnk = ChunkUtils.createNewChunks(frameKey, vecTypes, chunk_id);
+        assert nchnk != null;
+        for (int typeIdx = 0; typeIdx < expectedTypes.length; typeIdx++) {
+            NewChunk chunk = nchnk[startPos[typeIdx]];
+            switch (expectedTypes[typeIdx]) {
+                case EXPECTED_BOOL: // fall through to byte since BOOL is internally stored in frame as number (byte)
+                case EXPECTED_BYTE: {
+                    byte[] data = ab.getA1();
+                    double[] ds = new double[checkLength(data == null ? 0 : data.length, expectedNumRows)];
+                    for (int i = 0; i < ds.length; i++) ds[i] = data[i];
+                    storeColumn(chunk, ds, getNABitmap(ab));
+                    break;
+                }
+                case EXPECTED_CHAR: {
+                    short[] data = ab.getA2();
+                    double[] ds = new double[checkLength(data == null ? 0 : data.length, expectedNumRows)];
+                    for (int i = 0; i < ds.length; i++) ds[i] = (char) data[i];
+                    storeColumn(chunk, ds, getNABitmap(ab));
+                    break;
+                }
+                case EXPECTED_SHORT: {
+                    short[] data = ab.getA2();
+                    double[] ds = new double[checkLength(data == null ? 0 : data.length, expectedNumRows)];
+                    for (int i = 0; i < ds.length; i++) ds[i] = data[i];
+                    storeColumn(chunk, ds, getNABitmap(ab));
+                    break;
+                }
+                case EXPECTED_INT: {
+                    int[] data = ab.getA4();
+                    double[] ds = new double[checkLength(data == null ? 0 : data.length, expectedNumRows)];
+                    for (int i = 0; i < ds.length; i++) ds[i] = data[i];
+                    storeColumn(chunk, ds, getNABitmap(ab));
+                    break;
+                }
+                case EXPECTED_FLOAT: {
+                    float[] data = ab.getA4f();
+                    double[] ds = new double[checkLength(data == null ? 0 : data.length, expectedNumRows)];
+                    for (int i = 0; i < ds.length; i++) ds[i] = data[i];
+                    storeColumn(chunk, ds, getNABitmap(ab));
+                    break;
+                }
+                case EXPECTED_DOUBLE: {
+                    double[] data = ab.getA8d();
+                    double[] ds = data == null ? new double[0] : data;
+                    checkLength(ds.length, expectedNumRows);
+                    storeColumn(chunk, ds, getNABitmap(ab));
+                    break;
+                }
+                case EXPECTED_TIMESTAMP: // fall through to long since TIMESTAMP is internally stored in frame as long
+                case EXPECTED_LONG: {
+                    // longs can't be represented by doubles without loss of precision
+                    long[] data = ab.getA8();
+                    checkLength(data == null ? 0 : data.length, expectedNumRows);
+                    BitSet nas = getNABitmap(ab);
+                    for (int i = 0; i < expectedNumRows; i++) {
+                        if (nas.get(i)) chunk.addNA();
+                        else chunk.addNum(data[i], 0);
+                    }
+                    break;
+                }
+                case EXPECTED_STRING: {
+                    int[] offsets = ab.getA4();
+                    byte[] data = ab.getA1();
+                    checkLength(offsets == null ? 0 : offsets.length - 1, expectedNumRows);
+                    BitSet nas = getNABitmap(ab);
+                    BufferedString str = new BufferedString();
+                    for (int i = 0; i < expectedNumRows; i++) {
+                        if (nas.get(i)) {
+                            chunk.addNA();
+                        } else {
+                            chunk.addStr(str.set(data, offsets[i], offsets[i + 1] - offsets[i]));
+                        }
+                    }
+                    break;
+                }
+                case EXPECTED_VECTOR:
+                    storeVectorColumn(ab, nchnk, elemSizes[typeIdx], startPos[typeIdx], expectedNumRows);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown expected type: " + expectedTypes[typeIdx]);
+            }
+        }
+        closeAndConfirm(sock, nchnk);
+    }
+
+    private static void closeAndConfirm(ByteChannel sock, NewChunk[] nchnk) throws IOException {
         // close chunks at the end
         ChunkUtils.closeNewChunks(nchnk);
 
@@ -85,6 +195,49 @@ final class ExternalFrameWriterBackend {
         writeToChannel(outputAb, sock);
     }
 
+    private static int checkLength(int length, int expectedNumRows) {
+        if (length != expectedNumRows) {
+            throw new IllegalArgumentException("Column has " + length + " rows, expected " + expectedNumRows);
+        }
+        return length;
+    }
+
+    /**
+     * Bulk-load a numeric column. The array is handed over to the chunk, NAs are stored as NaNs.
+     */
+    private static void storeColumn(NewChunk chunk, double[] ds, BitSet nas) {
+        for (int i = nas.nextSetBit(0); i >= 0 && i < ds.length; i = nas.nextSetBit(i + 1)) {
+            ds[i] = Double.NaN;
+        }
+        chunk.setDoubles(ds);
+    }
+
+    private static void storeVectorColumn(AutoBuffer ab, NewChunk[] nchnk, int maxVecSize, int startPos, int numRows) {
+        boolean isSparse = ab.getZ();
+        int[] rowOffsets = ab.getA4();
+        int[] indices = isSparse ? ab.getA4() : null;
+        double[] values = ab.getA8d();
+        if (rowOffsets == null || values == null || (isSparse && indices == null)) {
+            throw new RuntimeException("Vector column can't be null!");
+        }
+        checkLength(rowOffsets.length - 1, numRows);
+        // Fill each element column up to the row of its next non-zero only, so sparse input stays sparse
+        int[] filled = new int[maxVecSize];
+        for (int row = 0; row < numRows; row++) {
+            for (int pos = rowOffsets[row]; pos < rowOffsets[row + 1]; pos++) {
+                int elem = isSparse ? indices[pos] : pos - rowOffsets[row];
+                NewChunk chunk = nchnk[startPos + elem];
+                chunk.addZeros(row - filled[elem]);
+                store(chunk, values[pos]);
+                filled[elem] = row + 1;
+            }
+        }
+        // fill remaining zeros
+        for (int elem = 0; elem < maxVecSize; elem++) {
+            nchnk[startPos + elem].addZeros(numRows - filled[elem]);
+        }
+    }
+
     private static void storeVector(AutoBuffer ab, NewChunk[] nchnk, int maxVecSize, int startPos){
       boolean isSparse = ab.getZ();
       if(isSparse){
@@ -3,9 +3,10 @@ package water;
 import java.io.IOException;
 import java.nio.channels.ByteChannel;
 import java.sql.Timestamp;
+import java.util.BitSet;
 import java.util.concurrent.*;
 
-import static water.ExternalFrameUtils.writeToChannel;
+import static water.ExternalFrameUtils.*;
 
 /**
  * <p>This class is used to create and write data to H2O Frames from non-H2O environments, such as Spark Executors.</p>
@@ -45,6 +46,20 @@ import static water.ExternalFrameUtils.writeToChannel;
  * }
  * </pre>
  * </p>
+ *
+ * <p>
+ * When the h2o node supports it, the data can be sent column by column instead. The protocol has to be negotiated
+ * before the chunks are created and then each column of the chunk is sent as a single batch, in the order
+ * of expected types:
+ * <pre>{@code
+ * if (writer.negotiateProtocolVersion(ExternalFrameUtils.PROTOCOL_VERSION_COLUMNAR) == ExternalFrameUtils.PROTOCOL_VERSION_COLUMNAR) {
+ *   writer.createChunks("frameName", expectedTypes, chunkIdx, numOfRowsToBeWritten);
+ *   writer.sendBooleanColumn(boolValues, null);
+ *   writer.sendIntColumn(intValues, nas);
+ * }
+ * }
+ * </pre>
+ * </p>
  */
 final public class ExternalFrameWriterClient {
 
@@ -53,6 +68,9 @@ final public class ExternalFrameWriterClient {
     private byte[] expectedTypes;
     // we discover the current column index based on number of data sent
     private int currentColIdx = 0;
+    // clients which do not negotiate the protocol talk the original row protocol
+    private byte protocolVersion = ExternalFrameUtils.PROTOCOL_VERSION_ROW;
+    private int numRows;
 
     /**
      * Initialize the External frame writer
@@ -66,6 +84,26 @@ final public class ExternalFrameWriterClient {
     }
 
 
+    /**
+     * Agree with the h2o node on the protocol version used for writing. Needs to be called before
+     * {@link #createChunks(String, byte[], int, int, int[])}.
+     * @param preferredVersion highest protocol version supported by the caller
+     * @return protocol version which will be used, this can be lower than the preferred version in case the h2o node
+     * does not support it
+     */
+    public byte negotiateProtocolVersion(byte preferredVersion) throws IOException {
+        ab.put1(ExternalFrameHandler.INIT_BYTE);
+        ab.put1(ExternalFrameHandler.PROTOCOL_HANDSHAKE);
+        ab.put1(preferredVersion);
+        writeToChannel(ab, channel);
+        protocolVersion = new AutoBuffer(channel, null).get1();
+        return protocolVersion;
+    }
+
+    public byte getProtocolVersion() {
+        return protocolVersion;
+    }
+
     /**
      * Create chunks on the h2o backend. This method creates chunk in en empty frame.
      * @param frameKey name of the frame
@@ -75,9 +113,10 @@ final public class ExternalFrameWriterClient {
      */
     public void createChunks(String frameKey, byte[] expectedTypes, int chunkId, int totalNumRows, int[] maxVecSizes) throws IOException {
         ab.put1(ExternalFrameHandler.INIT_BYTE);
-        ab.put1(ExternalFrameHandler.CREATE_FRAME);
+        ab.put1(isColumnar() ? ExternalFrameHandler.CREATE_FRAME_COLUMNAR : ExternalFrameHandler.CREATE_FRAME);
         ab.putStr(frameKey);
         this.expectedTypes = expectedTypes;
+        this.numRows = totalNumRows;
         ab.putA1(expectedTypes);
         ab.putA4(maxVecSizes);
         ab.putInt(totalNumRows);
@@ -151,6 +190,161 @@ final public class ExternalFrameWriterClient {
         ExternalFrameUtils.sendDoubleArray(ab, channel, values);
     }
 
+    /*
+     * Columnar protocol. Each column of the chunk is sent in a single batch, NAs are specified by a bitmap where
+     * the bit at the row index is set for rows with NA value. The bitmap can be null in case the column has no NAs.
+     */
+
+    public void sendBooleanColumn(boolean[] data, BitSet nas) throws IOException {
+        byte[] bytes = new byte[data.length];
+        for (int i = 0; i < data.length; i++) bytes[i] = data[i] ? (byte) 1 : (byte) 0;
+        startColumn(EXPECTED_BOOL, bytes.length);
+        ab.putA1(bytes);
+        finishColumn(nas);
+    }
+
+    public void sendByteColumn(byte[] data, BitSet nas) throws IOException {
+        startColumn(EXPECTED_BYTE, data.length);
+        ab.putA1(data);
+        finishColumn(nas);
+    }
+
+    public void sendCharColumn(char[] data, BitSet nas) throws IOException {
+        short[] shorts = new short[data.length];
+        for (int i = 0; i < data.length; i++) shorts[i] = (short) data[i];
+        startColumn(EXPECTED_CHAR, shorts.length);
+        ab.putA2(shorts);
+        finishColumn(nas);
+    }
+
+    public void sendShortColumn(short[] data, BitSet nas) throws IOException {
+        startColumn(EXPECTED_SHORT, data.length);
+        ab.putA2(data);
+        finishColumn(nas);
+    }
+
+    public void sendIntColumn(int[] data, BitSet nas) throws IOException {
+        startColumn(EXPECTED_INT, data.length);
+        ab.putA4(data);
+        finishColumn(nas);
+    }
+
+    public void sendLongColumn(long[] data, BitSet nas) throws IOException {
+        startColumn(EXPECTED_LONG, data.length);
+        ab.putA8(data);
+        finishColumn(nas);
+    }
+
+    /**
+     * Send column of floats, NaN values are also treated as NAs.
+     */
+    public void sendFloatColumn(float[] data, BitSet nas) throws IOException {
+        startColumn(EXPECTED_FLOAT, data.length);
+        ab.putA4f(data);
+        finishColumn(nas);
+    }
+
+    /**
+     * Send column of doubles, NaN values are also treated as NAs.
+     */
+    public void sendDoubleColumn(double[] data, BitSet nas) throws IOException {
+        startColumn(EXPECTED_DOUBLE, data.length);
+        ab.putA8d(data);
+        finishColumn(nas);
+    }
+
+    /**
+     * Send column of timestamps represented as milliseconds since epoch
+     */
+    public void sendTimestampColumn(long[] data, BitSet nas) throws IOException {
+        startColumn(EXPECTED_TIMESTAMP, data.length);
+        ab.putA8(data);
+        finishColumn(nas);
+    }
+
+    /**
+     * Send column of strings, null values are sent as NAs.
+     */
+    public void sendStringColumn(String[] data) throws IOException {
+        byte[][] encoded = new byte[data.length][];
+        int[] offsets = new int[data.length + 1];
+        BitSet nas = new BitSet(data.length);
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] == null) {
+                nas.set(i);
+                encoded[i] = new byte[0];
+            } else {
+                encoded[i] = water.util.StringUtils.bytesOf(data[i]);
+            }
+            offsets[i + 1] = offsets[i] + encoded[i].length;
+        }
+        byte[] bytes = new byte[offsets[data.length]];
+        for (int i = 0; i < data.length; i++) {
+            System.arraycopy(encoded[i], 0, bytes, offsets[i], encoded[i].length);
+        }
+        sendStringColumn(offsets, bytes, nas);
+    }
+
+    /**
+     * Send column of already encoded strings. The string at row {@code i} is stored in UTF-8 encoded {@code data}
+     * between positions {@code offsets[i]} (inclusive) and {@code offsets[i + 1]} (exclusive).
+     */
+    public void sendStringColumn(int[] offsets, byte[] data, BitSet nas) throws IOException {
+        startColumn(EXPECTED_STRING, offsets.length - 1);
+        ab.putA4(offsets);
+        ab.putA1(data);
+        finishColumn(nas);
+    }
+
+    /**
+     * Send column of sparse vectors in CSR format. Indices and values of the vector at row {@code i} are stored
+     * between positions {@code rowOffsets[i]} (inclusive) and {@code rowOffsets[i + 1]} (exclusive).
+     */
+    public void sendSparseVectorColumn(int[] rowOffsets, int[] indices, double[] values) throws IOException {
+        startColumn(EXPECTED_VECTOR, rowOffsets.length - 1);
+        ab.putZ(ExternalFrameUtils.VECTOR_IS_SPARSE);
+        ab.putA4(rowOffsets);
+        ab.putA4(indices);
+        ab.putA8d(values);
+        writeToChannel(ab, channel);
+    }
+
+    /**
+     * Send column of dense vectors. Values of the vector at row {@code i} are stored between positions
+     * {@code rowOffsets[i]} (inclusive) and {@code rowOffsets[i + 1]} (exclusive), shorter vectors are padded by zeros.
+     */
+    public void sendDenseVectorColumn(int[] rowOffsets, double[] values) throws IOException {
+        startColumn(EXPECTED_VECTOR, rowOffsets.length - 1);
+        ab.putZ(ExternalFrameUtils.VECTOR_IS_DENSE);
+        ab.putA4(rowOffsets);
+        ab.putA8d(values);
+        writeToChannel(ab, channel);
+    }
+
+    private boolean isColumnar() {
+        return protocolVersion >= ExternalFrameUtils.PROTOCOL_VERSION_COLUMNAR;
+    }
+
+    private void startColumn(byte expectedType, int length) {
+        if (!isColumnar()) {
+            throw new IllegalStateException("Columnar protocol was not negotiated with the h2o node.");
+        }
+        if (expectedTypes[currentColIdx] != expectedType) {
+            throw new IllegalArgumentException("Expected type " + expectedTypes[currentColIdx] + " at column "
+                    + currentColIdx + ", but got " + expectedType);
+        }
+        if (length != numRows) {
+            throw new IllegalArgumentException("Column " + currentColIdx + " has " + length + " rows, expected "
+                    + numRows);
+        }
+        increaseCurrentColIdx();
+    }
+
+    private void finishColumn(BitSet nas) throws IOException {
+        ExternalFrameUtils.putNABitmap(ab, nas);
+        writeToChannel(ab, channel);
+    }
+
     /**
      * This method ensures the application waits for all bytes to be written before continuing in the control flow.
      *
@@ -10,6 +10,8 @@ import water.api.RequestServer;
 import water.exceptions.H2OFailException;
 import water.exceptions.H2OIllegalArgumentException;
 import water.init.*;
+import water.metrics.Gauge;
+import water.metrics.MetricsRegistry;
 import water.nbhm.NonBlockingHashMap;
 import water.parser.DecryptionTool;
 import water.parser.ParserService;
@@ -1146,6 +1148,30 @@ final public class H2O {
     FJPS[GUI_PRIORITY] = new PrioritizedForkJoinPool(GUI_PRIORITY,2);
   }
 
+  static {
+    for( int i=0; i<FJPS.length; i++ ) {
+      String p = Integer.toString(i);
+      MetricsRegistry.gauge("h2o_fj_queued_tasks", "Tasks waiting in the F/J queue of the priority", "priority", p, new FJPoolGauge(i, 0));
+      MetricsRegistry.gauge("h2o_fj_active_threads", "Threads running tasks of the priority", "priority", p, new FJPoolGauge(i, 1));
+      MetricsRegistry.gauge("h2o_fj_pool_threads", "Threads of the F/J pool of the priority", "priority", p, new FJPoolGauge(i, 2));
+    }
+  }
+
+  // Samples the F/J pool of a priority; pools created lazily are not reported until they exist
+  private static class FJPoolGauge implements Gauge {
+    private final int _priority, _what;
+    FJPoolGauge(int priority, int what) { _priority = priority; _what = what; }
+    @Override public double value() {
+      PrioritizedForkJoinPool pool = FJPS[_priority];
+      if( pool == null ) return Double.NaN;
+      switch( _what ) {
+      case 0:  return pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+      case 1:  return pool.getActiveThreadCount();
+      default: return pool.getPoolSize();
+      }
+    }
+  }
+
   // Easy peeks at the FJ queues
   static int getWrkQueueSize  (int i) { return FJPS[i]==null ? -1 : FJPS[i].getQueuedSubmissionCount();}
   static int getWrkThrPoolSize(int i) { return FJPS[i]==null ? -1 : FJPS[i].getPoolSize();             }
@@ -48,7 +48,7 @@ public class H2OError extends Iced {
   }
 
   public H2OError(long timestamp, String error_url, String msg, String dev_msg, int http_status, IcedHashMapGeneric.IcedHashMapStringObject values, Throwable e) {
-    Log.err(e);
+    if (e != null) Log.err(e);
     this._timestamp = timestamp;
     this._error_url = error_url;
     this._msg = msg;
@@ -121,6 +121,7 @@ public class H2OError extends Iced {
     case 409: return "409 Conflict";
     case 410: return "410 Gone";
     case 412: return "412 Precondition Failed";
+    case 429: return "429 Too Many Requests";
 
     case 500: return "500 Internal Server Error";
     case 501: return "501 Not Implemented";
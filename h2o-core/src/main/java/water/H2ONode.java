@@ -614,6 +614,7 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
                       if(dt != null) {
                         if (++rpc._ackResendCnt % 5 == 0)
                           Log.warn("Got " + rpc._ackResendCnt + " resends on ack for task # " + rpc._tsknum + ", class = " + dt.getClass().getSimpleName());
+                        RPC.ACK_RESENDS.inc();
                         rpc.resend_ack();
                       }
                     }
@@ -6,7 +6,10 @@ import org.eclipse.jetty.server.handler.AbstractHandler;
 import org.eclipse.jetty.server.handler.HandlerCollection;
 import org.eclipse.jetty.server.handler.HandlerWrapper;
 import org.eclipse.jetty.servlet.ServletContextHandler;
+import water.api.ArrowServlet;
+import water.api.AsyncRequestDispatcher;
 import water.api.DatasetServlet;
+import water.api.MetricsServlet;
 import water.api.NpsBinServlet;
 import water.api.PostFileServlet;
 import water.api.PutKeyServlet;
@@ -57,6 +60,37 @@ public class JettyHTTPD extends AbstractHTTPD {
     return _startMillis.get();
   }
 
+  /**
+   * @return start of the request handled by the current thread, or the current time if there is none
+   */
+  public static long getRequestStartMillis() {
+    Long start = _startMillis.get();
+    return start == null ? System.currentTimeMillis() : start;
+  }
+
+  /**
+   * @return status code of the response to the request handled by the current thread
+   */
+  public static int getResponseStatus() {
+    Integer status = _status.get();
+    return status == null ? 999 : status;
+  }
+
+  /**
+   * Continues the lifecycle of a request which was started on another thread (used for requests
+   * handled asynchronously, the lifecycle starts on the container thread).
+   */
+  public static void resumeRequestLifecycle(long startMillis) {
+    _startMillis.set(startMillis);
+    _status.set(999);
+  }
+
+  @Override
+  protected boolean useNonBlockingConnector() {
+    // suspended requests of the async mode must not hold a connection thread
+    return AsyncRequestDispatcher.isEnabled();
+  }
+
   public static void startTransaction(String userAgent) {
     _userAgent.set(userAgent);
   }
@@ -113,9 +147,13 @@ public class JettyHTTPD extends AbstractHTTPD {
     context.addServlet(PostFileServlet.class, "/3/PostFile");
     context.addServlet(DatasetServlet.class,  "/3/DownloadDataset");
     context.addServlet(DatasetServlet.class,  "/3/DownloadDataset.bin");
+    context.addServlet(ArrowServlet.class,    "/3/DownloadDataset.arrow");
+    context.addServlet(ArrowServlet.class,    "/3/PostFile.arrow");
     context.addServlet(PutKeyServlet.class,   "/3/PutKey.bin");
     context.addServlet(PutKeyServlet.class,   "/3/PutKey");
-    context.addServlet(RequestServer.class,   "/");
+    context.addServlet(MetricsServlet.class,  "/3/Metrics.txt");
+    // RequestServer may detach the request and handle it on its own executors, see AsyncRequestDispatcher
+    context.addServlet(RequestServer.class,   "/").setAsyncSupported(true);
 
     // Handlers that can only be invoked for an authenticated user (if auth is enabled)
     HandlerCollection authHandlers = new HandlerCollection();
@@ -3,6 +3,8 @@ package water;
 import jsr166y.CountedCompleter;
 import jsr166y.ForkJoinPool;
 import water.fvec.*;
+import water.metrics.Histogram;
+import water.metrics.MetricsRegistry;
 import water.util.DistributedException;
 import water.util.PrettyPrint;
 import water.fvec.Vec.VectorGroup;
@@ -179,6 +181,12 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   /** If true, run entirely local - which will pull all the data locally. */
   protected boolean _run_local;
 
+  // Latencies of the maps and reduces of all MRTasks running on this node
+  private static final Histogram MAP_SECONDS = MetricsRegistry.histogram("h2o_mrtask_map_seconds",
+      "Duration of the map calls of an MRTask over a single chunk or key", Histogram.LATENCY_SECONDS_BOUNDS);
+  private static final Histogram REDUCE_SECONDS = MetricsRegistry.histogram("h2o_mrtask_reduce_seconds",
+      "Duration of a single reduce of two MRTask results", Histogram.LATENCY_SECONDS_BOUNDS);
+
   public String profString() { return _profile != null ? _profile.toString() : "Profiling turned off"; }
   MRProfile _profile;
 
@@ -598,7 +606,11 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
           _hi > _lo && _keys[_lo].home() ) {
         assert(_keys == null || !H2O.ARGS.client) : "Client node should not process any keys in MRTask!";
         if(_profile!=null) _profile._userstart = System.currentTimeMillis();
-        if( _keys != null ) map(_keys[_lo]);
+        if( _keys != null ) {
+          long start = System.nanoTime();
+          map(_keys[_lo]);
+          MAP_SECONDS.observe((System.nanoTime() - start) / 1e9);
+        }
         _res = self();        // Save results since called map() at least once!
         if(_profile!=null) _profile._closestart = System.currentTimeMillis();
       }
@@ -630,6 +642,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
         // Call all the various map() calls that apply
         if(_profile!=null)
           _profile._userstart = System.currentTimeMillis();
+        long start = System.nanoTime();
 
         int num_fr_vecs = _fr.vecs().length;
         int num_outputs = _output_types == null? 0 : _output_types.length;
@@ -655,6 +668,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
         }
         if (num_outputs >= 0)
           map(bvs, appendableChunks);
+        MAP_SECONDS.observe((System.nanoTime() - start) / 1e9);
 
         _res = self();          // Save results since called map() at least once!
         // Further D/K/V put any new vec results.
@@ -692,7 +706,11 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     if(_profile!=null)
       _profile.gather(mrt._profile,0);
     if( _res == null ) _res = mrt._res;
-    else if( mrt._res != null ) _res.reduce4(mrt._res);
+    else if( mrt._res != null ) {
+      long start = System.nanoTime();
+      _res.reduce4(mrt._res);
+      REDUCE_SECONDS.observe((System.nanoTime() - start) / 1e9);
+    }
     // Futures are shared on local node and transient (so no remote updates)
     assert _fs == mrt._fs;
   }
@@ -740,7 +758,11 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     // Unlike reduce2, results are in mrt directly not mrt._res.
     if( mrt._nhi != -1L ) {     // Any results at all?
       if( _res == null ) _res = mrt;
-      else _res.reduce4(mrt);
+      else {
+        long start = System.nanoTime();
+        _res.reduce4(mrt);
+        REDUCE_SECONDS.observe((System.nanoTime() - start) / 1e9);
+      }
     }
   }
 
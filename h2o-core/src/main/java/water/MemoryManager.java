@@ -7,6 +7,8 @@ import javax.management.Notification;
 import javax.management.NotificationEmitter;
 import jsr166y.ForkJoinPool.ManagedBlocker;
 import jsr166y.ForkJoinPool;
+import water.metrics.Gauge;
+import water.metrics.MetricsRegistry;
 import water.util.Log;
 import water.util.PrettyPrint;
 
@@ -81,6 +83,27 @@ abstract public class MemoryManager {
   }
   static boolean canAlloc() { return CAN_ALLOC; }
 
+  static {
+    MetricsRegistry.gauge("h2o_memory_max_bytes", "Maximum heap size", new Gauge() {
+      @Override public double value() { return MEM_MAX; }
+    });
+    MetricsRegistry.gauge("h2o_memory_cache_bytes", "Bytes held in the K/V cache", new Gauge() {
+      @Override public double value() { Cleaner.Histo h = Cleaner.Histo.latest(); return h == null ? Double.NaN : h._cached; }
+    });
+    MetricsRegistry.gauge("h2o_memory_swap_bytes", "Bytes of the K/V store persisted (swapped) to disk", new Gauge() {
+      @Override public double value() { Cleaner.Histo h = Cleaner.Histo.latest(); return h == null ? Double.NaN : h._swapped; }
+    });
+    MetricsRegistry.gauge("h2o_memory_pojo_bytes", "Heap used outside of the K/V cache, as of the last full GC", new Gauge() {
+      @Override public double value() { return Math.max(Cleaner.HEAP_USED_AT_LAST_GC - Cleaner.KV_USED_AT_LAST_GC, 0); }
+    });
+    MetricsRegistry.gauge("h2o_memory_desired_cache_bytes", "Cache level the Cleaner is trying to stay under", new Gauge() {
+      @Override public double value() { return Cleaner.DESIRED; }
+    });
+    MetricsRegistry.gauge("h2o_memory_can_alloc", "1 if allocations are allowed, 0 if they are blocked until the Cleaner frees memory", new Gauge() {
+      @Override public double value() { return CAN_ALLOC ? 1 : 0; }
+    });
+  }
+
   static void set_goals( String msg, boolean oom){
     set_goals(msg, oom, 0);
   }
@@ -5,6 +5,8 @@ import jsr166y.ForkJoinPool;
 import water.H2O.FJWThr;
 import water.H2O.H2OCountedCompleter;
 import water.UDP.udp;
+import water.metrics.Counter;
+import water.metrics.MetricsRegistry;
 import water.util.DistributedException;
 import water.util.Log;
 
@@ -206,6 +208,7 @@ public class RPC<V extends DTask> implements Future<V>, Delayed, ForkJoinPool.Ma
             break;             // Break out of retry loop
           } catch( AutoBuffer.AutoBufferException e ) {
             Log.info("IOException during RPC call: " + e._ioe.getMessage() + ",  AB=" + ab + ", for task#" + _tasknum + ", waiting and retrying...");
+            SEND_FAILURES.inc();
             ab.drainClose();
             try { Thread.sleep(500); } catch (InterruptedException ignore) {}
           }
@@ -387,6 +390,7 @@ public class RPC<V extends DTask> implements Future<V>, Delayed, ForkJoinPool.Ma
         } catch( AutoBuffer.AutoBufferException e ) {
           if( !_client._heartbeat._client ) // Report on servers only; clients allowed to be flaky
             Log.info("IOException during ACK, "+e._ioe.getMessage()+", t#"+_tsknum+" AB="+ab+", waiting and retrying...");
+          SEND_FAILURES.inc();
           ab.drainClose();
           if( _client._heartbeat._client ) // Dead client will not accept a TCP ACK response?
             this.CAS_DT(dt,null);          // cancel the ACK
@@ -648,6 +652,10 @@ public class RPC<V extends DTask> implements Future<V>, Delayed, ForkJoinPool.Ma
 
   // ---
   static final long RETRY_MS = 10000; // Initial UDP packet retry in msec
+  // Retry statistics, exposed through the MetricsRegistry
+  static final Counter RETRIES = MetricsRegistry.counter("h2o_rpc_retries_total", "RPC requests re-sent after a timeout");
+  static final Counter ACK_RESENDS = MetricsRegistry.counter("h2o_rpc_ack_resends_total", "RPC answers re-sent because the ACKACK did not arrive");
+  static final Counter SEND_FAILURES = MetricsRegistry.counter("h2o_rpc_send_failures_total", "RPC sends failed with an I/O error and retried");
   // How long until we should do the "timeout" action?
   @Override public final long getDelay( TimeUnit unit ) {
     long delay = (_started+_retry)-System.currentTimeMillis();
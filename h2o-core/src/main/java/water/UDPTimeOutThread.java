@@ -38,6 +38,7 @@ public class UDPTimeOutThread extends Thread {
             if (currentTime > (t._started + t._retry) && !t.isDone() && !t._nack) {
               if (++t._resendsCnt % 10 == 0)
                 Log.warn("Got " + t._resendsCnt + " resends on task #" + t._tasknum + ", class = " + t._dt.getClass().getSimpleName());
+              RPC.RETRIES.inc();
               t.call();
             }
           } else {                // Target is dead, nobody to retry to
@@ -0,0 +1,100 @@
+package water.api;
+
+import water.DKV;
+import water.JettyHTTPD;
+import water.Key;
+import water.arrow.ArrowReader;
+import water.arrow.ArrowWriter;
+import water.fvec.Frame;
+import water.util.Log;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Streams frames in the Apache Arrow IPC stream format.
+ *
+ * GET exports the frame given by {@code frame_id} one record batch per chunk, POST builds a new frame
+ * ({@code destination_frame}) from an Arrow stream sent either as the request body or as a multipart file:
+ * <pre>
+ * curl "http://localhost:54321/3/DownloadDataset.arrow?frame_id=iris.hex" > iris.arrow
+ * curl --data-binary @iris.arrow "http://localhost:54321/3/PostFile.arrow?destination_frame=iris2.hex"
+ * </pre>
+ */
+public class ArrowServlet extends HttpServlet {
+
+  public static final String CONTENT_TYPE = "application/vnd.apache.arrow.stream";
+
+  @Override
+  protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+    String uri = JettyHTTPD.getDecodedUri(request);
+    try {
+      String f_name = request.getParameter("frame_id");
+      if (f_name == null) {
+        throw new RuntimeException("Cannot find value for parameter \'frame_id\'");
+      }
+      Frame dataset = DKV.getGet(f_name);
+      if (dataset == null) {
+        throw new IllegalArgumentException("Frame " + f_name + " not found");
+      }
+      response.setContentType(CONTENT_TYPE);
+      response.addHeader("Content-Disposition", "attachment; filename=" + f_name.replaceAll("[^\\w.-]", "_") + ".arrow");
+      JettyHTTPD.setResponseStatus(response, HttpServletResponse.SC_OK);
+      OutputStream os = null;
+      try {
+        os = response.getOutputStream();
+        new ArrowWriter(dataset, os).write();
+      } finally {
+        if (os != null) {
+          try {
+            os.close();
+          }
+          catch (Exception e) {
+            Log.err(e);
+          }
+        }
+      }
+    } catch (Exception e) {
+      JettyHTTPD.sendErrorResponse(response, e, uri);
+    } finally {
+      JettyHTTPD.logRequest("GET", request, response);
+    }
+  }
+
+  @Override
+  protected void doPost(HttpServletRequest request, HttpServletResponse response) {
+    String uri = JettyHTTPD.getDecodedUri(request);
+    try {
+      String destination_frame = request.getParameter("destination_frame");
+      if (destination_frame == null) {
+        destination_frame = "arrow" + Key.rand();
+      }
+      InputStream is;
+      String contentType = request.getContentType();
+      if (contentType != null && contentType.startsWith("multipart/")) {
+        is = JettyHTTPD.extractPartInputStream(request, response);
+        if (is == null) {
+          return;
+        }
+      } else {
+        is = request.getInputStream();
+      }
+
+      Frame fr = ArrowReader.read(Key.<Frame>make(destination_frame), is);
+      String responsePayload = "{ " +
+          "\"destination_frame\": \"" + destination_frame + "\", " +
+          "\"rows\": " + fr.numRows() + ", " +
+          "\"columns\": " + fr.numCols() + " " +
+          "}\n";
+      response.setContentType("application/json");
+      response.getWriter().write(responsePayload);
+    } catch (Exception e) {
+      JettyHTTPD.sendErrorResponse(response, e, uri);
+    } finally {
+      JettyHTTPD.logRequest("POST", request, response);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package water.api;
+
+import water.H2O;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executors of the asynchronous mode of {@link RequestServer}.
+ *
+ * In the default (synchronous) mode every REST call holds a Jetty thread until its response is written. A burst of
+ * expensive calls (Rapids, scoring, summaries) can then occupy all the threads and cheap calls like job polling
+ * have to wait. In the asynchronous mode Jetty serves the connections by its non-blocking connector, the servlet
+ * suspends the request (a Jetty continuation), which gives the connection thread back to Jetty, and hands it over
+ * to one of two bounded pools: one for the routes marked {@link Route#isHeavy() heavy} and one for all
+ * the others. When the queue of a pool is full the request is refused right away with HTTP 429. Requests which
+ * don't finish within the timeout are answered with HTTP 503; the handler itself keeps running, only its
+ * response is discarded.
+ *
+ * The mode is off by default, it is configured by these system properties:
+ * <ul>
+ *   <li>{@code sys.ai.h2o.rest.async.enabled} - turns the asynchronous mode on</li>
+ *   <li>{@code sys.ai.h2o.rest.async.cheap.threads}, {@code sys.ai.h2o.rest.async.cheap.queue} - size of the pool
+ *       and of its queue for the regular routes</li>
+ *   <li>{@code sys.ai.h2o.rest.async.heavy.threads}, {@code sys.ai.h2o.rest.async.heavy.queue} - the same
+ *       for the heavy routes</li>
+ *   <li>{@code sys.ai.h2o.rest.async.timeout} - request timeout in milliseconds, 0 means no timeout</li>
+ * </ul>
+ */
+public final class AsyncRequestDispatcher {
+
+  private static final String PROP_PREFIX = H2O.OptArgs.SYSTEM_PROP_PREFIX + "rest.async.";
+
+  private static volatile AsyncRequestDispatcher _instance;
+  private static volatile boolean _configured;
+
+  final Pool _cheap;
+  final Pool _heavy;
+  final long _timeoutMillis;
+
+  AsyncRequestDispatcher(int cheapThreads, int cheapQueue, int heavyThreads, int heavyQueue, long timeoutMillis) {
+    _cheap = new Pool("cheap", cheapThreads, cheapQueue);
+    _heavy = new Pool("heavy", heavyThreads, heavyQueue);
+    _timeoutMillis = timeoutMillis;
+  }
+
+  /** @return true if the asynchronous mode was turned on when H2O was started */
+  public static boolean isEnabled() {
+    return Boolean.getBoolean(PROP_PREFIX + "enabled");
+  }
+
+  /** @return the active dispatcher, null if the requests are handled synchronously */
+  static AsyncRequestDispatcher get() {
+    if (!_configured) {
+      synchronized (AsyncRequestDispatcher.class) {
+        if (!_configured) {
+          if (isEnabled()) {
+            int cpus = Runtime.getRuntime().availableProcessors();
+            _instance = new AsyncRequestDispatcher(
+                Integer.getInteger(PROP_PREFIX + "cheap.threads", Math.max(4, cpus)),
+                Integer.getInteger(PROP_PREFIX + "cheap.queue", 1024),
+                Integer.getInteger(PROP_PREFIX + "heavy.threads", Math.max(2, cpus / 4)),
+                Integer.getInteger(PROP_PREFIX + "heavy.queue", 64),
+                Long.getLong(PROP_PREFIX + "timeout", 0));
+          }
+          _configured = true;
+        }
+      }
+    }
+    return _instance;
+  }
+
+  /**
+   * Replaces the active dispatcher, the pools of the previous one are shut down once their queued requests finish.
+   * @param dispatcher new dispatcher, null switches to the synchronous mode
+   */
+  static synchronized void install(AsyncRequestDispatcher dispatcher) {
+    AsyncRequestDispatcher old = _instance;
+    _instance = dispatcher;
+    _configured = true;
+    if (old != null) {
+      old._cheap._executor.shutdown();
+      old._heavy._executor.shutdown();
+    }
+  }
+
+  Pool poolFor(Route route) {
+    return route != null && route.isHeavy() ? _heavy : _cheap;
+  }
+
+  /** Bounded thread pool with a bounded queue, counting the refused tasks. */
+  static final class Pool {
+    final String _name;
+    final int _queueCapacity;
+    final ThreadPoolExecutor _executor;
+    final AtomicLong _rejected = new AtomicLong();
+
+    Pool(final String name, int threads, int queueCapacity) {
+      _name = name;
+      _queueCapacity = queueCapacity;
+      _executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+          new ArrayBlockingQueue<Runnable>(queueCapacity), new ThreadFactory() {
+            private final AtomicInteger _cnt = new AtomicInteger();
+            @Override public Thread newThread(Runnable r) {
+              Thread t = new Thread(r, "REST-" + name + "-" + _cnt.incrementAndGet());
+              t.setDaemon(true);
+              return t;
+            }
+          });
+      _executor.allowCoreThreadTimeOut(true);
+    }
+
+    /** @return false if the request was refused because the pool is saturated */
+    boolean submit(Runnable task) {
+      try {
+        _executor.execute(task);
+        return true;
+      } catch (RejectedExecutionException e) {
+        _rejected.incrementAndGet();
+        return false;
+      }
+    }
+
+    int queueSize() { return _executor.getQueue().size(); }
+    int activeThreads() { return _executor.getActiveCount(); }
+    int maxThreads() { return _executor.getMaximumPoolSize(); }
+    long completed() { return _executor.getCompletedTaskCount(); }
+  }
+}
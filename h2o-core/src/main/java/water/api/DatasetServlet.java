@@ -1,9 +1,10 @@
 package water.api;
 
+import org.eclipse.jetty.io.EofException;
 import water.DKV;
 import water.JettyHTTPD;
 import water.fvec.Frame;
-import water.util.FileUtils;
+import water.fvec.ParallelCSVStream;
 import water.util.Log;
 
 import javax.servlet.ServletException;
@@ -11,7 +12,6 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 
 /**
@@ -31,11 +31,19 @@ public class DatasetServlet extends HttpServlet {
       if (hex_string != null && hex_string.toLowerCase().equals("true")) {
         use_hex = true;
       }
+      String compression = request.getParameter("compression");
+      boolean gzip = "gzip".equalsIgnoreCase(compression);
+      if (compression != null && !gzip && !"none".equalsIgnoreCase(compression)) {
+        throw new IllegalArgumentException("Unsupported compression '" + compression + "', use 'gzip' or 'none'");
+      }
 
       Frame dataset = DKV.getGet(f_name);
-      // TODO: Find a way to determing the hex_string parameter. It should not always be false
-      InputStream is = dataset.toCSV(true, use_hex);
-      response.setContentType("application/octet-stream");
+      if (dataset == null) {
+        throw new IllegalArgumentException("Frame '" + f_name + "' not found");
+      }
+      // chunks are rendered (and compressed) on their home nodes, a few chunks ahead of the client
+      ParallelCSVStream is = new ParallelCSVStream(dataset, true, use_hex, gzip);
+      response.setContentType(gzip ? "application/gzip" : "application/octet-stream");
       // Clean up the file name
       int x = f_name.length() - 1;
       boolean dot = false;
@@ -46,14 +54,17 @@ public class DatasetServlet extends HttpServlet {
       String suggested_fname = f_name.substring(x + 1).replace(".hex", ".csv");
       if (!suggested_fname.endsWith(".csv"))
         suggested_fname = suggested_fname + ".csv";
-      f_name = suggested_fname;
+      f_name = gzip ? suggested_fname + ".gz" : suggested_fname;
       response.addHeader("Content-Disposition", "attachment; filename=" + f_name);
       JettyHTTPD.setResponseStatus(response, HttpServletResponse.SC_OK);
       OutputStream os = null;
       try {
         os = response.getOutputStream();
-        FileUtils.copyStream(is, os, 2048);
+        is.writeTo(os);
+      } catch (EofException e) {
+        // client disconnected
       } finally {
+        is.close();
         if (os != null) {
           try {
             os.close();
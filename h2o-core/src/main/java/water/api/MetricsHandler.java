@@ -0,0 +1,52 @@
+package water.api;
+
+import water.api.schemas3.MetricsV3;
+import water.metrics.Histogram;
+
+import java.util.List;
+
+public class MetricsHandler extends Handler {
+  @SuppressWarnings("unused") // called through reflection by RequestServer
+  public MetricsV3 fetch(int version, MetricsV3 s) {
+    s.histogram_bounds_ms = Histogram.LATENCY_MILLIS_BOUNDS.clone();
+    List<RequestMetrics.RouteStats> all = RequestMetrics.all();
+    s.routes = new MetricsV3.RouteMetricsV3[all.size()];
+    for (int i = 0; i < s.routes.length; i++) {
+      RequestMetrics.RouteStats stats = all.get(i);
+      MetricsV3.RouteMetricsV3 r = new MetricsV3.RouteMetricsV3();
+      r.route = stats._route;
+      r.histogram = stats._latency.bucketCounts();
+      for (long c : r.histogram) r.count += c;
+      r.errors = stats._errors.get();
+      r.rejected = stats._rejected.get();
+      r.timeouts = stats._timeouts.get();
+      r.mean_ms = r.count == 0 ? 0 : stats._latency.sum() / r.count;
+      r.p50_ms = stats._latency.quantile(0.5);
+      r.p95_ms = stats._latency.quantile(0.95);
+      r.p99_ms = stats._latency.quantile(0.99);
+      s.routes[i] = r;
+    }
+    AsyncRequestDispatcher dispatcher = AsyncRequestDispatcher.get();
+    s.async = dispatcher != null;
+    if (dispatcher == null) {
+      s.executors = new MetricsV3.ExecutorMetricsV3[0];
+    } else {
+      s.executors = new MetricsV3.ExecutorMetricsV3[]{
+          executorMetrics(dispatcher._cheap), executorMetrics(dispatcher._heavy)
+      };
+    }
+    return s;
+  }
+
+  private static MetricsV3.ExecutorMetricsV3 executorMetrics(AsyncRequestDispatcher.Pool pool) {
+    MetricsV3.ExecutorMetricsV3 e = new MetricsV3.ExecutorMetricsV3();
+    e.name = pool._name;
+    e.threads = pool.maxThreads();
+    e.active = pool.activeThreads();
+    e.queued = pool.queueSize();
+    e.queue_capacity = pool._queueCapacity;
+    e.completed = pool.completed();
+    e.rejected = pool._rejected.get();
+    return e;
+  }
+}
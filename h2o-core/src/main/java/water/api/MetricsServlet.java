@@ -0,0 +1,57 @@
+package water.api;
+
+import water.H2O;
+import water.JettyHTTPD;
+import water.metrics.CollectMetricsTask;
+import water.metrics.MetricFamily;
+import water.metrics.MetricsRegistry;
+import water.metrics.MetricsTextFormat;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Serves the metrics of the {@link MetricsRegistry} in the Prometheus text format.
+ *
+ * By default the metrics of all the nodes of the cloud are returned, each sample labeled by its node. With
+ * {@code local=true} only the metrics of the node serving the request are returned, which is useful when every
+ * node is scraped on its own:
+ * <pre>
+ * curl "http://localhost:54321/3/Metrics.txt"
+ * curl "http://localhost:54321/3/Metrics.txt?local=true"
+ * </pre>
+ */
+public class MetricsServlet extends HttpServlet {
+
+  @Override
+  protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+    String uri = JettyHTTPD.getDecodedUri(request);
+    try {
+      String[] nodes;
+      MetricFamily[][] metrics;
+      if (Boolean.parseBoolean(request.getParameter("local")) || H2O.ARGS.client) {
+        nodes = new String[]{H2O.SELF.getIpPortString()};
+        metrics = new MetricFamily[][]{MetricsRegistry.snapshot()};
+      } else {
+        CollectMetricsTask t = new CollectMetricsTask().doAllNodes();
+        nodes = t._nodes;
+        metrics = t._metrics;
+      }
+      response.setContentType(MetricsTextFormat.CONTENT_TYPE);
+      JettyHTTPD.setResponseStatus(response, HttpServletResponse.SC_OK);
+      Writer w = new OutputStreamWriter(response.getOutputStream(), "UTF-8");
+      try {
+        MetricsTextFormat.write(w, nodes, metrics);
+      } finally {
+        w.close();
+      }
+    } catch (Exception e) {
+      JettyHTTPD.sendErrorResponse(response, e, uri);
+    } finally {
+      JettyHTTPD.logRequest("GET", request, response);
+    }
+  }
+}
@@ -150,7 +150,7 @@ public class RegisterV3Api extends AbstractRegister {
 
     context.registerEndpoint("frameColumnSummary",
             "GET /3/Frames/{frame_id}/columns/{column}/summary", FramesHandler.class, "columnSummary",
-            "Return the summary metrics for a column, e.g. min, max, mean, sigma, percentiles, etc.");
+            "Return the summary metrics for a column, e.g. min, max, mean, sigma, percentiles, etc.").markHeavy();
 
     context.registerEndpoint("frameColumnDomain",
             "GET /3/Frames/{frame_id}/columns/{column}/domain", FramesHandler.class, "columnDomain",
@@ -166,7 +166,7 @@ public class RegisterV3Api extends AbstractRegister {
 
     context.registerEndpoint("frameSummary",
             "GET /3/Frames/{frame_id}/summary", FramesHandler.class, "summary",
-            "Return a Frame, including the histograms, after forcing computation of rollups.");
+            "Return a Frame, including the histograms, after forcing computation of rollups.").markHeavy();
 
     context.registerEndpoint("lightFrame",
             "GET /3/Frames/{frame_id}/light", FramesHandler.class, "fetchLight",
@@ -300,12 +300,12 @@ public class RegisterV3Api extends AbstractRegister {
             "POST /3/ModelMetrics/models/{model}/frames/{frame}", ModelMetricsHandler.class, "score",
             "Return the scoring metrics for the specified Frame with the specified Model.  If the Frame has already been " +
                     "scored with the Model then cached results will be returned; otherwise predictions for all rows in the Frame " +
-                    "will be generated and the metrics will be returned.");
+                    "will be generated and the metrics will be returned.").markHeavy();
 
     context.registerEndpoint("predict",
             "POST /3/Predictions/models/{model}/frames/{frame}", ModelMetricsHandler.class, "predict",
             "Score (generate predictions) for the specified Frame with the specified Model.  Both the Frame of " +
-                    "predictions and the metrics will be returned.");
+                    "predictions and the metrics will be returned.").markHeavy();
 
     context.registerEndpoint("predict_async",
             "POST /4/Predictions/models/{model}/frames/{frame}", ModelMetricsHandler.class, "predictAsync",
@@ -314,7 +314,7 @@ public class RegisterV3Api extends AbstractRegister {
 
     context.registerEndpoint("makeMetrics",
             "POST /3/ModelMetrics/predictions_frame/{predictions_frame}/actuals_frame/{actuals_frame}", ModelMetricsHandler.class, "make",
-            "Create a ModelMetrics object from the predicted and actual values, and a domain for classification problems or a distribution family for regression problems.");
+            "Create a ModelMetrics object from the predicted and actual values, and a domain for classification problems or a distribution family for regression problems.").markHeavy();
 
     context.registerEndpoint("waterMeterCpuTicks",
             "GET /3/WaterMeterCpuTicks/{nodeidx}", WaterMeterCpuTicksHandler.class, "fetch",
@@ -389,7 +389,7 @@ public class RegisterV3Api extends AbstractRegister {
 
     context.registerEndpoint("rapidsExec",
             "POST /99/Rapids", RapidsHandler.class, "exec",
-            "Execute an Rapids AstRoot.");
+            "Execute an Rapids AstRoot.").markHeavy();
 
     context.registerEndpoint("_assembly_toJava",
             "GET /99/Assembly.java/{assembly_id}/{pojo_name}", AssemblyHandler.class, "toJava",
@@ -440,6 +440,10 @@ public class RegisterV3Api extends AbstractRegister {
             "GET /99/Rapids/help", RapidsHandler.class, "genHelp",
             "Produce help for Rapids AstRoot language.");
 
+    context.registerEndpoint("restMetrics",
+            "GET /3/Metrics", MetricsHandler.class, "fetch",
+            "Latency histograms of the REST API routes served by this node and state of the request pools.");
+
     // Endpoints for Steam to manage H2O.
     context.registerEndpoint("steamMetrics",
             "GET /3/SteamMetrics", SteamMetricsHandler.class, "fetch",
@@ -0,0 +1,90 @@
+package water.api;
+
+import water.metrics.Counter;
+import water.metrics.Histogram;
+import water.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-route statistics of the REST API calls served by this node.
+ *
+ * Requests are keyed by the route pattern (eg. {@code "GET /3/Jobs/{job_id}"}) rather than by the actual URL,
+ * so that the number of tracked entries stays bounded. Requests not matching any registered route are
+ * accounted under {@link #OTHER}. The statistics are part of the {@link MetricsRegistry}, so they are also
+ * served in the Prometheus format by {@code /3/Metrics.txt}.
+ */
+public final class RequestMetrics {
+
+  public static final String OTHER = "other";
+
+  private static final ConcurrentHashMap<String, RouteStats> _stats = new ConcurrentHashMap<>();
+
+  private RequestMetrics() {}
+
+  /** Statistics of a single route, registered as series of the {@link MetricsRegistry} labeled by the route. */
+  public static final class RouteStats {
+    public final String _route;
+    public final Histogram _latency;
+    public final Counter _errors;
+    public final Counter _rejected;
+    public final Counter _timeouts;
+
+    RouteStats(String route) {
+      _route = route;
+      _latency = MetricsRegistry.histogram("h2o_rest_request_milliseconds",
+          "Duration of the REST API requests", Histogram.LATENCY_MILLIS_BOUNDS, "route", route);
+      _errors = MetricsRegistry.counter("h2o_rest_request_errors_total",
+          "REST API requests which failed with a 5xx status", "route", route);
+      _rejected = MetricsRegistry.counter("h2o_rest_request_rejected_total",
+          "REST API requests refused because the executor of the route was saturated", "route", route);
+      _timeouts = MetricsRegistry.counter("h2o_rest_request_timeouts_total",
+          "REST API requests which didn't finish within the configured timeout", "route", route);
+    }
+  }
+
+  /** Name under which the statistics of the given route are collected. */
+  static String routeName(Route route) {
+    return route == null ? OTHER : route._http_method + " " + route._url;
+  }
+
+  public static RouteStats stats(String route) {
+    RouteStats stats = _stats.get(route);
+    if (stats == null) {
+      RouteStats newStats = new RouteStats(route);
+      stats = _stats.putIfAbsent(route, newStats);
+      if (stats == null) stats = newStats;
+    }
+    return stats;
+  }
+
+  /** Records a completed request, statuses 5xx are counted as errors. */
+  static void completed(String route, long millis, int status) {
+    RouteStats stats = stats(route);
+    stats._latency.observe(millis);
+    if (status >= 500) stats._errors.inc();
+  }
+
+  /** Records a request which was refused because the executor of the route was saturated. */
+  static void rejected(String route) {
+    stats(route)._rejected.inc();
+  }
+
+  /** Records a request which didn't finish within the configured timeout. */
+  static void timedOut(String route) {
+    stats(route)._timeouts.inc();
+  }
+
+  /** @return statistics of all routes seen so far, sorted by the route name */
+  public static List<RouteStats> all() {
+    List<RouteStats> res = new ArrayList<>(_stats.values());
+    Collections.sort(res, new Comparator<RouteStats>() {
+      @Override public int compare(RouteStats a, RouteStats b) { return a._route.compareTo(b._route); }
+    });
+    return res;
+  }
+}
@@ -1,5 +1,8 @@
 package water.api;
 
+import org.eclipse.jetty.continuation.Continuation;
+import org.eclipse.jetty.continuation.ContinuationListener;
+import org.eclipse.jetty.continuation.ContinuationSupport;
 import water.*;
 import water.api.schemas3.H2OErrorV3;
 import water.api.schemas3.H2OModelBuilderErrorV3;
@@ -17,6 +20,7 @@ import java.io.*;
 import java.net.MalformedURLException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -234,11 +238,18 @@ public class RequestServer extends HttpServlet {
    * Top-level dispatch handling
    */
   public void doGeneric(String method, HttpServletRequest request, HttpServletResponse response) {
+    // a suspended request comes back here if it expires while its response is being written, nothing to do
+    if (AsyncRequestDispatcher.get() != null && !ContinuationSupport.getContinuation(request).isInitial())
+      return;
+    String routeName = RequestMetrics.OTHER;
+    boolean detached = false;
     try {
       JettyHTTPD.startTransaction(request.getHeader("User-Agent"));
 
       // Note that getServletPath does an un-escape so that the %24 of job id's are turned into $ characters.
       String uri = request.getServletPath();
+      Route route = routeOf(method, uri);
+      routeName = RequestMetrics.routeName(route);
 
       Properties headers = new Properties();
       Enumeration<String> en = request.getHeaderNames();
@@ -292,59 +303,168 @@ public class RequestServer extends HttpServlet {
         }
       }
 
+      // The request is fully parsed at this point, in the async mode the rest happens on the dispatcher's threads
+      AsyncRequestDispatcher dispatcher = AsyncRequestDispatcher.get();
+      if (dispatcher != null && request.isAsyncSupported()) {
+        dispatchAsync(dispatcher, route, routeName, method, uri, headers, parms, postBody, request, response);
+        detached = true;
+        return;
+      }
+
       // Make serve() call.
       NanoResponse resp = serve(uri, method, headers, parms, postBody);
+      writeResponse(resp, response);
+
+    } catch (IOException e) {
+      e.printStackTrace();
+      JettyHTTPD.setResponseStatus(response, 500);
+      Log.err(e);
+      // Trying to send an error message or stack trace will produce another IOException...
+    } finally {
+      if (!detached)
+        finishRequest(method, routeName, request, response);
+      JettyHTTPD.endTransaction();
+    }
+  }
 
-      // Un-marshal Nano response back to Jetty.
-      String choppedNanoStatus = resp.status.substring(0, 3);
-      assert (choppedNanoStatus.length() == 3);
-      int sc = Integer.parseInt(choppedNanoStatus);
-      JettyHTTPD.setResponseStatus(response, sc);
+  private static Route routeOf(String method, String url) {
+    try {
+      return routesTree.lookup(new RequestUri(method, url), null);
+    } catch (MalformedURLException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Un-marshal Nano response back to Jetty.
+   */
+  private static void writeResponse(NanoResponse resp, HttpServletResponse response) throws IOException {
+    String choppedNanoStatus = resp.status.substring(0, 3);
+    assert (choppedNanoStatus.length() == 3);
+    int sc = Integer.parseInt(choppedNanoStatus);
+    JettyHTTPD.setResponseStatus(response, sc);
+
+    response.setContentType(resp.mimeType);
+
+    Properties header = resp.header;
+    Enumeration<Object> en2 = header.keys();
+    while (en2.hasMoreElements()) {
+      String key = (String) en2.nextElement();
+      String value = header.getProperty(key);
+      response.setHeader(key, value);
+    }
 
-      response.setContentType(resp.mimeType);
+    resp.writeTo(response.getOutputStream());
+  }
 
-      Properties header = resp.header;
-      Enumeration<Object> en2 = header.keys();
-      while (en2.hasMoreElements()) {
-        String key = (String) en2.nextElement();
-        String value = header.getProperty(key);
-        response.setHeader(key, value);
-      }
+  /** Continuation timeout used when no timeout is configured (one day) */
+  private static final long NO_TIMEOUT_MILLIS = 24L * 3600 * 1000;
 
-      resp.writeTo(response.getOutputStream());
+  /**
+   * Suspends the request (a Jetty continuation) and hands it over to the pool of the dispatcher which serves the
+   * route. With the non-blocking connector used in the async mode (see {@link AbstractHTTPD}) the connection thread
+   * goes back to Jetty right away. The response is written by whichever comes first: the handler, the timeout, or
+   * the rejection of a saturated pool.
+   */
+  private static void dispatchAsync(final AsyncRequestDispatcher dispatcher, Route route, final String routeName,
+                                    final String method, final String uri, final Properties headers,
+                                    final Properties parms, final String postBody,
+                                    final HttpServletRequest request, HttpServletResponse response) {
+    final long startMillis = JettyHTTPD.getRequestStartMillis();
+    final String userAgent = request.getHeader("User-Agent");
+    final Continuation continuation = ContinuationSupport.getContinuation(request);
+    final AtomicBoolean responded = new AtomicBoolean();
+    // A blocking connector only waits for complete() while a timeout is pending, without one it would go back
+    // to reading the socket and the response would never be flushed.
+    continuation.setTimeout(dispatcher._timeoutMillis > 0 ? dispatcher._timeoutMillis : NO_TIMEOUT_MILLIS);
+    continuation.addContinuationListener(new ContinuationListener() {
+      @Override public void onTimeout(Continuation c) {
+        if (responded.compareAndSet(false, true)) {
+          RequestMetrics.timedOut(routeName);
+          respondAsync(c, request, errorResponse(uri, HttpResponseStatus.SERVICE_UNAVAILABLE.getCode(),
+              "Request was not served within " + dispatcher._timeoutMillis + "ms"), method, routeName, startMillis);
+        }
+      }
+      @Override public void onComplete(Continuation c) {}
+    });
+    continuation.suspend(response);
+    AsyncRequestDispatcher.Pool pool = dispatcher.poolFor(route);
+    boolean accepted = pool.submit(new Runnable() {
+      @Override public void run() {
+        if (responded.get()) return; // timed out while waiting in the queue
+        NanoResponse resp;
+        JettyHTTPD.startTransaction(userAgent);
+        try {
+          resp = serve(uri, method, headers, parms, postBody);
+        } catch (Throwable t) {
+          resp = serveError(new H2OError(t, uri));
+        } finally {
+          JettyHTTPD.endTransaction();
+        }
+        if (responded.compareAndSet(false, true))
+          respondAsync(continuation, request, resp, method, routeName, startMillis);
+      }
+    });
+    if (!accepted && responded.compareAndSet(false, true)) {
+      RequestMetrics.rejected(routeName);
+      NanoResponse resp = errorResponse(uri, HttpResponseStatus.TOO_MANY_REQUESTS.getCode(),
+          "Too many requests, the queue of " + pool._name + " requests is full");
+      resp.addHeader("Retry-After", "1");
+      respondAsync(continuation, request, resp, method, routeName, startMillis);
+    }
+  }
 
+  private static void respondAsync(Continuation continuation, HttpServletRequest request, NanoResponse resp,
+                                   String method, String routeName, long startMillis) {
+    HttpServletResponse response = (HttpServletResponse) continuation.getServletResponse();
+    JettyHTTPD.resumeRequestLifecycle(startMillis);
+    try {
+      writeResponse(resp, response);
     } catch (IOException e) {
-      e.printStackTrace();
       JettyHTTPD.setResponseStatus(response, 500);
       Log.err(e);
-      // Trying to send an error message or stack trace will produce another IOException...
     } finally {
-      JettyHTTPD.logRequest(method, request, response);
-      // Handle shutdown if it was requested.
-      if (H2O.getShutdownRequested()) {
-        (new Thread() {
-          public void run() {
-            boolean [] confirmations = new boolean[H2O.CLOUD.size()];
-            if (H2O.SELF.index() >= 0) {
-              confirmations[H2O.SELF.index()] = true;
-            }
-            for(H2ONode n:H2O.CLOUD._memary) {
-              if(n != H2O.SELF)
-                new RPC<>(n, new UDPRebooted.ShutdownTsk(H2O.SELF,n.index(), 1000, confirmations, 0)).call();
-            }
-            try { Thread.sleep(2000); }
-            catch (Exception ignore) {}
-            int failedToShutdown = 0;
-            // shutdown failed
-            for(boolean b:confirmations)
-              if(!b) failedToShutdown++;
-            Log.info("Orderly shutdown: " + (failedToShutdown > 0? failedToShutdown + " nodes failed to shut down! ":"") + " Shutting down now.");
-            H2O.closeAll();
-            H2O.exit(failedToShutdown);
+      finishRequest(method, routeName, request, response);
+      continuation.complete();
+    }
+  }
+
+  private static NanoResponse errorResponse(String uri, int httpStatus, String msg) {
+    return serveError(new H2OError(System.currentTimeMillis(), uri, msg, msg, httpStatus,
+        new IcedHashMapGeneric.IcedHashMapStringObject(), null));
+  }
+
+  /**
+   * Logs the request, records its latency and handles a shutdown if the request asked for it.
+   */
+  private static void finishRequest(String method, String routeName, HttpServletRequest request,
+                                    HttpServletResponse response) {
+    RequestMetrics.completed(routeName, System.currentTimeMillis() - JettyHTTPD.getRequestStartMillis(),
+        JettyHTTPD.getResponseStatus());
+    JettyHTTPD.logRequest(method, request, response);
+    // Handle shutdown if it was requested.
+    if (H2O.getShutdownRequested()) {
+      (new Thread() {
+        public void run() {
+          boolean [] confirmations = new boolean[H2O.CLOUD.size()];
+          if (H2O.SELF.index() >= 0) {
+            confirmations[H2O.SELF.index()] = true;
           }
-        }).start();
-      }
-      JettyHTTPD.endTransaction();
+          for(H2ONode n:H2O.CLOUD._memary) {
+            if(n != H2O.SELF)
+              new RPC<>(n, new UDPRebooted.ShutdownTsk(H2O.SELF,n.index(), 1000, confirmations, 0)).call();
+          }
+          try { Thread.sleep(2000); }
+          catch (Exception ignore) {}
+          int failedToShutdown = 0;
+          // shutdown failed
+          for(boolean b:confirmations)
+            if(!b) failedToShutdown++;
+          Log.info("Orderly shutdown: " + (failedToShutdown > 0? failedToShutdown + " nodes failed to shut down! ":"") + " Shutting down now.");
+          H2O.closeAll();
+          H2O.exit(failedToShutdown);
+        }
+      }).start();
     }
   }
 
@@ -26,6 +26,7 @@ public final class Route extends Iced {
   public String[] _path_params; // list of params we capture from the url pattern, e.g. for /17/MyComplexObj/(.*)/(.*)
   public Handler _handler;
   private RequestUri _uri;
+  private boolean _heavy;
 
   /** Handler factory configures a way how handler is instantiated.
    *
@@ -65,6 +66,18 @@ public final class Route extends Iced {
   public RequestUri getUri() { return _uri; }
   public int getVersion() { return _uri.getVersion(); }
 
+  /**
+   * Marks the route as expensive to serve (eg. it runs a distributed computation before responding).
+   * In the asynchronous mode heavy routes are executed on a separate pool so that they can't starve
+   * cheap calls like job polling, see {@link AsyncRequestDispatcher}.
+   */
+  public Route markHeavy() {
+    _heavy = true;
+    return this;
+  }
+
+  public boolean isHeavy() { return _heavy; }
+
   /**
    * Generate Markdown documentation for this Route.
    */
@@ -40,6 +40,9 @@ public class FramesV3 extends RequestSchemaV3<Frames, FramesV3> {
   @API(help="Number of part files to use (1=single file,-1=automatic)",json=false)
   public int num_parts = 1;
 
+  @API(help="Write one part file per node, each node exports the chunks it holds (num_parts is ignored)",json=false)
+  public boolean parallel;
+
   @API(help="Job for export file",direction=API.Direction.OUTPUT)
   public JobV3 job;
 
@@ -0,0 +1,75 @@
+package water.api.schemas3;
+
+import water.Iced;
+import water.api.API;
+
+public class MetricsV3 extends RequestSchemaV3<Iced, MetricsV3> {
+
+  public static class RouteMetricsV3 extends SchemaV3<Iced, RouteMetricsV3> {
+    @API(help="Route pattern, eg. \"GET /3/Jobs/{job_id}\"", direction=API.Direction.OUTPUT)
+    public String route;
+
+    @API(help="Number of served requests", direction=API.Direction.OUTPUT)
+    public long count;
+
+    @API(help="Number of requests which failed with a 5xx status", direction=API.Direction.OUTPUT)
+    public long errors;
+
+    @API(help="Number of requests refused with 429 because the request queue was full", direction=API.Direction.OUTPUT)
+    public long rejected;
+
+    @API(help="Number of requests which didn't finish within the timeout", direction=API.Direction.OUTPUT)
+    public long timeouts;
+
+    @API(help="Mean latency in milliseconds", direction=API.Direction.OUTPUT)
+    public double mean_ms;
+
+    @API(help="Estimated median latency in milliseconds", direction=API.Direction.OUTPUT)
+    public double p50_ms;
+
+    @API(help="Estimated 95th percentile of the latency in milliseconds", direction=API.Direction.OUTPUT)
+    public double p95_ms;
+
+    @API(help="Estimated 99th percentile of the latency in milliseconds", direction=API.Direction.OUTPUT)
+    public double p99_ms;
+
+    @API(help="Number of requests per latency bucket, the last bucket counts requests slower than the last bound",
+        direction=API.Direction.OUTPUT)
+    public long[] histogram;
+  }
+
+  public static class ExecutorMetricsV3 extends SchemaV3<Iced, ExecutorMetricsV3> {
+    @API(help="Name of the request pool", direction=API.Direction.OUTPUT)
+    public String name;
+
+    @API(help="Maximum number of threads", direction=API.Direction.OUTPUT)
+    public int threads;
+
+    @API(help="Number of threads currently serving requests", direction=API.Direction.OUTPUT)
+    public int active;
+
+    @API(help="Number of requests waiting in the queue", direction=API.Direction.OUTPUT)
+    public int queued;
+
+    @API(help="Capacity of the queue", direction=API.Direction.OUTPUT)
+    public int queue_capacity;
+
+    @API(help="Number of completed requests", direction=API.Direction.OUTPUT)
+    public long completed;
+
+    @API(help="Number of refused requests", direction=API.Direction.OUTPUT)
+    public long rejected;
+  }
+
+  @API(help="Whether the requests are served asynchronously", direction=API.Direction.OUTPUT)
+  public boolean async;
+
+  @API(help="Upper bounds of the latency histogram buckets in milliseconds", direction=API.Direction.OUTPUT)
+  public double[] histogram_bounds_ms;
+
+  @API(help="Request statistics per route", direction=API.Direction.OUTPUT)
+  public RouteMetricsV3[] routes;
+
+  @API(help="Request pools of the asynchronous mode", direction=API.Direction.OUTPUT)
+  public ExecutorMetricsV3[] executors;
+}
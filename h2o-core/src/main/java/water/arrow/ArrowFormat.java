@@ -0,0 +1,91 @@
+package water.arrow;
+
+/**
+ * Constants of the Apache Arrow IPC format (Message.fbs, Schema.fbs) used by {@link ArrowWriter} and
+ * {@link ArrowReader}. Numbers are field slots of the flatbuffer tables, resp. values of the unions and enums.
+ */
+final class ArrowFormat {
+
+  private ArrowFormat() {}
+
+  static final int CONTINUATION_MARKER = 0xFFFFFFFF;
+  static final short METADATA_V4 = 3;
+  static final short METADATA_V5 = 4;
+
+  // Message
+  static final int MESSAGE_VERSION = 0;
+  static final int MESSAGE_HEADER_TYPE = 1;
+  static final int MESSAGE_HEADER = 2;
+  static final int MESSAGE_BODY_LENGTH = 3;
+
+  // MessageHeader union
+  static final byte HEADER_SCHEMA = 1;
+  static final byte HEADER_DICTIONARY_BATCH = 2;
+  static final byte HEADER_RECORD_BATCH = 3;
+
+  // Schema
+  static final int SCHEMA_ENDIANNESS = 0;
+  static final int SCHEMA_FIELDS = 1;
+
+  // Field
+  static final int FIELD_NAME = 0;
+  static final int FIELD_NULLABLE = 1;
+  static final int FIELD_TYPE_TYPE = 2;
+  static final int FIELD_TYPE = 3;
+  static final int FIELD_DICTIONARY = 4;
+  static final int FIELD_CHILDREN = 5;
+
+  // Type union
+  static final byte TYPE_NULL = 1;
+  static final byte TYPE_INT = 2;
+  static final byte TYPE_FLOATING_POINT = 3;
+  static final byte TYPE_UTF8 = 5;
+  static final byte TYPE_BOOL = 6;
+  static final byte TYPE_DATE = 8;
+  static final byte TYPE_TIMESTAMP = 10;
+  static final byte TYPE_LARGE_UTF8 = 20;
+
+  // Int
+  static final int INT_BIT_WIDTH = 0;
+  static final int INT_IS_SIGNED = 1;
+
+  // FloatingPoint
+  static final int FLOATING_POINT_PRECISION = 0;
+  static final short PRECISION_SINGLE = 1;
+  static final short PRECISION_DOUBLE = 2;
+
+  // Date
+  static final int DATE_UNIT = 0;
+  static final short DATE_UNIT_DAY = 0;
+
+  // Timestamp
+  static final int TIMESTAMP_UNIT = 0;
+  static final short TIME_UNIT_SECOND = 0;
+  static final short TIME_UNIT_MILLISECOND = 1;
+  static final short TIME_UNIT_MICROSECOND = 2;
+  static final short TIME_UNIT_NANOSECOND = 3;
+
+  // DictionaryEncoding
+  static final int DICTIONARY_ID = 0;
+  static final int DICTIONARY_INDEX_TYPE = 1;
+  static final int DICTIONARY_IS_ORDERED = 2;
+
+  // RecordBatch
+  static final int RECORD_BATCH_LENGTH = 0;
+  static final int RECORD_BATCH_NODES = 1;
+  static final int RECORD_BATCH_BUFFERS = 2;
+  static final int RECORD_BATCH_COMPRESSION = 3;
+
+  // DictionaryBatch
+  static final int DICTIONARY_BATCH_ID = 0;
+  static final int DICTIONARY_BATCH_DATA = 1;
+  static final int DICTIONARY_BATCH_IS_DELTA = 2;
+
+  // FieldNode and Buffer structs, both consist of two longs
+  static final int STRUCT_SIZE = 16;
+
+  /** Buffers in the message body are padded to multiples of 8 bytes */
+  static int padded(long size) {
+    return (int) ((size + 7) & ~7L);
+  }
+}
@@ -0,0 +1,393 @@
+package water.arrow;
+
+import water.DKV;
+import water.Futures;
+import water.Key;
+import water.fvec.ChunkUtils;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.parser.BufferedString;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static water.arrow.ArrowFormat.*;
+import static water.arrow.FlatBuffers.Table;
+
+/**
+ * Reads an Apache Arrow IPC stream into a new {@link Frame}.
+ *
+ * Each record batch of the stream becomes one chunk of the frame. Values are copied from the Arrow buffers
+ * straight to {@link NewChunk}s, without any text parsing. Supported Arrow types are:
+ * <ul>
+ *   <li>Int (signed and unsigned), FloatingPoint (single and double precision), Bool - numeric columns</li>
+ *   <li>Utf8, LargeUtf8 - string columns</li>
+ *   <li>dictionary encoded Utf8 - categorical columns, the dictionary becomes the domain</li>
+ *   <li>Timestamp, Date - time columns</li>
+ *   <li>Null - numeric columns with all values missing</li>
+ * </ul>
+ */
+public class ArrowReader {
+
+  private static class Column {
+    String _name;
+    byte _type;
+    int _bitWidth;
+    boolean _signed;
+    short _precision;
+    short _unit;
+    long _dictionaryId = -1;
+    byte _vecType;
+  }
+
+  private final Key<Frame> _key;
+  private final DataInputStream _is;
+  private Column[] _columns;
+  private byte[] _vecTypes;
+  private final Map<Long, String[]> _dictionaries = new HashMap<>();
+  private final Set<Long> _largeDictionaries = new HashSet<>();
+  private final List<Long> _rowsPerChunk = new ArrayList<>();
+
+  private ArrowReader(Key<Frame> key, InputStream is) {
+    _key = key;
+    _is = new DataInputStream(is);
+  }
+
+  /**
+   * Reads the stream and builds a frame with the given key.
+   * @return the new frame, already in DKV
+   */
+  public static Frame read(Key<Frame> key, InputStream is) throws IOException {
+    ArrowReader reader = new ArrowReader(key, is);
+    try {
+      return reader.read();
+    } catch (IOException | RuntimeException e) {
+      reader.cleanup();
+      throw e;
+    }
+  }
+
+  private Frame read() throws IOException {
+    ByteBuffer meta;
+    while ((meta = readMetadata()) != null) {
+      Table message = Table.root(meta);
+      long bodyLength = message.getLong(MESSAGE_BODY_LENGTH, 0);
+      if (bodyLength > Integer.MAX_VALUE)
+        throw new IllegalArgumentException("Arrow messages bigger than 2GB are not supported");
+      byte[] body = new byte[(int) bodyLength];
+      _is.readFully(body);
+      Table header = message.getTable(MESSAGE_HEADER);
+      switch (message.getByte(MESSAGE_HEADER_TYPE, (byte) 0)) {
+        case HEADER_SCHEMA:
+          readSchema(header);
+          break;
+        case HEADER_DICTIONARY_BATCH:
+          readDictionary(header, wrap(body));
+          break;
+        case HEADER_RECORD_BATCH:
+          readRecordBatch(header, wrap(body));
+          break;
+        default:
+          throw new IllegalArgumentException("Unsupported Arrow message type: " + message.getByte(MESSAGE_HEADER_TYPE, (byte) 0));
+      }
+    }
+    if (_columns == null)
+      throw new IllegalArgumentException("Arrow stream doesn't contain any schema");
+    if (_rowsPerChunk.isEmpty()) { // frame needs at least one chunk
+      ChunkUtils.closeNewChunks(ChunkUtils.createNewChunks(_key.toString(), _vecTypes, 0));
+      _rowsPerChunk.add(0L);
+    }
+    String[][] domains = new String[_columns.length][];
+    for (int i = 0; i < _columns.length; i++)
+      if (_columns[i]._dictionaryId >= 0)
+        domains[i] = _dictionaries.get(_columns[i]._dictionaryId);
+    long[] rows = new long[_rowsPerChunk.size()];
+    for (int i = 0; i < rows.length; i++) rows[i] = _rowsPerChunk.get(i);
+    return ChunkUtils.finalizeFrame(_key.toString(), rows, _vecTypes, domains);
+  }
+
+  /** Removes the partially built frame together with the chunks already written. */
+  private void cleanup() {
+    if (_columns == null) return;
+    Frame fr = DKV.getGet(_key);
+    if (fr == null) return;
+    Futures fs = new Futures();
+    for (Key<Vec> k : fr.keys())
+      for (int cidx = 0; cidx <= _rowsPerChunk.size(); cidx++)
+        DKV.remove(Vec.chunkKey(k, cidx), fs);
+    fs.blockForPending();
+    fr.unlock_all();
+    DKV.remove(_key);
+  }
+
+  private static ByteBuffer wrap(byte[] body) {
+    return ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /** Reads metadata of the next message, returns null at the end of the stream. */
+  private ByteBuffer readMetadata() throws IOException {
+    int len;
+    try {
+      len = readInt();
+    } catch (EOFException e) {
+      return null; // stream without the end-of-stream marker
+    }
+    if (len == CONTINUATION_MARKER)
+      len = readInt();
+    // else legacy format (before Arrow 0.15) without the continuation marker
+    if (len == 0)
+      return null;
+    byte[] meta = new byte[len];
+    _is.readFully(meta);
+    return wrap(meta);
+  }
+
+  private int readInt() throws IOException {
+    return Integer.reverseBytes(_is.readInt());
+  }
+
+  private void readSchema(Table schema) {
+    if (_columns != null)
+      throw new IllegalArgumentException("Arrow stream contains more than one schema");
+    int n = schema.vectorLength(SCHEMA_FIELDS);
+    _columns = new Column[n];
+    _vecTypes = new byte[n];
+    String[] names = new String[n];
+    for (int i = 0; i < n; i++) {
+      Table field = schema.getVectorTable(SCHEMA_FIELDS, i);
+      Column col = _columns[i] = new Column();
+      col._name = names[i] = field.getString(FIELD_NAME);
+      col._type = field.getByte(FIELD_TYPE_TYPE, (byte) 0);
+      Table type = field.getTable(FIELD_TYPE);
+      Table dictionary = field.getTable(FIELD_DICTIONARY);
+      if (dictionary != null) {
+        if (col._type != TYPE_UTF8 && col._type != TYPE_LARGE_UTF8)
+          throw new IllegalArgumentException("Column " + col._name + ": only dictionaries of strings are supported");
+        col._dictionaryId = dictionary.getLong(DICTIONARY_ID, 0);
+        if (col._type == TYPE_LARGE_UTF8) _largeDictionaries.add(col._dictionaryId);
+        Table indexType = dictionary.getTable(DICTIONARY_INDEX_TYPE);
+        col._type = TYPE_INT;
+        col._bitWidth = indexType == null ? 32 : indexType.getInt(INT_BIT_WIDTH, 32);
+        col._signed = indexType == null || indexType.getBool(INT_IS_SIGNED, false);
+        col._vecType = Vec.T_CAT;
+        continue;
+      }
+      switch (col._type) {
+        case TYPE_NULL:
+        case TYPE_BOOL:
+          col._vecType = Vec.T_NUM;
+          break;
+        case TYPE_INT:
+          col._bitWidth = type.getInt(INT_BIT_WIDTH, 32);
+          col._signed = type.getBool(INT_IS_SIGNED, false);
+          col._vecType = Vec.T_NUM;
+          break;
+        case TYPE_FLOATING_POINT:
+          col._precision = type.getShort(FLOATING_POINT_PRECISION, (short) 0);
+          if (col._precision != PRECISION_SINGLE && col._precision != PRECISION_DOUBLE)
+            throw new IllegalArgumentException("Column " + col._name + ": half precision floats are not supported");
+          col._vecType = Vec.T_NUM;
+          break;
+        case TYPE_UTF8:
+        case TYPE_LARGE_UTF8:
+          col._vecType = Vec.T_STR;
+          break;
+        case TYPE_DATE:
+        case TYPE_TIMESTAMP:
+          col._unit = type.getShort(col._type == TYPE_DATE ? DATE_UNIT : TIMESTAMP_UNIT, (short) 0);
+          col._vecType = Vec.T_TIME;
+          break;
+        default:
+          throw new IllegalArgumentException("Column " + col._name + ": unsupported Arrow type " + col._type);
+      }
+    }
+    for (int i = 0; i < n; i++) _vecTypes[i] = _columns[i]._vecType;
+    ChunkUtils.initFrame(_key.toString(), names);
+  }
+
+  private void readDictionary(Table batch, ByteBuffer body) {
+    long id = batch.getLong(DICTIONARY_BATCH_ID, 0);
+    if (batch.getBool(DICTIONARY_BATCH_IS_DELTA, false) || _dictionaries.containsKey(id))
+      throw new IllegalArgumentException("Delta and replacement dictionaries are not supported");
+    Table data = batch.getTable(DICTIONARY_BATCH_DATA);
+    checkCompression(data);
+    int n = (int) data.getLong(RECORD_BATCH_LENGTH, 0);
+    if (nullCount(data, 0) > 0)
+      throw new IllegalArgumentException("Dictionary " + id + " contains null values");
+    String[] domain = new String[n];
+    BufferedString str = new BufferedString();
+    boolean large = _largeDictionaries.contains(id);
+    for (int i = 0; i < n; i++)
+      domain[i] = string(data, body, 1, large, i, str).toString();
+    _dictionaries.put(id, domain);
+  }
+
+  private void readRecordBatch(Table batch, ByteBuffer body) {
+    if (_columns == null)
+      throw new IllegalArgumentException("Arrow record batch received before the schema");
+    checkCompression(batch);
+    int len = (int) batch.getLong(RECORD_BATCH_LENGTH, 0);
+    int cidx = _rowsPerChunk.size();
+    NewChunk[] ncs = ChunkUtils.createNewChunks(_key.toString(), _vecTypes, cidx);
+    int buffer = 0;
+    for (int i = 0; i < _columns.length; i++) {
+      Column col = _columns[i];
+      NewChunk nc = ncs[i];
+      if (col._type == TYPE_NULL) { // no buffers at all
+        nc.addNAs(len);
+        continue;
+      }
+      boolean hasNulls = nullCount(batch, i) > 0 && bufferLength(batch, buffer) > 0;
+      int validity = bufferOffset(batch, buffer);
+      int data = bufferOffset(batch, buffer + 1);
+      switch (col._type) {
+        case TYPE_BOOL: {
+          double[] ds = new double[len];
+          for (int row = 0; row < len; row++)
+            ds[row] = isValid(body, hasNulls, validity, row) ? bit(body, data, row) : Double.NaN;
+          nc.setDoubles(ds);
+          buffer += 2;
+          break;
+        }
+        case TYPE_FLOATING_POINT: {
+          double[] ds = new double[len];
+          for (int row = 0; row < len; row++) {
+            if (!isValid(body, hasNulls, validity, row)) ds[row] = Double.NaN;
+            else if (col._precision == PRECISION_SINGLE) ds[row] = body.getFloat(data + 4 * row);
+            else ds[row] = body.getDouble(data + 8 * row);
+          }
+          nc.setDoubles(ds);
+          buffer += 2;
+          break;
+        }
+        case TYPE_INT:
+          if (col._vecType == Vec.T_CAT) {
+            for (int row = 0; row < len; row++) {
+              if (isValid(body, hasNulls, validity, row)) nc.addCategorical((int) integer(body, data, col, row));
+              else nc.addNA();
+            }
+          } else if (col._bitWidth < 64) { // exactly representable by doubles
+            double[] ds = new double[len];
+            for (int row = 0; row < len; row++)
+              ds[row] = isValid(body, hasNulls, validity, row) ? integer(body, data, col, row) : Double.NaN;
+            nc.setDoubles(ds);
+          } else {
+            for (int row = 0; row < len; row++) {
+              if (!isValid(body, hasNulls, validity, row)) nc.addNA();
+              else {
+                long v = integer(body, data, col, row);
+                if (v < 0 && !col._signed) nc.addNum(unsignedToDouble(v)); // above Long.MAX_VALUE
+                else nc.addNum(v, 0);
+              }
+            }
+          }
+          buffer += 2;
+          break;
+        case TYPE_DATE:
+        case TYPE_TIMESTAMP:
+          for (int row = 0; row < len; row++) {
+            if (isValid(body, hasNulls, validity, row)) nc.addNum(millis(body, data, col, row), 0);
+            else nc.addNA();
+          }
+          buffer += 2;
+          break;
+        default: { // strings
+          BufferedString str = new BufferedString();
+          boolean large = col._type == TYPE_LARGE_UTF8;
+          for (int row = 0; row < len; row++) {
+            if (isValid(body, hasNulls, validity, row)) nc.addStr(string(batch, body, buffer + 1, large, row, str));
+            else nc.addNA();
+          }
+          buffer += 3;
+        }
+      }
+    }
+    ChunkUtils.closeNewChunks(ncs);
+    _rowsPerChunk.add((long) len);
+  }
+
+  private static void checkCompression(Table batch) {
+    if (batch.has(RECORD_BATCH_COMPRESSION))
+      throw new IllegalArgumentException("Compressed Arrow record batches are not supported");
+  }
+
+  private static long nullCount(Table batch, int node) {
+    return batch.getVectorStructLong(RECORD_BATCH_NODES, node, STRUCT_SIZE, 8);
+  }
+
+  private static int bufferOffset(Table batch, int buffer) {
+    return (int) batch.getVectorStructLong(RECORD_BATCH_BUFFERS, buffer, STRUCT_SIZE, 0);
+  }
+
+  private static long bufferLength(Table batch, int buffer) {
+    return batch.getVectorStructLong(RECORD_BATCH_BUFFERS, buffer, STRUCT_SIZE, 8);
+  }
+
+  private static boolean isValid(ByteBuffer body, boolean hasNulls, int validity, int row) {
+    return !hasNulls || bit(body, validity, row) != 0;
+  }
+
+  private static int bit(ByteBuffer body, int offset, int row) {
+    return (body.get(offset + (row >> 3)) >> (row & 7)) & 1;
+  }
+
+  private static long integer(ByteBuffer body, int data, Column col, int row) {
+    switch (col._bitWidth) {
+      case 8:
+        return col._signed ? body.get(data + row) : body.get(data + row) & 0xFFL;
+      case 16:
+        return col._signed ? body.getShort(data + 2 * row) : body.getShort(data + 2 * row) & 0xFFFFL;
+      case 32:
+        return col._signed ? body.getInt(data + 4 * row) : body.getInt(data + 4 * row) & 0xFFFFFFFFL;
+      case 64: // unsigned values above Long.MAX_VALUE are negative, see unsignedToDouble
+        return body.getLong(data + 8 * row);
+      default:
+        throw new IllegalArgumentException("Column " + col._name + ": unsupported integer bit width " + col._bitWidth);
+    }
+  }
+
+  /** Nearest double of an unsigned 64-bit integer (the lowest bit is kept as a sticky bit for the rounding). */
+  static double unsignedToDouble(long v) {
+    return v >= 0 ? (double) v : (double) ((v >>> 1) | (v & 1)) * 2.0;
+  }
+
+  private static long millis(ByteBuffer body, int data, Column col, int row) {
+    if (col._type == TYPE_DATE) {
+      return col._unit == DATE_UNIT_DAY ? body.getInt(data + 4 * row) * 86400000L : body.getLong(data + 8 * row);
+    }
+    long v = body.getLong(data + 8 * row);
+    switch (col._unit) {
+      case TIME_UNIT_SECOND: return v * 1000;
+      case TIME_UNIT_MILLISECOND: return v;
+      case TIME_UNIT_MICROSECOND: return v / 1000;
+      default: return v / 1000000;
+    }
+  }
+
+  /** String at the given row, the offsets buffer is immediately followed by the data buffer. */
+  private static BufferedString string(Table batch, ByteBuffer body, int offsetsBuffer, boolean large, int row,
+                                       BufferedString str) {
+    int offsets = bufferOffset(batch, offsetsBuffer);
+    int data = bufferOffset(batch, offsetsBuffer + 1);
+    int start, end;
+    if (large) {
+      start = (int) body.getLong(offsets + 8 * row);
+      end = (int) body.getLong(offsets + 8 * row + 8);
+    } else {
+      start = body.getInt(offsets + 4 * row);
+      end = body.getInt(offsets + 4 * row + 4);
+    }
+    return str.set(body.array(), data + start, end - start);
+  }
+}
@@ -0,0 +1,283 @@
+package water.arrow;
+
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.parser.BufferedString;
+import water.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static water.arrow.ArrowFormat.*;
+import static water.arrow.FlatBuffers.*;
+
+/**
+ * Writes a {@link Frame} as an Apache Arrow IPC stream.
+ *
+ * Each chunk of the frame becomes one record batch, the buffers of the batch are filled directly from the
+ * {@link Chunk} data - no text rendering is involved. Columns are mapped to Arrow types as follows:
+ * <ul>
+ *   <li>integer numeric columns - Int64</li>
+ *   <li>other numeric columns - Float64</li>
+ *   <li>time columns - Timestamp in milliseconds</li>
+ *   <li>categorical columns - dictionary encoded Utf8 with Int32 indices, the domain is sent as the dictionary</li>
+ *   <li>string and UUID columns - Utf8</li>
+ * </ul>
+ * Only the current record batch is held in memory, so the frame can be streamed to the client chunk by chunk.
+ */
+public class ArrowWriter {
+
+  private static final int KIND_INT64 = 0;
+  private static final int KIND_FLOAT64 = 1;
+  private static final int KIND_TIMESTAMP = 2;
+  private static final int KIND_DICTIONARY = 3;
+  private static final int KIND_UTF8 = 4;
+
+  private final Frame _fr;
+  private final OutputStream _os;
+  private final int[] _kinds;
+  private final Output _body = new Output(1 << 16);
+  private final List<Long> _nodes = new ArrayList<>();
+  private final List<Long> _buffers = new ArrayList<>();
+
+  public ArrowWriter(Frame fr, OutputStream os) {
+    _fr = fr;
+    _os = os;
+    _kinds = new int[fr.numCols()];
+    for (int i = 0; i < _kinds.length; i++)
+      _kinds[i] = kindOf(fr.vec(i));
+  }
+
+  private static int kindOf(Vec v) {
+    if (v.isCategorical()) return KIND_DICTIONARY;
+    if (v.isString() || v.isUUID()) return KIND_UTF8;
+    if (v.isTime()) return KIND_TIMESTAMP;
+    if (v.isBad() || !v.isInt()) return KIND_FLOAT64;
+    return KIND_INT64;
+  }
+
+  /** Writes the whole stream - schema, dictionaries of categorical columns and one record batch per chunk. */
+  public void write() throws IOException {
+    writeMessage(HEADER_SCHEMA, schema(), 0);
+    for (int i = 0; i < _kinds.length; i++)
+      if (_kinds[i] == KIND_DICTIONARY)
+        writeDictionary(i, _fr.vec(i).domain());
+    Vec[] vecs = _fr.vecs();
+    int nChunks = vecs.length == 0 ? 0 : vecs[0].nChunks();
+    for (int cidx = 0; cidx < nChunks; cidx++) {
+      Chunk[] chks = new Chunk[vecs.length];
+      for (int i = 0; i < vecs.length; i++)
+        chks[i] = vecs[i].chunkForChunkIdx(cidx);
+      writeRecordBatch(chks);
+    }
+    // end of stream
+    writeInt(CONTINUATION_MARKER);
+    writeInt(0);
+    _os.flush();
+  }
+
+  private TableBuilder schema() {
+    List<TableBuilder> fields = new ArrayList<>();
+    for (int i = 0; i < _kinds.length; i++) {
+      TableBuilder field = new TableBuilder()
+          .addNode(FIELD_NAME, new StringNode(_fr.name(i)))
+          .addBool(FIELD_NULLABLE, true)
+          .addNode(FIELD_CHILDREN, new TableVectorNode(Collections.<Node>emptyList()));
+      switch (_kinds[i]) {
+        case KIND_INT64:
+          field.addByte(FIELD_TYPE_TYPE, TYPE_INT).addNode(FIELD_TYPE, intType(64));
+          break;
+        case KIND_FLOAT64:
+          field.addByte(FIELD_TYPE_TYPE, TYPE_FLOATING_POINT)
+              .addNode(FIELD_TYPE, new TableBuilder().addShort(FLOATING_POINT_PRECISION, PRECISION_DOUBLE));
+          break;
+        case KIND_TIMESTAMP:
+          field.addByte(FIELD_TYPE_TYPE, TYPE_TIMESTAMP)
+              .addNode(FIELD_TYPE, new TableBuilder().addShort(TIMESTAMP_UNIT, TIME_UNIT_MILLISECOND));
+          break;
+        case KIND_DICTIONARY:
+          field.addByte(FIELD_TYPE_TYPE, TYPE_UTF8).addNode(FIELD_TYPE, new TableBuilder())
+              .addNode(FIELD_DICTIONARY, new TableBuilder()
+                  .addLong(DICTIONARY_ID, i)
+                  .addNode(DICTIONARY_INDEX_TYPE, intType(32))
+                  .addBool(DICTIONARY_IS_ORDERED, false));
+          break;
+        default:
+          field.addByte(FIELD_TYPE_TYPE, TYPE_UTF8).addNode(FIELD_TYPE, new TableBuilder());
+      }
+      fields.add(field);
+    }
+    return new TableBuilder().addNode(SCHEMA_FIELDS, new TableVectorNode(fields));
+  }
+
+  private static TableBuilder intType(int bitWidth) {
+    return new TableBuilder().addInt(INT_BIT_WIDTH, bitWidth).addBool(INT_IS_SIGNED, true);
+  }
+
+  private void writeDictionary(long id, String[] domain) throws IOException {
+    startBody();
+    int[] offsets = new int[domain.length + 1];
+    byte[][] bytes = new byte[domain.length][];
+    for (int i = 0; i < domain.length; i++) {
+      bytes[i] = StringUtils.bytesOf(domain[i]);
+      offsets[i + 1] = offsets[i] + bytes[i].length;
+    }
+    addNode(domain.length, 0);
+    addEmptyBuffer();
+    addOffsets(offsets);
+    int start = _body.position();
+    for (byte[] b : bytes) _body.putBytes(b, 0, b.length);
+    endBuffer(start);
+    TableBuilder header = new TableBuilder()
+        .addLong(DICTIONARY_BATCH_ID, id)
+        .addNode(DICTIONARY_BATCH_DATA, recordBatch(domain.length))
+        .addBool(DICTIONARY_BATCH_IS_DELTA, false);
+    writeMessage(HEADER_DICTIONARY_BATCH, header, _body.position());
+  }
+
+  private void writeRecordBatch(Chunk[] chks) throws IOException {
+    startBody();
+    int len = chks.length == 0 ? 0 : chks[0]._len;
+    for (int i = 0; i < chks.length; i++) {
+      Chunk c = chks[i];
+      byte[] validity = new byte[(len + 7) >> 3];
+      int nullCount = 0;
+      for (int row = 0; row < len; row++) {
+        if (c.isNA(row)) nullCount++;
+        else validity[row >> 3] |= 1 << (row & 7);
+      }
+      addNode(len, nullCount);
+      if (nullCount == 0) {
+        addEmptyBuffer();
+      } else {
+        int start = _body.position();
+        _body.putBytes(validity, 0, validity.length);
+        endBuffer(start);
+      }
+      int start;
+      switch (_kinds[i]) {
+        case KIND_INT64:
+        case KIND_TIMESTAMP:
+          start = _body.position();
+          for (int row = 0; row < len; row++)
+            _body.put8(isValid(validity, row) ? c.at8(row) : 0);
+          endBuffer(start);
+          break;
+        case KIND_FLOAT64:
+          start = _body.position();
+          for (int row = 0; row < len; row++)
+            _body.put8d(c.atd(row));
+          endBuffer(start);
+          break;
+        case KIND_DICTIONARY:
+          start = _body.position();
+          for (int row = 0; row < len; row++)
+            _body.put4(isValid(validity, row) ? (int) c.at8(row) : 0);
+          endBuffer(start);
+          break;
+        default:
+          writeStrings(c, validity, len);
+      }
+    }
+    writeMessage(HEADER_RECORD_BATCH, recordBatch(len), _body.position());
+  }
+
+  private void writeStrings(Chunk c, byte[] validity, int len) {
+    int[] offsets = new int[len + 1];
+    if (c.vec().isUUID()) {
+      byte[][] bytes = new byte[len][];
+      for (int row = 0; row < len; row++) {
+        bytes[row] = isValid(validity, row) ? StringUtils.bytesOf(new UUID(c.at16h(row), c.at16l(row)).toString()) : new byte[0];
+        offsets[row + 1] = offsets[row] + bytes[row].length;
+      }
+      addOffsets(offsets);
+      int start = _body.position();
+      for (byte[] b : bytes) _body.putBytes(b, 0, b.length);
+      endBuffer(start);
+    } else {
+      BufferedString str = new BufferedString();
+      for (int row = 0; row < len; row++)
+        offsets[row + 1] = offsets[row] + (isValid(validity, row) ? c.atStr(str, row).length() : 0);
+      addOffsets(offsets);
+      int start = _body.position();
+      for (int row = 0; row < len; row++) {
+        if (isValid(validity, row)) {
+          c.atStr(str, row);
+          _body.putBytes(str.getBuffer(), str.getOffset(), str.length());
+        }
+      }
+      endBuffer(start);
+    }
+  }
+
+  private static boolean isValid(byte[] validity, int row) {
+    return (validity[row >> 3] & (1 << (row & 7))) != 0;
+  }
+
+  private void startBody() {
+    _body.reset();
+    _nodes.clear();
+    _buffers.clear();
+  }
+
+  private void addNode(long length, long nullCount) {
+    _nodes.add(length);
+    _nodes.add(nullCount);
+  }
+
+  private void addEmptyBuffer() {
+    _buffers.add((long) _body.position());
+    _buffers.add(0L);
+  }
+
+  private void addOffsets(int[] offsets) {
+    int start = _body.position();
+    for (int o : offsets) _body.put4(o);
+    endBuffer(start);
+  }
+
+  private void endBuffer(int start) {
+    _buffers.add((long) start);
+    _buffers.add((long) (_body.position() - start));
+    _body.align(8);
+  }
+
+  private TableBuilder recordBatch(long length) {
+    return new TableBuilder()
+        .addLong(RECORD_BATCH_LENGTH, length)
+        .addNode(RECORD_BATCH_NODES, new LongStructVectorNode(_nodes.size() / 2, toArray(_nodes)))
+        .addNode(RECORD_BATCH_BUFFERS, new LongStructVectorNode(_buffers.size() / 2, toArray(_buffers)));
+  }
+
+  private static long[] toArray(List<Long> l) {
+    long[] res = new long[l.size()];
+    for (int i = 0; i < res.length; i++) res[i] = l.get(i);
+    return res;
+  }
+
+  private void writeMessage(byte headerType, TableBuilder header, int bodyLength) throws IOException {
+    byte[] meta = FlatBuffers.encode(new TableBuilder()
+        .addShort(MESSAGE_VERSION, METADATA_V5)
+        .addByte(MESSAGE_HEADER_TYPE, headerType)
+        .addNode(MESSAGE_HEADER, header)
+        .addLong(MESSAGE_BODY_LENGTH, bodyLength));
+    // metadata is padded to 8 bytes, together with the 8 bytes prefix the body stays aligned
+    writeInt(CONTINUATION_MARKER);
+    writeInt(meta.length);
+    _os.write(meta);
+    if (bodyLength > 0)
+      _os.write(_body.array(), 0, bodyLength);
+  }
+
+  private void writeInt(int i) throws IOException {
+    _os.write(i);
+    _os.write(i >>> 8);
+    _os.write(i >>> 16);
+    _os.write(i >>> 24);
+  }
+}
@@ -0,0 +1,269 @@
+package water.arrow;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import water.util.StringUtils;
+
+/**
+ * Minimal FlatBuffers encoder and decoder, just enough to read and write metadata of Arrow IPC messages.
+ *
+ * The reference FlatBufferBuilder builds buffers back-to-front. The encoder here lays the objects out front-to-back
+ * instead - every table is written before the objects it references. The format allows it since references
+ * (uoffset_t) always point forward and vtables can precede their tables.
+ */
+final class FlatBuffers {
+
+  private FlatBuffers() {}
+
+  /** Growable little-endian byte buffer, used both for the encoded metadata and for message bodies. */
+  static final class Output {
+    private ByteBuffer _bb;
+
+    Output(int initialSize) {
+      _bb = ByteBuffer.allocate(Math.max(initialSize, 16)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    int position() { return _bb.position(); }
+
+    private ByteBuffer ensure(int size) {
+      if (_bb.remaining() < size) {
+        long needed = (long) _bb.position() + size;
+        int newSize = (int) Math.min(Math.max(needed, (long) _bb.capacity() << 1), Integer.MAX_VALUE - 8);
+        if (newSize < needed)
+          throw new IllegalStateException("Buffer can't hold more than 2GB of data");
+        ByteBuffer bb = ByteBuffer.allocate(newSize).order(ByteOrder.LITTLE_ENDIAN);
+        _bb.flip();
+        bb.put(_bb);
+        _bb = bb;
+      }
+      return _bb;
+    }
+
+    Output put1(int b) { ensure(1).put((byte) b); return this; }
+    Output put2(int s) { ensure(2).putShort((short) s); return this; }
+    Output put4(int i) { ensure(4).putInt(i); return this; }
+    Output put8(long l) { ensure(8).putLong(l); return this; }
+    Output put8d(double d) { ensure(8).putDouble(d); return this; }
+    Output putBytes(byte[] b, int off, int len) { ensure(len).put(b, off, len); return this; }
+    void put4At(int pos, int i) { _bb.putInt(pos, i); }
+
+    /** Pad with zeros until the position is aligned to the given power of 2. */
+    Output align(int alignment) {
+      return alignWithOffset(alignment, 0);
+    }
+
+    /** Pad with zeros until {@code position + offset} is aligned to the given power of 2. */
+    Output alignWithOffset(int alignment, int offset) {
+      while (((_bb.position() + offset) & (alignment - 1)) != 0) put1(0);
+      return this;
+    }
+
+    byte[] array() { return _bb.array(); }
+
+    void reset() { _bb.clear(); }
+  }
+
+  /** Object which can be referenced from a table field or a vector of tables. */
+  static abstract class Node {
+    /** Writes the object and returns its position, which is the target of the references to it. */
+    abstract int write(Output out);
+  }
+
+  /** Encodes whole buffer with the given root table. */
+  static byte[] encode(TableBuilder root) {
+    Output out = new Output(256);
+    out.put4(0);
+    int rootPos = root.write(out);
+    out.put4At(0, rootPos);
+    out.align(8);
+    return Arrays.copyOf(out.array(), out.position());
+  }
+
+  static final class TableBuilder extends Node {
+    private static final class Field {
+      final int _slot;
+      final int _size;
+      final long _value;
+      final Node _node;
+      Field(int slot, int size, long value, Node node) {
+        _slot = slot; _size = size; _value = value; _node = node;
+      }
+    }
+
+    private final List<Field> _fields = new ArrayList<>();
+
+    TableBuilder addLong(int slot, long v) { _fields.add(new Field(slot, 8, v, null)); return this; }
+    TableBuilder addInt(int slot, int v) { _fields.add(new Field(slot, 4, v, null)); return this; }
+    TableBuilder addShort(int slot, int v) { _fields.add(new Field(slot, 2, v, null)); return this; }
+    TableBuilder addByte(int slot, int v) { _fields.add(new Field(slot, 1, v, null)); return this; }
+    TableBuilder addBool(int slot, boolean v) { return addByte(slot, v ? 1 : 0); }
+    TableBuilder addNode(int slot, Node n) { _fields.add(new Field(slot, 4, 0, n)); return this; }
+
+    @Override
+    int write(Output out) {
+      // Larger fields go first so that all of them are naturally aligned
+      List<Field> fields = new ArrayList<>(_fields);
+      Collections.sort(fields, new Comparator<Field>() {
+        @Override public int compare(Field a, Field b) { return b._size - a._size; }
+      });
+      int numSlots = 0;
+      for (Field f : fields) numSlots = Math.max(numSlots, f._slot + 1);
+      int[] slotOffsets = new int[numSlots];
+      int inlineSize = 4; // soffset to the vtable
+      for (Field f : fields) {
+        inlineSize = (inlineSize + f._size - 1) & -f._size;
+        slotOffsets[f._slot] = inlineSize;
+        inlineSize += f._size;
+      }
+      // vtable
+      out.align(2);
+      int vtablePos = out.position();
+      out.put2(4 + 2 * numSlots).put2(inlineSize);
+      for (int off : slotOffsets) out.put2(off);
+      // table itself, 8-byte aligned so that the relative offsets are also absolutely aligned
+      out.align(8);
+      int tablePos = out.position();
+      out.put4(tablePos - vtablePos);
+      int[] refPositions = new int[fields.size()];
+      for (int i = 0; i < fields.size(); i++) {
+        Field f = fields.get(i);
+        out.align(f._size);
+        if (f._node != null) refPositions[i] = out.position();
+        switch (f._size) {
+          case 1: out.put1((int) f._value); break;
+          case 2: out.put2((int) f._value); break;
+          case 4: out.put4((int) f._value); break;
+          default: out.put8(f._value);
+        }
+      }
+      // referenced objects follow the table
+      for (int i = 0; i < fields.size(); i++) {
+        Field f = fields.get(i);
+        if (f._node != null) {
+          int pos = f._node.write(out);
+          out.put4At(refPositions[i], pos - refPositions[i]);
+        }
+      }
+      return tablePos;
+    }
+  }
+
+  static final class StringNode extends Node {
+    private final byte[] _bytes;
+    StringNode(String s) { _bytes = StringUtils.bytesOf(s); }
+
+    @Override
+    int write(Output out) {
+      out.align(4);
+      int pos = out.position();
+      out.put4(_bytes.length).putBytes(_bytes, 0, _bytes.length).put1(0);
+      return pos;
+    }
+  }
+
+  static final class TableVectorNode extends Node {
+    private final List<? extends Node> _elems;
+    TableVectorNode(List<? extends Node> elems) { _elems = elems; }
+
+    @Override
+    int write(Output out) {
+      out.align(4);
+      int pos = out.position();
+      out.put4(_elems.size());
+      int first = out.position();
+      for (int i = 0; i < _elems.size(); i++) out.put4(0);
+      for (int i = 0; i < _elems.size(); i++) {
+        int elemPos = _elems.get(i).write(out);
+        out.put4At(first + 4 * i, elemPos - (first + 4 * i));
+      }
+      return pos;
+    }
+  }
+
+  /** Vector of structs consisting of 8-byte long fields only. */
+  static final class LongStructVectorNode extends Node {
+    private final int _count;
+    private final long[] _values;
+    LongStructVectorNode(int count, long[] values) { _count = count; _values = values; }
+
+    @Override
+    int write(Output out) {
+      // the elements (following the 4-byte length) have to be 8-byte aligned
+      out.alignWithOffset(8, 4);
+      int pos = out.position();
+      out.put4(_count);
+      for (long v : _values) out.put8(v);
+      return pos;
+    }
+  }
+
+  /** Read-only view of an encoded table. */
+  static final class Table {
+    private final ByteBuffer _bb;
+    private final int _pos;
+
+    private Table(ByteBuffer bb, int pos) { _bb = bb; _pos = pos; }
+
+    static Table root(ByteBuffer bb) {
+      bb.order(ByteOrder.LITTLE_ENDIAN);
+      return new Table(bb, bb.getInt(0));
+    }
+
+    /** Offset of the field relative to the table, 0 if the field is not present. */
+    private int offset(int slot) {
+      int vtable = _pos - _bb.getInt(_pos);
+      int vtableSize = _bb.getShort(vtable) & 0xFFFF;
+      int entry = 4 + 2 * slot;
+      return entry < vtableSize ? _bb.getShort(vtable + entry) & 0xFFFF : 0;
+    }
+
+    boolean has(int slot) { return offset(slot) != 0; }
+
+    long getLong(int slot, long dflt) { int o = offset(slot); return o == 0 ? dflt : _bb.getLong(_pos + o); }
+    int getInt(int slot, int dflt) { int o = offset(slot); return o == 0 ? dflt : _bb.getInt(_pos + o); }
+    short getShort(int slot, short dflt) { int o = offset(slot); return o == 0 ? dflt : _bb.getShort(_pos + o); }
+    byte getByte(int slot, byte dflt) { int o = offset(slot); return o == 0 ? dflt : _bb.get(_pos + o); }
+    boolean getBool(int slot, boolean dflt) { int o = offset(slot); return o == 0 ? dflt : _bb.get(_pos + o) != 0; }
+
+    private int deref(int slot) {
+      int o = offset(slot);
+      if (o == 0) return -1;
+      int p = _pos + o;
+      return p + _bb.getInt(p);
+    }
+
+    Table getTable(int slot) {
+      int p = deref(slot);
+      return p < 0 ? null : new Table(_bb, p);
+    }
+
+    String getString(int slot) {
+      int p = deref(slot);
+      if (p < 0) return null;
+      byte[] bytes = new byte[_bb.getInt(p)];
+      for (int i = 0; i < bytes.length; i++) bytes[i] = _bb.get(p + 4 + i);
+      return StringUtils.toString(bytes, 0, bytes.length);
+    }
+
+    int vectorLength(int slot) {
+      int p = deref(slot);
+      return p < 0 ? 0 : _bb.getInt(p);
+    }
+
+    Table getVectorTable(int slot, int idx) {
+      int elem = deref(slot) + 4 + 4 * idx;
+      return new Table(_bb, elem + _bb.getInt(elem));
+    }
+
+    /** Reads a long field of a struct element of the vector. */
+    long getVectorStructLong(int slot, int idx, int structSize, int fieldOffset) {
+      return _bb.getLong(deref(slot) + 4 + idx * structSize + fieldOffset);
+    }
+  }
+}
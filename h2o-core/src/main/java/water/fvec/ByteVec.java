@@ -4,6 +4,8 @@ import water.Job;
 import water.Key;
 import water.Value;
 import water.exceptions.H2OIllegalArgumentException;
+import water.metrics.Counter;
+import water.metrics.MetricsRegistry;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -14,6 +16,9 @@ import java.util.Arrays;
  */
 public class ByteVec extends Vec {
 
+  /** Input bytes parsed on this node, the rate of the counter is the parse throughput */
+  public static final Counter PARSED_BYTES = MetricsRegistry.counter("h2o_parse_bytes_total", "Bytes of input data parsed");
+
   public ByteVec( Key key, int rowLayout ) { super(key, rowLayout); }
 
   @Override public C1NChunk chunkForChunkIdx(int cidx) { return (C1NChunk)super.chunkForChunkIdx(cidx); }
@@ -69,8 +74,10 @@ public class ByteVec extends Vec {
           if (_cidx >= nChunks()) return 0;
           _c0 = chunkForChunkIdx(_cidx++);
           _sz = C1NChunk._OFF;
-          if (job_key != null)
+          if (job_key != null) {
             Job.update(_c0._len, job_key);
+            PARSED_BYTES.inc(_c0._len);
+          }
         }
         return _c0._len - _sz;
       }
@@ -1431,7 +1431,16 @@ public class Frame extends Lockable<Frame> {
   }
 
   public static Job export(Frame fr, String path, String frameName, boolean overwrite, int nParts) {
-    boolean forceSingle = nParts == 1;
+    return export(fr, path, frameName, overwrite, nParts, false);
+  }
+
+  /** Export the frame as CSV to the given path.
+   *
+   *  @param nParts number of part files (1 = single file, -1 = automatic), ignored in parallel mode
+   *  @param parallel write one part file per node, each node writes the chunks homed on it
+   *  @return the export job */
+  public static Job export(Frame fr, String path, String frameName, boolean overwrite, int nParts, boolean parallel) {
+    boolean forceSingle = nParts == 1 && !parallel;
     // Validate input
     if (forceSingle) {
       boolean fileExists = H2O.getPM().exists(path);
@@ -1447,7 +1456,7 @@ public class Frame extends Lockable<Frame> {
       }
     }
     Job job =  new Job<>(fr._key, "water.fvec.Frame", "Export dataset");
-    FrameUtils.ExportTaskDriver t = new FrameUtils.ExportTaskDriver(fr, path, frameName, overwrite, job, nParts);
+    FrameUtils.ExportTaskDriver t = new FrameUtils.ExportTaskDriver(fr, path, frameName, overwrite, job, nParts, parallel);
     return job.start(t, fr.anyVec().nChunks());
   }
 
@@ -0,0 +1,182 @@
+package water.fvec;
+
+import water.DTask;
+import water.H2O;
+import water.H2ONode;
+import water.RPC;
+import water.util.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CSV rendering of a {@link Frame} that doesn't pull the data to the reading node row by row.
+ *
+ * Each chunk is formatted (and optionally gzipped) on its home node by a {@link CSVChunkTask}, the node
+ * reading the stream only concatenates the returned blocks. Up to {@code prefetch} chunks are requested ahead
+ * of the chunk currently being read, so the formatting of the following chunks overlaps with the consumer
+ * of the stream. Blocks are always returned in the chunk order, the output is identical to {@link Frame.CSVStream}.
+ *
+ * With gzip enabled every block is a complete gzip member; a concatenation of members is a valid gzip file
+ * (RFC 1952), which allows the compression to run in parallel on the home nodes as well.
+ */
+public class ParallelCSVStream extends InputStream {
+
+  /** Default number of chunks requested ahead of the consumer */
+  public static final int DEFAULT_PREFETCH =
+      Integer.getInteger(H2O.OptArgs.SYSTEM_PROP_PREFIX + "export.csv.prefetch", 16);
+
+  private final Frame _fr;
+  private final int[] _cidxs;
+  private final boolean _hex_string;
+  private final boolean _gzip;
+  private final int _prefetch;
+  private final ArrayDeque<RPC<CSVChunkTask>> _pending = new ArrayDeque<>();
+  private int _nextCidx; // index into _cidxs of the next chunk to be requested
+  private int _chunksDone;
+  private byte[] _block;
+  private int _position;
+
+  public ParallelCSVStream(Frame fr, boolean headers, boolean hex_string, boolean gzip) {
+    this(fr, allChunks(fr), headers, hex_string, gzip, DEFAULT_PREFETCH);
+  }
+
+  /**
+   * @param fr frame to render
+   * @param cidxs indices of the chunks to include, in the order they should appear in the output
+   * @param headers include a line with the column names
+   * @param hex_string render doubles with {@link Double#toHexString(double)}
+   * @param gzip compress the output
+   * @param prefetch maximum number of chunks requested ahead of the consumer
+   */
+  public ParallelCSVStream(Frame fr, int[] cidxs, boolean headers, boolean hex_string, boolean gzip, int prefetch) {
+    if (prefetch < 1)
+      throw new IllegalArgumentException("Prefetch needs to be positive, got: " + prefetch);
+    _fr = fr;
+    _cidxs = cidxs;
+    _hex_string = hex_string;
+    _gzip = gzip;
+    _prefetch = prefetch;
+    // even without headers a gzip stream needs at least one (empty) member
+    _block = headers || gzip ? render(new Frame.CSVStream(null, headers ? fr.names() : null, 0, hex_string), gzip) : new byte[0];
+  }
+
+  private static int[] allChunks(Frame fr) {
+    Vec v = fr.anyVec();
+    int n = v == null || v.length() == 0 ? 0 : v.nChunks();
+    int[] cidxs = new int[n];
+    for (int i = 0; i < n; i++) cidxs[i] = i;
+    return cidxs;
+  }
+
+  /** Number of chunks which were already completely consumed by the reader, used for progress reporting. */
+  public int chunksDone() {
+    return _chunksDone;
+  }
+
+  private void prefetch() {
+    Vec anyVec = _fr.anyVec();
+    while (_nextCidx < _cidxs.length && _pending.size() < _prefetch) {
+      int cidx = _cidxs[_nextCidx++];
+      H2ONode home = anyVec.chunkKey(cidx).home_node();
+      _pending.addLast(new RPC<>(home, new CSVChunkTask(_fr, cidx, _hex_string, _gzip)).call());
+    }
+  }
+
+  @Override public int available() throws IOException {
+    while (_block != null && _position == _block.length) {
+      if (_pending.isEmpty()) prefetch();
+      if (_pending.isEmpty()) {
+        _block = null; // end of stream
+        break;
+      }
+      RPC<CSVChunkTask> rpc = _pending.removeFirst();
+      prefetch(); // keep the pipeline full while waiting for the result
+      _block = rpc.get()._bytes;
+      _position = 0;
+      _chunksDone++;
+    }
+    return _block == null ? 0 : _block.length - _position;
+  }
+
+  @Override public int read() throws IOException {
+    return available() == 0 ? -1 : _block[_position++] & 0xFF;
+  }
+
+  @Override public int read(byte[] b, int off, int len) throws IOException {
+    int n = available();
+    if (n == 0) return -1;
+    n = Math.min(n, len);
+    System.arraycopy(_block, _position, b, off, n);
+    _position += n;
+    return n;
+  }
+
+  @Override public void close() throws IOException {
+    super.close();
+    // requests which are already in flight will complete, we just don't wait for them
+    _pending.clear();
+    _nextCidx = _cidxs.length;
+    _block = null;
+  }
+
+  /** Writes the rest of the stream to the given output stream and returns the number of bytes written. */
+  public long writeTo(OutputStream os) throws IOException {
+    long written = 0;
+    while (available() > 0) {
+      os.write(_block, _position, _block.length - _position);
+      written += _block.length - _position;
+      _position = _block.length;
+    }
+    return written;
+  }
+
+  private static byte[] render(Frame.CSVStream is, boolean gzip) {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try {
+      OutputStream os = gzip ? new GZIPOutputStream(baos, 1 << 16) : baos;
+      byte[] buf = new byte[1 << 16];
+      int n;
+      // CSVStream signals the end of data by returning 0
+      while ((n = is.read(buf, 0, buf.length)) > 0)
+        os.write(buf, 0, n);
+      os.close();
+    } catch (IOException e) {
+      throw new RuntimeException(e); // in-memory streams only
+    } finally {
+      try { is.close(); } catch (IOException e) { Log.err(e); }
+    }
+    return baos.toByteArray();
+  }
+
+  /** Renders a single chunk of a frame on the home node of the chunk. */
+  private static class CSVChunkTask extends DTask<CSVChunkTask> {
+    // IN
+    private final Frame _fr;
+    private final int _cidx;
+    private final boolean _hex_string;
+    private final boolean _gzip;
+    // OUT
+    private byte[] _bytes;
+
+    CSVChunkTask(Frame fr, int cidx, boolean hex_string, boolean gzip) {
+      _fr = fr;
+      _cidx = cidx;
+      _hex_string = hex_string;
+      _gzip = gzip;
+    }
+
+    @Override public void compute2() {
+      Vec[] vecs = _fr.vecs();
+      Chunk[] chks = new Chunk[vecs.length];
+      for (int i = 0; i < vecs.length; i++)
+        chks[i] = vecs[i].chunkForChunkIdx(_cidx);
+      _bytes = chks[0]._len == 0 ? new byte[0] : render(new Frame.CSVStream(chks, null, 1, _hex_string), _gzip);
+      tryComplete();
+    }
+  }
+}
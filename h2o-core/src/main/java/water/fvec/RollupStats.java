@@ -316,7 +316,14 @@ final class RollupStats extends Iced {
       }).call());
   }
 
-  private static NonBlockingHashMap<Key,RPC> _pendingRollups = new NonBlockingHashMap<>();
+  private static NonBlockingHashMap<Key,PendingRollups> _pendingRollups = new NonBlockingHashMap<>();
+
+  // Rollups being computed and the priority of the task computing them
+  private static final class PendingRollups {
+    final RPC _rpc;
+    final byte _priority;
+    PendingRollups(RPC rpc, byte priority) { _rpc = rpc; _priority = priority; }
+  }
 
   static RollupStats get(Vec vec, boolean computeHisto) {
     if( DKV.get(vec._key)== null ) {
@@ -332,13 +339,17 @@ final class RollupStats extends Iced {
         throw new H2OConcurrentModificationException("Can not compute rollup stats while vec is being modified. (1)");
       // 1. compute only once
       try {
+        byte priority = ComputeRollupsTask.taskPriority();
         RPC rpcNew = new RPC(rskey.home_node(),new ComputeRollupsTask(vec, computeHisto));
-        RPC rpcOld = _pendingRollups.putIfAbsent(rskey, rpcNew);
-        if(rpcOld == null) {  // no prior pending task, need to send this one
+        PendingRollups pendingNew = new PendingRollups(rpcNew, priority);
+        PendingRollups pendingOld = _pendingRollups.putIfAbsent(rskey, pendingNew);
+        if(pendingOld == null) {  // no prior pending task, need to send this one
+          rpcNew.call().get();
+          _pendingRollups.remove(rskey, pendingNew);
+        } else if(pendingOld._priority >= priority || !(Thread.currentThread() instanceof H2O.FJWThr))
+          pendingOld._rpc.get(); // rollups computation is already in progress, wait for it to finish
+        else // in progress at a priority we must not block on (e.g. requested by a concurrent job), compute again
           rpcNew.call().get();
-          _pendingRollups.remove(rskey);
-        } else // rollups computation is already in progress, wait for it to finish
-          rpcOld.get();
       } catch( Throwable t ) {
         System.err.println("Remote rollups failed with an exception, wrapping and rethrowing: "+t);
         throw new RuntimeException(t);
@@ -398,8 +409,12 @@ final class RollupStats extends Iced {
     final Key _rsKey;
     final boolean _computeHisto;
 
+    static byte taskPriority() {
+      return (byte)(Thread.currentThread() instanceof H2O.FJWThr ? currThrPriority()+1 : H2O.MIN_HI_PRIORITY-3);
+    }
+
     public ComputeRollupsTask(Vec v, boolean computeHisto){
-      super((byte)(Thread.currentThread() instanceof H2O.FJWThr ? currThrPriority()+1 : H2O.MIN_HI_PRIORITY-3));
+      super(taskPriority());
       _vecKey = v._key;
       _rsKey = v.rollupStatsKey();
       _computeHisto = computeHisto;
@@ -0,0 +1,31 @@
+package water.metrics;
+
+import water.H2O;
+import water.MRTask;
+
+/**
+ * Collects the {@link MetricsRegistry#snapshot() metric snapshots} of all the nodes of the cloud.
+ */
+public class CollectMetricsTask extends MRTask<CollectMetricsTask> {
+  /** Node names (ip:port) indexed by the node index */
+  public String[] _nodes;
+  /** Metrics indexed by the node index */
+  public MetricFamily[][] _metrics;
+
+  @Override protected void setupLocal() {
+    int n = H2O.CLOUD.size();
+    _nodes = new String[n];
+    _metrics = new MetricFamily[n][];
+    int idx = H2O.SELF.index();
+    _nodes[idx] = H2O.SELF.getIpPortString();
+    _metrics[idx] = MetricsRegistry.snapshot();
+  }
+
+  @Override public void reduce(CollectMetricsTask mrt) {
+    for (int i = 0; i < _metrics.length; i++)
+      if (_metrics[i] == null) {
+        _nodes[i] = mrt._nodes[i];
+        _metrics[i] = mrt._metrics[i];
+      }
+  }
+}
@@ -0,0 +1,24 @@
+package water.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonically increasing count of events (or of bytes, seconds...) since the start of the node.
+ * Consumers derive rates from two samples, eg. parsed bytes per second.
+ */
+public class Counter {
+  private final AtomicLong _value = new AtomicLong();
+
+  public void inc() {
+    _value.incrementAndGet();
+  }
+
+  public void inc(long delta) {
+    assert delta >= 0 : "Counters can only increase, got " + delta;
+    _value.addAndGet(delta);
+  }
+
+  public long get() {
+    return _value.get();
+  }
+}
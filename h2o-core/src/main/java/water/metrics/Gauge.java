@@ -0,0 +1,9 @@
+package water.metrics;
+
+/**
+ * Value which can go up and down, sampled only when the metrics are collected - eg. depth of a queue.
+ */
+public interface Gauge {
+  /** @return current value, NaN if the value doesn't exist at the moment (the sample is then left out) */
+  double value();
+}
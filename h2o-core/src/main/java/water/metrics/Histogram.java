@@ -0,0 +1,119 @@
+package water.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent histogram with fixed bucket boundaries.
+ *
+ * Observations are lock-free, striped by thread and cheap enough to be recorded on hot paths. Bucket {@code i} counts
+ * the values {@code v <= bounds[i]} which didn't fall into any previous bucket, the last (implicit) bucket
+ * counts everything above the highest bound.
+ */
+public class Histogram {
+
+  /** Bucket bounds (in milliseconds) suitable for latencies of REST calls and distributed tasks */
+  public static final double[] LATENCY_MILLIS_BOUNDS = {
+      1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000, 60000, 300000
+  };
+
+  /** Bucket bounds (in seconds) suitable for latencies of tasks ranging from microseconds to minutes */
+  public static final double[] LATENCY_SECONDS_BOUNDS = {
+      1e-5, 1e-4, 5e-4, 1e-3, 5e-3, 0.01, 0.05, 0.1, 0.5, 1, 5, 10, 60, 300
+  };
+
+  // Observations are spread over stripes picked by the observing thread, so that the threads of the F/J pools
+  // observing in parallel (eg. the maps of an MRTask) don't contend on the same counters. A stripe holds the bucket
+  // counts followed by the bits of the sum and is padded to whole cache lines.
+  private static final int STRIPES = stripes();
+  private static final int PAD = 8; // longs per cache line
+
+  private final double[] _bounds;
+  private final int _stride;
+  private final AtomicLongArray _cells;
+
+  public Histogram(double[] bounds) {
+    _bounds = checkBounds(bounds).clone();
+    _stride = ((bounds.length + 2 + PAD - 1) / PAD) * PAD;
+    _cells = new AtomicLongArray(STRIPES * _stride);
+  }
+
+  private static int stripes() {
+    int n = 1;
+    while (n < Runtime.getRuntime().availableProcessors() && n < 64) n <<= 1;
+    return n;
+  }
+
+  static double[] checkBounds(double[] bounds) {
+    if (bounds.length == 0)
+      throw new IllegalArgumentException("At least one bucket bound is required");
+    for (int i = 1; i < bounds.length; i++)
+      if (!(bounds[i - 1] < bounds[i]))
+        throw new IllegalArgumentException("Bucket bounds need to be strictly increasing: " + Arrays.toString(bounds));
+    return bounds;
+  }
+
+  public void observe(double v) {
+    int idx = Arrays.binarySearch(_bounds, v);
+    if (idx < 0) idx = -idx - 1; // insertion point = first bound greater than v
+    int base = (int) (Thread.currentThread().getId() & (STRIPES - 1)) * _stride;
+    _cells.incrementAndGet(base + idx);
+    int sumIdx = base + _bounds.length + 1;
+    long prev, next;
+    do {
+      prev = _cells.get(sumIdx);
+      next = Double.doubleToRawLongBits(Double.longBitsToDouble(prev) + v);
+    } while (!_cells.compareAndSet(sumIdx, prev, next));
+  }
+
+  /** Upper bounds of the buckets, without the implicit +Inf bucket. */
+  public double[] bounds() {
+    return _bounds.clone();
+  }
+
+  /** Counts of the individual buckets (not cumulative), the last element is the +Inf bucket. */
+  public long[] bucketCounts() {
+    long[] res = new long[_bounds.length + 1];
+    for (int s = 0; s < STRIPES; s++)
+      for (int i = 0; i < res.length; i++)
+        res[i] += _cells.get(s * _stride + i);
+    return res;
+  }
+
+  public long count() {
+    long n = 0;
+    for (long c : bucketCounts())
+      n += c;
+    return n;
+  }
+
+  public double sum() {
+    double sum = 0;
+    for (int s = 0; s < STRIPES; s++)
+      sum += Double.longBitsToDouble(_cells.get(s * _stride + _bounds.length + 1));
+    return sum;
+  }
+
+  /**
+   * Estimates the given quantile by linear interpolation within the bucket the quantile falls into.
+   * Values in the +Inf bucket are reported as the highest bound.
+   * @return the estimate, NaN if there are no observations
+   */
+  public double quantile(double q) {
+    long[] counts = bucketCounts();
+    long total = 0;
+    for (long c : counts) total += c;
+    if (total == 0) return Double.NaN;
+    double rank = q * total;
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] > 0 && seen + counts[i] >= rank) {
+        if (i == _bounds.length) return _bounds[_bounds.length - 1];
+        double lo = i == 0 ? 0 : _bounds[i - 1];
+        return lo + (_bounds[i] - lo) * (rank - seen) / counts[i];
+      }
+      seen += counts[i];
+    }
+    return _bounds[_bounds.length - 1];
+  }
+}
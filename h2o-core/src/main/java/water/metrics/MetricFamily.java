@@ -0,0 +1,59 @@
+package water.metrics;
+
+import water.Iced;
+
+import java.util.Arrays;
+
+/**
+ * Samples of a single metric collected on a single node.
+ *
+ * A family has one sample for a counter, one sample per label set for a gauge and the cumulative buckets, sum and
+ * count for a histogram. Each sample is described by a suffix of the metric name (eg. {@code "_bucket"}), its
+ * rendered labels (eg. {@code le="0.5"}, possibly empty) and its value.
+ */
+public class MetricFamily extends Iced<MetricFamily> {
+  public static final String COUNTER = "counter";
+  public static final String GAUGE = "gauge";
+  public static final String HISTOGRAM = "histogram";
+
+  public String _name;
+  public String _help;
+  public String _type;
+  public String[] _suffixes = new String[0];
+  public String[] _labels = new String[0];
+  public double[] _values = new double[0];
+  private int _len;
+
+  public MetricFamily() {}
+
+  MetricFamily(String name, String help, String type) {
+    _name = name;
+    _help = help;
+    _type = type;
+  }
+
+  public int size() {
+    return _len;
+  }
+
+  void add(String suffix, String labels, double value) {
+    if (_len == _values.length) {
+      int cap = Math.max(4, _len * 2);
+      _suffixes = Arrays.copyOf(_suffixes, cap);
+      _labels = Arrays.copyOf(_labels, cap);
+      _values = Arrays.copyOf(_values, cap);
+    }
+    _suffixes[_len] = suffix;
+    _labels[_len] = labels;
+    _values[_len] = value;
+    _len++;
+  }
+
+  /** @return value of the sample with the given suffix and labels, NaN if there is no such sample */
+  public double value(String suffix, String labels) {
+    for (int i = 0; i < _len; i++)
+      if (_suffixes[i].equals(suffix) && _labels[i].equals(labels))
+        return _values[i];
+    return Double.NaN;
+  }
+}
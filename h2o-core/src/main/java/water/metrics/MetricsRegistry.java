@@ -0,0 +1,191 @@
+package water.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Node-local registry of the metrics describing the internals of H2O (queues, memory, RPC, parse, MRTask...).
+ *
+ * Subsystems register their metrics once (typically in a static initializer) and update them on their hot paths;
+ * counters and histograms are lock-free, gauges are only evaluated when a snapshot is taken. Registering an
+ * already existing metric returns the existing instance, so that the registration doesn't depend on class loading
+ * order; a metric shows up in the snapshots of a node once its class was loaded there. Metric names follow the
+ * Prometheus conventions: {@code h2o_} prefix, base units and {@code _total} suffix for counters.
+ *
+ * Use {@link CollectMetricsTask} to collect the snapshots of the whole cloud and {@link MetricsTextFormat} to
+ * render them.
+ */
+public final class MetricsRegistry {
+
+  private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+  private static final ConcurrentSkipListMap<String, Metric> _metrics = new ConcurrentSkipListMap<>();
+
+  private MetricsRegistry() {}
+
+  public static Counter counter(String name, String help) {
+    return counter(name, help, null, null);
+  }
+
+  /**
+   * Registers one series of a labeled counter, eg. the errors of one REST route. Registering the same label
+   * value again returns the existing counter.
+   */
+  public static Counter counter(String name, String help, String labelName, String labelValue) {
+    CounterMetric metric = (CounterMetric) register(new CounterMetric(name, help));
+    String labels = labelName == null ? "" : label(labelName, labelValue);
+    Counter counter = metric._counters.get(labels);
+    if (counter == null) {
+      Counter newCounter = new Counter();
+      counter = metric._counters.putIfAbsent(labels, newCounter);
+      if (counter == null) counter = newCounter;
+    }
+    return counter;
+  }
+
+  public static Histogram histogram(String name, String help, double[] bounds) {
+    return histogram(name, help, bounds, null, null);
+  }
+
+  /**
+   * Registers one series of a labeled histogram, eg. the latencies of one REST route. Registering the same label
+   * value again returns the existing histogram. All the series of a histogram share the same bucket bounds.
+   */
+  public static Histogram histogram(String name, String help, double[] bounds, String labelName, String labelValue) {
+    HistogramMetric metric = (HistogramMetric) register(new HistogramMetric(name, help, bounds));
+    if (!Arrays.equals(metric._bounds, bounds))
+      throw new IllegalArgumentException("Histogram '" + name + "' is already registered with bounds " + Arrays.toString(metric._bounds));
+    String labels = labelName == null ? "" : label(labelName, labelValue);
+    Histogram histogram = metric._histograms.get(labels);
+    if (histogram == null) {
+      Histogram newHistogram = new Histogram(bounds);
+      histogram = metric._histograms.putIfAbsent(labels, newHistogram);
+      if (histogram == null) histogram = newHistogram;
+    }
+    return histogram;
+  }
+
+  public static void gauge(String name, String help, Gauge gauge) {
+    gauge(name, help, null, null, gauge);
+  }
+
+  /**
+   * Registers one series of a labeled gauge, eg. the queue depth of one priority. Registering the same
+   * label value again replaces the previous gauge.
+   */
+  public static void gauge(String name, String help, String labelName, String labelValue, Gauge gauge) {
+    GaugeMetric metric = (GaugeMetric) register(new GaugeMetric(name, help));
+    String labels = labelName == null ? "" : label(labelName, labelValue);
+    metric._gauges.put(labels, gauge);
+  }
+
+  /** @return snapshot of all registered metrics of this node, sorted by name */
+  public static MetricFamily[] snapshot() {
+    List<MetricFamily> res = new ArrayList<>(_metrics.size());
+    for (Metric m : _metrics.values()) {
+      MetricFamily f = new MetricFamily(m._name, m._help, m.type());
+      m.collect(f);
+      if (f.size() > 0) res.add(f);
+    }
+    return res.toArray(new MetricFamily[res.size()]);
+  }
+
+  /** Renders a single label, escaping the value as required by the text exposition format. */
+  public static String label(String name, String value) {
+    StringBuilder sb = new StringBuilder(name).append("=\"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\': sb.append("\\\\"); break;
+        case '"':  sb.append("\\\""); break;
+        case '\n': sb.append("\\n"); break;
+        default:   sb.append(c);
+      }
+    }
+    return sb.append('"').toString();
+  }
+
+  private static Metric register(Metric metric) {
+    if (!NAME.matcher(metric._name).matches())
+      throw new IllegalArgumentException("Invalid metric name '" + metric._name + "'");
+    Metric old = _metrics.putIfAbsent(metric._name, metric);
+    if (old == null)
+      return metric;
+    if (old.getClass() != metric.getClass())
+      throw new IllegalArgumentException("Metric '" + metric._name + "' is already registered as a " + old.type());
+    return old;
+  }
+
+  private static abstract class Metric {
+    final String _name;
+    final String _help;
+
+    Metric(String name, String help) {
+      _name = name;
+      _help = help;
+    }
+
+    abstract String type();
+    abstract void collect(MetricFamily f);
+  }
+
+  private static class CounterMetric extends Metric {
+    final ConcurrentMap<String, Counter> _counters = new ConcurrentSkipListMap<>();
+
+    CounterMetric(String name, String help) { super(name, help); }
+
+    @Override String type() { return MetricFamily.COUNTER; }
+    @Override void collect(MetricFamily f) {
+      for (Map.Entry<String, Counter> e : _counters.entrySet())
+        f.add("", e.getKey(), e.getValue().get());
+    }
+  }
+
+  private static class GaugeMetric extends Metric {
+    final Map<String, Gauge> _gauges = new ConcurrentSkipListMap<>();
+
+    GaugeMetric(String name, String help) { super(name, help); }
+
+    @Override String type() { return MetricFamily.GAUGE; }
+    @Override void collect(MetricFamily f) {
+      for (Map.Entry<String, Gauge> e : _gauges.entrySet()) {
+        double v = e.getValue().value();
+        if (!Double.isNaN(v)) f.add("", e.getKey(), v);
+      }
+    }
+  }
+
+  private static class HistogramMetric extends Metric {
+    final double[] _bounds;
+    final ConcurrentMap<String, Histogram> _histograms = new ConcurrentSkipListMap<>();
+
+    HistogramMetric(String name, String help, double[] bounds) {
+      super(name, help);
+      _bounds = Histogram.checkBounds(bounds).clone();
+    }
+
+    @Override String type() { return MetricFamily.HISTOGRAM; }
+    @Override void collect(MetricFamily f) {
+      for (Map.Entry<String, Histogram> e : _histograms.entrySet()) {
+        String labels = e.getKey();
+        String sep = labels.isEmpty() ? "" : ",";
+        Histogram histogram = e.getValue();
+        long[] counts = histogram.bucketCounts();
+        long cumulative = 0;
+        for (int i = 0; i < _bounds.length; i++) {
+          cumulative += counts[i];
+          f.add("_bucket", labels + sep + label("le", MetricsTextFormat.formatValue(_bounds[i])), cumulative);
+        }
+        cumulative += counts[_bounds.length];
+        f.add("_bucket", labels + sep + label("le", "+Inf"), cumulative);
+        f.add("_sum", labels, histogram.sum());
+        f.add("_count", labels, cumulative);
+      }
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package water.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders metric snapshots in the Prometheus text exposition format (version 0.0.4).
+ *
+ * Snapshots of several nodes are merged into one output: each family is written once and its samples carry
+ * an additional {@code node} label, so a single scrape describes the whole cloud.
+ */
+public final class MetricsTextFormat {
+
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private MetricsTextFormat() {}
+
+  /**
+   * @param nodes names of the nodes, used as the value of the node label
+   * @param metrics snapshots of the nodes (a null snapshot is skipped)
+   */
+  public static void write(Writer w, String[] nodes, MetricFamily[][] metrics) throws IOException {
+    // group the families of all nodes by name, keeping the order of the first node
+    Map<String, List<Integer>> nodesByFamily = new LinkedHashMap<>();
+    Map<String, MetricFamily> firstByFamily = new LinkedHashMap<>();
+    for (int n = 0; n < metrics.length; n++) {
+      if (metrics[n] == null) continue;
+      for (MetricFamily f : metrics[n]) {
+        List<Integer> ns = nodesByFamily.get(f._name);
+        if (ns == null) {
+          nodesByFamily.put(f._name, ns = new ArrayList<>());
+          firstByFamily.put(f._name, f);
+        }
+        ns.add(n);
+      }
+    }
+    for (Map.Entry<String, List<Integer>> e : nodesByFamily.entrySet()) {
+      MetricFamily first = firstByFamily.get(e.getKey());
+      w.write("# HELP " + first._name + " " + first._help.replace("\\", "\\\\").replace("\n", "\\n") + "\n");
+      w.write("# TYPE " + first._name + " " + first._type + "\n");
+      for (int n : e.getValue()) {
+        MetricFamily f = find(metrics[n], e.getKey());
+        String nodeLabel = MetricsRegistry.label("node", nodes[n]);
+        for (int i = 0; i < f.size(); i++) {
+          w.write(f._name);
+          w.write(f._suffixes[i]);
+          w.write('{');
+          w.write(nodeLabel);
+          if (!f._labels[i].isEmpty()) {
+            w.write(',');
+            w.write(f._labels[i]);
+          }
+          w.write("} ");
+          w.write(formatValue(f._values[i]));
+          w.write('\n');
+        }
+      }
+    }
+    w.flush();
+  }
+
+  static String formatValue(double v) {
+    if (Double.isNaN(v)) return "NaN";
+    if (Double.isInfinite(v)) return v > 0 ? "+Inf" : "-Inf";
+    if (v == Math.rint(v) && Math.abs(v) < 1L << 53) return Long.toString((long) v);
+    return Double.toString(v);
+  }
+
+  private static MetricFamily find(MetricFamily[] families, String name) {
+    for (MetricFamily f : families)
+      if (f._name.equals(name)) return f;
+    throw new IllegalStateException("Metric family '" + name + "' not found");
+  }
+}
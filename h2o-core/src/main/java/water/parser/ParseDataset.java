@@ -893,6 +893,7 @@ public final class ParseDataset {
         p.parseChunk(in.cidx(), din, dout);
         (_dout = dout).close(_fs);
         Job.update(in._len, _jobKey); // Record bytes parsed
+        ByteVec.PARSED_BYTES.inc(in._len);
         // remove parsed data right away
         freeMem(in);
       }
@@ -195,6 +195,7 @@ public class Env extends Iced {
     // Advanced Math
     init(new AstCorrelation());
     init(new AstDistance());
+    init(new AstKnn());
     init(new AstHist());
     init(new AstFillNA());
     init(new AstImpute());
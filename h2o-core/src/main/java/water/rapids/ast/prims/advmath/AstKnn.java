@@ -0,0 +1,316 @@
+package water.rapids.ast.prims.advmath;
+
+import water.H2O;
+import water.MRTask;
+import water.fvec.*;
+import water.rapids.Env;
+import water.rapids.Val;
+import water.rapids.ast.AstBuiltin;
+import water.rapids.ast.AstRoot;
+import water.rapids.vals.ValFrame;
+import water.util.ArrayUtils;
+import water.util.Log;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * k nearest reference rows of every query row
+ */
+public class AstKnn extends AstBuiltin<AstKnn> {
+  @Override
+  public String[] args() {
+    return new String[]{"ary", "references", "queries", "k", "measure", "eps"};
+  }
+
+  @Override
+  public int nargs() {
+    return 1 + 5; /* (knn references queries k measure eps) */
+  }
+
+  @Override
+  public String str() {
+    return "knn";
+  }
+
+  @Override
+  public String description() {
+    return "Find the k nearest neighbors of every row of a numeric query frame (M rows x p cols)\n" +
+            "among the rows of a numeric reference frame (N rows x p cols).\n" +
+            "Returns a Frame of M rows and 2k cols: the (0-based) reference row ids of the neighbors (id_1...id_k)\n" +
+            "followed by their distances (distance_1...distance_k), nearest first.\n" +
+            "Supported measures: l1, l2 and cosine (1 - cosine similarity).\n" +
+            "With eps > 0 the search is approximate: every reported distance is at most (1+eps) times the true distance\n" +
+            "of the neighbor of the same rank (eps = 0 is an exact search).\n" +
+            "The reference frame is processed in blocks that fit the memory of a node, every node indexes the block\n" +
+            "with a vantage point tree, only the k best ids and distances per query are ever kept.";
+  }
+
+  @Override
+  public Val apply(Env env, Env.StackHelp stk, AstRoot asts[]) {
+    Frame references = stk.track(asts[1].exec(env)).getFrame();
+    Frame queries = stk.track(asts[2].exec(env)).getFrame();
+    int k = (int) asts[3].exec(env).getNum();
+    String measure = stk.track(asts[4].exec(env)).getStr();
+    double eps = asts[5].exec(env).getNum();
+    return new ValFrame(computeKnn(references, queries, k, measure, eps, defaultBlockRows(references.numCols())));
+  }
+
+  /** Number of reference rows (data and index) taking up at most a quarter of the free memory of an average node */
+  static int defaultBlockRows(int ncols) {
+    long bytesPerRow = 8L * ncols + 48;
+    long freeMemPerNode = H2O.CLOUD.free_mem() / H2O.CLOUD.size();
+    return (int) Math.max(1, Math.min(Integer.MAX_VALUE, freeMemPerNode / 4 / bytesPerRow));
+  }
+
+  public Frame computeKnn(Frame references, Frame queries, int k, String measure, double eps, int blockRows) {
+    Log.info("Number of references: " + references.numRows());
+    Log.info("Number of queries   : " + queries.numRows());
+    String[] options = new String[]{"cosine","l1","l2"};
+    if (!ArrayUtils.contains(options, measure.toLowerCase()))
+      throw new IllegalArgumentException("Invalid distance measure provided: " + measure + ". Must be one of " + Arrays.toString(options));
+    if (k < 1 || k > references.numRows())
+      throw new IllegalArgumentException("k must be between 1 and the number of references (" + references.numRows() + "), found " + k);
+    if (!(eps >= 0))
+      throw new IllegalArgumentException("eps must be >= 0, found " + eps);
+    if (references.numCols() != queries.numCols())
+      throw new IllegalArgumentException("Frames must have the same number of cols, found " + references.numCols() + " and " + queries.numCols());
+    for (int i=0;i<queries.numCols();++i) {
+      if (!references.vec(i).isNumeric())
+        throw new IllegalArgumentException("References column " + references.name(i) + " is not numeric.");
+      if (!queries.vec(i).isNumeric())
+        throw new IllegalArgumentException("Queries column " + queries.name(i) + " is not numeric.");
+      if (references.vec(i).naCnt()>0)
+        throw new IllegalArgumentException("References column " + references.name(i) + " contains missing values.");
+      if (queries.vec(i).naCnt()>0)
+        throw new IllegalArgumentException("Queries column " + queries.name(i) + " contains missing values.");
+    }
+
+    // running top-k of every query, updated in place block by block
+    byte[] types = new byte[k];
+    Arrays.fill(types, Vec.T_NUM);
+    Vec[] ids = queries.anyVec().makeCons(k, -1, null, types);
+    Vec[] dists = new Vec[k];
+    for (int i = 0; i < k; i++) dists[i] = queries.anyVec().makeCon(Double.POSITIVE_INFINITY);
+    Vec[] vecs = ArrayUtils.append(ArrayUtils.append(queries.vecs(), ids), dists);
+    final boolean cosine = measure.equalsIgnoreCase("cosine");
+    final boolean l1 = measure.equalsIgnoreCase("l1");
+
+    for (long start = 0; start < references.numRows(); start += blockRows) {
+      long end = Math.min(references.numRows(), start + blockRows);
+      Log.info("Searching references " + start + " to " + end + ".");
+      double[][] block = readRows(references, start, end);
+      if (cosine) for (double[] r : block) normalize(r);
+      new KnnTask(block, start, k, l1, cosine, eps).doAll(vecs);
+    }
+
+    String[] names = new String[2 * k];
+    for (int i = 0; i < k; i++) {
+      names[i] = "id_" + (i + 1);
+      names[k + i] = "distance_" + (i + 1);
+    }
+    return new Frame(names, ArrayUtils.append(ids, dists));
+  }
+
+  private static double[][] readRows(Frame fr, long start, long end) {
+    double[][] rows = new double[(int) (end - start)][fr.numCols()];
+    for (int c = 0; c < fr.numCols(); ++c) {
+      Vec.Reader r = fr.vec(c).new Reader();
+      for (long i = start; i < end; ++i) rows[(int) (i - start)][c] = r.at(i);
+    }
+    return rows;
+  }
+
+  /** Scale to unit length - the cosine distance is then half of the squared euclidean distance */
+  private static void normalize(double[] x) {
+    double norm = ArrayUtils.l2norm(x);
+    if (norm > 0) ArrayUtils.div(x, norm);
+  }
+
+  static class KnnTask extends MRTask<KnnTask> {
+    final double[][] _block;
+    final long _start;
+    final int _k;
+    final boolean _l1;
+    final boolean _cosine;
+    final double _eps;
+
+    transient VPTree _tree;
+
+    KnnTask(double[][] block, long start, int k, boolean l1, boolean cosine, double eps) {
+      _block = block;
+      _start = start;
+      _k = k;
+      _l1 = l1;
+      _cosine = cosine;
+      _eps = eps;
+    }
+
+    @Override
+    protected void setupLocal() {
+      _tree = new VPTree(_block, _l1, _start);
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      final int p = cs.length - 2 * _k;
+      double[] q = new double[p];
+      TopK top = new TopK(_k);
+      for (int r = 0; r < cs[0]._len; ++r) {
+        for (int c = 0; c < p; ++c) q[c] = cs[c].atd(r);
+        if (_cosine) normalize(q);
+        // continue from the best neighbors of the previous blocks
+        top.clear();
+        for (int i = 0; i < _k; ++i) {
+          long id = cs[p + i].at8(r);
+          if (id >= 0) top.offer(id, toMetric(cs[p + _k + i].atd(r)));
+        }
+        _tree.search(q, top, 1 + _eps);
+        for (int i = 0; i < top._size; ++i) {
+          cs[p + i].set(r, top._ids[i]);
+          cs[p + _k + i].set(r, fromMetric(top._dists[i]));
+        }
+      }
+    }
+
+    // the tree works with euclidean distances of the normalized rows for cosine, 1 - cosine similarity is d^2/2
+    private double toMetric(double d) { return _cosine ? Math.sqrt(2 * d) : d; }
+    private double fromMetric(double d) { return _cosine ? d * d / 2 : d; }
+  }
+
+  /** The k smallest distances offered so far (with their ids), sorted in ascending order */
+  static final class TopK {
+    final long[] _ids;
+    final double[] _dists;
+    int _size;
+
+    TopK(int k) {
+      _ids = new long[k];
+      _dists = new double[k];
+    }
+
+    void clear() { _size = 0; }
+
+    /** Distance of the k-th neighbor, infinity until there are k of them */
+    double worst() { return _size < _ids.length ? Double.POSITIVE_INFINITY : _dists[_size - 1]; }
+
+    void offer(long id, double d) {
+      if (d >= worst()) return;
+      int i = _size < _ids.length ? _size++ : _size - 1;
+      while (i > 0 && _dists[i - 1] > d) {
+        _dists[i] = _dists[i - 1];
+        _ids[i] = _ids[i - 1];
+        i--;
+      }
+      _dists[i] = d;
+      _ids[i] = id;
+    }
+  }
+
+  /**
+   * Vantage point tree over the rows of a block: every node splits its rows by their distance to a random vantage
+   * point at the median distance mu, the inner half first. The tree is implicit in a permutation of the rows - the
+   * node of rows [lo,hi) has its vantage point at lo, the inner half at [lo+1,mid) and the outer half at [mid,hi).
+   */
+  static final class VPTree {
+    private static final int LEAF_SIZE = 16;
+
+    private final double[][] _rows;
+    private final boolean _l1;
+    private final long _idOffset;
+    private final int[] _perm;
+    private final double[] _mu;
+
+    VPTree(double[][] rows, boolean l1, long idOffset) {
+      _rows = rows;
+      _l1 = l1;
+      _idOffset = idOffset;
+      _perm = new int[rows.length];
+      for (int i = 0; i < _perm.length; i++) _perm[i] = i;
+      _mu = new double[rows.length];
+      build(0, rows.length, new double[rows.length], new Random(0xC0FFEE ^ idOffset));
+    }
+
+    private double distance(double[] a, double[] b) {
+      double sum = 0;
+      if (_l1) {
+        for (int i = 0; i < a.length; i++) sum += Math.abs(a[i] - b[i]);
+        return sum;
+      }
+      for (int i = 0; i < a.length; i++) {
+        double d = a[i] - b[i];
+        sum += d * d;
+      }
+      return Math.sqrt(sum);
+    }
+
+    private void build(int lo, int hi, double[] dist, Random rng) {
+      while (hi - lo > LEAF_SIZE) {
+        swap(lo, lo + rng.nextInt(hi - lo));
+        double[] vp = _rows[_perm[lo]];
+        for (int i = lo + 1; i < hi; i++) dist[i] = distance(vp, _rows[_perm[i]]);
+        int mid = (lo + 1 + hi) >>> 1;
+        select(dist, lo + 1, hi, mid);
+        _mu[lo] = dist[mid];
+        build(lo + 1, mid, dist, rng);
+        lo = mid;
+      }
+    }
+
+    /** Partially sort [lo,hi) (rows and their distances) so that the element at n is in its sorted position */
+    private void select(double[] dist, int lo, int hi, int n) {
+      hi--;
+      while (hi > lo) {
+        double pivot = dist[(lo + hi) >>> 1];
+        int i = lo, j = hi;
+        while (i <= j) {
+          while (dist[i] < pivot) i++;
+          while (dist[j] > pivot) j--;
+          if (i <= j) {
+            swap(dist, i, j);
+            i++;
+            j--;
+          }
+        }
+        if (n <= j) hi = j;
+        else if (n >= i) lo = i;
+        else return;
+      }
+    }
+
+    private void swap(double[] dist, int i, int j) {
+      double d = dist[i]; dist[i] = dist[j]; dist[j] = d;
+      swap(i, j);
+    }
+
+    private void swap(int i, int j) {
+      int t = _perm[i]; _perm[i] = _perm[j]; _perm[j] = t;
+    }
+
+    /**
+     * Offer the rows near the query to the top-k. A subtree is skipped unless it can contain a row closer than
+     * (the current k-th distance) / slack, slack = 1 + eps.
+     */
+    void search(double[] q, TopK top, double slack) {
+      search(q, top, slack, 0, _perm.length);
+    }
+
+    private void search(double[] q, TopK top, double slack, int lo, int hi) {
+      if (hi - lo <= LEAF_SIZE) {
+        for (int i = lo; i < hi; i++) top.offer(_idOffset + _perm[i], distance(q, _rows[_perm[i]]));
+        return;
+      }
+      double d = distance(q, _rows[_perm[lo]]);
+      top.offer(_idOffset + _perm[lo], d);
+      int mid = (lo + 1 + hi) >>> 1;
+      double mu = _mu[lo];
+      if (d < mu) {
+        search(q, top, slack, lo + 1, mid);
+        if (d + top.worst() / slack >= mu) search(q, top, slack, mid, hi);
+      } else {
+        search(q, top, slack, mid, hi);
+        if (d - top.worst() / slack <= mu) search(q, top, slack, lo + 1, mid);
+      }
+    }
+  }
+}
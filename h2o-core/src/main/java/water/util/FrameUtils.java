@@ -342,20 +342,33 @@ public class FrameUtils {
     final boolean _overwrite;
     final Job _j;
     int _nParts;
+    final boolean _parallel;
 
     public ExportTaskDriver(Frame frame, String path, String frameName, boolean overwrite, Job j, int nParts) {
+      this(frame, path, frameName, overwrite, j, nParts, false);
+    }
+
+    /**
+     * @param parallel write one part file per node, each node writes the chunks it is home for
+     *                 (nParts is ignored in this mode)
+     */
+    public ExportTaskDriver(Frame frame, String path, String frameName, boolean overwrite, Job j, int nParts,
+                            boolean parallel) {
       _frame = frame;
       _path = path;
       _frameName = frameName;
       _overwrite = overwrite;
       _j = j;
       _nParts = nParts;
+      _parallel = parallel;
     }
 
     @Override
     public void compute2() {
       _frame.read_lock(_j._key);
-      if (_nParts == 1) {
+      if (_parallel) {
+        new NodePartExportTask(this).asyncExecOnAllNodes();
+      } else if (_nParts == 1) {
         // Single file export, the file should be created by the node that was asked to export the data
         // (this is for non-distributed filesystems, we want the file to go to the local filesystem of the node)
         Frame.CSVStream is = new Frame.CSVStream(_frame, true, false);
@@ -475,6 +488,71 @@ public class FrameUtils {
       }
     }
 
+    private void exportParallelCSVStream(ParallelCSVStream is, String path) {
+      OutputStream os = null;
+      long written = -1;
+      int reported = 0;
+      try {
+        os = H2O.getPM().create(path, _overwrite);
+        written = 0;
+        byte[] bytes = new byte[4 * 1024 * 1024];
+        int count;
+        while ((count = is.read(bytes, 0, bytes.length)) > 0) {
+          written += count;
+          os.write(bytes, 0, count);
+          int workDone = is.chunksDone() - reported;
+          if (workDone > 0) {
+            if (_j.stop_requested()) throw new Job.JobCancelledException();
+            _j.update(workDone);
+            reported += workDone;
+          }
+        }
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      } finally {
+        if (os != null) {
+          try {
+            os.flush();
+            os.close();
+            Log.info("Written " + written + " bytes of key '" + _frameName + "' to " + path + ".");
+          } catch (Exception e) {
+            Log.err(e);
+          }
+        }
+        try { is.close(); } catch (Exception e) { Log.err(e); }
+      }
+    }
+
+    /**
+     * Writes one part file per node. The chunks homed on a node are formatted by the node's own F/J pool
+     * (a few chunks ahead of the writer) and appended to the part file in chunk order, no data is moved
+     * between the nodes.
+     */
+    class NodePartExportTask extends MRTask<NodePartExportTask> {
+      NodePartExportTask(H2O.H2OCountedCompleter<?> completer) {
+        super(completer);
+      }
+
+      @Override
+      protected void setupLocal() {
+        boolean created = H2O.getPM().mkdirs(_path);
+        if (! created) Log.warn("Path ", _path, " was not created.");
+        Vec anyVec = _frame.anyVec();
+        int nChunks = anyVec.length() == 0 ? 0 : anyVec.nChunks();
+        int[] localChunks = new int[nChunks];
+        int nLocal = 0;
+        for (int cidx = 0; cidx < nChunks; cidx++)
+          if (anyVec.chunkKey(cidx).home())
+            localChunks[nLocal++] = cidx;
+        if (nLocal == 0)
+          return;
+        String partPath = _path + "/part-m-" + String.valueOf(100000 + H2O.SELF.index()).substring(1);
+        ParallelCSVStream is = new ParallelCSVStream(_frame, Arrays.copyOf(localChunks, nLocal), true, false, false,
+                ParallelCSVStream.DEFAULT_PREFETCH);
+        exportParallelCSVStream(is, partPath);
+      }
+    }
+
     class PartExportTask extends MRTask<PartExportTask> {
       final String[] _colNames;
       final int _length;
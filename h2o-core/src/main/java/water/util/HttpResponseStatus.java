@@ -220,6 +220,11 @@ public class HttpResponseStatus implements Comparable<HttpResponseStatus> {
    */
   public static final HttpResponseStatus UPGRADE_REQUIRED = new HttpResponseStatus(426, "Upgrade Required");
 
+  /**
+   * 429 Too Many Requests (RFC6585)
+   */
+  public static final HttpResponseStatus TOO_MANY_REQUESTS = new HttpResponseStatus(429, "Too Many Requests");
+
   /**
    * 500 Internal Server Error
    */
@@ -357,6 +362,8 @@ public class HttpResponseStatus implements Comparable<HttpResponseStatus> {
         return UNORDERED_COLLECTION;
       case 426:
         return UPGRADE_REQUIRED;
+      case 429:
+        return TOO_MANY_REQUESTS;
       case 500:
         return INTERNAL_SERVER_ERROR;
       case 501:
@@ -11,6 +11,7 @@ import water.util.ArrayUtils;
 import java.io.IOException;
 import java.nio.channels.ByteChannel;
 import java.sql.Timestamp;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.Random;
 
@@ -249,6 +250,204 @@ public class ExternalFrameWriterClientTest extends TestUtil {
 
 
 
+    @Test
+    public void testProtocolHandshake() throws IOException {
+        ByteChannel sock = ExternalFrameUtils.getConnection(getH2ONodes()[0]);
+        try {
+            ExternalFrameWriterClient writer = new ExternalFrameWriterClient(sock);
+            assertEquals(ExternalFrameUtils.PROTOCOL_VERSION_ROW, writer.getProtocolVersion());
+            // the backend never agrees on a version it does not know
+            assertEquals(ExternalFrameUtils.PROTOCOL_VERSION_COLUMNAR, writer.negotiateProtocolVersion((byte) 42));
+            assertEquals(ExternalFrameUtils.PROTOCOL_VERSION_ROW,
+                    writer.negotiateProtocolVersion(ExternalFrameUtils.PROTOCOL_VERSION_ROW));
+        } finally {
+            sock.close();
+        }
+    }
+
+    @Test
+    public void testColumnarWriting() {
+        final Timestamp time = new Timestamp(Calendar.getInstance().getTime().getTime());
+        WriteOperation testOp = new WriteOperation() {
+            @Override
+            public void doWrite(ExternalFrameWriterClient writer) throws IOException {
+                int[] ints = new int[nrows()];
+                boolean[] bools = new boolean[nrows()];
+                String[] strs = new String[nrows()];
+                long[] times = new long[nrows()];
+                double[] doubles = new double[nrows()];
+                for (int i = 0; i < 998; i++) {
+                    ints[i] = i;
+                    bools[i] = i % 2 == 0;
+                    strs[i] = "str_" + i;
+                    times[i] = time.getTime();
+                    doubles[i] = i / 10.0;
+                }
+                // row 998 contains marker values of the row protocol which are not special in the columnar protocol
+                ints[998] = ExternalFrameHandler.NUM_MARKER_NEXT_BYTE_FOLLOWS;
+                strs[998] = ExternalFrameHandler.STR_MARKER_NEXT_BYTE_FOLLOWS;
+                doubles[998] = Double.NaN;
+                // row 999 is NA in all columns
+                BitSet nas = new BitSet();
+                nas.set(999);
+                writer.sendIntColumn(ints, nas);
+                writer.sendBooleanColumn(bools, nas);
+                writer.sendStringColumn(strs);
+                writer.sendTimestampColumn(times, nas);
+                writer.sendDoubleColumn(doubles, nas);
+            }
+
+            @Override
+            public int nrows() {
+                return 1000;
+            }
+
+            @Override
+            public String[] colNames() {
+                return new String[] {"NUM", "BOOL", "STR", "TIMESTAMP", "DBL"};
+            }
+
+            @Override
+            public byte[] colTypes() {
+                return new byte[] {
+                    ExternalFrameUtils.EXPECTED_INT,
+                    ExternalFrameUtils.EXPECTED_BOOL,
+                    ExternalFrameUtils.EXPECTED_STRING,
+                    ExternalFrameUtils.EXPECTED_TIMESTAMP,
+                    ExternalFrameUtils.EXPECTED_DOUBLE};
+            }
+
+            @Override
+            public byte protocolVersion() {
+                return ExternalFrameUtils.PROTOCOL_VERSION_COLUMNAR;
+            }
+        };
+
+        final String[] nodes = getH2ONodes();
+        final String[] connStrings = ArrayUtils.join(nodes, nodes);
+
+        Frame frame = createFrame(testOp, connStrings);
+        try {
+            assertEquals(connStrings.length, frame.anyVec().nChunks());
+            assertEquals(Vec.T_NUM, frame.vec(0).get_type());
+            assertEquals(Vec.T_NUM, frame.vec(1).get_type());
+            assertEquals(Vec.T_STR, frame.vec(2).get_type());
+            assertEquals(Vec.T_TIME, frame.vec(3).get_type());
+            assertEquals(Vec.T_NUM, frame.vec(4).get_type());
+            assertEquals(1000 * connStrings.length, frame.numRows());
+
+            BufferedString buff = new BufferedString();
+            for (int i = 0; i < connStrings.length; i++) {
+                for (int localRow = 0; localRow < 998; localRow++) {
+                    long row = localRow + testOp.nrows() * i;
+                    assertEquals(localRow, frame.vec(0).at8(row));
+                    assertEquals(localRow % 2 == 0 ? 1 : 0, frame.vec(1).at8(row));
+                    assertEquals("str_" + localRow, frame.vec(2).atStr(buff, row).toString());
+                    assertEquals(time.getTime(), frame.vec(3).at8(row));
+                    assertEquals(localRow / 10.0, frame.vec(4).at(row), 0);
+                }
+                long row = 998 + testOp.nrows() * i;
+                assertEquals(ExternalFrameHandler.NUM_MARKER_NEXT_BYTE_FOLLOWS, frame.vec(0).at8(row));
+                assertEquals(ExternalFrameHandler.STR_MARKER_NEXT_BYTE_FOLLOWS, frame.vec(2).atStr(buff, row).toString());
+                assertTrue(frame.vec(4).isNA(row));
+                row = 999 + testOp.nrows() * i;
+                for (int c = 0; c < 5; c++) {
+                    assertTrue(frame.vec(c).isNA(row));
+                }
+            }
+        } finally {
+            frame.remove();
+        }
+    }
+
+    @Test
+    public void testColumnarDenseVectorWrite() throws IOException {
+        WriteOperation testOp = new WriteOperation() {
+            private final static int VEC_LEN = 100;
+            @Override
+            public void doWrite(ExternalFrameWriterClient writer) throws IOException {
+                int[] rowOffsets = new int[nrows() + 1];
+                double[] values = new double[nrows() * VEC_LEN];
+                for (int i = 0; i < nrows(); i++) {
+                    rowOffsets[i + 1] = rowOffsets[i] + VEC_LEN;
+                    System.arraycopy(vector(i, i, VEC_LEN), 0, values, rowOffsets[i], VEC_LEN);
+                }
+                writer.sendDenseVectorColumn(rowOffsets, values);
+            }
+
+            @Override
+            public int nrows() {
+                return 10;
+            }
+
+            @Override
+            public String[] colNames() {
+                return names("DV", VEC_LEN);
+            }
+
+            @Override
+            public byte[] colTypes() {
+                return new byte[] { ExternalFrameUtils.EXPECTED_VECTOR};
+            }
+
+            @Override
+            public int[] maxVecSizes() {
+                return new int[] {VEC_LEN};
+            }
+
+            @Override
+            public byte protocolVersion() {
+                return ExternalFrameUtils.PROTOCOL_VERSION_COLUMNAR;
+            }
+        };
+        assertVectorWrite(testOp);
+    }
+
+    @Test
+    public void testColumnarSparseVectorWrite() throws IOException {
+        WriteOperation testOp = new WriteOperation() {
+            private final static int VEC_LEN = 100;
+            @Override
+            public void doWrite(ExternalFrameWriterClient writer) throws IOException {
+                int[] rowOffsets = new int[nrows() + 1];
+                int[] indices = new int[nrows()];
+                double[] values = new double[nrows()];
+                for (int i = 0; i < nrows(); i++) {
+                    rowOffsets[i + 1] = i + 1;
+                    indices[i] = i;
+                    values[i] = i;
+                }
+                writer.sendSparseVectorColumn(rowOffsets, indices, values);
+            }
+
+            @Override
+            public int nrows() {
+                return 10;
+            }
+
+            @Override
+            public String[] colNames() {
+                return names("SV", VEC_LEN);
+            }
+
+            @Override
+            public byte[] colTypes() {
+                return new byte[] { ExternalFrameUtils.EXPECTED_VECTOR};
+            }
+
+            @Override
+            public int[] maxVecSizes() {
+                return new int[] {VEC_LEN};
+            }
+
+            @Override
+            public byte protocolVersion() {
+                return ExternalFrameUtils.PROTOCOL_VERSION_COLUMNAR;
+            }
+        };
+        assertVectorWrite(testOp);
+    }
+
     static void assertVectorWrite(WriteOperation testOp) throws IOException {
 
         final String[] nodes = getH2ONodes();
@@ -315,6 +514,9 @@ public class ExternalFrameWriterClientTest extends TestUtil {
                         ByteChannel sock = ExternalFrameUtils.getConnection(writeEndpoints[currentIndex]);
                         try {
                             ExternalFrameWriterClient writer = new ExternalFrameWriterClient(sock);
+                            if (op.protocolVersion() != ExternalFrameUtils.PROTOCOL_VERSION_ROW) {
+                                writer.negotiateProtocolVersion(op.protocolVersion());
+                            }
                             writer.createChunks(op.frameName(), op.colTypes(),  currentIndex, op.nrows(), op.maxVecSizes());
 
                             op.doWrite(writer);
@@ -375,4 +577,8 @@ abstract class WriteOperation {
         return ExternalFrameUtils.EMPTY_ARI;
     }
 
+    public byte protocolVersion() {
+        return ExternalFrameUtils.PROTOCOL_VERSION_ROW;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,184 @@
+package water.api;
+
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.nio.SelectChannelConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.H2O;
+import water.TestUtil;
+import water.api.schemas3.SteamMetricsV3;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AsyncRequestDispatcherTest extends TestUtil {
+
+  private static final String BLOCKING_ROUTE = "GET /99/AsyncDispatcherTest";
+
+  @BeforeClass
+  public static void setup() {
+    stall_till_cloudsize(1);
+    H2O.startServingRestApi();
+    RequestServer.registerEndpoint("asyncDispatcherTest", "GET", "/99/AsyncDispatcherTest", BlockingHandler.class,
+        "block", "Blocks until released by the test", HandlerFactory.DEFAULT).markHeavy();
+  }
+
+  @AfterClass
+  public static void teardown() {
+    AsyncRequestDispatcher.install(null);
+  }
+
+  public static class BlockingHandler extends Handler {
+    static volatile CountDownLatch _release = new CountDownLatch(0);
+    static final AtomicInteger _started = new AtomicInteger();
+
+    @SuppressWarnings("unused") // called through reflection by RequestServer
+    public SteamMetricsV3 block(int version, SteamMetricsV3 s) throws InterruptedException {
+      _started.incrementAndGet();
+      _release.await(30, TimeUnit.SECONDS);
+      return s;
+    }
+  }
+
+  @Test
+  public void testHeavyRoutesDontBlockCheapRoutes() throws Exception {
+    AsyncRequestDispatcher.install(new AsyncRequestDispatcher(2, 10, 1, 1, 0));
+    BlockingHandler._release = new CountDownLatch(1);
+    BlockingHandler._started.set(0);
+    long rejectedBefore = RequestMetrics.stats(BLOCKING_ROUTE)._rejected.get();
+    ExecutorService clients = Executors.newFixedThreadPool(2);
+    try {
+      // first request occupies the only heavy thread, the second one waits in the queue
+      Future<Integer> first = clients.submit(get("/99/AsyncDispatcherTest"));
+      while (BlockingHandler._started.get() == 0) Thread.sleep(10);
+      Future<Integer> second = clients.submit(get("/99/AsyncDispatcherTest"));
+      while (AsyncRequestDispatcher.get()._heavy.queueSize() == 0) Thread.sleep(10);
+
+      // the heavy pool is saturated
+      assertEquals(429, (int) get("/99/AsyncDispatcherTest").call());
+      assertEquals(rejectedBefore + 1, RequestMetrics.stats(BLOCKING_ROUTE)._rejected.get());
+      // cheap routes are still served
+      assertEquals(200, (int) get("/3/Metrics").call());
+
+      BlockingHandler._release.countDown();
+      assertEquals(200, (int) first.get());
+      assertEquals(200, (int) second.get());
+      assertEquals(2, BlockingHandler._started.get());
+    } finally {
+      BlockingHandler._release.countDown();
+      clients.shutdown();
+    }
+  }
+
+  @Test
+  public void testSuspendedRequestsReleaseConnectionThreads() throws Exception {
+    final int threads = 8, requests = 12; // one of the threads is taken by the acceptor/selector
+    AsyncRequestDispatcher.install(new AsyncRequestDispatcher(2, 10, requests, requests, 0));
+    BlockingHandler._release = new CountDownLatch(1);
+    BlockingHandler._started.set(0);
+    Server server = new Server();
+    server.setThreadPool(new QueuedThreadPool(threads));
+    SelectChannelConnector connector = new SelectChannelConnector();
+    connector.setHost("127.0.0.1");
+    connector.setPort(0);
+    connector.setAcceptors(1);
+    server.setConnectors(new Connector[]{connector});
+    ServletContextHandler context = new ServletContextHandler(ServletContextHandler.NO_SECURITY | ServletContextHandler.NO_SESSIONS);
+    context.setContextPath("/");
+    context.addServlet(RequestServer.class, "/").setAsyncSupported(true);
+    server.setHandler(context);
+    ExecutorService clients = Executors.newFixedThreadPool(requests);
+    try {
+      server.start();
+      String url = "http://127.0.0.1:" + connector.getLocalPort();
+      List<Future<Integer>> responses = new ArrayList<>();
+      for (int i = 0; i < requests; i++)
+        responses.add(clients.submit(get(url, "/99/AsyncDispatcherTest")));
+      // more requests are in progress than there are connection threads
+      long deadline = System.currentTimeMillis() + 20000;
+      while (BlockingHandler._started.get() < requests && System.currentTimeMillis() < deadline) Thread.sleep(10);
+      assertEquals(requests, BlockingHandler._started.get());
+
+      BlockingHandler._release.countDown();
+      for (Future<Integer> response : responses)
+        assertEquals(200, (int) response.get());
+    } finally {
+      BlockingHandler._release.countDown();
+      clients.shutdown();
+      server.stop();
+    }
+  }
+
+  @Test
+  public void testTimeout() throws Exception {
+    AsyncRequestDispatcher.install(new AsyncRequestDispatcher(2, 10, 1, 10, 200));
+    BlockingHandler._release = new CountDownLatch(1);
+    long timeoutsBefore = RequestMetrics.stats(BLOCKING_ROUTE)._timeouts.get();
+    try {
+      assertEquals(503, (int) get("/99/AsyncDispatcherTest").call());
+      assertEquals(timeoutsBefore + 1, RequestMetrics.stats(BLOCKING_ROUTE)._timeouts.get());
+    } finally {
+      BlockingHandler._release.countDown();
+    }
+  }
+
+  @Test
+  public void testMetricsEndpoint() throws Exception {
+    AsyncRequestDispatcher.install(null);
+    BlockingHandler._release = new CountDownLatch(0);
+    assertEquals(200, (int) get("/99/AsyncDispatcherTest").call());
+    long count = RequestMetrics.stats(BLOCKING_ROUTE)._latency.count();
+    assertTrue(count >= 1);
+    String json = fetch("/3/Metrics");
+    assertTrue(json, json.contains("\"route\":\"" + BLOCKING_ROUTE + "\""));
+    assertTrue(json, json.contains("\"async\":false"));
+  }
+
+  private static Callable<Integer> get(String path) {
+    return get(H2O.getURL("http"), path);
+  }
+
+  private static Callable<Integer> get(final String url, final String path) {
+    return new Callable<Integer>() {
+      @Override public Integer call() throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(url + path).openConnection();
+        try {
+          return conn.getResponseCode();
+        } finally {
+          conn.disconnect();
+        }
+      }
+    };
+  }
+
+  private static String fetch(String path) throws IOException {
+    HttpURLConnection conn = (HttpURLConnection) new URL(H2O.getURL("http") + path).openConnection();
+    try (InputStream is = conn.getInputStream()) {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      byte[] buf = new byte[4096];
+      int n;
+      while ((n = is.read(buf)) > 0) baos.write(buf, 0, n);
+      return baos.toString("UTF-8");
+    } finally {
+      conn.disconnect();
+    }
+  }
+}
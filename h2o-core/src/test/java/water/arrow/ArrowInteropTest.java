@@ -0,0 +1,219 @@
+package water.arrow;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.UInt8Vector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryEncoder;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+import water.parser.BufferedString;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Streams written by the reference Arrow Java implementation are read by {@link ArrowReader}, and streams written
+ * by {@link ArrowWriter} are read (and validated) by the reference implementation.
+ */
+public class ArrowInteropTest extends TestUtil {
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testReadReferenceStream() throws IOException {
+    Scope.enter();
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      byte[] bytes;
+      DictionaryEncoding encoding = new DictionaryEncoding(7, false, new ArrowType.Int(32, true));
+      try (VarCharVector domain = new VarCharVector("domain", allocator);
+           VarCharVector values = new VarCharVector("values", allocator);
+           IntVector ints = new IntVector("int", allocator);
+           UInt8Vector unsigned = new UInt8Vector("uint64", allocator);
+           Float8Vector doubles = new Float8Vector("dbl", allocator);
+           VarCharVector strings = new VarCharVector("str", allocator);
+           TimeStampMilliVector times = new TimeStampMilliVector("time", allocator)) {
+        setStrings(domain, "a", "b", "c");
+        setStrings(values, "b", "a", null, "c");
+        ints.allocateNew(4);
+        ints.set(0, 1);
+        ints.setNull(1);
+        ints.set(2, -3);
+        ints.set(3, Integer.MAX_VALUE);
+        ints.setValueCount(4);
+        unsigned.allocateNew(4);
+        unsigned.set(0, 5);
+        unsigned.set(1, -1L); // 2^64 - 1
+        unsigned.set(2, Long.MIN_VALUE); // 2^63
+        unsigned.setNull(3);
+        unsigned.setValueCount(4);
+        doubles.allocateNew(4);
+        doubles.set(0, 0.5);
+        doubles.set(1, -2.25);
+        doubles.setNull(2);
+        doubles.set(3, 1e100);
+        doubles.setValueCount(4);
+        setStrings(strings, "x", null, "", "žluťoučký");
+        times.allocateNew(4);
+        times.set(0, 0L);
+        times.set(1, 1500000000000L);
+        times.setNull(2);
+        times.set(3, -1L);
+        times.setValueCount(4);
+
+        Dictionary dictionary = new Dictionary(domain, encoding);
+        DictionaryProvider.MapDictionaryProvider provider = new DictionaryProvider.MapDictionaryProvider(dictionary);
+        try (FieldVector cats = (FieldVector) DictionaryEncoder.encode(values, dictionary)) {
+          Field catField = new Field("cat", new FieldType(true, new ArrowType.Utf8(), encoding), null);
+          List<Field> fields = Arrays.asList(ints.getField(), unsigned.getField(), doubles.getField(), catField,
+              strings.getField(), times.getField());
+          List<FieldVector> vectors = Arrays.<FieldVector>asList(ints, unsigned, doubles, cats, strings, times);
+          try (VectorSchemaRoot root = new VectorSchemaRoot(fields, vectors)) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try (ArrowStreamWriter writer = new ArrowStreamWriter(root, provider, bos)) {
+              writer.start();
+              writer.writeBatch();
+              writer.writeBatch(); // the same batch again, a frame with 2 chunks
+              writer.end();
+            }
+            bytes = bos.toByteArray();
+          }
+        }
+      }
+
+      Frame fr = ArrowReader.read(Key.<Frame>make("arrowInterop"), new ByteArrayInputStream(bytes));
+      Scope.track(fr);
+      assertArrayEquals(ar("int", "uint64", "dbl", "cat", "str", "time"), fr.names());
+      assertEquals(8, fr.numRows());
+      assertEquals(2, fr.anyVec().nChunks());
+      assertEquals(Vec.T_CAT, fr.vec("cat").get_type());
+      assertEquals(Vec.T_STR, fr.vec("str").get_type());
+      assertEquals(Vec.T_TIME, fr.vec("time").get_type());
+      assertArrayEquals(ar("a", "b", "c"), fr.vec("cat").domain());
+      for (int off : new int[]{0, 4}) {
+        assertEquals(1, fr.vec("int").at(off), 0);
+        assertTrue(fr.vec("int").isNA(off + 1));
+        assertEquals(Integer.MAX_VALUE, fr.vec("int").at(off + 3), 0);
+        assertEquals(5, fr.vec("uint64").at(off), 0);
+        assertEquals(18446744073709551615.0, fr.vec("uint64").at(off + 1), 0);
+        assertEquals(9223372036854775808.0, fr.vec("uint64").at(off + 2), 0);
+        assertTrue(fr.vec("uint64").isNA(off + 3));
+        assertEquals(-2.25, fr.vec("dbl").at(off + 1), 0);
+        assertTrue(fr.vec("dbl").isNA(off + 2));
+        assertEquals(1, fr.vec("cat").at8(off));
+        assertTrue(fr.vec("cat").isNA(off + 2));
+        assertEquals(2, fr.vec("cat").at8(off + 3));
+        assertEquals("x", fr.vec("str").atStr(new BufferedString(), off).toString());
+        assertTrue(fr.vec("str").isNA(off + 1));
+        assertEquals("žluťoučký", fr.vec("str").atStr(new BufferedString(), off + 3).toString());
+        assertEquals(1500000000000L, fr.vec("time").at8(off + 1));
+        assertEquals(-1L, fr.vec("time").at8(off + 3));
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testWriteForReferenceReader() throws IOException {
+    Scope.enter();
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      Frame fr = new TestFrameBuilder()
+          .withName("arrowInteropSource")
+          .withColNames("int", "dbl", "cat", "str", "time")
+          .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_CAT, Vec.T_STR, Vec.T_TIME)
+          .withDataForCol(0, ard(1, Double.NaN, -3, 1L << 40, 5))
+          .withDataForCol(1, ard(0.5, 1.5, Double.NaN, -2.25, 1e100))
+          .withDataForCol(2, ar("b", "a", null, "b", "c"))
+          .withDataForCol(3, ar("x", null, "", "žluťoučký", "y"))
+          .withDataForCol(4, ar(0L, 1500000000000L, 1500000000001L, -1L, 42L))
+          .withChunkLayout(2, 0, 3)
+          .build();
+      Scope.track(fr);
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      new ArrowWriter(fr, bos).write();
+
+      try (ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(bos.toByteArray()), allocator)) {
+        VectorSchemaRoot root = reader.getVectorSchemaRoot();
+        Schema schema = root.getSchema();
+        assertEquals(5, schema.getFields().size());
+        assertEquals(new ArrowType.Int(64, true), schema.findField("int").getType());
+        assertEquals(new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE), schema.findField("dbl").getType());
+        assertEquals(new ArrowType.Timestamp(TimeUnit.MILLISECOND, null), schema.findField("time").getType());
+        assertEquals(new ArrowType.Utf8(), schema.findField("str").getType());
+        DictionaryEncoding encoding = schema.findField("cat").getDictionary();
+        assertNotNull(encoding);
+
+        int[] batchSizes = new int[]{2, 0, 3};
+        int batch = 0;
+        long row = 0;
+        while (reader.loadNextBatch()) {
+          assertEquals(batchSizes[batch++], root.getRowCount());
+          VarCharVector domain = (VarCharVector) reader.lookup(encoding.getId()).getVector();
+          BigIntVector ints = (BigIntVector) root.getVector("int");
+          Float8Vector doubles = (Float8Vector) root.getVector("dbl");
+          IntVector cats = (IntVector) root.getVector("cat");
+          VarCharVector strings = (VarCharVector) root.getVector("str");
+          TimeStampMilliVector times = (TimeStampMilliVector) root.getVector("time");
+          for (int i = 0; i < root.getRowCount(); i++, row++) {
+            assertEquals(fr.vec(0).isNA(row), ints.isNull(i));
+            if (!ints.isNull(i)) assertEquals(fr.vec(0).at8(row), ints.get(i));
+            assertEquals(fr.vec(1).isNA(row), doubles.isNull(i));
+            if (!doubles.isNull(i)) assertEquals(fr.vec(1).at(row), doubles.get(i), 0);
+            assertEquals(fr.vec(2).isNA(row), cats.isNull(i));
+            if (!cats.isNull(i))
+              assertEquals(fr.vec(2).domain()[(int) fr.vec(2).at8(row)],
+                  new String(domain.get(cats.get(i)), StandardCharsets.UTF_8));
+            assertEquals(fr.vec(3).isNA(row), strings.isNull(i));
+            if (!strings.isNull(i))
+              assertEquals(fr.vec(3).atStr(new BufferedString(), row).toString(),
+                  new String(strings.get(i), StandardCharsets.UTF_8));
+            assertEquals(fr.vec(4).at8(row), times.get(i));
+          }
+        }
+        assertEquals(3, batch);
+        assertEquals(fr.numRows(), row);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static void setStrings(VarCharVector v, String... values) {
+    v.allocateNew(values.length);
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == null) v.setNull(i);
+      else v.setSafe(i, values[i].getBytes(StandardCharsets.UTF_8));
+    }
+    v.setValueCount(values.length);
+  }
+}
@@ -0,0 +1,114 @@
+package water.arrow;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ArrowWriterReaderTest extends TestUtil {
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    Scope.enter();
+    try {
+      Frame fr = new TestFrameBuilder()
+          .withName("arrowSource")
+          .withColNames("int", "dbl", "cat", "str", "time")
+          .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_CAT, Vec.T_STR, Vec.T_TIME)
+          .withDataForCol(0, ard(1, Double.NaN, -3, 1L << 40, 5))
+          .withDataForCol(1, ard(0.5, 1.5, Double.NaN, -2.25, 1e100))
+          .withDataForCol(2, ar("b", "a", null, "b", "c"))
+          .withDataForCol(3, ar("x", null, "", "žluťoučký", "y"))
+          .withDataForCol(4, ar(0L, 1500000000000L, 1500000000001L, -1L, 42L))
+          .withChunkLayout(2, 0, 3)
+          .build();
+      Scope.track(fr);
+
+      Frame copy = roundTrip(fr, "arrowCopy");
+      Scope.track(copy);
+
+      assertArrayEquals(fr.names(), copy.names());
+      assertEquals(fr.numRows(), copy.numRows());
+      assertEquals(fr.anyVec().nChunks(), copy.anyVec().nChunks());
+      assertEquals(Vec.T_NUM, copy.vec(0).get_type());
+      assertEquals(Vec.T_NUM, copy.vec(1).get_type());
+      assertEquals(Vec.T_CAT, copy.vec(2).get_type());
+      assertEquals(Vec.T_STR, copy.vec(3).get_type());
+      assertEquals(Vec.T_TIME, copy.vec(4).get_type());
+      assertArrayEquals(fr.vec(2).domain(), copy.vec(2).domain());
+      for (int i : new int[]{0, 1, 2, 4})
+        assertVecEquals(fr.vec(i), copy.vec(i), 0);
+      assertStringVecEquals(fr.vec(3), copy.vec(3));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testEmptyFrame() throws IOException {
+    Scope.enter();
+    try {
+      Frame fr = new TestFrameBuilder()
+          .withName("arrowEmptySource")
+          .withColNames("a", "b")
+          .withVecTypes(Vec.T_NUM, Vec.T_STR)
+          .withDataForCol(0, new double[0])
+          .withDataForCol(1, new String[0])
+          .build();
+      Scope.track(fr);
+      Frame copy = roundTrip(fr, "arrowEmptyCopy");
+      Scope.track(copy);
+      assertArrayEquals(fr.names(), copy.names());
+      assertEquals(0, copy.numRows());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testTruncatedStreamIsRejected() throws IOException {
+    Scope.enter();
+    try {
+      Frame fr = new TestFrameBuilder()
+          .withName("arrowTruncatedSource")
+          .withColNames("a")
+          .withVecTypes(Vec.T_NUM)
+          .withDataForCol(0, ard(1, 2, 3, 4))
+          .withChunkLayout(2, 2)
+          .build();
+      Scope.track(fr);
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      new ArrowWriter(fr, bos).write();
+      byte[] bytes = bos.toByteArray();
+      Key<Frame> key = Key.make("arrowTruncated");
+      try {
+        ArrowReader.read(key, new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 20)));
+        fail("Truncated stream should be rejected");
+      } catch (IOException e) {
+        // expected
+      }
+      assertNull(key.get());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static Frame roundTrip(Frame fr, String destination) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    new ArrowWriter(fr, bos).write();
+    return ArrowReader.read(Key.<Frame>make(destination), new ByteArrayInputStream(bos.toByteArray()));
+  }
+}
@@ -67,6 +67,40 @@ public class ExportTest extends TestUtil {
     fr.delete();
   }
 
+  @Test public void testExportParallel() throws IOException {
+    Frame fr = null;
+    Frame imported = null;
+    try {
+      fr = new TestFrameBuilder()
+              .withName("exportParallel")
+              .withColNames("int", "dbl", "str")
+              .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_STR)
+              .withDataForCol(0, ard(1, 2, 3, 4, 5, 6, 7, 8))
+              .withDataForCol(1, ard(0.5, -1.5, Double.NaN, 2.25, 1e10, 0, 3, 4))
+              .withDataForCol(2, ar("a", "b", "c", "d", "e", "f", "g", "h"))
+              .withChunkLayout(2, 2, 1, 3)
+              .build();
+      File folder = tmpFolder.newFolder("export_parallel");
+      Frame.export(fr, folder.getPath(), "export", false, 1, true).get();
+      // at most one part file per node, named after the node index
+      File[] parts = folder.listFiles();
+      assertTrue(parts.length >= 1 && parts.length <= H2O.CLOUD.size());
+      for (File part : parts)
+        assertTrue(part.getName().startsWith("part-m-"));
+      imported = parseFolder(folder);
+      assertEquals(fr.numRows(), imported.numRows());
+      // rows are grouped by their home node, the content is the same regardless of the order
+      assertEquals(fr.vec(0).mean(), imported.vec(0).mean(), 1e-10);
+      assertEquals(fr.vec(1).mean(), imported.vec(1).mean(), 1e-10);
+      assertEquals(fr.vec(1).naCnt(), imported.vec(1).naCnt());
+      if (H2O.CLOUD.size() == 1)
+        assertTrue(TestUtil.isBitIdentical(fr, imported));
+    } finally {
+      if (fr != null) fr.delete();
+      if (imported != null) imported.delete();
+    }
+  }
+
   private static Frame rebalance(Frame fr, Key targetKey, int nChunks) {
     RebalanceDataSet rb = new RebalanceDataSet(fr, targetKey, nChunks);
     H2O.submitTask(rb);
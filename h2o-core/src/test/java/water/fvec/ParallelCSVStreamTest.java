@@ -0,0 +1,110 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Scope;
+import water.TestUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+public class ParallelCSVStreamTest extends TestUtil {
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  private static Frame makeFrame() {
+    return new TestFrameBuilder()
+        .withName("csvSource")
+        .withColNames("int", "dbl", "cat", "str")
+        .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_CAT, Vec.T_STR)
+        .withDataForCol(0, ard(1, Double.NaN, -3, 4, 5, 6, 7))
+        .withDataForCol(1, ard(0.5, 1.5, Double.NaN, -2.25, 1e100, 0, 1.0 / 3))
+        .withDataForCol(2, ar("b", "a", null, "b", "c", "a", "a"))
+        .withDataForCol(3, ar("x", null, "", "y", "z", "w", "v"))
+        .withChunkLayout(2, 0, 3, 1, 1)
+        .build();
+  }
+
+  @Test
+  public void testSameOutputAsCSVStream() throws IOException {
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(makeFrame());
+      for (boolean hex : new boolean[]{false, true}) {
+        byte[] expected = drain(new Frame.CSVStream(fr, true, hex));
+        // prefetch of 1 and of more than the number of chunks
+        for (int prefetch : new int[]{1, 2, 100}) {
+          ParallelCSVStream is = new ParallelCSVStream(fr, new int[]{0, 1, 2, 3, 4}, true, hex, false, prefetch);
+          assertArrayEquals(expected, drain(is));
+          assertEquals(5, is.chunksDone());
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new ParallelCSVStream(fr, true, hex, false).writeTo(baos);
+        assertArrayEquals(expected, baos.toByteArray());
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testGzip() throws IOException {
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(makeFrame());
+      byte[] expected = drain(new Frame.CSVStream(fr, true, false));
+      byte[] gzipped = drain(new ParallelCSVStream(fr, true, false, true));
+      assertArrayEquals(expected, drain(new GZIPInputStream(new ByteArrayInputStream(gzipped))));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testSubsetOfChunks() throws IOException {
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(makeFrame());
+      byte[] actual = drain(new ParallelCSVStream(fr, new int[]{2, 4}, false, false, false, 4));
+      assertEquals("-3,,,\"\"\n4,-2.25,\"b\",\"y\"\n5,1.0E100,\"c\",\"z\"\n7,0.3333333333333333,\"a\",\"v\"\n",
+          new String(actual, "UTF-8"));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test
+  public void testEmptyFrame() throws IOException {
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(new TestFrameBuilder()
+          .withName("csvEmptySource")
+          .withColNames("a", "b")
+          .withVecTypes(Vec.T_NUM, Vec.T_STR)
+          .withDataForCol(0, new double[0])
+          .withDataForCol(1, new String[0])
+          .build());
+      assertEquals("\"a\",\"b\"\n", new String(drain(new ParallelCSVStream(fr, true, false, false)), "UTF-8"));
+      byte[] gzipped = drain(new ParallelCSVStream(fr, false, false, true));
+      assertEquals(0, drain(new GZIPInputStream(new ByteArrayInputStream(gzipped))).length);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static byte[] drain(InputStream is) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    byte[] buf = new byte[7]; // small buffer to exercise reads crossing the block boundaries
+    int n;
+    // Frame.CSVStream returns 0 at the end of the data
+    while ((n = is.read(buf, 0, buf.length)) > 0)
+      baos.write(buf, 0, n);
+    is.close();
+    return baos.toByteArray();
+  }
+}
@@ -0,0 +1,208 @@
+package water.metrics;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.H2O;
+import water.Key;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.parser.ParseDataset;
+import water.parser.ParserTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import static org.junit.Assert.*;
+
+public class MetricsRegistryTest extends TestUtil {
+
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  @Test
+  public void testSnapshot() {
+    Counter c = MetricsRegistry.counter("test_registry_events_total", "Test events");
+    assertSame(c, MetricsRegistry.counter("test_registry_events_total", "Test events"));
+    c.inc();
+    c.inc(2);
+    MetricsRegistry.gauge("test_registry_depth", "Test depth", "queue", "a", new Gauge() {
+      @Override public double value() { return 7; }
+    });
+    MetricsRegistry.gauge("test_registry_depth", "Test depth", "queue", "b", new Gauge() {
+      @Override public double value() { return Double.NaN; } // not available => not reported
+    });
+    Histogram h = MetricsRegistry.histogram("test_registry_latency_seconds", "Test latency", new double[]{1, 10});
+    h.observe(0.5);
+    h.observe(5);
+    h.observe(50);
+
+    MetricFamily counter = find(MetricsRegistry.snapshot(), "test_registry_events_total");
+    assertEquals(MetricFamily.COUNTER, counter._type);
+    assertEquals(3, counter.value("", ""), 0);
+
+    MetricFamily gauge = find(MetricsRegistry.snapshot(), "test_registry_depth");
+    assertEquals(1, gauge.size());
+    assertEquals(7, gauge.value("", "queue=\"a\""), 0);
+
+    MetricFamily histo = find(MetricsRegistry.snapshot(), "test_registry_latency_seconds");
+    assertEquals(1, histo.value("_bucket", "le=\"1\""), 0);
+    assertEquals(2, histo.value("_bucket", "le=\"10\""), 0);
+    assertEquals(3, histo.value("_bucket", "le=\"+Inf\""), 0);
+    assertEquals(3, histo.value("_count", ""), 0);
+    assertEquals(55.5, histo.value("_sum", ""), 1e-10);
+  }
+
+  @Test
+  public void testLabeledSeries() {
+    Counter a = MetricsRegistry.counter("test_registry_labeled_total", "Labeled", "route", "a");
+    assertSame(a, MetricsRegistry.counter("test_registry_labeled_total", "Labeled", "route", "a"));
+    MetricsRegistry.counter("test_registry_labeled_total", "Labeled", "route", "b").inc(2);
+    a.inc();
+    MetricFamily counter = find(MetricsRegistry.snapshot(), "test_registry_labeled_total");
+    assertEquals(1, counter.value("", "route=\"a\""), 0);
+    assertEquals(2, counter.value("", "route=\"b\""), 0);
+
+    MetricsRegistry.histogram("test_registry_labeled_seconds", "Labeled", new double[]{1}, "route", "a").observe(0.5);
+    MetricFamily histo = find(MetricsRegistry.snapshot(), "test_registry_labeled_seconds");
+    assertEquals(1, histo.value("_bucket", "route=\"a\",le=\"1\""), 0);
+    assertEquals(1, histo.value("_count", "route=\"a\""), 0);
+    assertEquals(0.5, histo.value("_sum", "route=\"a\""), 0);
+
+    // the REST statistics are part of the registry
+    water.api.RequestMetrics.stats("GET /test/registry")._errors.inc();
+    MetricFamily errors = find(MetricsRegistry.snapshot(), "h2o_rest_request_errors_total");
+    assertEquals(1, errors.value("", "route=\"GET /test/registry\""), 0);
+    assertNotNull(find(MetricsRegistry.snapshot(), "h2o_rest_request_milliseconds"));
+  }
+
+  @Test
+  public void testConcurrentObservations() throws InterruptedException {
+    final Histogram h = new Histogram(new double[]{1, 10});
+    Thread[] threads = new Thread[8];
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread() {
+        @Override public void run() {
+          for (int i = 0; i < 10000; i++) h.observe(i % 2 == 0 ? 0.5 : 5);
+        }
+      };
+      threads[t].start();
+    }
+    for (Thread t : threads) t.join();
+    assertArrayEquals(new long[]{40000, 40000, 0}, h.bucketCounts());
+    assertEquals(80000, h.count());
+    assertEquals(40000 * 5.5, h.sum(), 1e-6);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBoundsConflict() {
+    MetricsRegistry.histogram("test_registry_bounds", "Bounds", new double[]{1, 2});
+    MetricsRegistry.histogram("test_registry_bounds", "Bounds", new double[]{1, 3}, "l", "x");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTypeConflict() {
+    MetricsRegistry.counter("test_registry_conflict", "Conflict");
+    MetricsRegistry.histogram("test_registry_conflict", "Conflict", Histogram.LATENCY_SECONDS_BOUNDS);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidName() {
+    MetricsRegistry.counter("test registry", "Invalid");
+  }
+
+  @Test
+  public void testTextFormat() throws IOException {
+    MetricFamily a = new MetricFamily("m_total", "Help with \\ and\nnewline", MetricFamily.COUNTER);
+    a.add("", "", 3);
+    MetricFamily b = new MetricFamily("g", "Gauge", MetricFamily.GAUGE);
+    b.add("", MetricsRegistry.label("l", "x\"y"), 0.25);
+    MetricFamily a2 = new MetricFamily("m_total", "Help with \\ and\nnewline", MetricFamily.COUNTER);
+    a2.add("", "", 4);
+    StringWriter w = new StringWriter();
+    MetricsTextFormat.write(w, new String[]{"n1", "n2", "n3"},
+        new MetricFamily[][]{{a, b}, null, {a2}});
+    assertEquals(
+        "# HELP m_total Help with \\\\ and\\nnewline\n" +
+        "# TYPE m_total counter\n" +
+        "m_total{node=\"n1\"} 3\n" +
+        "m_total{node=\"n3\"} 4\n" +
+        "# HELP g Gauge\n" +
+        "# TYPE g gauge\n" +
+        "g{node=\"n1\",l=\"x\\\"y\"} 0.25\n",
+        w.toString());
+    assertEquals("+Inf", MetricsTextFormat.formatValue(Double.POSITIVE_INFINITY));
+    assertEquals("NaN", MetricsTextFormat.formatValue(Double.NaN));
+    assertEquals("1.0E100", MetricsTextFormat.formatValue(1e100));
+  }
+
+  @Test
+  public void testCollectAllNodes() {
+    CollectMetricsTask t = new CollectMetricsTask().doAllNodes();
+    assertEquals(H2O.CLOUD.size(), t._metrics.length);
+    for (int i = 0; i < t._metrics.length; i++) {
+      assertEquals(H2O.CLOUD._memary[i].getIpPortString(), t._nodes[i]);
+      assertNotNull(find(t._metrics[i], "h2o_memory_max_bytes"));
+      assertNotNull(find(t._metrics[i], "h2o_fj_queued_tasks"));
+      assertFalse(Double.isNaN(find(t._metrics[i], "h2o_mrtask_map_seconds").value("_count", "")));
+    }
+  }
+
+  @Test
+  public void testParseBytesAndEndpoint() throws IOException {
+    Scope.enter();
+    try {
+      double before = cloudTotal("h2o_parse_bytes_total");
+      String data = "a,b\n1,2\n3,4\n";
+      Key k = ParserTest.makeByteVec(data);
+      Frame fr = Scope.track(ParseDataset.parse(Key.make("metrics_parsed.hex"), k));
+      assertEquals(2, fr.numRows());
+      // the chunk is parsed on its home node
+      assertTrue(cloudTotal("h2o_parse_bytes_total") - before >= data.length());
+
+      H2O.startServingRestApi();
+      String text = fetch("/3/Metrics.txt");
+      assertTrue(text, text.contains("# TYPE h2o_parse_bytes_total counter\n"));
+      assertTrue(text, text.contains("# TYPE h2o_mrtask_map_seconds histogram\n"));
+      assertTrue(text, text.contains("h2o_memory_max_bytes{node=\"" + H2O.SELF.getIpPortString() + "\"} "));
+      String local = fetch("/3/Metrics.txt?local=true");
+      assertTrue(local, local.contains("h2o_rpc_retries_total{node=\"" + H2O.SELF.getIpPortString() + "\"} "));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  private static double cloudTotal(String name) {
+    CollectMetricsTask t = new CollectMetricsTask().doAllNodes();
+    double total = 0;
+    for (MetricFamily[] node : t._metrics)
+      for (MetricFamily f : node)
+        if (f._name.equals(name)) total += f.value("", ""); // not registered until the subsystem is used
+    return total;
+  }
+
+  private static MetricFamily find(MetricFamily[] families, String name) {
+    for (MetricFamily f : families)
+      if (f._name.equals(name)) return f;
+    fail("Metric " + name + " not found");
+    return null;
+  }
+
+  private static String fetch(String path) throws IOException {
+    HttpURLConnection conn = (HttpURLConnection) new URL(H2O.getURL("http") + path).openConnection();
+    try (InputStream is = conn.getInputStream()) {
+      assertEquals(MetricsTextFormat.CONTENT_TYPE, conn.getContentType());
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      byte[] buf = new byte[4096];
+      int n;
+      while ((n = is.read(buf)) > 0) baos.write(buf, 0, n);
+      return baos.toString("UTF-8");
+    } finally {
+      conn.disconnect();
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package water.rapids.ast.prims.advmath;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+import water.rapids.Rapids;
+import water.rapids.Session;
+import water.rapids.Val;
+import water.rapids.vals.ValFrame;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class AstKnnTest extends TestUtil {
+  @BeforeClass
+  static public void setup() { stall_till_cloudsize(1); }
+
+  private static Frame randomFrame(String name, Session sess, int rows, int cols, long seed) {
+    Random rng = new Random(seed);
+    TestFrameBuilder b = new TestFrameBuilder().withName(name, sess).withChunkLayout(rows / 3, rows / 3, rows - 2 * (rows / 3));
+    String[] names = new String[cols];
+    byte[] types = new byte[cols];
+    for (int c = 0; c < cols; c++) {
+      names[c] = "C" + (c + 1);
+      types[c] = Vec.T_NUM;
+      double[] data = new double[rows];
+      // a few clusters, so that the neighbors are not all equally far
+      for (int r = 0; r < rows; r++) data[r] = (r % 7) + rng.nextGaussian() * 0.3;
+      b.withDataForCol(c, data);
+    }
+    return b.withColNames(names).withVecTypes(types).build();
+  }
+
+  private static double distance(Frame refs, long r, Frame queries, long q, String measure) {
+    double sum = 0, dot = 0, nr = 0, nq = 0;
+    for (int c = 0; c < refs.numCols(); c++) {
+      double x = refs.vec(c).at(r), y = queries.vec(c).at(q);
+      sum += measure.equals("l1") ? Math.abs(x - y) : (x - y) * (x - y);
+      dot += x * y;
+      nr += x * x;
+      nq += y * y;
+    }
+    return measure.equals("l1") ? sum : measure.equals("l2") ? Math.sqrt(sum) : 1 - dot / Math.sqrt(nr * nq);
+  }
+
+  /** Sorted distances of all references to the given query */
+  private static double[] bruteForce(Frame refs, Frame queries, long q, String measure) {
+    double[] res = new double[(int) refs.numRows()];
+    for (int r = 0; r < res.length; r++) res[r] = distance(refs, r, queries, q, measure);
+    Arrays.sort(res);
+    return res;
+  }
+
+  private static void checkNeighbors(Frame refs, Frame queries, Frame res, int k, String measure, double eps) {
+    Assert.assertEquals(queries.numRows(), res.numRows());
+    Assert.assertEquals(2 * k, res.numCols());
+    for (long q = 0; q < queries.numRows(); q++) {
+      double[] expected = bruteForce(refs, queries, q, measure);
+      for (int i = 0; i < k; i++) {
+        long id = res.vec(i).at8(q);
+        double d = res.vec(k + i).at(q);
+        Assert.assertTrue(id >= 0 && id < refs.numRows());
+        if (i > 0) Assert.assertTrue(d >= res.vec(k + i - 1).at(q));
+        if (eps == 0) Assert.assertEquals(measure + " query " + q + " neighbor " + i, expected[i], d, 1e-8);
+        else Assert.assertTrue(d <= (1 + eps) * expected[i] + 1e-8);
+        // the reported distance is the distance to the reported row
+        Assert.assertEquals(distance(refs, id, queries, q, measure), d, 1e-8);
+      }
+    }
+  }
+
+  @Test public void testExactMatchesBruteForce() {
+    Scope.enter();
+    try {
+      Session sess = new Session();
+      Frame refs = Scope.track(randomFrame("$refs", sess, 2000, 5, 42));
+      Frame queries = Scope.track(randomFrame("$queries", sess, 60, 5, 43));
+      for (String measure : new String[]{"l1", "l2", "cosine"}) {
+        // one block and several blocks of references
+        for (int blockRows : new int[]{Integer.MAX_VALUE, 300}) {
+          Frame res = Scope.track(new AstKnn().computeKnn(refs, queries, 5, measure, 0, blockRows));
+          checkNeighbors(refs, queries, res, 5, measure, 0);
+        }
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void testApproximate() {
+    Scope.enter();
+    try {
+      Session sess = new Session();
+      Frame refs = Scope.track(randomFrame("$refs", sess, 3000, 8, 44));
+      Frame queries = Scope.track(randomFrame("$queries", sess, 60, 8, 45));
+      Frame res = Scope.track(new AstKnn().computeKnn(refs, queries, 3, "l2", 0.5, 1000));
+      checkNeighbors(refs, queries, res, 3, "l2", 0.5);
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void testRapids() {
+    Scope.enter();
+    try {
+      Session sess = new Session();
+      Frame refs = Scope.track(randomFrame("$refs", sess, 500, 3, 46));
+      Frame queries = Scope.track(randomFrame("$queries", sess, 20, 3, 47));
+      Val val = Rapids.exec("(tmp= $knn (knn $refs $queries 4 'l2' 0))", sess);
+      Assert.assertTrue(val instanceof ValFrame);
+      Frame res = Scope.track(val.getFrame());
+      Assert.assertArrayEquals(new String[]{"id_1", "id_2", "id_3", "id_4",
+          "distance_1", "distance_2", "distance_3", "distance_4"}, res.names());
+      checkNeighbors(refs, queries, res, 4, "l2", 0);
+      // a query that is also a reference finds itself
+      Frame self = Scope.track(new AstKnn().computeKnn(refs, refs, 1, "l2", 0, Integer.MAX_VALUE));
+      for (long r = 0; r < refs.numRows(); r++) Assert.assertEquals(0, self.vec(1).at(r), 0);
+    } finally {
+      Scope.exit();
+    }
+  }
+}
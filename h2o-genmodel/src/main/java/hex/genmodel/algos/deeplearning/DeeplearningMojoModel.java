@@ -25,6 +25,7 @@ public class DeeplearningMojoModel extends MojoModel {
   public int[] _catNAFill; // if mean imputation is true, mode imputation for categorical columns
   public int _numLayers;    // number of neural network layers.
   public DistributionFamily _family;
+  public String _weights_precision; // Float32, or BFloat16 (weights stored with 2 bytes each)
   public double[] _numsA = new double[_nums];
   public int[] _catsA = new int[_cats];
 
@@ -1,6 +1,7 @@
 package hex.genmodel.algos.deeplearning;
 
 import hex.genmodel.ModelMojoReader;
+import hex.genmodel.utils.BFloat16;
 import hex.genmodel.utils.DistributionFamily;
 
 import java.io.IOException;
@@ -9,6 +10,9 @@ import static hex.genmodel.GenModel.convertDouble2Float;
 
 public class DeeplearningMojoReader extends ModelMojoReader<DeeplearningMojoModel> {
 
+  // 1.00 - float weights stored as text, 1.10 - bfloat16 weights stored as blobs
+  private static final double MAX_SUPPORTED_VERSION = 1.10;
+
   @Override
   public String getModelName() {
     return "Deep Learning";
@@ -19,6 +23,10 @@ public class DeeplearningMojoReader extends ModelMojoReader<DeeplearningMojoMode
 /*    if (_model.isAutoEncoder()) {
       throw new UnsupportedOperationException("AutoEncoder mojo is not ready for deployment.  Stay tuned...");
     }*/
+    double mojoVersion = readkv("mojo_version", 1.0);
+    if (mojoVersion > MAX_SUPPORTED_VERSION)
+      throw new IOException("Deep Learning MOJO version " + mojoVersion + " is not supported by this version of " +
+              "h2o-genmodel (the newest supported is " + MAX_SUPPORTED_VERSION + "), please upgrade h2o-genmodel.");
     _model._mini_batch_size=readkv("mini_batch_size");
     _model._nums = readkv("nums");
     _model._cats = readkv("cats");
@@ -36,19 +44,24 @@ public class DeeplearningMojoReader extends ModelMojoReader<DeeplearningMojoMode
     }
     _model._units = readkv("neural_network_sizes", new int[0]);
     _model._all_drop_out_ratios = readkv("hidden_dropout_ratios", new double[0]);
+    _model._weights_precision = readkv("weights_precision", "Float32");
+    boolean bfloat16 = "BFloat16".equals(_model._weights_precision);
 
     // read in biases and weights for each layer
     int numLayers = _model._units.length-1; // exclude the output nodes.
     _model._weightsAndBias = new DeeplearningMojoModel.StoreWeightsBias[numLayers];
     for (int layerIndex = 0; layerIndex < numLayers; layerIndex++) {
       double[] tempB = readkv("bias_layer" + layerIndex, new double[0]);
-      double[] tempWD = readkv("weight_layer" + layerIndex, new double[0]);
       float[] tempW;
-
-      if (tempWD.length==0)
-        tempW = new float[0];
-      else
-        tempW = convertDouble2Float(tempWD);
+      if (bfloat16) {
+        tempW = BFloat16.fromBytes(readblob("weight_layer" + layerIndex + ".bf16"));
+      } else {
+        double[] tempWD = readkv("weight_layer" + layerIndex, new double[0]);
+        if (tempWD.length==0)
+          tempW = new float[0];
+        else
+          tempW = convertDouble2Float(tempWD);
+      }
       _model._weightsAndBias[layerIndex] = new DeeplearningMojoModel.StoreWeightsBias(tempW, tempB);
     }
 
@@ -0,0 +1,382 @@
+package hex.genmodel.algos.word2vec;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Approximate nearest neighbor index of word vectors by cosine similarity - a forest of random projection trees.
+ *
+ * Every inner node of a tree splits its words by the hyperplane half-way between two randomly picked (normalized)
+ * words of the node, leaves hold at most {@link #LEAF_SIZE} words. A query descends all the trees at once, best-first
+ * by the distance of the query to the splitting hyperplanes, until it collects the requested number of candidate
+ * words. The candidates are then ranked by their exact cosine similarity to the query.
+ *
+ * The index doesn't hold the word vectors, every call takes them as one array of vecSize floats per word.
+ */
+public class RandomProjectionForest implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  public static final int LEAF_SIZE = 32;
+
+  // Words with a cosine similarity this close to 1 are considered to be the query word itself
+  private static final float SAME_WORD = 0.999999f;
+
+  private final int _vecSize;
+  private final int _size;      // number of indexed words
+  private final Tree[] _trees;
+
+  public RandomProjectionForest(int vecSize, int size, Tree[] trees) {
+    _vecSize = vecSize;
+    _size = size;
+    _trees = trees;
+  }
+
+  public int getNumTrees() {
+    return _trees.length;
+  }
+
+  /**
+   * One random projection tree. Node references are indices of the inner nodes (>= 0), or ~(leaf index) for leaves.
+   */
+  public static class Tree implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    int _root;
+    int[] _splits;      // two words (a, b) defining the hyperplane of each inner node, a = -1 for a random split
+    int[] _children;    // (below, above) node references of each inner node
+    int[] _leafStarts;  // start of each leaf in _leafWords, with one extra element at the end
+    int[] _leafWords;   // words of all leaves
+
+    private Tree() {}
+  }
+
+  /**
+   * Build one tree of the forest over all the words.
+   * @param vecs word vectors
+   * @param vecSize length of one word vector
+   * @param seed seed of the random choice of the splits
+   * @return new tree
+   */
+  public static Tree buildTree(float[] vecs, int vecSize, long seed) {
+    final int size = vecs.length / vecSize;
+    final float[] invNorms = invNorms(vecs, vecSize);
+    final Random rand = new Random(seed);
+    final IntList splits = new IntList(), children = new IntList(), leafStarts = new IntList(), leafWords = new IntList();
+    final float[] normal = new float[vecSize];
+    int[] words = new int[size];
+    for (int i = 0; i < size; i++) words[i] = i;
+
+    // explicit stack of pending nodes: word range [lo, hi) of the buffer and the slot of the parent to fill in
+    int[] buffer = new int[size];
+    List<int[]> stack = new ArrayList<>();
+    stack.add(new int[]{0, size, -1});
+    Tree t = new Tree();
+    while (!stack.isEmpty()) {
+      int[] node = stack.remove(stack.size() - 1);
+      int lo = node[0], hi = node[1], slot = node[2];
+      int ref;
+      if (hi - lo <= LEAF_SIZE) {
+        ref = ~(leafStarts.size());
+        leafStarts.add(leafWords.size());
+        for (int i = lo; i < hi; i++) leafWords.add(words[i]);
+      } else {
+        int ia = rand.nextInt(hi - lo);
+        int a = words[lo + ia];
+        int b = words[lo + (ia + 1 + rand.nextInt(hi - lo - 1)) % (hi - lo)];
+        hyperplane(vecs, vecSize, invNorms, a, b, normal);
+        int below = lo, above = hi;
+        for (int i = lo; i < hi; i++) {
+          if (margin(vecs, vecSize, words[i], normal) > 0) buffer[--above] = words[i];
+          else buffer[below++] = words[i];
+        }
+        if (below == lo || below == hi) { // degenerate split (eg. duplicate words) - split randomly in halves
+          a = b = -1;
+          System.arraycopy(words, lo, buffer, lo, hi - lo);
+          for (int i = hi - 1; i > lo; i--) { // shuffle
+            int j = lo + rand.nextInt(i - lo + 1);
+            int tmp = buffer[i]; buffer[i] = buffer[j]; buffer[j] = tmp;
+          }
+          below = lo + (hi - lo) / 2;
+        }
+        System.arraycopy(buffer, lo, words, lo, hi - lo);
+        ref = splits.size() / 2;
+        splits.add(a); splits.add(b);
+        children.add(0); children.add(0);
+        stack.add(new int[]{lo, below, 2 * ref});
+        stack.add(new int[]{below, hi, 2 * ref + 1});
+      }
+      if (slot < 0) t._root = ref;
+      else children.set(slot, ref);
+    }
+    leafStarts.add(leafWords.size());
+    t._splits = splits.toArray();
+    t._children = children.toArray();
+    t._leafStarts = leafStarts.toArray();
+    t._leafWords = leafWords.toArray();
+    return t;
+  }
+
+  /**
+   * Find the approximate top-k most similar words.
+   * @param vecs word vectors (the same the index was built for)
+   * @param target query vector
+   * @param k number of words to find
+   * @param searchK number of candidate words to collect from the trees (more is slower but more accurate)
+   * @param scores output, cosine similarities of the found words (at least k elements)
+   * @return indices of the found words, most similar first (can be fewer than k)
+   */
+  public int[] query(float[] vecs, float[] target, int k, int searchK, float[] scores) {
+    float[] invNorms = invNorms(vecs);
+    float[] normal = new float[_vecSize];
+    Set<Integer> candidates = new HashSet<>();
+    PriorityQueue<Entry> queue = new PriorityQueue<>();
+    for (Tree t : _trees) queue.add(new Entry(Double.POSITIVE_INFINITY, t, t._root));
+    while (candidates.size() < searchK && !queue.isEmpty()) {
+      Entry e = queue.poll();
+      Tree t = e._tree;
+      if (e._ref < 0) {
+        int leaf = ~e._ref;
+        for (int i = t._leafStarts[leaf]; i < t._leafStarts[leaf + 1]; i++)
+          candidates.add(t._leafWords[i]);
+      } else {
+        int a = t._splits[2 * e._ref], b = t._splits[2 * e._ref + 1];
+        double m = 0;
+        if (a >= 0) {
+          hyperplane(vecs, _vecSize, invNorms, a, b, normal);
+          m = margin(target, normal);
+        }
+        queue.add(new Entry(Math.min(e._priority, -m), t, t._children[2 * e._ref]));
+        queue.add(new Entry(Math.min(e._priority, m), t, t._children[2 * e._ref + 1]));
+      }
+    }
+    int[] words = new int[candidates.size()];
+    int i = 0;
+    for (int w : candidates) words[i++] = w;
+    return topK(vecs, _vecSize, invNorms, words, target, k, scores);
+  }
+
+  /**
+   * Batch version of {@link #query(float[], float[], int, int, float[])}.
+   * @param scores output, cosine similarities of the found words (one array of at least k elements per query)
+   */
+  public int[][] query(float[] vecs, float[][] targets, int k, int searchK, float[][] scores) {
+    int[][] res = new int[targets.length][];
+    for (int i = 0; i < targets.length; i++)
+      res[i] = query(vecs, targets[i], k, searchK, scores[i]);
+    return res;
+  }
+
+  /**
+   * Default number of candidates collected by a top-k query.
+   */
+  public int defaultSearchK(int k) {
+    return Math.max(k * _trees.length * 8, 4 * LEAF_SIZE);
+  }
+
+  /**
+   * Exact top-k most similar words (scan over all the words).
+   * @see #query(float[], float[], int, int, float[])
+   */
+  public static int[] exactQuery(float[] vecs, int vecSize, float[] target, int k, float[] scores) {
+    int[] words = new int[vecs.length / vecSize];
+    for (int i = 0; i < words.length; i++) words[i] = i;
+    return topK(vecs, vecSize, invNorms(vecs, vecSize), words, target, k, scores);
+  }
+
+  // Top-k of the given words by cosine similarity to the target, skipping the target word itself
+  private static int[] topK(float[] vecs, int vecSize, float[] invNorms, int[] words, float[] target, int k, float[] scores) {
+    float targetNorm = 0;
+    for (float v : target) targetNorm += v * v;
+    float targetInvNorm = targetNorm > 0 ? (float) (1 / Math.sqrt(targetNorm)) : 0;
+    // min-heap of the best k words so far
+    int[] heap = new int[k];
+    float[] heapScores = new float[k];
+    int n = 0;
+    for (int w : words) {
+      float dot = 0;
+      int pos = w * vecSize;
+      for (int j = 0; j < vecSize; j++) dot += target[j] * vecs[pos + j];
+      float score = dot * targetInvNorm * invNorms[w];
+      if (score >= SAME_WORD) continue;
+      if (n < k) {
+        heap[n] = w; heapScores[n] = score; n++;
+        siftUp(heap, heapScores, n - 1);
+      } else if (k > 0 && (score > heapScores[0] || (score == heapScores[0] && w < heap[0]))) {
+        heap[0] = w; heapScores[0] = score;
+        siftDown(heap, heapScores, n);
+      }
+    }
+    // extract, best first
+    int[] res = new int[n];
+    for (int i = n - 1; i >= 0; i--) {
+      res[i] = heap[0];
+      scores[i] = heapScores[0];
+      heap[0] = heap[i]; heapScores[0] = heapScores[i];
+      siftDown(heap, heapScores, i);
+    }
+    return res;
+  }
+
+  private static boolean worse(float[] scores, int[] words, int i, int j) {
+    return scores[i] < scores[j] || (scores[i] == scores[j] && words[i] > words[j]);
+  }
+
+  private static void siftUp(int[] heap, float[] scores, int i) {
+    while (i > 0) {
+      int parent = (i - 1) / 2;
+      if (!worse(scores, heap, i, parent)) break;
+      swap(heap, scores, i, parent);
+      i = parent;
+    }
+  }
+
+  private static void siftDown(int[] heap, float[] scores, int n) {
+    int i = 0;
+    while (true) {
+      int l = 2 * i + 1, r = l + 1, min = i;
+      if (l < n && worse(scores, heap, l, min)) min = l;
+      if (r < n && worse(scores, heap, r, min)) min = r;
+      if (min == i) return;
+      swap(heap, scores, i, min);
+      i = min;
+    }
+  }
+
+  private static void swap(int[] heap, float[] scores, int i, int j) {
+    int w = heap[i]; heap[i] = heap[j]; heap[j] = w;
+    float s = scores[i]; scores[i] = scores[j]; scores[j] = s;
+  }
+
+  // unit normal of the hyperplane half-way between normalized words a and b (passes through the origin)
+  private static void hyperplane(float[] vecs, int vecSize, float[] invNorms, int a, int b, float[] normal) {
+    int pa = a * vecSize, pb = b * vecSize;
+    double sqr = 0;
+    for (int j = 0; j < vecSize; j++) {
+      normal[j] = vecs[pa + j] * invNorms[a] - vecs[pb + j] * invNorms[b];
+      sqr += normal[j] * normal[j];
+    }
+    if (sqr > 0) {
+      float inv = (float) (1 / Math.sqrt(sqr));
+      for (int j = 0; j < vecSize; j++) normal[j] *= inv;
+    }
+  }
+
+  private static double margin(float[] vecs, int vecSize, int word, float[] normal) {
+    double m = 0;
+    int pos = word * vecSize;
+    for (int j = 0; j < vecSize; j++) m += vecs[pos + j] * normal[j];
+    return m;
+  }
+
+  private static double margin(float[] target, float[] normal) {
+    double m = 0;
+    for (int j = 0; j < normal.length; j++) m += target[j] * normal[j];
+    return m;
+  }
+
+  private static float[] invNorms(float[] vecs, int vecSize) {
+    float[] invNorms = new float[vecs.length / vecSize];
+    for (int i = 0; i < invNorms.length; i++) {
+      double sqr = 0;
+      for (int j = i * vecSize; j < (i + 1) * vecSize; j++) sqr += vecs[j] * vecs[j];
+      invNorms[i] = sqr > 0 ? (float) (1 / Math.sqrt(sqr)) : 0;
+    }
+    return invNorms;
+  }
+
+  private transient volatile Norms _norms;
+
+  // inverse norms of the word vectors, computed once for the given vectors
+  private float[] invNorms(float[] vecs) {
+    Norms norms = _norms;
+    if (norms == null || norms._vecs != vecs) {
+      if (vecs.length != _size * _vecSize)
+        throw new IllegalArgumentException("Word vectors don't match the index, expected " + _size + " words.");
+      _norms = norms = new Norms(vecs, invNorms(vecs, _vecSize));
+    }
+    return norms._invNorms;
+  }
+
+  private static class Norms {
+    final float[] _vecs;
+    final float[] _invNorms;
+    Norms(float[] vecs, float[] invNorms) { _vecs = vecs; _invNorms = invNorms; }
+  }
+
+  private static class Entry implements Comparable<Entry> {
+    final double _priority;
+    final Tree _tree;
+    final int _ref;
+    Entry(double priority, Tree tree, int ref) { _priority = priority; _tree = tree; _ref = ref; }
+    @Override public int compareTo(Entry o) { return Double.compare(o._priority, _priority); } // highest first
+  }
+
+  /**
+   * Binary representation of the index (used by MOJO).
+   */
+  public byte[] toBytes() {
+    int len = 3;
+    for (Tree t : _trees)
+      len += 5 + t._splits.length + t._children.length + t._leafStarts.length + t._leafWords.length;
+    ByteBuffer bb = ByteBuffer.allocate(4 * len);
+    bb.putInt(_vecSize).putInt(_size).putInt(_trees.length);
+    for (Tree t : _trees) {
+      bb.putInt(t._root);
+      putInts(bb, t._splits);
+      putInts(bb, t._children);
+      putInts(bb, t._leafStarts);
+      putInts(bb, t._leafWords);
+    }
+    return bb.array();
+  }
+
+  /**
+   * Inverse of {@link #toBytes()}
+   */
+  public static RandomProjectionForest fromBytes(byte[] bytes) {
+    ByteBuffer bb = ByteBuffer.wrap(bytes);
+    int vecSize = bb.getInt(), size = bb.getInt();
+    Tree[] trees = new Tree[bb.getInt()];
+    for (int i = 0; i < trees.length; i++) {
+      Tree t = trees[i] = new Tree();
+      t._root = bb.getInt();
+      t._splits = getInts(bb);
+      t._children = getInts(bb);
+      t._leafStarts = getInts(bb);
+      t._leafWords = getInts(bb);
+    }
+    return new RandomProjectionForest(vecSize, size, trees);
+  }
+
+  private static void putInts(ByteBuffer bb, int[] ints) {
+    bb.putInt(ints.length);
+    for (int i : ints) bb.putInt(i);
+  }
+
+  private static int[] getInts(ByteBuffer bb) {
+    int[] ints = new int[bb.getInt()];
+    for (int i = 0; i < ints.length; i++) ints[i] = bb.getInt();
+    return ints;
+  }
+
+  // growable array of ints
+  private static class IntList {
+    private int[] _data = new int[16];
+    private int _size;
+    void add(int v) {
+      if (_size == _data.length) _data = Arrays.copyOf(_data, 2 * _size);
+      _data[_size++] = v;
+    }
+    void set(int i, int v) { _data[i] = v; }
+    int size() { return _size; }
+    int[] toArray() { return Arrays.copyOf(_data, _size); }
+  }
+
+}
@@ -2,13 +2,23 @@ package hex.genmodel.algos.word2vec;
 
 import hex.genmodel.MojoModel;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class Word2VecMojoModel extends MojoModel implements WordEmbeddingModel {
 
   int _vecSize;
   HashMap<String, float[]> _embeddings;
 
+  // Optional synonym index (MOJO version 1.10+), _words and _vecs are the vocabulary in the order of the index
+  // (without an index they are only built by the first call of findSynonyms)
+  RandomProjectionForest _synonymIndex;
+  volatile String[] _words;
+  float[] _vecs;
+
   Word2VecMojoModel(String[] columns, String[][] domains, String responseName) {
     super(columns, domains, responseName);
   }
@@ -27,6 +37,49 @@ public class Word2VecMojoModel extends MojoModel implements WordEmbeddingModel {
     return output;
   }
 
+  /**
+   * Finds the k most similar words (by cosine similarity) for each of the given words. Uses the synonym index if
+   * the model was exported with one, otherwise scans the whole vocabulary.
+   *
+   * @param words words to find synonyms for
+   * @param k number of synonyms to find for each word
+   * @return synonyms and their similarity, most similar first (empty for words not in the vocabulary)
+   */
+  public List<Map<String, Float>> findSynonyms(String[] words, int k) {
+    ensureVocabularyVectors();
+    List<Map<String, Float>> result = new ArrayList<>(words.length);
+    float[] scores = new float[k];
+    for (String word : words) {
+      Map<String, Float> synonyms = new LinkedHashMap<>();
+      float[] vec = _embeddings.get(word);
+      if (vec != null && k > 0) {
+        int[] found = _synonymIndex != null ?
+                _synonymIndex.query(_vecs, vec, k, _synonymIndex.defaultSearchK(k), scores) :
+                RandomProjectionForest.exactQuery(_vecs, _vecSize, vec, k, scores);
+        for (int i = 0; i < found.length; i++)
+          synonyms.put(_words[found[i]], scores[i]);
+      }
+      result.add(synonyms);
+    }
+    return result;
+  }
+
+  // without an index the vocabulary isn't kept in any particular order, lay it out for the exact search
+  private synchronized void ensureVocabularyVectors() {
+    if (_words != null)
+      return;
+    String[] words = new String[_embeddings.size()];
+    float[] vecs = new float[words.length * _vecSize];
+    int pos = 0;
+    for (Map.Entry<String, float[]> e : _embeddings.entrySet()) {
+      words[pos] = e.getKey();
+      System.arraycopy(e.getValue(), 0, vecs, pos * _vecSize, _vecSize);
+      pos++;
+    }
+    _vecs = vecs;
+    _words = words;
+  }
+
   @Override
   public double[] score0(double[] row, double[] preds) {
     throw new UnsupportedOperationException("Word2Vec Model doesn't support scoring using score0() function");
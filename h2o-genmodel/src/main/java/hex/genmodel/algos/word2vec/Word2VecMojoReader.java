@@ -27,16 +27,36 @@ public class Word2VecMojoReader extends ModelMojoReader<Word2VecMojoModel> {
       throw new IOException("Corrupted vector representation, unexpected size: " + rawVectors.length);
     ByteBuffer bb = ByteBuffer.wrap(rawVectors);
 
+    final int synonymIndexTrees = readkv("synonym_index_trees", 0);
+    if (synonymIndexTrees > 0) {
+      // the index refers to the words by their position in the vocabulary
+      _model._words = new String[vocabSize];
+      _model._vecs = new float[vocabSize * vecSize];
+    }
+
     Iterator<String> vocabulary = readtext("vocabulary", true).iterator();
+    int pos = 0;
     while (vocabulary.hasNext()) {
       float[] vec = new float[vecSize];
       for (int i = 0; i < vecSize; i++)
         vec[i] = bb.getFloat();
-      _model._embeddings.put(vocabulary.next(), vec);
+      String word = vocabulary.next();
+      _model._embeddings.put(word, vec);
+      if (_model._words != null && pos < vocabSize) {
+        _model._words[pos] = word;
+        System.arraycopy(vec, 0, _model._vecs, pos * vecSize, vecSize);
+      }
+      pos++;
     }
 
     if (_model._embeddings.size() != vocabSize)
       throw new IOException("Corrupted model, unexpected number of words: " + _model._embeddings.size());
+
+    if (synonymIndexTrees > 0) {
+      _model._synonymIndex = RandomProjectionForest.fromBytes(readblob("synonym_index"));
+      if (_model._synonymIndex.getNumTrees() != synonymIndexTrees)
+        throw new IOException("Corrupted synonym index, unexpected number of trees: " + _model._synonymIndex.getNumTrees());
+    }
   }
 
   @Override
@@ -0,0 +1,53 @@
+package hex.genmodel.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * bfloat16 - the upper half of an IEEE 754 single precision float (sign, 8 bits of exponent, 7 bits of mantissa).
+ * It has the range of a float, but only ~3 significant decimal digits. Used as a compact storage and transfer format
+ * of (Deep Learning) weights, all the arithmetic is done in float.
+ */
+public class BFloat16 {
+
+  private BFloat16() {}
+
+  /** Round a float to the nearest bfloat16 (ties to even), NaN stays NaN */
+  public static short fromFloat(float f) {
+    int bits = Float.floatToRawIntBits(f);
+    if ((bits & 0x7fffffff) > 0x7f800000) return (short) ((bits >>> 16) | 0x40); // quiet NaN
+    bits += 0x7fff + ((bits >>> 16) & 1);
+    return (short) (bits >>> 16);
+  }
+
+  public static float toFloat(short s) {
+    return Float.intBitsToFloat((s & 0xffff) << 16);
+  }
+
+  public static short[] fromFloats(float[] fs) {
+    short[] res = new short[fs.length];
+    for (int i = 0; i < fs.length; ++i) res[i] = fromFloat(fs[i]);
+    return res;
+  }
+
+  public static float[] toFloats(short[] ss) {
+    float[] res = new float[ss.length];
+    for (int i = 0; i < ss.length; ++i) res[i] = toFloat(ss[i]);
+    return res;
+  }
+
+  /** Little-endian bytes of the bfloat16 values of the given floats (2 bytes per value) */
+  public static byte[] toBytes(float[] fs) {
+    ByteBuffer bb = ByteBuffer.allocate(2 * fs.length).order(ByteOrder.LITTLE_ENDIAN);
+    for (float f : fs) bb.putShort(fromFloat(f));
+    return bb.array();
+  }
+
+  /** Inverse of {@link #toBytes(float[])} */
+  public static float[] fromBytes(byte[] bytes) {
+    ByteBuffer bb = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    float[] res = new float[bytes.length / 2];
+    for (int i = 0; i < res.length; ++i) res[i] = toFloat(bb.getShort());
+    return res;
+  }
+}
@@ -49,6 +49,18 @@ class H2OAutoML(object):
       all appropriate H2O algorithms will be used, if the search stopping criteria allow. Optional.
     :param keep_cross_validation_predictions: Whether to keep the predictions of the cross-validation predictions. If set to ``False`` then running the same AutoML object for repeated runs will cause an exception as CV predictions are required to build additional Stacked Ensemble models in AutoML. Defaults to ``True``.
     :param keep_cross_validation_models: Whether to keep the cross-validated models. Deleting cross-validation models will save memory in the H2O cluster. Defaults to ``True``.
+    :param max_parallel_jobs: Maximum number of model builds and hyperparameter searches running at the same time.
+      Defaults to ``1``; use ``0`` to run as many as ``cores_per_job`` and ``mem_per_job_mb`` allow. Stacked Ensembles
+      are built once all the other models are done.
+    :param cores_per_job: Number of cores per concurrent model build, used with ``max_parallel_jobs = 0``.
+      Only sizes the number of concurrent builds, a build isn't limited to these cores.
+      Defaults to ``0``, meaning the cores of one node.
+    :param mem_per_job_mb: Memory (in MB) per concurrent model build, used with ``max_parallel_jobs = 0``.
+      Only sizes the number of concurrent builds, a build isn't limited to this memory.
+      Defaults to ``0``, meaning no limit.
+    :param successive_halving: Use successive halving for the GBM and DeepLearning hyperparameter searches: candidates
+      are trained with increasing numbers of trees / epochs (up to 500 / 100) and only the best third of them is
+      trained further at every step. Defaults to ``False``, a random search training every candidate fully.
     :param sort_metric: Metric to sort the leaderboard by. Defaults to ``"AUTO"`` (This defaults to ``auc`` for binomial classification, ``mean_per_class_error`` for multinomial classification, ``deviance`` for regression).
     For binomial classification choose between ``auc``, ``"logloss"``, ``"mean_per_class_error"``, ``"rmse"``, ``"mse"``.
             For regression choose between ``"deviance"``, ``"rmse"``, ``"mse"``, ``"mae"``, ``"rmlse"``. For multinomial classification choose between
@@ -92,6 +104,10 @@ class H2OAutoML(object):
                  exclude_algos=None,
                  keep_cross_validation_predictions=True,
                  keep_cross_validation_models=True,
+                 max_parallel_jobs=1,
+                 cores_per_job=0,
+                 mem_per_job_mb=0,
+                 successive_halving=False,
                  sort_metric="AUTO"):
 
         # Check if H2O jar contains AutoML
@@ -189,6 +205,16 @@ class H2OAutoML(object):
         assert_is_type(keep_cross_validation_models, bool)
         self.build_control["keep_cross_validation_models"] = keep_cross_validation_models
 
+        assert_is_type(max_parallel_jobs, int)
+        assert max_parallel_jobs >= 0, "max_parallel_jobs set to " + str(max_parallel_jobs) + "; max_parallel_jobs cannot be negative."
+        self.build_control["max_parallel_jobs"] = max_parallel_jobs
+        assert_is_type(cores_per_job, int)
+        self.build_control["cores_per_job"] = cores_per_job
+        assert_is_type(mem_per_job_mb, int)
+        self.build_control["mem_per_job_mb"] = mem_per_job_mb
+        assert_is_type(successive_halving, bool)
+        self.build_control["successive_halving"] = successive_halving
+
         self._job = None
         self._leader_id = None
         self._leaderboard = None
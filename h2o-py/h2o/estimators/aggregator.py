@@ -25,7 +25,8 @@ class H2OAggregatorEstimator(H2OEstimator):
         self._parms = {}
         names_list = {"model_id", "training_frame", "response_column", "ignored_columns", "ignore_const_cols",
                       "target_num_exemplars", "rel_tol_num_exemplars", "transform", "categorical_encoding",
-                      "save_mapping_frame", "num_iteration_without_new_exemplar"}
+                      "save_mapping_frame", "num_iteration_without_new_exemplar", "streaming",
+                      "exemplar_budget"}
         if "Lambda" in kwargs: kwargs["lambda_"] = kwargs.pop("Lambda")
         for pname, pvalue in kwargs.items():
             if pname == 'model_id':
@@ -189,6 +190,37 @@ class H2OAggregatorEstimator(H2OEstimator):
         self._parms["num_iteration_without_new_exemplar"] = num_iteration_without_new_exemplar
 
 
+    @property
+    def streaming(self):
+        """
+        Aggregate in a single pass with a bounded number of exemplars (per node) instead of searching for the radius
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("streaming")
+
+    @streaming.setter
+    def streaming(self, streaming):
+        assert_is_type(streaming, None, bool)
+        self._parms["streaming"] = streaming
+
+
+    @property
+    def exemplar_budget(self):
+        """
+        Maximum number of exemplars kept at once in the streaming mode (0: four times the upper limit of
+        target_num_exemplars)
+
+        Type: ``int``  (default: ``0``).
+        """
+        return self._parms.get("exemplar_budget")
+
+    @exemplar_budget.setter
+    def exemplar_budget(self, exemplar_budget):
+        assert_is_type(exemplar_budget, None, int)
+        self._parms["exemplar_budget"] = exemplar_budget
+
+
 
     @property
     def aggregated_frame(self):
@@ -55,7 +55,8 @@ class H2ODeepLearningEstimator(H2OEstimator):
                       "missing_values_handling", "quiet_mode", "autoencoder", "sparse", "col_major",
                       "average_activation", "sparsity_beta", "max_categorical_features", "reproducible",
                       "export_weights_and_biases", "mini_batch_size", "categorical_encoding", "elastic_averaging",
-                      "elastic_averaging_moving_rate", "elastic_averaging_regularization"}
+                      "elastic_averaging_moving_rate", "elastic_averaging_regularization", "parameter_server",
+                      "parameter_server_staleness", "weights_precision"}
         if "Lambda" in kwargs: kwargs["lambda_"] = kwargs.pop("Lambda")
         for pname, pvalue in kwargs.items():
             if pname == 'model_id':
@@ -1376,6 +1377,53 @@ class H2ODeepLearningEstimator(H2OEstimator):
         self._parms["elastic_averaging_regularization"] = elastic_averaging_regularization
 
 
+    @property
+    def parameter_server(self):
+        """
+        Asynchronous training: nodes push weight updates to sharded parameter holders and pull fresh weights on their
+        own schedule. #Experimental
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("parameter_server")
+
+    @parameter_server.setter
+    def parameter_server(self, parameter_server):
+        assert_is_type(parameter_server, None, bool)
+        self._parms["parameter_server"] = parameter_server
+
+
+    @property
+    def parameter_server_staleness(self):
+        """
+        Max. number of rounds a node can get ahead of the slowest node (only if the parameter server is enabled).
+
+        Type: ``int``  (default: ``2``).
+        """
+        return self._parms.get("parameter_server_staleness")
+
+    @parameter_server_staleness.setter
+    def parameter_server_staleness(self, parameter_server_staleness):
+        assert_is_type(parameter_server_staleness, None, int)
+        self._parms["parameter_server_staleness"] = parameter_server_staleness
+
+
+    @property
+    def weights_precision(self):
+        """
+        Precision of the weight updates sent between nodes and of the weights in saved models and MOJOs (training is
+        always done in float). BFloat16 halves the size.
+
+        One of: ``"float_3_2"``, ``"b_float_1_6"``  (default: ``"float_3_2"``).
+        """
+        return self._parms.get("weights_precision")
+
+    @weights_precision.setter
+    def weights_precision(self, weights_precision):
+        assert_is_type(weights_precision, None, Enum("float_3_2", "b_float_1_6"))
+        self._parms["weights_precision"] = weights_precision
+
+
 
 class H2OAutoEncoderEstimator(H2ODeepLearningEstimator):
     """
@@ -29,7 +29,7 @@ class H2OGeneralizedLowRankEstimator(H2OEstimator):
                       "loss_by_col_idx", "multi_loss", "period", "regularization_x", "regularization_y", "gamma_x",
                       "gamma_y", "max_iterations", "max_updates", "init_step_size", "min_step_size", "seed", "init",
                       "svd_method", "user_y", "user_x", "expand_user_y", "impute_original", "recover_svd",
-                      "max_runtime_secs"}
+                      "max_runtime_secs", "checkpoint", "refine_iterations"}
         if "Lambda" in kwargs: kwargs["lambda_"] = kwargs.pop("Lambda")
         for pname, pvalue in kwargs.items():
             if pname == 'model_id':
@@ -496,3 +496,34 @@ class H2OGeneralizedLowRankEstimator(H2OEstimator):
         self._parms["max_runtime_secs"] = max_runtime_secs
 
 
+    @property
+    def checkpoint(self):
+        """
+        Model checkpoint to resume training with.
+
+        Type: ``str``.
+        """
+        return self._parms.get("checkpoint")
+
+    @checkpoint.setter
+    def checkpoint(self, checkpoint):
+        assert_is_type(checkpoint, None, str, H2OEstimator)
+        self._parms["checkpoint"] = checkpoint
+
+
+    @property
+    def refine_iterations(self):
+        """
+        Number of joint X and Y iterations after solving X of the new rows when warm starting from a checkpoint (the
+        rows of the checkpointed model followed by the new rows)
+
+        Type: ``int``  (default: ``5``).
+        """
+        return self._parms.get("refine_iterations")
+
+    @refine_iterations.setter
+    def refine_iterations(self, refine_iterations):
+        assert_is_type(refine_iterations, None, int)
+        self._parms["refine_iterations"] = refine_iterations
+
+
@@ -26,8 +26,8 @@ class H2OKMeansEstimator(H2OEstimator):
         self._parms = {}
         names_list = {"model_id", "training_frame", "validation_frame", "nfolds", "keep_cross_validation_predictions",
                       "keep_cross_validation_fold_assignment", "fold_assignment", "fold_column", "ignored_columns",
-                      "ignore_const_cols", "score_each_iteration", "k", "estimate_k", "user_points", "max_iterations",
-                      "standardize", "seed", "init", "max_runtime_secs", "categorical_encoding"}
+                      "ignore_const_cols", "score_each_iteration", "k", "estimate_k", "mini_batch_size", "user_points",
+                      "max_iterations", "standardize", "seed", "init", "max_runtime_secs", "categorical_encoding"}
         if "Lambda" in kwargs: kwargs["lambda_"] = kwargs.pop("Lambda")
         for pname, pvalue in kwargs.items():
             if pname == 'model_id':
@@ -221,6 +221,22 @@ class H2OKMeansEstimator(H2OEstimator):
         self._parms["estimate_k"] = estimate_k
 
 
+    @property
+    def mini_batch_size(self):
+        """
+        Number of rows sampled per iteration for mini-batch KMeans (0 for full Lloyds iterations over the training
+        frame).
+
+        Type: ``int``  (default: ``0``).
+        """
+        return self._parms.get("mini_batch_size")
+
+    @mini_batch_size.setter
+    def mini_batch_size(self, mini_batch_size):
+        assert_is_type(mini_batch_size, None, int)
+        self._parms["mini_batch_size"] = mini_batch_size
+
+
     @property
     def user_points(self):
         """
@@ -288,13 +304,13 @@ class H2OKMeansEstimator(H2OEstimator):
         """
         Initialization mode
 
-        One of: ``"random"``, ``"plus_plus"``, ``"furthest"``, ``"user"``  (default: ``"furthest"``).
+        One of: ``"random"``, ``"plus_plus"``, ``"furthest"``, ``"user"``, ``"plus_plus_parallel"``  (default: ``"furthest"``).
         """
         return self._parms.get("init")
 
     @init.setter
     def init(self, init):
-        assert_is_type(init, None, Enum("random", "plus_plus", "furthest", "user"))
+        assert_is_type(init, None, Enum("random", "plus_plus", "furthest", "user", "plus_plus_parallel"))
         self._parms["init"] = init
 
 
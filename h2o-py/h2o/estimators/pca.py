@@ -132,16 +132,19 @@ class H2OPrincipalComponentAnalysisEstimator(H2OEstimator):
         """
         Specify the algorithm to use for computing the principal components: GramSVD - uses a distributed computation of
         the Gram matrix, followed by a local SVD; Power - computes the SVD using the power iteration method
-        (experimental); Randomized - uses randomized subspace iteration method; GLRM - fits a generalized low-rank model
-        with L2 loss function and no regularization and solves for the SVD using local matrix algebra (experimental)
+        (experimental); Randomized - uses randomized subspace iteration method; RandomizedTSQR - uses a randomized
+        sketch with power iterations and a distributed tall-skinny QR, never forms the Gram matrix (for wide data); GLRM
+        - fits a generalized low-rank model with L2 loss function and no regularization and solves for the SVD using
+        local matrix algebra (experimental)
 
-        One of: ``"gram_s_v_d"``, ``"power"``, ``"randomized"``, ``"glrm"``  (default: ``"gram_s_v_d"``).
+        One of: ``"gram_s_v_d"``, ``"power"``, ``"randomized"``, ``"randomized_t_s_q_r"``, ``"glrm"``  (default:
+        ``"gram_s_v_d"``).
         """
         return self._parms.get("pca_method")
 
     @pca_method.setter
     def pca_method(self, pca_method):
-        assert_is_type(pca_method, None, Enum("gram_s_v_d", "power", "randomized", "glrm"))
+        assert_is_type(pca_method, None, Enum("gram_s_v_d", "power", "randomized", "randomized_t_s_q_r", "glrm"))
         self._parms["pca_method"] = pca_method
 
 
@@ -132,13 +132,13 @@ class H2OSingularValueDecompositionEstimator(H2OEstimator):
         """
         Method for computing SVD (Caution: Randomized is currently experimental and unstable)
 
-        One of: ``"gram_s_v_d"``, ``"power"``, ``"randomized"``  (default: ``"gram_s_v_d"``).
+        One of: ``"gram_s_v_d"``, ``"power"``, ``"randomized"``, ``"randomized_t_s_q_r"``  (default: ``"gram_s_v_d"``).
         """
         return self._parms.get("svd_method")
 
     @svd_method.setter
     def svd_method(self, svd_method):
-        assert_is_type(svd_method, None, Enum("gram_s_v_d", "power", "randomized"))
+        assert_is_type(svd_method, None, Enum("gram_s_v_d", "power", "randomized", "randomized_t_s_q_r"))
         self._parms["svd_method"] = svd_method
 
 
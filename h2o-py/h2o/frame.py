@@ -2239,6 +2239,41 @@ class H2OFrame(object):
         return H2OFrame._expr(expr=ExprNode("distance", self, y, measure))._frame()
 
 
+    def knn(self, y, k=1, measure=None, eps=0):
+        """
+        Find the ``k`` nearest rows of this numeric H2OFrame (references) for every row of ``y`` (queries).
+
+        Unlike :meth:`distance`, the full distance matrix is never materialized: the references are indexed with a
+        vantage point tree (in blocks that fit into memory) and only the best ``k`` ids and distances per query are kept.
+
+        :param H2OFrame y: Frame containing queries.
+        :param int k: Number of neighbors.
+        :param str measure: A string indicating what distance measure to use. Must be one of:
+
+            - ``"l1"``:        Absolute distance (L1-norm, >=0)
+            - ``"l2"``:        Euclidean distance (L2-norm, >=0)
+            - ``"cosine"``:    Cosine distance (1 - cosine similarity, 0...2)
+
+        :param float eps: Approximation factor, every reported distance is at most (1+eps) times the true distance
+            of the neighbor of the same rank. ``0`` (default) is an exact search.
+
+        :examples:
+          >>>
+          >>> iris_h2o = h2o.import_file(path=pyunit_utils.locate("smalldata/iris/iris.csv"))
+          >>> references = iris_h2o[10:150,0:4]
+          >>> queries    = iris_h2o[0:10,0:4]
+          >>> A = references.knn(queries, 3, "l2")
+
+        :returns: An H2OFrame with one row per query (M x 2k): the (0-based) row ids of the neighbors in this frame
+            (``id_1`` ... ``id_k``) followed by their distances (``distance_1`` ... ``distance_k``), nearest first.
+        """
+        assert_is_type(y, H2OFrame)
+        assert_is_type(k, int)
+        assert_is_type(eps, numeric)
+        if measure is None: measure = "l2"
+        return H2OFrame._expr(expr=ExprNode("knn", self, y, k, measure, eps))._frame()
+
+
     def strdistance(self, y, measure=None, compare_empty=True):
         """
         Compute element-wise string distances between two H2OFrames. Both frames need to have the same
@@ -40,6 +40,13 @@ class H2OGridSearch(backwards_compatible()):
             >>> criteria = {"strategy": "RandomDiscrete", "stopping_rounds": 5,
             ...             "stopping_metric": "misclassification",
             ...             "stopping_tolerance": 0.00001}
+
+        The "SuccessiveHalving" strategy (for GBM, DRF and Deep Learning) trains max_models random candidates
+        with a small number of trees (epochs), and only the best 1/reduction_factor of them with reduction_factor
+        times as many, until the last rung trains with the ntrees (epochs) of the model parameters, e.g::
+
+            >>> criteria = {"strategy": "SuccessiveHalving", "max_models": 27, "reduction_factor": 3,
+            ...             "seed": 1234}
     :returns: a new H2OGridSearch instance
 
     Examples
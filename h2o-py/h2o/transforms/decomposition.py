@@ -47,6 +47,8 @@ class H2OPCA(H2OEstimator):
               the SVD using local matrix algebra.
             - ``"Randomized"``: computation of the SVD using the randomized method from thesis of Nathan P. Halko,
                 Randomized methods for computing low-rank approximation of matrices.
+            - ``"RandomizedTSQR"``: randomized sketch with power iterations orthonormalized by a distributed tall-skinny
+              QR, never forms the Gram matrix (for wide data).
         :param str pca_impl: A character string that indicates the implementation to use for
             computing PCA (via SVD or EVD).
 
@@ -72,7 +74,7 @@ class H2OPCA(H2OEstimator):
         self._parms = locals()
         self._parms = {k: v for k, v in self._parms.items() if k != "self"}
 
-        assert_is_type(pca_method, Enum("GramSVD", "Power", "GLRM", "Randomized"))
+        assert_is_type(pca_method, Enum("GramSVD", "Power", "GLRM", "Randomized", "RandomizedTSQR"))
         self._parms["pca_method"] = pca_method
         assert_is_type(pca_impl, Enum("MTJ_EVD_DENSEMATRIX", "MTJ_EVD_SYMMMATRIX", "MTJ_SVD_DENSEMATRIX", "JAMA"))
         self._parms["pca_impl"] = pca_impl
@@ -128,6 +130,8 @@ class H2OSVD(H2OEstimator):
               using the JAMA package,
             - ``"Power"``: computation of the SVD using the power iteration method,
             - ``"Randomized"``: approximate SVD by projecting onto a random subspace.
+            - ``"RandomizedTSQR"``: randomized sketch with power iterations orthonormalized by a distributed tall-skinny
+              QR, never forms the Gram matrix (for wide data).
 
         :returns: a new H2OSVD model
         """
@@ -135,7 +139,7 @@ class H2OSVD(H2OEstimator):
         self._parms = locals()
         self._parms = {k: v for k, v in self._parms.items() if k != "self"}
 
-        assert_is_type(svd_method, Enum("GramSVD", "Power", "GLRM", "Randomized"))
+        assert_is_type(svd_method, Enum("GramSVD", "Power", "GLRM", "Randomized", "RandomizedTSQR"))
         self._parms["svd_method"] = svd_method
         assert_is_type(transform, Enum("NONE", "DEMEAN", "DESCALE", "STANDARDIZE", "NORMALIZE"))
         self._parms["transform"]=transform